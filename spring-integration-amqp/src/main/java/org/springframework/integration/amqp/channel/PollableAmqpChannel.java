@@ -16,8 +16,6 @@
 
 package org.springframework.integration.amqp.channel;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 
@@ -152,19 +150,19 @@ public class PollableAmqpChannel extends AbstractAmqpChannel
 	@Override
 	public Message<?> receive() {
 		ChannelInterceptorList interceptorList = getInterceptors();
-		Deque<ChannelInterceptor> interceptorStack = null;
+		ChannelInterceptor[] interceptorArray = null;
 		boolean counted = false;
 		boolean countsEnabled = isCountsEnabled();
 		try {
 			if (isLoggingEnabled() && logger.isTraceEnabled()) {
 				logger.trace("preReceive on channel '" + this + "'");
 			}
-			if (interceptorList.getInterceptors().size() > 0) {
-				interceptorStack = new ArrayDeque<ChannelInterceptor>();
-
-				if (!interceptorList.preReceive(this, interceptorStack)) {
+			if (interceptorList.getSize() > 0) {
+				ChannelInterceptor[] snapshot = interceptorList.getInterceptorArray();
+				if (!interceptorList.preReceive(this, snapshot)) {
 					return null;
 				}
+				interceptorArray = snapshot;
 			}
 			Object object = doReceive();
 			if (object == null) {
@@ -187,9 +185,9 @@ public class PollableAmqpChannel extends AbstractAmqpChannel
 			if (isLoggingEnabled() && logger.isDebugEnabled()) {
 				logger.debug("postReceive on channel '" + this + "', message: " + message);
 			}
-			if (interceptorStack != null) {
-				message = interceptorList.postReceive(message, this);
-				interceptorList.afterReceiveCompletion(message, this, null, interceptorStack);
+			if (interceptorArray != null) {
+				message = interceptorList.postReceive(message, this, interceptorArray);
+				interceptorList.afterReceiveCompletion(message, this, null, interceptorArray, interceptorArray.length);
 			}
 			return message;
 		}
@@ -197,8 +195,8 @@ public class PollableAmqpChannel extends AbstractAmqpChannel
 			if (countsEnabled && !counted) {
 				getMetrics().afterError();
 			}
-			if (interceptorStack != null) {
-				interceptorList.afterReceiveCompletion(null, this, e, interceptorStack);
+			if (interceptorArray != null) {
+				interceptorList.afterReceiveCompletion(null, this, e, interceptorArray, interceptorArray.length);
 			}
 			throw e;
 		}
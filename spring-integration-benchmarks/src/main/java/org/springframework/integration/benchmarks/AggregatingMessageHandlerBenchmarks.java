@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.integration.aggregator.AggregatingMessageHandler;
+import org.springframework.integration.aggregator.DefaultAggregatingMessageGroupProcessor;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.integration.store.MessageGroupStore;
+import org.springframework.integration.store.ShardedMessageGroupStore;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * Measures the cost of correlating and releasing a complete sequence through an
+ * {@link AggregatingMessageHandler} backed by a {@link SimpleMessageStore} or a
+ * {@link ShardedMessageGroupStore}.
+ * Each operation aggregates one group of {@code groupSize} messages.
+ *
+ * @since 5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class AggregatingMessageHandlerBenchmarks {
+
+	@Param({ "10", "100", "1000" })
+	public int groupSize;
+
+	@Param({ "simple", "sharded" })
+	public String store;
+
+	private AggregatingMessageHandler handler;
+
+	private List<Message<?>> sequence;
+
+	@Setup
+	public void setup() {
+		MessageGroupStore messageStore = "sharded".equals(this.store)
+				? new ShardedMessageGroupStore()
+				: new SimpleMessageStore();
+		this.handler = new AggregatingMessageHandler(new DefaultAggregatingMessageGroupProcessor(), messageStore);
+		this.handler.setOutputChannel(new NullChannel());
+		this.handler.setExpireGroupsUponCompletion(true);
+		this.handler.setBeanFactory(new DefaultListableBeanFactory());
+		this.handler.afterPropertiesSet();
+		this.sequence = new ArrayList<Message<?>>(this.groupSize);
+		for (int i = 1; i <= this.groupSize; i++) {
+			this.sequence.add(MessageBuilder.withPayload(i)
+					.setCorrelationId("benchmark")
+					.setSequenceNumber(i)
+					.setSequenceSize(this.groupSize)
+					.build());
+		}
+	}
+
+	@Benchmark
+	public void aggregate() {
+		for (Message<?> message : this.sequence) {
+			this.handler.handleMessage(message);
+		}
+	}
+
+}
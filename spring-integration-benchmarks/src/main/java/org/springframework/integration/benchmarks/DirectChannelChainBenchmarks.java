@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
+
+/**
+ * Sends a message through a chain of {@link DirectChannel}s, each bridged to the next
+ * by a trivial handler, to measure the per-hop cost of the send path.
+ * <p>
+ * This suite is intended to be run with the JMH GC profiler, so that the
+ * {@code gc.alloc.rate.norm} metric shows the bytes allocated per message:
+ * <pre class="code">
+ * ./gradlew :spring-integration-benchmarks:jmh -PjmhArgs="DirectChannelChainBenchmarks -prof gc"
+ * </pre>
+ * With no interceptors and message history disabled, the channels themselves
+ * should not allocate; with interceptors, there should be no per-message
+ * allocation beyond what the interceptors do. Message history necessarily creates
+ * a new message (with a new history header) for every hop.
+ *
+ * @since 5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class DirectChannelChainBenchmarks {
+
+	@Param({ "1", "5" })
+	public int chainLength;
+
+	@Param({ "0", "2" })
+	public int interceptorCount;
+
+	@Param({ "false", "true" })
+	public boolean messageHistory;
+
+	private DirectChannel first;
+
+	private Message<?> message;
+
+	private Blackhole blackhole;
+
+	@Setup
+	public void setup(Blackhole blackhole) {
+		this.blackhole = blackhole;
+		DirectChannel[] channels = new DirectChannel[this.chainLength];
+		for (int i = 0; i < this.chainLength; i++) {
+			channels[i] = new DirectChannel();
+			channels[i].setBeanName("channel" + i);
+			channels[i].setShouldTrack(this.messageHistory);
+			for (int j = 0; j < this.interceptorCount; j++) {
+				channels[i].addInterceptor(new ChannelInterceptorAdapter() { });
+			}
+			channels[i].afterPropertiesSet();
+		}
+		for (int i = 0; i < this.chainLength; i++) {
+			final MessageChannel next = i < this.chainLength - 1 ? channels[i + 1] : null;
+			channels[i].subscribe(new MessageHandler() {
+
+				@Override
+				public void handleMessage(Message<?> message) throws MessagingException {
+					if (next != null) {
+						next.send(message);
+					}
+					else {
+						DirectChannelChainBenchmarks.this.blackhole.consume(message);
+					}
+				}
+
+			});
+		}
+		this.first = channels[0];
+		this.message = MessageBuilder.withPayload("foo")
+				.setHeader("bar", "baz")
+				.build();
+	}
+
+	@Benchmark
+	public boolean send() {
+		return this.first.send(this.message);
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.MutableMessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * Measures message construction and header copying with the immutable
+ * {@link MessageBuilder} and the {@link MutableMessageBuilder}.
+ *
+ * @since 5.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class MessageBuilderBenchmarks {
+
+	private Message<String> source;
+
+	@Setup
+	public void setup() {
+		this.source = MessageBuilder.withPayload("foo")
+				.setHeader("header1", "value1")
+				.setHeader("header2", 2)
+				.setCorrelationId("correlation")
+				.setSequenceNumber(1)
+				.setSequenceSize(10)
+				.build();
+	}
+
+	@Benchmark
+	public Message<String> immutableWithPayload() {
+		return MessageBuilder.withPayload("foo")
+				.setHeader("header1", "value1")
+				.build();
+	}
+
+	@Benchmark
+	public Message<String> immutableFromMessage() {
+		return MessageBuilder.fromMessage(this.source)
+				.setHeader("header3", "value3")
+				.build();
+	}
+
+	@Benchmark
+	public Message<String> mutableWithPayload() {
+		return MutableMessageBuilder.withPayload("foo")
+				.setHeader("header1", "value1")
+				.build();
+	}
+
+	@Benchmark
+	public Message<String> mutableFromMessage() {
+		return MutableMessageBuilder.fromMessage(this.source)
+				.setHeader("header3", "value3")
+				.build();
+	}
+
+}
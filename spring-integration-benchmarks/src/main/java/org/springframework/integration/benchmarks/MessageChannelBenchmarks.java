@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.integration.channel.AbstractMessageChannel;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.ExecutorChannel;
+import org.springframework.integration.channel.PriorityChannel;
+import org.springframework.integration.channel.PublishSubscribeChannel;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.channel.RingBufferChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.util.CallerBlocksPolicy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.PollableChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Measures {@code AbstractMessageChannel.send()} throughput for the standard channel
+ * types. Pollable channels are drained in the same operation so the queue depth stays
+ * constant; executor channels use a bounded pool with a {@link CallerBlocksPolicy} so
+ * the producer is throttled to the consumer rate.
+ *
+ * @since 5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class MessageChannelBenchmarks {
+
+	@Param({ "direct", "executor", "queue", "priority", "ringBuffer", "publishSubscribe" })
+	public String channelType;
+
+	@Param({ "0", "2" })
+	public int interceptorCount;
+
+	@Param({ "false", "true" })
+	public boolean statsEnabled;
+
+	private final MessageHandler handler = new NoopHandler();
+
+	private final MessageHandler secondHandler = new NoopHandler();
+
+	private ThreadPoolTaskExecutor executor;
+
+	private MessageChannel channel;
+
+	private PollableChannel pollableChannel;
+
+	private Message<?> message;
+
+	@Setup
+	public void setup() {
+		AbstractMessageChannel channel;
+		switch (this.channelType) {
+			case "direct":
+				channel = new DirectChannel();
+				break;
+			case "executor":
+				this.executor = new ThreadPoolTaskExecutor();
+				this.executor.setCorePoolSize(4);
+				this.executor.setQueueCapacity(1024);
+				this.executor.setRejectedExecutionHandler(new CallerBlocksPolicy(Long.MAX_VALUE));
+				this.executor.afterPropertiesSet();
+				channel = new ExecutorChannel(this.executor);
+				break;
+			case "queue":
+				channel = new QueueChannel();
+				break;
+			case "priority":
+				channel = new PriorityChannel();
+				break;
+			case "ringBuffer":
+				channel = new RingBufferChannel(1024);
+				break;
+			case "publishSubscribe":
+				channel = new PublishSubscribeChannel();
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown channel type: " + this.channelType);
+		}
+		for (int i = 0; i < this.interceptorCount; i++) {
+			channel.addInterceptor(new ChannelInterceptorAdapter() { });
+		}
+		channel.setStatsEnabled(this.statsEnabled);
+		channel.setBeanName(this.channelType + "Channel");
+		channel.afterPropertiesSet();
+		if (channel instanceof SubscribableChannel) {
+			((SubscribableChannel) channel).subscribe(this.handler);
+			if (channel instanceof PublishSubscribeChannel) {
+				((SubscribableChannel) channel).subscribe(this.secondHandler);
+			}
+		}
+		else {
+			this.pollableChannel = (PollableChannel) channel;
+		}
+		this.channel = channel;
+		this.message = MessageBuilder.withPayload("foo")
+				.setHeader("bar", "baz")
+				.build();
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (this.executor != null) {
+			this.executor.shutdown();
+		}
+	}
+
+	@Benchmark
+	public Object send() {
+		boolean sent = this.channel.send(this.message);
+		if (this.pollableChannel != null) {
+			return this.pollableChannel.receive(0);
+		}
+		return sent;
+	}
+
+	private static final class NoopHandler implements MessageHandler {
+
+		@Override
+		public void handleMessage(Message<?> message) throws MessagingException {
+			// no-op: we measure the channel, not the handler
+		}
+
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.integration.store.MessageGroup;
+import org.springframework.integration.store.MessageGroupStore;
+import org.springframework.integration.store.ShardedMessageGroupStore;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * Measures {@link MessageGroupStore} operations with a large number of open groups,
+ * comparing the {@link SimpleMessageStore} with the {@link ShardedMessageGroupStore}.
+ * <p>
+ * {@code readGroup} and {@code addToGroup} run on 4 threads, each picking a random
+ * open group; {@code expireNone} measures a reaper pass when no group has expired.
+ *
+ * @since 5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class MessageGroupStoreBenchmarks {
+
+	@Param({ "10000", "1000000" })
+	public int openGroups;
+
+	@Param({ "simple", "sharded" })
+	public String store;
+
+	private MessageGroupStore messageStore;
+
+	private Message<?> message;
+
+	@Setup
+	public void setup() {
+		this.messageStore = "sharded".equals(this.store)
+				? new ShardedMessageGroupStore()
+				: new SimpleMessageStore();
+		this.message = new GenericMessage<String>("foo");
+		for (int i = 0; i < this.openGroups; i++) {
+			this.messageStore.addMessagesToGroup(i, this.message);
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	public MessageGroup readGroup() {
+		return this.messageStore.getMessageGroup(ThreadLocalRandom.current().nextInt(this.openGroups));
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void addToGroup() {
+		int groupId = ThreadLocalRandom.current().nextInt(this.openGroups);
+		this.messageStore.addMessagesToGroup(groupId, new GenericMessage<String>("bar"));
+		this.messageStore.pollMessageFromGroup(groupId);
+	}
+
+	@Benchmark
+	public int expireNone() {
+		return this.messageStore.expireMessageGroups(TimeUnit.HOURS.toMillis(1));
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.util.MessagingMethodInvokerHelper;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.Header;
+
+/**
+ * Measures the cost of a service activator style POJO invocation through the
+ * {@link MessagingMethodInvokerHelper} for the common parameter mappings.
+ *
+ * @since 5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class MessagingMethodInvokerHelperBenchmarks {
+
+	private MessagingMethodInvokerHelper<Object> payloadHelper;
+
+	private MessagingMethodInvokerHelper<Object> payloadAndHeaderHelper;
+
+	private MessagingMethodInvokerHelper<Object> messageHelper;
+
+	private Message<String> message;
+
+	@Setup
+	public void setup() throws Exception {
+		Service service = new Service();
+		this.payloadHelper = new MessagingMethodInvokerHelper<Object>(service, "payload", false);
+		this.payloadAndHeaderHelper = new MessagingMethodInvokerHelper<Object>(service, "payloadAndHeader", false);
+		this.messageHelper = new MessagingMethodInvokerHelper<Object>(service, "message", false);
+		this.message = MessageBuilder.withPayload("foo")
+				.setHeader("bar", "baz")
+				.build();
+		// initialize the evaluation contexts outside of the measurement
+		this.payloadHelper.process(this.message);
+		this.payloadAndHeaderHelper.process(this.message);
+		this.messageHelper.process(this.message);
+	}
+
+	@Benchmark
+	public Object payload() throws Exception {
+		return this.payloadHelper.process(this.message);
+	}
+
+	@Benchmark
+	public Object payloadAndHeader() throws Exception {
+		return this.payloadAndHeaderHelper.process(this.message);
+	}
+
+	@Benchmark
+	public Object message() throws Exception {
+		return this.messageHelper.process(this.message);
+	}
+
+	public static class Service {
+
+		public String payload(String payload) {
+			return payload;
+		}
+
+		public String payloadAndHeader(String payload, @Header("bar") String bar) {
+			return bar;
+		}
+
+		public Object message(Message<?> message) {
+			return message.getPayload();
+		}
+
+	}
+
+}
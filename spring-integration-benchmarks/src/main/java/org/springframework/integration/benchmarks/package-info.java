@@ -0,0 +1,4 @@
+/**
+ * Provides JMH benchmarks for the core messaging hot paths.
+ */
+package org.springframework.integration.benchmarks;
@@ -75,6 +75,13 @@ import org.springframework.util.CollectionUtils;
  * By default the {@link CorrelationStrategy} will be a
  * {@link HeaderAttributeCorrelationStrategy} and the {@link ReleaseStrategy} will be a
  * {@link SequenceSizeReleaseStrategy}.
+ * <p>
+ * When the {@link MessageGroupProcessor} is an {@link AccumulatingMessageGroupProcessor},
+ * messages are not stored; instead, each message is folded into a single accumulation
+ * message that replaces the previous one in the group. The {@link ReleaseStrategy} and
+ * the group timeout expression are then given a group whose {@code size()} is the
+ * number of accumulated messages and whose only message carries the
+ * {@link Accumulation}.
  *
  * @author Iwein Fuld
  * @author Dave Syer
@@ -96,6 +103,8 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 	private final MessageGroupProcessor outputProcessor;
 
+	private final AccumulatingMessageGroupProcessor<?> accumulatingProcessor;
+
 	private volatile MessageGroupStore messageStore;
 
 	private volatile CorrelationStrategy correlationStrategy;
@@ -137,6 +146,9 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		Assert.notNull(store);
 		setMessageStore(store);
 		this.outputProcessor = processor;
+		this.accumulatingProcessor = processor instanceof AccumulatingMessageGroupProcessor
+				? (AccumulatingMessageGroupProcessor<?>) processor
+				: null;
 		this.correlationStrategy = (correlationStrategy == null
 				? new HeaderAttributeCorrelationStrategy(IntegrationMessageHeaderAccessor.CORRELATION_ID)
 				: correlationStrategy);
@@ -230,6 +242,8 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 					"Release strategy of type [" + this.releaseStrategy.getClass().getSimpleName() +
 							"] cannot release partial sequences. Use the default SequenceSizeReleaseStrategy instead.");
 			((SequenceSizeReleaseStrategy) this.releaseStrategy).setReleasePartialSequences(this.releasePartialSequences);
+			Assert.state(this.accumulatingProcessor == null,
+					"Partial sequences cannot be released when using an AccumulatingMessageGroupProcessor");
 		}
 
 		if (this.evaluationContext == null) {
@@ -355,6 +369,14 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		return this.sequenceAware;
 	}
 
+	/**
+	 * @return true if the output processor is an {@link AccumulatingMessageGroupProcessor}.
+	 * @since 5.0
+	 */
+	protected boolean isAccumulating() {
+		return this.accumulatingProcessor != null;
+	}
+
 	protected LockRegistry getLockRegistry() {
 		return this.lockRegistry;
 	}
@@ -402,17 +424,14 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 				}
 			}
 			MessageGroup messageGroup = this.messageStore.getMessageGroup(correlationKey);
-			if (this.sequenceAware) {
-				messageGroup = new SequenceAwareMessageGroup(messageGroup);
-			}
 
-			if (!messageGroup.isComplete() && messageGroup.canAdd(message)) {
+			if (!messageGroup.isComplete() && canAdd(messageGroup, message)) {
 				if (logger.isTraceEnabled()) {
 					logger.trace("Adding message to group [ " + messageGroup + "]");
 				}
 				messageGroup = this.store(correlationKey, message);
 
-				if (this.releaseStrategy.canRelease(messageGroup)) {
+				if (canRelease(messageGroup)) {
 					Collection<Message<?>> completedMessages = null;
 					try {
 						completedMessages = this.completeGroup(message, correlationKey, messageGroup);
@@ -476,7 +495,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 	}
 
 	private void scheduleGroupToForceComplete(Object groupId) {
-		MessageGroup messageGroup = this.messageStore.getMessageGroup(groupId);
+		MessageGroup messageGroup = accumulated(this.messageStore.getMessageGroup(groupId));
 		scheduleGroupToForceComplete(messageGroup);
 	}
 
@@ -544,6 +563,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 				if (!group.isComplete()) {
 					groupNow = this.messageStore.getMessageGroup(correlationKey);
 				}
+				groupNow = accumulated(groupNow);
 				long lastModifiedNow = groupNow.getLastModified();
 				int groupSize = groupNow.size();
 				if ((!groupNow.isComplete() || groupSize == 0)
@@ -617,10 +637,55 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		return new IntegrationMessageHeaderAccessor(lastReleasedMessage).getSequenceNumber();
 	}
 
+	/**
+	 * Determine whether the message can be added to the group; by default, when the
+	 * release strategy is a {@link SequenceSizeReleaseStrategy}, messages with a different
+	 * sequence size or with a sequence number already in the group are rejected.
+	 * @param group the group.
+	 * @param message the message.
+	 * @return true if the message can be added.
+	 * @since 5.0
+	 */
+	protected boolean canAdd(MessageGroup group, Message<?> message) {
+		if (this.sequenceAware) {
+			return new SequenceAwareMessageGroup(group).canAdd(message);
+		}
+		return group.canAdd(message);
+	}
+
+	/**
+	 * Determine whether the group can be released after a message has been stored; by
+	 * default, consults the {@link ReleaseStrategy}.
+	 * @param group the group returned by {@link #store(Object, Message)}.
+	 * @return true if the group can be released.
+	 * @since 5.0
+	 */
+	protected boolean canRelease(MessageGroup group) {
+		return this.releaseStrategy.canRelease(group);
+	}
+
 	protected MessageGroup store(Object correlationKey, Message<?> message) {
+		if (this.accumulatingProcessor != null) {
+			return accumulate(correlationKey, message);
+		}
 		return this.messageStore.addMessageToGroup(correlationKey, message);
 	}
 
+	private MessageGroup accumulate(Object correlationKey, Message<?> message) {
+		MessageGroup group = this.messageStore.getMessageGroup(correlationKey);
+		Message<?> previous = group.size() > 0 ? group.getOne() : null;
+		Message<?> accumulation = this.accumulatingProcessor.accumulate(correlationKey, previous, message);
+		this.messageStore.addMessageToGroup(correlationKey, accumulation);
+		if (previous != null) {
+			this.messageStore.removeMessagesFromGroup(correlationKey, previous);
+		}
+		return new AccumulatedMessageGroup(this.messageStore.getMessageGroup(correlationKey));
+	}
+
+	private MessageGroup accumulated(MessageGroup group) {
+		return this.accumulatingProcessor != null ? new AccumulatedMessageGroup(group) : group;
+	}
+
 	protected void expireGroup(Object correlationKey, MessageGroup group) {
 		if (logger.isInfoEnabled()) {
 			logger.info("Expiring MessageGroup with correlationKey[" + correlationKey + "]");
@@ -718,6 +783,12 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 		private boolean containsSequenceNumber(Collection<Message<?>> messages, Integer messageSequenceNumber) {
 			for (Message<?> member : messages) {
+				if (member.getPayload() instanceof Accumulation) {
+					if (((Accumulation<?>) member.getPayload()).containsSequenceNumber(messageSequenceNumber)) {
+						return true;
+					}
+					continue;
+				}
 				Integer memberSequenceNumber = new IntegrationMessageHeaderAccessor(member).getSequenceNumber();
 				if (messageSequenceNumber.equals(memberSequenceNumber)) {
 					return true;
@@ -728,6 +799,32 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 	}
 
+	/**
+	 * A view of a group maintained by an {@link AccumulatingMessageGroupProcessor};
+	 * {@link #size()} returns the number of accumulated messages.
+	 * @since 5.0
+	 */
+	protected static class AccumulatedMessageGroup extends SimpleMessageGroup {
+
+		private final int accumulatedSize;
+
+		public AccumulatedMessageGroup(MessageGroup messageGroup) {
+			super(messageGroup);
+			setLastModified(messageGroup.getLastModified());
+			setLastReleasedMessageSequenceNumber(messageGroup.getLastReleasedMessageSequenceNumber());
+			Message<?> one = messageGroup.getOne();
+			this.accumulatedSize = one != null && one.getPayload() instanceof Accumulation
+					? ((Accumulation<?>) one.getPayload()).getCount()
+					: messageGroup.size();
+		}
+
+		@Override
+		public int size() {
+			return this.accumulatedSize;
+		}
+
+	}
+
 	private class ForceReleaseMessageGroupProcessor implements MessageGroupProcessor {
 
 		@Override
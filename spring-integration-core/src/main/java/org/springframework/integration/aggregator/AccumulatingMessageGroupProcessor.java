@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.aggregator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.store.MessageGroup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link MessageGroupProcessor} that aggregates incrementally: when used with an
+ * {@link AbstractCorrelatingMessageHandler}, each message is folded into an
+ * {@link Accumulation} by the {@link MessageAccumulator} as it arrives, and the group
+ * only ever contains a single message carrying that accumulation, so the memory used
+ * by a group does not depend on the number of messages.
+ * <p>
+ * The headers of the accumulation message (and so of the released message) are
+ * aggregated in the same way as the
+ * {@link AbstractAggregatingMessageGroupProcessor#aggregateHeaders(MessageGroup)
+ * default}: headers with conflicting values are dropped. The sequence size is kept, and
+ * the sequence numbers of the accumulated messages are recorded in the
+ * {@link Accumulation} instead of a header.
+ *
+ * @param <S> the accumulated state type.
+ *
+ * @since 5.0
+ */
+public class AccumulatingMessageGroupProcessor<S> extends AbstractAggregatingMessageGroupProcessor {
+
+	private final MessageAccumulator<S> accumulator;
+
+	public AccumulatingMessageGroupProcessor(MessageAccumulator<S> accumulator) {
+		Assert.notNull(accumulator, "'accumulator' must not be null");
+		this.accumulator = accumulator;
+	}
+
+	/**
+	 * Fold the message into the accumulation carried by the current accumulation
+	 * message.
+	 * @param groupId the group id.
+	 * @param accumulationMessage the current accumulation message, or null for a new group.
+	 * @param message the message to accumulate.
+	 * @return the new accumulation message, replacing the current one in the group.
+	 */
+	public Message<?> accumulate(Object groupId, Message<?> accumulationMessage, Message<?> message) {
+		Accumulation<S> accumulation;
+		Map<String, Object> headers;
+		if (accumulationMessage == null) {
+			accumulation = new Accumulation<S>(this.accumulator.createState(groupId));
+			headers = new HashMap<String, Object>(message.getHeaders());
+			headers.remove(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER);
+		}
+		else {
+			accumulation = getAccumulation(accumulationMessage);
+			headers = new HashMap<String, Object>(accumulationMessage.getHeaders());
+			mergeHeaders(headers, message.getHeaders(), accumulation.getConflictingHeaders());
+		}
+		headers.remove(MessageHeaders.ID);
+		headers.remove(MessageHeaders.TIMESTAMP);
+		Integer sequenceNumber = new IntegrationMessageHeaderAccessor(message).getSequenceNumber();
+		if (sequenceNumber != null && sequenceNumber > 0) {
+			accumulation.getSequenceNumbers().set(sequenceNumber);
+		}
+		S state = this.accumulator.accumulate(accumulation.getState(), message);
+		return getMessageBuilderFactory()
+				.withPayload(new Accumulation<S>(state, accumulation.getCount() + 1,
+						accumulation.getConflictingHeaders(), accumulation.getSequenceNumbers()))
+				.copyHeaders(headers)
+				.build();
+	}
+
+	@Override
+	protected Object aggregatePayloads(MessageGroup group, Map<String, Object> defaultHeaders) {
+		Message<?> one = group.getOne();
+		S state = one != null
+				? getAccumulation(one).getState()
+				: this.accumulator.createState(group.getGroupId());
+		return this.accumulator.getResult(state);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Accumulation<S> getAccumulation(Message<?> accumulationMessage) {
+		Assert.isInstanceOf(Accumulation.class, accumulationMessage.getPayload(),
+				"The message group contains a message that is not an Accumulation");
+		return (Accumulation<S>) accumulationMessage.getPayload();
+	}
+
+	private static void mergeHeaders(Map<String, Object> headers, MessageHeaders newHeaders,
+			Set<String> conflictingHeaders) {
+		for (Entry<String, Object> entry : newHeaders.entrySet()) {
+			String key = entry.getKey();
+			if (MessageHeaders.ID.equals(key) || MessageHeaders.TIMESTAMP.equals(key)
+					|| IntegrationMessageHeaderAccessor.SEQUENCE_SIZE.equals(key)
+					|| IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER.equals(key)
+					|| conflictingHeaders.contains(key)) {
+				continue;
+			}
+			Object value = entry.getValue();
+			if (!headers.containsKey(key)) {
+				headers.put(key, value);
+			}
+			else {
+				Object existingValue = headers.get(key);
+				if (value != existingValue && (value == null || !value.equals(existingValue))) {
+					headers.remove(key);
+					conflictingHeaders.add(key);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.aggregator;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The payload of the single message that an {@link AccumulatingMessageGroupProcessor}
+ * keeps in a message group: the accumulated state and the number of messages folded
+ * into it. A {@link ReleaseStrategy} can evaluate it with, for example,
+ * {@code one.payload.count >= 1000}.
+ * <p>
+ * The sequence numbers of the accumulated messages are retained so that duplicate
+ * sequence numbers can still be detected.
+ *
+ * @param <S> the state type.
+ *
+ * @since 5.0
+ */
+public final class Accumulation<S> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final S state;
+
+	private final int count;
+
+	private final Set<String> conflictingHeaders;
+
+	private final BitSet sequenceNumbers;
+
+	Accumulation(S state, int count, Set<String> conflictingHeaders, BitSet sequenceNumbers) {
+		this.state = state;
+		this.count = count;
+		this.conflictingHeaders = conflictingHeaders;
+		this.sequenceNumbers = sequenceNumbers;
+	}
+
+	Accumulation(S state) {
+		this(state, 0, new HashSet<String>(), new BitSet());
+	}
+
+	/**
+	 * @return the accumulated state.
+	 */
+	public S getState() {
+		return this.state;
+	}
+
+	/**
+	 * @return the number of messages accumulated.
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	Set<String> getConflictingHeaders() {
+		return this.conflictingHeaders;
+	}
+
+	BitSet getSequenceNumbers() {
+		return this.sequenceNumbers;
+	}
+
+	/**
+	 * @param sequenceNumber the sequence number.
+	 * @return true if a message with this sequence number has been accumulated.
+	 */
+	public boolean containsSequenceNumber(int sequenceNumber) {
+		return sequenceNumber > 0 && this.sequenceNumbers.get(sequenceNumber);
+	}
+
+	@Override
+	public String toString() {
+		return "Accumulation [state=" + this.state + ", count=" + this.count + "]";
+	}
+
+}
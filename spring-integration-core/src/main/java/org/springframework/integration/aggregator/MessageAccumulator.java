@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.aggregator;
+
+import org.springframework.messaging.Message;
+
+/**
+ * Strategy for folding the messages of a group, one at a time as they arrive, into a
+ * running state; used by an {@link AccumulatingMessageGroupProcessor}.
+ * <p>
+ * The state is stored in the {@link org.springframework.integration.store.MessageGroupStore}
+ * in place of the messages, so it must be serializable when a persistent store is used.
+ *
+ * @param <S> the state type.
+ *
+ * @since 5.0
+ */
+public interface MessageAccumulator<S> {
+
+	/**
+	 * Create the initial state for a new group.
+	 * @param groupId the group id (correlation key).
+	 * @return the state.
+	 */
+	S createState(Object groupId);
+
+	/**
+	 * Fold the message into the state.
+	 * @param state the current state.
+	 * @param message the message.
+	 * @return the new state; may be the same (mutated) instance.
+	 */
+	S accumulate(S state, Message<?> message);
+
+	/**
+	 * Produce the result when the group is released; the result can be a payload, a
+	 * {@link Message} or a message builder, as with
+	 * {@link AbstractAggregatingMessageGroupProcessor#aggregatePayloads}.
+	 * @param state the final state.
+	 * @return the result.
+	 */
+	Object getResult(S state);
+
+}
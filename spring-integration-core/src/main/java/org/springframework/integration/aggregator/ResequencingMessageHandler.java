@@ -16,16 +16,29 @@
 
 package org.springframework.integration.aggregator;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
+import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.store.SimpleMessageStore;
 import org.springframework.messaging.Message;
+import org.springframework.util.Assert;
 
 /**
  * Resequencer specific implementation of {@link AbstractCorrelatingMessageHandler}.
  * Will remove {@link MessageGroup}s only if 'sequenceSize' is provided and reached.
+ * <p>
+ * With {@link #setStreamingRelease(boolean) streaming release}, the handler keeps an
+ * index of the buffered messages of each group, keyed by sequence number, so that an
+ * arriving message is checked, and the contiguous run that follows the last released
+ * sequence number is released, without scanning or sorting the whole group.
  *
  * @author Oleg Zhurakousky
  * @author Gary Russell
@@ -34,6 +47,10 @@ import org.springframework.messaging.Message;
  */
 public class ResequencingMessageHandler extends AbstractCorrelatingMessageHandler {
 
+	private final Map<Object, SequenceIndex> sequenceIndexes = new ConcurrentHashMap<Object, SequenceIndex>();
+
+	private volatile boolean streamingRelease;
+
 	public ResequencingMessageHandler(MessageGroupProcessor processor,
 			MessageGroupStore store, CorrelationStrategy correlationStrategy,
 			ReleaseStrategy releaseStrategy) {
@@ -65,11 +82,93 @@ public class ResequencingMessageHandler extends AbstractCorrelatingMessageHandle
 		super.setExpireGroupsUponTimeout(expireGroupsUponTimeout);
 	}
 
+	/**
+	 * Set to true to release partial sequences as soon as they are contiguous with the
+	 * last released sequence number, using an index of the buffered messages of each
+	 * group keyed by sequence number. Each arrival is then handled in constant time
+	 * and a run of k messages is released in O(k), regardless of the number of messages
+	 * buffered behind a gap; released messages are removed from the group and the index
+	 * immediately. Messages without a sequence number, duplicates and messages with a
+	 * sequence number that has already been released are discarded.
+	 * <p>
+	 * The index is held in memory and rebuilt from the message store whenever it no longer
+	 * matches the group (for example after a restart, or if the group was modified
+	 * elsewhere); requires a {@link SequenceSizeReleaseStrategy}. Default false.
+	 * @param streamingRelease true to enable streaming release.
+	 * @since 5.0
+	 */
+	public void setStreamingRelease(boolean streamingRelease) {
+		this.streamingRelease = streamingRelease;
+	}
+
+	@Override
+	protected void onInit() throws Exception {
+		if (this.streamingRelease) {
+			Assert.isInstanceOf(SequenceSizeReleaseStrategy.class, getReleaseStrategy(),
+					"Streaming release requires a SequenceSizeReleaseStrategy");
+			setReleasePartialSequences(true);
+		}
+		super.onInit();
+	}
+
 	@Override
 	protected boolean shouldCopyRequestHeaders() {
 		return false;
 	}
 
+	@Override
+	protected boolean canAdd(MessageGroup group, Message<?> message) {
+		if (!this.streamingRelease) {
+			return super.canAdd(group, message);
+		}
+		IntegrationMessageHeaderAccessor accessor = new IntegrationMessageHeaderAccessor(message);
+		int sequenceNumber = accessor.getSequenceNumber();
+		if (sequenceNumber <= 0
+				|| (group.size() > 0 && accessor.getSequenceSize() != group.getSequenceSize())) {
+			return false;
+		}
+		SequenceIndex index = sequenceIndex(group);
+		return sequenceNumber > index.lastReleased && !index.buffered.containsKey(sequenceNumber);
+	}
+
+	@Override
+	protected MessageGroup store(Object correlationKey, Message<?> message) {
+		MessageGroup group = super.store(correlationKey, message);
+		if (this.streamingRelease) {
+			SequenceIndex index = this.sequenceIndexes.get(group.getGroupId());
+			if (index != null) {
+				index.buffered.put(new IntegrationMessageHeaderAccessor(message).getSequenceNumber(), message);
+			}
+		}
+		return group;
+	}
+
+	@Override
+	protected boolean canRelease(MessageGroup group) {
+		if (!this.streamingRelease) {
+			return super.canRelease(group);
+		}
+		SequenceIndex index = this.sequenceIndexes.get(group.getGroupId());
+		return index != null && index.buffered.containsKey(index.lastReleased + 1);
+	}
+
+	@Override
+	protected Collection<Message<?>> completeGroup(Message<?> message, Object correlationKey, MessageGroup group) {
+		SequenceIndex index = this.streamingRelease ? this.sequenceIndexes.get(group.getGroupId()) : null;
+		if (index != null && index.buffered.containsKey(index.lastReleased + 1)) {
+			/*
+			 * Present only the contiguous run to the output processor; it is already in
+			 * sequence order.
+			 */
+			SimpleMessageGroup run = new SimpleMessageGroup(index.run(), group.getGroupId(), group.getTimestamp(),
+					group.isComplete());
+			run.setLastModified(group.getLastModified());
+			run.setLastReleasedMessageSequenceNumber(index.lastReleased);
+			return super.completeGroup(message, correlationKey, run);
+		}
+		return super.completeGroup(message, correlationKey, group);
+	}
+
 	@Override
 	protected void afterRelease(MessageGroup messageGroup, Collection<Message<?>> completedMessages) {
 		afterRelease(messageGroup, completedMessages, false);
@@ -80,8 +179,11 @@ public class ResequencingMessageHandler extends AbstractCorrelatingMessageHandle
 		int size = messageGroup.size();
 		int sequenceSize = messageGroup.getSequenceSize();
 
-		// If there is no sequence then it must be incomplete or unbounded
-		if (sequenceSize > 0 && sequenceSize == size) {
+		if (this.streamingRelease) {
+			afterStreamingRelease(messageGroup, completedMessages, timeout);
+		}
+		else if (sequenceSize > 0 && sequenceSize == size) {
+			// If there is no sequence then it must be incomplete or unbounded
 			remove(messageGroup);
 		}
 		else {
@@ -104,4 +206,90 @@ public class ResequencingMessageHandler extends AbstractCorrelatingMessageHandle
 		}
 	}
 
+	private void afterStreamingRelease(MessageGroup messageGroup, Collection<Message<?>> completedMessages,
+			boolean timeout) {
+		Object groupId = messageGroup.getGroupId();
+		MessageGroupStore messageStore = getMessageStore();
+		SequenceIndex index = this.sequenceIndexes.get(groupId);
+		if (timeout || index == null) {
+			this.sequenceIndexes.remove(groupId);
+			index = null;
+		}
+		if (completedMessages != null && completedMessages.size() > 0) {
+			int lastReleasedSequenceNumber = findLastReleasedSequenceNumber(groupId, completedMessages);
+			int sequenceSize = messageGroup.getSequenceSize();
+			if (!timeout && sequenceSize > 0 && lastReleasedSequenceNumber >= sequenceSize) {
+				remove(messageGroup);
+				return;
+			}
+			messageStore.setLastReleasedSequenceNumberForGroup(groupId, lastReleasedSequenceNumber);
+			if (index != null) {
+				for (Message<?> message : completedMessages) {
+					index.buffered.remove(new IntegrationMessageHeaderAccessor(message).getSequenceNumber());
+				}
+				index.lastReleased = lastReleasedSequenceNumber;
+			}
+			if (messageStore instanceof SimpleMessageStore
+					&& (index != null ? index.buffered.isEmpty() : completedMessages.size() == messageGroup.size())) {
+				((SimpleMessageStore) messageStore).clearMessageGroup(groupId);
+			}
+			else {
+				messageStore.removeMessagesFromGroup(groupId, completedMessages);
+			}
+		}
+		if (timeout) {
+			messageStore.completeGroup(groupId);
+		}
+	}
+
+	@Override
+	void remove(MessageGroup group) {
+		this.sequenceIndexes.remove(group.getGroupId());
+		super.remove(group);
+	}
+
+	/**
+	 * Return the index of the group, rebuilding it from the group's messages if it is
+	 * missing or no longer matches the group.
+	 */
+	private SequenceIndex sequenceIndex(MessageGroup group) {
+		Object groupId = group.getGroupId();
+		SequenceIndex index = this.sequenceIndexes.get(groupId);
+		int lastReleased = group.getLastReleasedMessageSequenceNumber();
+		if (index == null || index.lastReleased != lastReleased || index.buffered.size() != group.size()) {
+			index = new SequenceIndex(lastReleased);
+			for (Message<?> message : group.getMessages()) {
+				index.buffered.put(new IntegrationMessageHeaderAccessor(message).getSequenceNumber(), message);
+			}
+			this.sequenceIndexes.put(groupId, index);
+		}
+		return index;
+	}
+
+	/**
+	 * The buffered messages of a group, keyed by sequence number, and the last released
+	 * sequence number; only accessed while holding the group's lock.
+	 */
+	private static final class SequenceIndex {
+
+		private final Map<Integer, Message<?>> buffered = new HashMap<Integer, Message<?>>();
+
+		private int lastReleased;
+
+		SequenceIndex(int lastReleased) {
+			this.lastReleased = lastReleased;
+		}
+
+		List<Message<?>> run() {
+			List<Message<?>> run = new ArrayList<Message<?>>();
+			Message<?> next = this.buffered.get(this.lastReleased + 1);
+			while (next != null) {
+				run.add(next);
+				next = this.buffered.get(this.lastReleased + run.size() + 1);
+			}
+			return run;
+		}
+
+	}
+
 }
@@ -16,9 +16,6 @@
 
 package org.springframework.integration.channel;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Executor;
 
@@ -31,7 +28,6 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.ExecutorChannelInterceptor;
 import org.springframework.messaging.support.MessageHandlingRunnable;
 import org.springframework.util.Assert;
-import org.springframework.util.CollectionUtils;
 
 /**
  * The {@link AbstractSubscribableChannel} base implementation for those inheritors
@@ -135,23 +131,36 @@ public abstract class AbstractExecutorChannel extends AbstractSubscribableChanne
 			Message<?> message = this.delegate.getMessage();
 			MessageHandler messageHandler = this.delegate.getMessageHandler();
 			Assert.notNull(messageHandler, "'messageHandler' must not be null");
-			Deque<ExecutorChannelInterceptor> interceptorStack = null;
+			ChannelInterceptor[] interceptorArray = null;
+			int applied = 0;
 			try {
 				if (AbstractExecutorChannel.this.executorInterceptorsSize > 0) {
-					interceptorStack = new ArrayDeque<ExecutorChannelInterceptor>();
-					message = applyBeforeHandle(message, interceptorStack);
-					if (message == null) {
-						return;
+					interceptorArray = AbstractExecutorChannel.this.interceptors.getInterceptorArray();
+					for (; applied < interceptorArray.length; applied++) {
+						if (interceptorArray[applied] instanceof ExecutorChannelInterceptor) {
+							ExecutorChannelInterceptor executorInterceptor =
+									(ExecutorChannelInterceptor) interceptorArray[applied];
+							message = executorInterceptor.beforeHandle(message, AbstractExecutorChannel.this,
+									messageHandler);
+							if (message == null) {
+								if (isLoggingEnabled() && logger.isDebugEnabled()) {
+									logger.debug(executorInterceptor.getClass().getSimpleName()
+											+ " returned null from beforeHandle, i.e. precluding the send.");
+								}
+								triggerAfterMessageHandled(null, null, interceptorArray, applied);
+								return;
+							}
+						}
 					}
 				}
 				messageHandler.handleMessage(message);
-				if (!CollectionUtils.isEmpty(interceptorStack)) {
-					triggerAfterMessageHandled(message, null, interceptorStack);
+				if (interceptorArray != null) {
+					triggerAfterMessageHandled(message, null, interceptorArray, applied);
 				}
 			}
 			catch (Exception ex) {
-				if (!CollectionUtils.isEmpty(interceptorStack)) {
-					triggerAfterMessageHandled(message, ex, interceptorStack);
+				if (interceptorArray != null) {
+					triggerAfterMessageHandled(message, ex, interceptorArray, applied);
 				}
 				if (ex instanceof MessagingException) {
 					throw (MessagingException) ex;
@@ -160,47 +169,32 @@ public abstract class AbstractExecutorChannel extends AbstractSubscribableChanne
 				throw new MessageDeliveryException(message, description, ex);
 			}
 			catch (Error ex) { //NOSONAR - ok, we re-throw below
-				if (!CollectionUtils.isEmpty(interceptorStack)) {
+				if (interceptorArray != null) {
 					String description = "Failed to handle " + message + " to " + this + " in " + messageHandler;
 					triggerAfterMessageHandled(message, new MessageDeliveryException(message, description, ex),
-							interceptorStack);
+							interceptorArray, applied);
 				}
 				throw ex;
 			}
 		}
 
-		private Message<?> applyBeforeHandle(Message<?> message, Deque<ExecutorChannelInterceptor> interceptorStack) {
-			Message<?> theMessage = message;
-			for (ChannelInterceptor interceptor : AbstractExecutorChannel.this.interceptors.interceptors) {
-				if (interceptor instanceof ExecutorChannelInterceptor) {
-					ExecutorChannelInterceptor executorInterceptor = (ExecutorChannelInterceptor) interceptor;
-					theMessage = executorInterceptor.beforeHandle(theMessage, AbstractExecutorChannel.this,
-							this.delegate.getMessageHandler());
-					if (theMessage == null) {
-						if (isLoggingEnabled() && logger.isDebugEnabled()) {
-							logger.debug(executorInterceptor.getClass().getSimpleName()
-									+ " returned null from beforeHandle, i.e. precluding the send.");
-						}
-						triggerAfterMessageHandled(null, null, interceptorStack);
-						return null;
-					}
-					interceptorStack.add(executorInterceptor);
-				}
-			}
-			return theMessage;
-		}
-
+		/**
+		 * Invoke {@code afterMessageHandled()}, in reverse order, on the
+		 * {@link ExecutorChannelInterceptor}s among the first {@code applied} elements
+		 * of the interceptor snapshot.
+		 */
 		private void triggerAfterMessageHandled(Message<?> message, Exception ex,
-												Deque<ExecutorChannelInterceptor> interceptorStack) {
-			Iterator<ExecutorChannelInterceptor> iterator = interceptorStack.descendingIterator();
-			while (iterator.hasNext()) {
-				ExecutorChannelInterceptor interceptor = iterator.next();
-				try {
-					interceptor.afterMessageHandled(message, AbstractExecutorChannel.this,
-							this.delegate.getMessageHandler(), ex);
-				}
-				catch (Throwable ex2) { //NOSONAR
-					logger.error("Exception from afterMessageHandled in " + interceptor, ex2);
+				ChannelInterceptor[] interceptorArray, int applied) {
+			for (int i = applied - 1; i >= 0; i--) {
+				if (interceptorArray[i] instanceof ExecutorChannelInterceptor) {
+					ExecutorChannelInterceptor interceptor = (ExecutorChannelInterceptor) interceptorArray[i];
+					try {
+						interceptor.afterMessageHandled(message, AbstractExecutorChannel.this,
+								this.delegate.getMessageHandler(), ex);
+					}
+					catch (Throwable ex2) { //NOSONAR
+						logger.error("Exception from afterMessageHandled in " + interceptor, ex2);
+					}
 				}
 			}
 		}
@@ -16,7 +16,6 @@
 
 package org.springframework.integration.channel;
 
-import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
@@ -224,6 +223,16 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		return this.interceptors.getInterceptors();
 	}
 
+	/**
+	 * Return a snapshot of the configured interceptors, for consumers that apply them
+	 * without allocating per message; the array must not be modified.
+	 * @return the interceptors.
+	 * @since 5.0
+	 */
+	public ChannelInterceptor[] getChannelInterceptorArray() {
+		return this.interceptors.getInterceptorArray();
+	}
+
 	@Override
 	public boolean removeInterceptor(ChannelInterceptor interceptor) {
 		return this.interceptors.remove(interceptor);
@@ -313,6 +322,11 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		return this.channelMetrics.getSendDuration();
 	}
 
+	@Override
+	public double getSendDurationPercentile(double percentile) {
+		return this.channelMetrics.getSendDurationPercentile(percentile);
+	}
+
 	@Override
 	public Statistics getSendRate() {
 		return this.channelMetrics.getSendRate();
@@ -395,7 +409,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			message = MessageHistory.write(message, this, this.getMessageBuilderFactory());
 		}
 
-		Deque<ChannelInterceptor> interceptorStack = null;
+		ChannelInterceptor[] interceptorArray = null;
 		boolean sent = false;
 		boolean metricsProcessed = false;
 		MetricsContext metrics = null;
@@ -411,11 +425,13 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 				logger.debug("preSend on channel '" + this + "', message: " + message);
 			}
 			if (interceptors.getSize() > 0) {
-				interceptorStack = new ArrayDeque<ChannelInterceptor>();
-				message = interceptors.preSend(message, this, interceptorStack);
+				ChannelInterceptor[] snapshot = interceptors.getInterceptorArray();
+				message = interceptors.preSend(message, this, snapshot);
 				if (message == null) {
 					return false;
 				}
+				// all preSend() calls succeeded; completion callbacks are now due for every interceptor
+				interceptorArray = snapshot;
 			}
 			if (countsEnabled) {
 				metrics = channelMetrics.beforeSend();
@@ -429,9 +445,9 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			if (debugEnabled) {
 				logger.debug("postSend (sent=" + sent + ") on channel '" + this + "', message: " + message);
 			}
-			if (interceptorStack != null) {
-				interceptors.postSend(message, this, sent);
-				interceptors.afterSendCompletion(message, this, sent, null, interceptorStack);
+			if (interceptorArray != null) {
+				interceptors.postSend(message, this, sent, interceptorArray);
+				interceptors.afterSendCompletion(message, this, sent, null, interceptorArray, interceptorArray.length);
 			}
 			return sent;
 		}
@@ -439,8 +455,8 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			if (countsEnabled && !metricsProcessed) {
 				channelMetrics.afterSend(metrics, false);
 			}
-			if (interceptorStack != null) {
-				interceptors.afterSendCompletion(message, this, sent, e, interceptorStack);
+			if (interceptorArray != null) {
+				interceptors.afterSendCompletion(message, this, sent, e, interceptorArray, interceptorArray.length);
 			}
 			if (e instanceof MessagingException) {
 				throw (MessagingException) e;
@@ -496,13 +512,23 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 
 	/**
 	 * A convenience wrapper class for the list of ChannelInterceptors.
+	 * <p>
+	 * In addition to the list, an immutable array snapshot of the interceptors is
+	 * maintained; it is replaced (never modified) whenever an interceptor is added or
+	 * removed. A send or receive operation obtains the snapshot once with
+	 * {@link #getInterceptorArray()} and records how many interceptors were applied as
+	 * an index into it, so that no per-message interceptor stack needs to be allocated.
 	 */
 	protected static class ChannelInterceptorList {
 
+		private static final ChannelInterceptor[] NO_INTERCEPTORS = new ChannelInterceptor[0];
+
 		private final Log logger;
 
 		protected final List<ChannelInterceptor> interceptors = new CopyOnWriteArrayList<ChannelInterceptor>();
 
+		private volatile ChannelInterceptor[] interceptorArray = NO_INTERCEPTORS;
+
 		private volatile int size;
 
 		public ChannelInterceptorList(Log logger) {
@@ -512,8 +538,9 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		public boolean set(List<ChannelInterceptor> interceptors) {
 			synchronized (this.interceptors) {
 				this.interceptors.clear();
-				this.size = interceptors.size();
-				return this.interceptors.addAll(interceptors);
+				boolean changed = this.interceptors.addAll(interceptors);
+				refreshInterceptorArray();
+				return changed;
 			}
 		}
 
@@ -521,16 +548,75 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			return this.size;
 		}
 
+		/**
+		 * Return a snapshot of the interceptors; the array must not be modified.
+		 * @return the interceptors.
+		 * @since 5.0
+		 */
+		public ChannelInterceptor[] getInterceptorArray() {
+			return this.interceptorArray;
+		}
+
 		public boolean add(ChannelInterceptor interceptor) {
-			this.size++;
-			return this.interceptors.add(interceptor);
+			synchronized (this.interceptors) {
+				boolean added = this.interceptors.add(interceptor);
+				refreshInterceptorArray();
+				return added;
+			}
 		}
 
 		public void add(int index, ChannelInterceptor interceptor) {
-			this.size++;
-			this.interceptors.add(index, interceptor);
+			synchronized (this.interceptors) {
+				this.interceptors.add(index, interceptor);
+				refreshInterceptorArray();
+			}
 		}
 
+		/**
+		 * Invoke {@code preSend()} on each interceptor in the array, in order. If an
+		 * interceptor returns null or throws an exception,
+		 * {@code afterSendCompletion()} is invoked on the interceptors that were
+		 * already applied before returning null or rethrowing; otherwise the caller
+		 * is responsible for invoking
+		 * {@link #afterSendCompletion(Message, MessageChannel, boolean, Exception, ChannelInterceptor[], int)}
+		 * for all of them.
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param interceptors the snapshot obtained from {@link #getInterceptorArray()}.
+		 * @return the message, or null if the send is precluded.
+		 * @since 5.0
+		 */
+		public Message<?> preSend(Message<?> message, MessageChannel channel, ChannelInterceptor[] interceptors) {
+			int applied = 0;
+			try {
+				for (; applied < interceptors.length; applied++) {
+					message = interceptors[applied].preSend(message, channel);
+					if (message == null) {
+						if (this.logger.isDebugEnabled()) {
+							this.logger.debug(interceptors[applied].getClass().getSimpleName()
+									+ " returned null from preSend, i.e. precluding the send.");
+						}
+						afterSendCompletion(null, channel, false, null, interceptors, applied);
+						return null;
+					}
+				}
+			}
+			catch (RuntimeException e) {
+				afterSendCompletion(message, channel, false, e, interceptors, applied);
+				throw e;
+			}
+			return message;
+		}
+
+		/**
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param interceptorStack the stack.
+		 * @return the message.
+		 * @deprecated in favor of {@link #preSend(Message, MessageChannel, ChannelInterceptor[])}
+		 * which does not require a stack to be allocated for each message.
+		 */
+		@Deprecated
 		public Message<?> preSend(Message<?> message, MessageChannel channel,
 				Deque<ChannelInterceptor> interceptorStack) {
 			if (this.size > 0) {
@@ -550,6 +636,21 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			return message;
 		}
 
+		/**
+		 * Invoke {@code postSend()} on each interceptor in the array, in order.
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param sent whether the message was sent.
+		 * @param interceptors the snapshot used for {@code preSend()}.
+		 * @since 5.0
+		 */
+		public void postSend(Message<?> message, MessageChannel channel, boolean sent,
+				ChannelInterceptor[] interceptors) {
+			for (ChannelInterceptor interceptor : interceptors) {
+				interceptor.postSend(message, channel, sent);
+			}
+		}
+
 		public void postSend(Message<?> message, MessageChannel channel, boolean sent) {
 			if (this.size > 0) {
 				for (ChannelInterceptor interceptor : this.interceptors) {
@@ -558,6 +659,40 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			}
 		}
 
+		/**
+		 * Invoke {@code afterSendCompletion()} on the first {@code applied}
+		 * interceptors in the array, in reverse order.
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param sent whether the message was sent.
+		 * @param ex the exception, if any.
+		 * @param interceptors the snapshot used for {@code preSend()}.
+		 * @param applied the number of interceptors whose {@code preSend()} succeeded.
+		 * @since 5.0
+		 */
+		public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex,
+				ChannelInterceptor[] interceptors, int applied) {
+			for (int i = applied - 1; i >= 0; i--) {
+				ChannelInterceptor interceptor = interceptors[i];
+				try {
+					interceptor.afterSendCompletion(message, channel, sent, ex);
+				}
+				catch (Exception ex2) {
+					this.logger.error("Exception from afterSendCompletion in " + interceptor, ex2);
+				}
+			}
+		}
+
+		/**
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param sent whether the message was sent.
+		 * @param ex the exception, if any.
+		 * @param interceptorStack the stack.
+		 * @deprecated in favor of
+		 * {@link #afterSendCompletion(Message, MessageChannel, boolean, Exception, ChannelInterceptor[], int)}.
+		 */
+		@Deprecated
 		public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex,
 				Deque<ChannelInterceptor> interceptorStack) {
 			for (Iterator<ChannelInterceptor> iterator = interceptorStack.descendingIterator(); iterator.hasNext(); ) {
@@ -571,6 +706,44 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			}
 		}
 
+		/**
+		 * Invoke {@code preReceive()} on each interceptor in the array, in order. If an
+		 * interceptor returns false or throws an exception,
+		 * {@code afterReceiveCompletion()} is invoked on the interceptors that were
+		 * already applied before returning false or rethrowing; otherwise the caller
+		 * is responsible for invoking
+		 * {@link #afterReceiveCompletion(Message, MessageChannel, Exception, ChannelInterceptor[], int)}
+		 * for all of them.
+		 * @param channel the channel.
+		 * @param interceptors the snapshot obtained from {@link #getInterceptorArray()}.
+		 * @return false if the receive is precluded.
+		 * @since 5.0
+		 */
+		public boolean preReceive(MessageChannel channel, ChannelInterceptor[] interceptors) {
+			int applied = 0;
+			try {
+				for (; applied < interceptors.length; applied++) {
+					if (!interceptors[applied].preReceive(channel)) {
+						afterReceiveCompletion(null, channel, null, interceptors, applied);
+						return false;
+					}
+				}
+			}
+			catch (RuntimeException e) {
+				afterReceiveCompletion(null, channel, e, interceptors, applied);
+				throw e;
+			}
+			return true;
+		}
+
+		/**
+		 * @param channel the channel.
+		 * @param interceptorStack the stack.
+		 * @return false if the receive is precluded.
+		 * @deprecated in favor of {@link #preReceive(MessageChannel, ChannelInterceptor[])}
+		 * which does not require a stack to be allocated for each receive.
+		 */
+		@Deprecated
 		public boolean preReceive(MessageChannel channel, Deque<ChannelInterceptor> interceptorStack) {
 			if (this.size > 0) {
 				for (ChannelInterceptor interceptor : this.interceptors) {
@@ -584,6 +757,24 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			return true;
 		}
 
+		/**
+		 * Invoke {@code postReceive()} on each interceptor in the array, in order.
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param interceptors the snapshot used for {@code preReceive()}.
+		 * @return the message, or null if an interceptor discarded it.
+		 * @since 5.0
+		 */
+		public Message<?> postReceive(Message<?> message, MessageChannel channel, ChannelInterceptor[] interceptors) {
+			for (ChannelInterceptor interceptor : interceptors) {
+				message = interceptor.postReceive(message, channel);
+				if (message == null) {
+					return null;
+				}
+			}
+			return message;
+		}
+
 		public Message<?> postReceive(Message<?> message, MessageChannel channel) {
 			if (this.size > 0) {
 				for (ChannelInterceptor interceptor : this.interceptors) {
@@ -596,6 +787,38 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			return message;
 		}
 
+		/**
+		 * Invoke {@code afterReceiveCompletion()} on the first {@code applied}
+		 * interceptors in the array, in reverse order.
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param ex the exception, if any.
+		 * @param interceptors the snapshot used for {@code preReceive()}.
+		 * @param applied the number of interceptors whose {@code preReceive()} succeeded.
+		 * @since 5.0
+		 */
+		public void afterReceiveCompletion(Message<?> message, MessageChannel channel, Exception ex,
+				ChannelInterceptor[] interceptors, int applied) {
+			for (int i = applied - 1; i >= 0; i--) {
+				ChannelInterceptor interceptor = interceptors[i];
+				try {
+					interceptor.afterReceiveCompletion(message, channel, ex);
+				}
+				catch (Exception ex2) {
+					this.logger.error("Exception from afterReceiveCompletion in " + interceptor, ex2);
+				}
+			}
+		}
+
+		/**
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param ex the exception, if any.
+		 * @param interceptorStack the stack.
+		 * @deprecated in favor of
+		 * {@link #afterReceiveCompletion(Message, MessageChannel, Exception, ChannelInterceptor[], int)}.
+		 */
+		@Deprecated
 		public void afterReceiveCompletion(Message<?> message, MessageChannel channel, Exception ex,
 				Deque<ChannelInterceptor> interceptorStack) {
 			for (Iterator<ChannelInterceptor> iterator = interceptorStack.descendingIterator(); iterator.hasNext(); ) {
@@ -614,21 +837,29 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		}
 
 		public boolean remove(ChannelInterceptor interceptor) {
-			if (this.interceptors.remove(interceptor)) {
-				this.size--;
-				return true;
-			}
-			else {
-				return false;
+			synchronized (this.interceptors) {
+				if (this.interceptors.remove(interceptor)) {
+					refreshInterceptorArray();
+					return true;
+				}
+				else {
+					return false;
+				}
 			}
 		}
 
 		public ChannelInterceptor remove(int index) {
-			ChannelInterceptor removed = this.interceptors.remove(index);
-			if (removed != null) {
-				this.size--;
+			synchronized (this.interceptors) {
+				ChannelInterceptor removed = this.interceptors.remove(index);
+				refreshInterceptorArray();
+				return removed;
 			}
-			return removed;
+		}
+
+		private void refreshInterceptorArray() {
+			ChannelInterceptor[] array = this.interceptors.toArray(new ChannelInterceptor[this.interceptors.size()]);
+			this.interceptorArray = array;
+			this.size = array.length;
 		}
 
 	}
@@ -16,16 +16,17 @@
 
 package org.springframework.integration.channel;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.ListIterator;
 
 import org.springframework.integration.support.management.PollableChannelManagement;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.PollableChannel;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.ExecutorChannelInterceptor;
-import org.springframework.util.CollectionUtils;
+import org.springframework.util.Assert;
 
 /**
  * Base class for all pollable channels.
@@ -88,7 +89,7 @@ public abstract class AbstractPollableChannel extends AbstractMessageChannel
 	@Override
 	public final Message<?> receive(long timeout) {
 		ChannelInterceptorList interceptorList = getInterceptors();
-		Deque<ChannelInterceptor> interceptorStack = null;
+		ChannelInterceptor[] interceptorArray = null;
 		boolean counted = false;
 		boolean countsEnabled = isCountsEnabled();
 		try {
@@ -96,11 +97,11 @@ public abstract class AbstractPollableChannel extends AbstractMessageChannel
 				logger.trace("preReceive on channel '" + this + "'");
 			}
 			if (interceptorList.getSize() > 0) {
-				interceptorStack = new ArrayDeque<ChannelInterceptor>();
-
-				if (!interceptorList.preReceive(this, interceptorStack)) {
+				ChannelInterceptor[] snapshot = interceptorList.getInterceptorArray();
+				if (!interceptorList.preReceive(this, snapshot)) {
 					return null;
 				}
+				interceptorArray = snapshot;
 			}
 			Message<?> message = this.doReceive(timeout);
 			if (countsEnabled) {
@@ -113,9 +114,9 @@ public abstract class AbstractPollableChannel extends AbstractMessageChannel
 			else if (logger.isTraceEnabled()) {
 				logger.trace("postReceive on channel '" + this + "', message is null");
 			}
-			if (!CollectionUtils.isEmpty(interceptorStack)) {
-				message = interceptorList.postReceive(message, this);
-				interceptorList.afterReceiveCompletion(message, this, null, interceptorStack);
+			if (interceptorArray != null) {
+				message = interceptorList.postReceive(message, this, interceptorArray);
+				interceptorList.afterReceiveCompletion(message, this, null, interceptorArray, interceptorArray.length);
 			}
 			return message;
 		}
@@ -123,8 +124,76 @@ public abstract class AbstractPollableChannel extends AbstractMessageChannel
 			if (countsEnabled && !counted) {
 				getMetrics().afterError();
 			}
-			if (!CollectionUtils.isEmpty(interceptorStack)) {
-				interceptorList.afterReceiveCompletion(null, this, e, interceptorStack);
+			if (interceptorArray != null) {
+				interceptorList.afterReceiveCompletion(null, this, e, interceptorArray, interceptorArray.length);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Receive up to {@code maxMessages} messages from this channel in one operation.
+	 * Waits up to the timeout (or indefinitely if it is negative) for the first
+	 * message only; any further messages are those immediately available.
+	 * <p>
+	 * The {@code preReceive()} and {@code afterReceiveCompletion()} interceptor
+	 * callbacks and the receive metrics are invoked once per batch;
+	 * {@code afterReceiveCompletion()} is passed the last message of the batch.
+	 * {@code postReceive()} is invoked for each message, since it may replace or
+	 * discard it.
+	 * @param maxMessages the maximum number of messages to receive.
+	 * @param timeout the timeout in milliseconds for the first message.
+	 * @return the messages received, possibly empty but never null.
+	 * @since 5.0
+	 */
+	public final List<Message<?>> receive(int maxMessages, long timeout) {
+		Assert.isTrue(maxMessages > 0, "'maxMessages' must be greater than 0");
+		ChannelInterceptorList interceptorList = getInterceptors();
+		ChannelInterceptor[] interceptorArray = null;
+		boolean counted = false;
+		boolean countsEnabled = isCountsEnabled();
+		try {
+			if (logger.isTraceEnabled()) {
+				logger.trace("preReceive (batch of " + maxMessages + ") on channel '" + this + "'");
+			}
+			if (interceptorList.getSize() > 0) {
+				ChannelInterceptor[] snapshot = interceptorList.getInterceptorArray();
+				if (!interceptorList.preReceive(this, snapshot)) {
+					return Collections.emptyList();
+				}
+				interceptorArray = snapshot;
+			}
+			List<Message<?>> messages = this.doReceive(maxMessages, timeout);
+			if (countsEnabled) {
+				getMetrics().afterReceive(messages.size());
+				counted = true;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("postReceive on channel '" + this + "', " + messages.size() + " message(s)");
+			}
+			Message<?> last = null;
+			if (interceptorArray != null) {
+				ListIterator<Message<?>> iterator = messages.listIterator();
+				while (iterator.hasNext()) {
+					Message<?> message = interceptorList.postReceive(iterator.next(), this, interceptorArray);
+					if (message == null) {
+						iterator.remove();
+					}
+					else {
+						iterator.set(message);
+						last = message;
+					}
+				}
+				interceptorList.afterReceiveCompletion(last, this, null, interceptorArray, interceptorArray.length);
+			}
+			return messages;
+		}
+		catch (RuntimeException e) {
+			if (countsEnabled && !counted) {
+				getMetrics().afterError();
+			}
+			if (interceptorArray != null) {
+				interceptorList.afterReceiveCompletion(null, this, e, interceptorArray, interceptorArray.length);
 			}
 			throw e;
 		}
@@ -191,4 +260,28 @@ public abstract class AbstractPollableChannel extends AbstractMessageChannel
 	 */
 	protected abstract Message<?> doReceive(long timeout);
 
+	/**
+	 * Receive up to {@code maxMessages} messages. Subclasses backed by a structure
+	 * that can drain several elements at once should override this method; the
+	 * default implementation waits for the first message with
+	 * {@link #doReceive(long)} and then calls {@code doReceive(0)} until the batch
+	 * is complete or no more messages are available.
+	 * @param maxMessages the maximum number of messages.
+	 * @param timeout the timeout for the first message.
+	 * @return a mutable list of the messages received; never null.
+	 * @since 5.0
+	 */
+	protected List<Message<?>> doReceive(int maxMessages, long timeout) {
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		Message<?> message = doReceive(timeout);
+		while (message != null) {
+			messages.add(message);
+			if (messages.size() >= maxMessages) {
+				break;
+			}
+			message = doReceive(0);
+		}
+		return messages;
+	}
+
 }
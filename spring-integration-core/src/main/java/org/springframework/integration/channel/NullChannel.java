@@ -186,6 +186,11 @@ public class NullChannel implements PollableChannel, MessageChannelMetrics,
 		return this.channelMetrics.getSendDuration();
 	}
 
+	@Override
+	public double getSendDurationPercentile(double percentile) {
+		return this.channelMetrics.getSendDurationPercentile(percentile);
+	}
+
 	@Override
 	public Statistics getSendRate() {
 		return this.channelMetrics.getSendRate();
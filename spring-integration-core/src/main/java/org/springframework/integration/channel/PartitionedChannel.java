@@ -0,0 +1,225 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.expression.Expression;
+import org.springframework.integration.aggregator.CorrelationStrategy;
+import org.springframework.integration.aggregator.ExpressionEvaluatingCorrelationStrategy;
+import org.springframework.integration.aggregator.HeaderAttributeCorrelationStrategy;
+import org.springframework.integration.context.IntegrationProperties;
+import org.springframework.integration.dispatcher.LoadBalancingStrategy;
+import org.springframework.integration.dispatcher.MessageHandlingTaskDecorator;
+import org.springframework.integration.dispatcher.PartitionedDispatcher;
+import org.springframework.integration.support.channel.BeanFactoryChannelResolver;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link ExecutorChannel}-like channel that preserves the order of messages with
+ * the same partition key: each message is assigned to one of a fixed number of
+ * partitions by the hash of its key, and the messages of a partition are handled one
+ * at a time, in order, while different partitions are handled in parallel. This
+ * removes the need for a resequencer after an executor channel when only the order
+ * per key (for example, per customer or per correlation id) matters.
+ * <p>
+ * The key is the {@code correlationId} header by default; use
+ * {@link #setPartitionKeyHeader(String)}, {@link #setPartitionKeyExpression(Expression)}
+ * or {@link #setPartitionKeyStrategy(CorrelationStrategy)} to change it.
+ * <p>
+ * By default, the channel creates a fixed pool with a thread for each partition,
+ * which is shut down when the channel is destroyed. When an {@link Executor} is
+ * provided, partitions are not bound to threads: any idle thread of the executor
+ * serves the next partition with pending messages, so fewer threads than partitions
+ * can be used and a backlog in one partition does not wait for a particular thread.
+ *
+ * @since 5.0
+ * @see PartitionedDispatcher
+ */
+public class PartitionedChannel extends AbstractExecutorChannel implements DisposableBean {
+
+	private final int partitionCount;
+
+	private final boolean internalExecutor;
+
+	private volatile CorrelationStrategy partitionKeyStrategy;
+
+	private volatile boolean failover = true;
+
+	private volatile LoadBalancingStrategy loadBalancingStrategy;
+
+	private volatile int drainBatchSize = PartitionedDispatcher.DEFAULT_DRAIN_BATCH_SIZE;
+
+	/**
+	 * Create a channel with the provided number of partitions, each handled by its own
+	 * thread.
+	 * @param partitionCount the number of partitions.
+	 */
+	public PartitionedChannel(int partitionCount) {
+		this(partitionCount, null);
+	}
+
+	/**
+	 * Create a channel with the provided number of partitions, handled by threads from
+	 * the provided executor.
+	 * @param partitionCount the number of partitions.
+	 * @param executor the executor; if null, a thread is created for each partition.
+	 */
+	public PartitionedChannel(int partitionCount, Executor executor) {
+		super(executor);
+		Assert.isTrue(partitionCount > 0, "'partitionCount' must be greater than 0");
+		this.partitionCount = partitionCount;
+		this.internalExecutor = executor == null;
+		if (this.internalExecutor) {
+			this.executor = Executors.newFixedThreadPool(partitionCount,
+					new CustomizableThreadFactory("partitioned-channel-"));
+		}
+		this.dispatcher = new PartitionedDispatcher(partitionCount, this.executor);
+	}
+
+	/**
+	 * Set the header containing the partition key.
+	 * @param headerName the header name.
+	 */
+	public void setPartitionKeyHeader(String headerName) {
+		Assert.hasText(headerName, "'headerName' cannot be empty");
+		setPartitionKeyStrategy(new HeaderAttributeCorrelationStrategy(headerName));
+	}
+
+	/**
+	 * Set an expression, evaluated against the message, to determine the partition key.
+	 * @param expression the expression.
+	 */
+	public void setPartitionKeyExpression(Expression expression) {
+		Assert.notNull(expression, "'expression' cannot be null");
+		setPartitionKeyStrategy(new ExpressionEvaluatingCorrelationStrategy(expression));
+	}
+
+	/**
+	 * Set the strategy to determine the partition key.
+	 * @param partitionKeyStrategy the strategy.
+	 */
+	public void setPartitionKeyStrategy(CorrelationStrategy partitionKeyStrategy) {
+		Assert.notNull(partitionKeyStrategy, "'partitionKeyStrategy' cannot be null");
+		this.partitionKeyStrategy = partitionKeyStrategy;
+		getDispatcher().setPartitionKeyStrategy(partitionKeyStrategy);
+	}
+
+	/**
+	 * Specify whether the channel's dispatcher should have failover enabled.
+	 * By default, it will. Set this value to 'false' to disable it.
+	 * @param failover The failover boolean.
+	 */
+	public void setFailover(boolean failover) {
+		this.failover = failover;
+		getDispatcher().setFailover(failover);
+	}
+
+	/**
+	 * Provide a {@link LoadBalancingStrategy} for selecting the subscriber that handles
+	 * each message.
+	 * @param loadBalancingStrategy The load balancing strategy implementation.
+	 */
+	public void setLoadBalancingStrategy(LoadBalancingStrategy loadBalancingStrategy) {
+		this.loadBalancingStrategy = loadBalancingStrategy;
+		getDispatcher().setLoadBalancingStrategy(loadBalancingStrategy);
+	}
+
+	/**
+	 * @param drainBatchSize the batch size.
+	 * @see PartitionedDispatcher#setDrainBatchSize(int)
+	 */
+	public void setDrainBatchSize(int drainBatchSize) {
+		this.drainBatchSize = drainBatchSize;
+		getDispatcher().setDrainBatchSize(drainBatchSize);
+	}
+
+	@ManagedAttribute(description = "The number of partitions")
+	public int getPartitionCount() {
+		return this.partitionCount;
+	}
+
+	@ManagedAttribute(description = "The number of messages waiting in, or being handled by, each partition")
+	public int[] getPartitionQueueDepths() {
+		return getDispatcher().getPartitionQueueDepths();
+	}
+
+	@Override
+	public String getComponentType() {
+		return "partitioned-channel";
+	}
+
+	@Override
+	protected PartitionedDispatcher getDispatcher() {
+		return (PartitionedDispatcher) this.dispatcher;
+	}
+
+	@Override
+	public final void onInit() throws Exception {
+		Assert.state(getDispatcher().getHandlerCount() == 0, "You cannot subscribe() until the channel "
+				+ "bean is fully initialized by the framework. Do not subscribe in a @Bean definition");
+		super.onInit();
+		PartitionedDispatcher partitionedDispatcher = new PartitionedDispatcher(this.partitionCount, this.executor);
+		partitionedDispatcher.setErrorHandler(new MessagePublishingErrorHandler(
+				new BeanFactoryChannelResolver(getBeanFactory())));
+		partitionedDispatcher.setFailover(this.failover);
+		if (this.maxSubscribers == null) {
+			this.maxSubscribers =
+					getIntegrationProperty(IntegrationProperties.CHANNELS_MAX_UNICAST_SUBSCRIBERS, Integer.class);
+		}
+		partitionedDispatcher.setMaxSubscribers(this.maxSubscribers);
+		if (this.loadBalancingStrategy != null) {
+			partitionedDispatcher.setLoadBalancingStrategy(this.loadBalancingStrategy);
+		}
+		if (this.partitionKeyStrategy != null) {
+			if (this.partitionKeyStrategy instanceof BeanFactoryAware && getBeanFactory() != null) {
+				((BeanFactoryAware) this.partitionKeyStrategy).setBeanFactory(getBeanFactory());
+			}
+			partitionedDispatcher.setPartitionKeyStrategy(this.partitionKeyStrategy);
+		}
+		partitionedDispatcher.setDrainBatchSize(this.drainBatchSize);
+		partitionedDispatcher.setMessageHandlingTaskDecorator(new MessageHandlingTaskDecorator() {
+
+			@Override
+			public Runnable decorate(MessageHandlingRunnable task) {
+				if (PartitionedChannel.this.executorInterceptorsSize > 0) {
+					return new MessageHandlingTask(task);
+				}
+				else {
+					return task;
+				}
+			}
+
+		});
+		this.dispatcher = partitionedDispatcher;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if (this.internalExecutor) {
+			((ExecutorService) this.executor).shutdown();
+		}
+	}
+
+}
@@ -17,6 +17,8 @@
 package org.springframework.integration.channel;
 
 import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -108,6 +110,21 @@ public class PriorityChannel extends QueueChannel {
 		return message;
 	}
 
+	@Override
+	protected List<Message<?>> doReceive(int maxMessages, long timeout) {
+		List<Message<?>> messages = super.doReceive(maxMessages, timeout);
+		ListIterator<Message<?>> iterator = messages.listIterator();
+		while (iterator.hasNext()) {
+			Message<?> message = iterator.next();
+			// the first message has already been unwrapped by doReceive(long)
+			if (message instanceof MessageWrapper) {
+				iterator.set(((MessageWrapper) message).getRootMessage());
+				this.upperBound.release();
+			}
+		}
+		return messages;
+	}
+
 	private static final class SequenceFallbackComparator implements Comparator<Message<?>> {
 
 		private final Comparator<Message<?>> targetComparator;
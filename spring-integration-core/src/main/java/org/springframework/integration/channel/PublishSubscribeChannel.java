@@ -45,6 +45,12 @@ public class PublishSubscribeChannel extends AbstractExecutorChannel {
 
 	private volatile int minSubscribers;
 
+	private volatile boolean awaitCompletion;
+
+	private volatile int maxConcurrency;
+
+	private volatile boolean failFast;
+
 	/**
 	 * Create a PublishSubscribeChannel that will use an {@link Executor}
 	 * to invoke the handlers. If this is null, each invocation will occur in
@@ -128,6 +134,46 @@ public class PublishSubscribeChannel extends AbstractExecutorChannel {
 		getDispatcher().setMinSubscribers(minSubscribers);
 	}
 
+	/**
+	 * When an Executor is provided, specify whether a send should wait until all the
+	 * subscribers have handled the message, so the send takes as long as the slowest
+	 * subscriber rather than the sum of the subscribers' durations; exceptions are then
+	 * thrown to the sender instead of being passed to the error handler.
+	 * Default <code>false</code>.
+	 * @param awaitCompletion true to wait for the subscribers.
+	 * @since 5.0
+	 * @see BroadcastingDispatcher#setAwaitCompletion(boolean)
+	 */
+	public void setAwaitCompletion(boolean awaitCompletion) {
+		this.awaitCompletion = awaitCompletion;
+		getDispatcher().setAwaitCompletion(awaitCompletion);
+	}
+
+	/**
+	 * When awaiting completion, set the maximum number of subscribers invoked
+	 * concurrently for each message. Default 0 (no limit).
+	 * @param maxConcurrency the maximum concurrency.
+	 * @since 5.0
+	 * @see BroadcastingDispatcher#setMaxConcurrency(int)
+	 */
+	public void setMaxConcurrency(int maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+		getDispatcher().setMaxConcurrency(maxConcurrency);
+	}
+
+	/**
+	 * When awaiting completion, specify whether the send should fail as soon as one
+	 * subscriber fails (subscribers that have not been invoked are skipped), rather
+	 * than after all the subscribers have been invoked. Default <code>false</code>.
+	 * @param failFast true to fail fast.
+	 * @since 5.0
+	 * @see BroadcastingDispatcher#setFailFast(boolean)
+	 */
+	public void setFailFast(boolean failFast) {
+		this.failFast = failFast;
+		getDispatcher().setFailFast(failFast);
+	}
+
 	/**
 	 * Callback method for initialization.
 	 * @throws Exception the exception.
@@ -150,6 +196,9 @@ public class PublishSubscribeChannel extends AbstractExecutorChannel {
 			getDispatcher().setIgnoreFailures(this.ignoreFailures);
 			getDispatcher().setApplySequence(this.applySequence);
 			getDispatcher().setMinSubscribers(this.minSubscribers);
+			getDispatcher().setAwaitCompletion(this.awaitCompletion);
+			getDispatcher().setMaxConcurrency(this.maxConcurrency);
+			getDispatcher().setFailFast(this.failFast);
 		}
 		if (this.maxSubscribers == null) {
 			Integer maxSubscribers =
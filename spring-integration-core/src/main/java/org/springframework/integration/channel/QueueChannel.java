@@ -145,6 +145,31 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * After the first message, the remaining messages are removed with a single
+	 * {@link BlockingQueue#drainTo(java.util.Collection, int)} call when the queue
+	 * is a {@link BlockingQueue}.
+	 */
+	@Override
+	protected List<Message<?>> doReceive(int maxMessages, long timeout) {
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		Message<?> message = doReceive(timeout);
+		if (message != null) {
+			messages.add(message);
+			if (this.queue instanceof BlockingQueue) {
+				((BlockingQueue<Message<?>>) this.queue).drainTo(messages, maxMessages - 1);
+			}
+			else {
+				while (messages.size() < maxMessages && (message = this.queue.poll()) != null) {
+					messages.add(message);
+				}
+			}
+		}
+		return messages;
+	}
+
 	@Override
 	public List<Message<?>> clear() {
 		List<Message<?>> clearedMessages = new ArrayList<Message<?>>();
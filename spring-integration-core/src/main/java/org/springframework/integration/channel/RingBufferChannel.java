@@ -0,0 +1,337 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.integration.core.MessageSelector;
+import org.springframework.integration.support.management.QueueChannelManagement;
+import org.springframework.integration.util.MpmcRingBuffer;
+import org.springframework.messaging.Message;
+import org.springframework.util.Assert;
+
+/**
+ * A bounded pollable channel backed by a preallocated, lock-free
+ * {@link MpmcRingBuffer}. Unlike a {@link QueueChannel} with a
+ * {@link java.util.concurrent.LinkedBlockingQueue}, sending and receiving do not
+ * allocate a queue node and do not contend on a lock.
+ * <p>
+ * When the buffer is full (on send) or empty (on receive), the calling thread waits
+ * according to the configured {@link WaitStrategy}; the default
+ * {@link WaitStrategy#BLOCK} strategy only acquires a lock when a thread actually has
+ * to wait.
+ * <p>
+ * The capacity is rounded up to the next power of two.
+ *
+ * @since 5.0
+ */
+public class RingBufferChannel extends AbstractPollableChannel implements QueueChannelOperations,
+		QueueChannelManagement {
+
+	private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final MpmcRingBuffer<Message<?>> buffer;
+
+	private final WaitStrategy waitStrategy;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition notEmpty = this.lock.newCondition();
+
+	private final Condition notFull = this.lock.newCondition();
+
+	private final AtomicInteger waitingReceivers = new AtomicInteger();
+
+	private final AtomicInteger waitingSenders = new AtomicInteger();
+
+	/**
+	 * Create a channel with the provided capacity and the {@link WaitStrategy#BLOCK}
+	 * wait strategy.
+	 * @param capacity the capacity; rounded up to the next power of two.
+	 */
+	public RingBufferChannel(int capacity) {
+		this(capacity, WaitStrategy.BLOCK);
+	}
+
+	/**
+	 * Create a channel with the provided capacity and wait strategy.
+	 * @param capacity the capacity; rounded up to the next power of two.
+	 * @param waitStrategy the strategy used while the buffer is full or empty.
+	 */
+	public RingBufferChannel(int capacity, WaitStrategy waitStrategy) {
+		Assert.notNull(waitStrategy, "'waitStrategy' must not be null");
+		this.buffer = new MpmcRingBuffer<Message<?>>(capacity);
+		this.waitStrategy = waitStrategy;
+	}
+
+	public WaitStrategy getWaitStrategy() {
+		return this.waitStrategy;
+	}
+
+	/**
+	 * @return the actual (power of two) capacity of the underlying ring buffer.
+	 */
+	public int getCapacity() {
+		return this.buffer.capacity();
+	}
+
+	@Override
+	protected boolean doSend(Message<?> message, long timeout) {
+		Assert.notNull(message, "'message' must not be null");
+		try {
+			long deadline = timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+			while (!this.buffer.offer(message)) {
+				long remaining = remaining(timeout, deadline);
+				if (remaining <= 0) {
+					return false;
+				}
+				if (this.waitStrategy == WaitStrategy.BLOCK) {
+					awaitNotFull(remaining);
+				}
+				else {
+					idle(remaining);
+				}
+			}
+			if (this.waitingReceivers.get() > 0) {
+				signal(this.notEmpty);
+			}
+			return true;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	@Override
+	protected Message<?> doReceive(long timeout) {
+		try {
+			long deadline = timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+			Message<?> message;
+			while ((message = this.buffer.poll()) == null) {
+				long remaining = remaining(timeout, deadline);
+				if (remaining <= 0) {
+					return null;
+				}
+				if (this.waitStrategy == WaitStrategy.BLOCK) {
+					awaitNotEmpty(remaining);
+				}
+				else {
+					idle(remaining);
+				}
+			}
+			signalSenders();
+			return message;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	@Override
+	protected List<Message<?>> doReceive(int maxMessages, long timeout) {
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		Message<?> message = doReceive(timeout);
+		if (message != null) {
+			messages.add(message);
+			drainTo(messages, maxMessages - 1);
+		}
+		return messages;
+	}
+
+	/**
+	 * Remove up to {@code maxMessages} messages from the buffer in one operation,
+	 * without waiting.
+	 * @param target the list to add the messages to.
+	 * @param maxMessages the maximum number of messages to remove.
+	 * @return the number of messages removed.
+	 */
+	public int drainTo(List<Message<?>> target, int maxMessages) {
+		int drained = this.buffer.drainTo(target, maxMessages);
+		if (drained > 0) {
+			signalSenders();
+		}
+		return drained;
+	}
+
+	@Override
+	public List<Message<?>> clear() {
+		List<Message<?>> clearedMessages = new ArrayList<Message<?>>();
+		while (drainTo(clearedMessages, Integer.MAX_VALUE) > 0) {
+			// keep draining until empty
+		}
+		return clearedMessages;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The ring buffer does not support removal from the middle, so the buffer is
+	 * drained and the accepted messages are re-inserted in their original order.
+	 * Messages sent concurrently with a purge may therefore be interleaved with
+	 * the retained messages.
+	 */
+	@Override
+	public List<Message<?>> purge(MessageSelector selector) {
+		if (selector == null) {
+			return clear();
+		}
+		List<Message<?>> purgedMessages = new ArrayList<Message<?>>();
+		for (Message<?> message : clear()) {
+			if (selector.accept(message)) {
+				if (!this.buffer.offer(message)) {
+					logger.warn("No room to retain message during purge, discarding: " + message);
+					purgedMessages.add(message);
+				}
+			}
+			else {
+				purgedMessages.add(message);
+			}
+		}
+		if (this.waitingReceivers.get() > 0) {
+			signal(this.notEmpty);
+		}
+		return purgedMessages;
+	}
+
+	@Override
+	public int getQueueSize() {
+		return this.buffer.size();
+	}
+
+	@Override
+	public int getRemainingCapacity() {
+		return this.buffer.remainingCapacity();
+	}
+
+	private void signalSenders() {
+		if (this.waitingSenders.get() > 0) {
+			signal(this.notFull);
+		}
+	}
+
+	private void awaitNotFull(long nanos) throws InterruptedException {
+		this.lock.lockInterruptibly();
+		try {
+			this.waitingSenders.incrementAndGet();
+			try {
+				// re-check after registering so a concurrent receiver cannot miss us
+				if (this.buffer.remainingCapacity() == 0) {
+					this.notFull.awaitNanos(nanos);
+				}
+			}
+			finally {
+				this.waitingSenders.decrementAndGet();
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void awaitNotEmpty(long nanos) throws InterruptedException {
+		this.lock.lockInterruptibly();
+		try {
+			this.waitingReceivers.incrementAndGet();
+			try {
+				// re-check after registering so a concurrent sender cannot miss us
+				if (this.buffer.isEmpty()) {
+					this.notEmpty.awaitNanos(nanos);
+				}
+			}
+			finally {
+				this.waitingReceivers.decrementAndGet();
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void signal(Condition condition) {
+		this.lock.lock();
+		try {
+			condition.signalAll();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void idle(long remaining) throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		switch (this.waitStrategy) {
+			case YIELD:
+				Thread.yield();
+				break;
+			case PARK:
+				LockSupport.parkNanos(Math.min(remaining, PARK_NANOS));
+				break;
+			default:
+				// SPIN: retry immediately
+		}
+	}
+
+	private static long remaining(long timeout, long deadline) {
+		if (timeout == 0) {
+			return 0;
+		}
+		if (timeout < 0) {
+			return Long.MAX_VALUE;
+		}
+		return deadline - System.nanoTime();
+	}
+
+	/**
+	 * The strategy used by senders when the buffer is full and by receivers when it
+	 * is empty.
+	 */
+	public enum WaitStrategy {
+
+		/**
+		 * Busy-spin; lowest latency, burns a CPU core per waiting thread.
+		 */
+		SPIN,
+
+		/**
+		 * Spin with {@link Thread#yield()} between attempts.
+		 */
+		YIELD,
+
+		/**
+		 * Park the thread for a short period between attempts.
+		 */
+		PARK,
+
+		/**
+		 * Block on a condition until signalled; no CPU is consumed while waiting.
+		 * Senders and receivers only take the lock when the other side is waiting.
+		 */
+		BLOCK
+
+	}
+
+}
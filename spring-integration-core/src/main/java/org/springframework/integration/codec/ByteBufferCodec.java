@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Codec} that can also encode to, and decode from, a {@link ByteBuffer}
+ * without an intermediate byte array.
+ *
+ * @since 5.0
+ */
+public interface ByteBufferCodec extends Codec {
+
+	/**
+	 * Encode an object into the buffer, starting at its position; the position is
+	 * advanced past the encoded bytes.
+	 * @param object the object to encode
+	 * @param buffer the buffer
+	 * @throws java.nio.BufferOverflowException if the buffer does not have enough room;
+	 * the buffer is then unchanged
+	 * @throws IOException if the operation fails
+	 */
+	void encode(Object object, ByteBuffer buffer) throws IOException;
+
+	/**
+	 * Decode an object of a given type from the buffer, starting at its position; the
+	 * position is advanced past the decoded bytes.
+	 * @param buffer the buffer containing the encoded object
+	 * @param type the object's class
+	 * @param <T> the object's type
+	 * @return the object
+	 * @throws IOException if the operation fails
+	 */
+	<T> T decode(ByteBuffer buffer, Class<T> type) throws IOException;
+
+}
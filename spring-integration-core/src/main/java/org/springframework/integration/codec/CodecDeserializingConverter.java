@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec;
+
+import java.io.IOException;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link Converter} that decodes a byte array to an object of a fixed type using a
+ * {@link Codec}; a replacement for the JDK serialization based
+ * {@link org.springframework.core.serializer.support.DeserializingConverter}, used,
+ * for example, by message stores configured with a {@code MessageCodec}.
+ *
+ * @since 5.0
+ */
+public class CodecDeserializingConverter implements Converter<byte[], Object> {
+
+	private final Codec codec;
+
+	private final Class<?> type;
+
+	/**
+	 * Construct an instance that decodes objects of the provided type.
+	 * @param codec the codec.
+	 * @param type the type.
+	 */
+	public CodecDeserializingConverter(Codec codec, Class<?> type) {
+		Assert.notNull(codec, "'codec' cannot be null");
+		Assert.notNull(type, "'type' cannot be null");
+		this.codec = codec;
+		this.type = type;
+	}
+
+	@Override
+	public Object convert(byte[] source) {
+		try {
+			return this.codec.decode(source, this.type);
+		}
+		catch (IOException e) {
+			throw new SerializationFailedException("Failed to decode " + this.type.getName() + " using "
+					+ this.codec, e);
+		}
+	}
+
+}
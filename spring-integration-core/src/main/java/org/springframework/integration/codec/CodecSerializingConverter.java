@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec;
+
+import java.io.IOException;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link Converter} that encodes an object to a byte array using a {@link Codec};
+ * a replacement for the JDK serialization based
+ * {@link org.springframework.core.serializer.support.SerializingConverter}, used,
+ * for example, by message stores configured with a {@code MessageCodec}.
+ *
+ * @since 5.0
+ */
+public class CodecSerializingConverter implements Converter<Object, byte[]> {
+
+	private final Codec codec;
+
+	public CodecSerializingConverter(Codec codec) {
+		Assert.notNull(codec, "'codec' cannot be null");
+		this.codec = codec;
+	}
+
+	@Override
+	public byte[] convert(Object source) {
+		try {
+			return this.codec.encode(source);
+		}
+		catch (IOException e) {
+			throw new SerializationFailedException("Failed to encode object using " + this.codec, e);
+		}
+	}
+
+}
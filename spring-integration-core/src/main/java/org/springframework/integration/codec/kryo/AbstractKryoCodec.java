@@ -16,15 +16,20 @@
 
 package org.springframework.integration.codec.kryo;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.springframework.integration.codec.ByteBufferCodec;
 import org.springframework.integration.codec.Codec;
 import org.springframework.util.Assert;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.pool.KryoCallback;
@@ -34,14 +39,43 @@ import com.esotericsoftware.kryo.pool.KryoPool;
 /**
  * Base class for {@link Codec}s using {@link Kryo}.
  * Manages pooled {@link Kryo} instances.
+ * <p>
+ * Since 5.0, the {@link Output} buffers used for encoding, and the {@link Input} buffers
+ * used for decoding streams, are also pooled; encoding to a byte array copies the encoded
+ * bytes once, and decoding a byte array or a {@link ByteBuffer} reads it in place.
  *
  * @author David Turanski
  * @since 4.2
  */
-public abstract class AbstractKryoCodec implements Codec {
+public abstract class AbstractKryoCodec implements ByteBufferCodec {
+
+	/**
+	 * The default initial size of pooled buffers.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+	/**
+	 * The default size above which grown buffers are not returned to the pool.
+	 */
+	public static final int DEFAULT_MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+
+	/**
+	 * The default maximum number of pooled buffers of each type.
+	 */
+	public static final int DEFAULT_MAX_POOLED_BUFFERS = 16;
 
 	protected final KryoPool pool;
 
+	private final BufferPool<Output> outputs = new BufferPool<Output>();
+
+	private final BufferPool<Input> inputs = new BufferPool<Input>();
+
+	private volatile int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	private volatile int maxPooledBufferSize = DEFAULT_MAX_POOLED_BUFFER_SIZE;
+
+	private volatile int maxPooledBuffers = DEFAULT_MAX_POOLED_BUFFERS;
+
 	protected AbstractKryoCodec() {
 		KryoFactory factory = new KryoFactory() {
 			public Kryo create() {
@@ -55,20 +89,84 @@ public abstract class AbstractKryoCodec implements Codec {
 		this.pool = new KryoPool.Builder(factory).softReferences().build();
 	}
 
+	/**
+	 * Set the initial size of pooled buffers; encoding buffers grow as needed.
+	 * Default {@value #DEFAULT_BUFFER_SIZE}.
+	 * @param bufferSize the buffer size.
+	 * @since 5.0
+	 */
+	public void setBufferSize(int bufferSize) {
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be greater than 0");
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Set the size above which an encoding buffer that has grown is discarded rather than
+	 * returned to the pool. Default {@value #DEFAULT_MAX_POOLED_BUFFER_SIZE}.
+	 * @param maxPooledBufferSize the size.
+	 * @since 5.0
+	 */
+	public void setMaxPooledBufferSize(int maxPooledBufferSize) {
+		this.maxPooledBufferSize = maxPooledBufferSize;
+	}
+
+	/**
+	 * Set the maximum number of encoding and decoding buffers retained by the pools;
+	 * 0 disables pooling. Default {@value #DEFAULT_MAX_POOLED_BUFFERS}.
+	 * @param maxPooledBuffers the maximum number of buffers.
+	 * @since 5.0
+	 */
+	public void setMaxPooledBuffers(int maxPooledBuffers) {
+		Assert.isTrue(maxPooledBuffers >= 0, "'maxPooledBuffers' cannot be negative");
+		this.maxPooledBuffers = maxPooledBuffers;
+	}
+
 	@Override
 	public void encode(final Object object, OutputStream outputStream) throws IOException {
 		Assert.notNull(object, "cannot encode a null object");
 		Assert.notNull(outputStream, "'outputSteam' cannot be null");
-		final Output output = (outputStream instanceof Output ? (Output) outputStream : new Output(outputStream));
-		this.pool.run(new KryoCallback<Object>() {
-
-			public Object execute(Kryo kryo) {
-				doEncode(kryo, object, output);
-				return Void.class;
+		if (outputStream instanceof Output) {
+			encode(object, (Output) outputStream);
+			outputStream.close();
+		}
+		else {
+			Output output = acquireOutput();
+			try {
+				output.setOutputStream(outputStream);
+				encode(object, output);
+				output.close();
+			}
+			finally {
+				releaseOutput(output);
 			}
+		}
+	}
 
-		});
-		output.close();
+	@Override
+	public byte[] encode(Object object) throws IOException {
+		Assert.notNull(object, "cannot encode a null object");
+		Output output = acquireOutput();
+		try {
+			encode(object, output);
+			return output.toBytes();
+		}
+		finally {
+			releaseOutput(output);
+		}
+	}
+
+	@Override
+	public void encode(Object object, ByteBuffer buffer) throws IOException {
+		Assert.notNull(object, "cannot encode a null object");
+		Assert.notNull(buffer, "'buffer' cannot be null");
+		Output output = acquireOutput();
+		try {
+			encode(object, output);
+			buffer.put(output.getBuffer(), 0, output.position());
+		}
+		finally {
+			releaseOutput(output);
+		}
 	}
 
 	@Override
@@ -87,30 +185,87 @@ public abstract class AbstractKryoCodec implements Codec {
 	public <T> T decode(InputStream inputStream, final Class<T> type) throws IOException {
 		Assert.notNull(inputStream, "'inputStream' cannot be null");
 		Assert.notNull(type, "'type' cannot be null");
-		final Input input = (inputStream instanceof Input ? (Input) inputStream : new Input(inputStream));
-		T result = null;
+		if (inputStream instanceof Input) {
+			try {
+				return decode((Input) inputStream, type);
+			}
+			finally {
+				inputStream.close();
+			}
+		}
+		Input input = acquireInput();
 		try {
-			result = this.pool.run(new KryoCallback<T>() {
-
-				public T execute(Kryo kryo) {
-					return doDecode(kryo, input, type);
-				}
-
-			});
+			input.setInputStream(inputStream);
+			return decode(input, type);
 		}
 		finally {
 			input.close();
+			releaseInput(input);
 		}
-		return result;
 	}
 
 	@Override
-	public byte[] encode(Object object) throws IOException {
-		ByteArrayOutputStream bos = new ByteArrayOutputStream();
-		encode(object, bos);
-		byte[] bytes = bos.toByteArray();
-		bos.close();
-		return bytes;
+	public <T> T decode(ByteBuffer buffer, Class<T> type) throws IOException {
+		Assert.notNull(buffer, "'buffer' cannot be null");
+		Assert.notNull(type, "'type' cannot be null");
+		ByteBuffer slice = buffer.slice();
+		Input input;
+		int offset;
+		if (slice.hasArray()) {
+			offset = slice.arrayOffset();
+			input = new Input(slice.array(), offset, slice.remaining());
+		}
+		else {
+			offset = 0;
+			input = new ByteBufferInput(slice);
+		}
+		T result = decode(input, type);
+		buffer.position(buffer.position() + input.position() - offset);
+		return result;
+	}
+
+	private void encode(final Object object, final Output output) {
+		this.pool.run(new KryoCallback<Object>() {
+
+			public Object execute(Kryo kryo) {
+				doEncode(kryo, object, output);
+				return Void.class;
+			}
+
+		});
+	}
+
+	private <T> T decode(final Input input, final Class<T> type) {
+		Assert.notNull(type, "'type' cannot be null");
+		return this.pool.run(new KryoCallback<T>() {
+
+			public T execute(Kryo kryo) {
+				return doDecode(kryo, input, type);
+			}
+
+		});
+	}
+
+	private Output acquireOutput() {
+		Output output = this.outputs.acquire();
+		return output != null ? output : new Output(this.bufferSize, -1);
+	}
+
+	private void releaseOutput(Output output) {
+		output.setOutputStream(null);
+		if (output.getBuffer().length <= this.maxPooledBufferSize) {
+			this.outputs.release(output, this.maxPooledBuffers);
+		}
+	}
+
+	private Input acquireInput() {
+		Input input = this.inputs.acquire();
+		return input != null ? input : new Input(this.bufferSize);
+	}
+
+	private void releaseInput(Input input) {
+		input.setInputStream(null);
+		this.inputs.release(input, this.maxPooledBuffers);
 	}
 
 	/**
@@ -138,4 +293,30 @@ public abstract class AbstractKryoCodec implements Codec {
 	 */
 	protected abstract void configureKryoInstance(Kryo kryo);
 
+
+	private static final class BufferPool<B> {
+
+		private final Queue<B> buffers = new ConcurrentLinkedQueue<B>();
+
+		private final AtomicInteger pooled = new AtomicInteger();
+
+		B acquire() {
+			B buffer = this.buffers.poll();
+			if (buffer != null) {
+				this.pooled.decrementAndGet();
+			}
+			return buffer;
+		}
+
+		void release(B buffer, int maxPooled) {
+			if (this.pooled.incrementAndGet() <= maxPooled) {
+				this.buffers.offer(buffer);
+			}
+			else {
+				this.pooled.decrementAndGet();
+			}
+		}
+
+	}
+
 }
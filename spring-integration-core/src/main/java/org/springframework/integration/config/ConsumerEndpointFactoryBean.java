@@ -281,6 +281,7 @@ public class ConsumerEndpointFactoryBean
 				pollingConsumer.setErrorHandler(this.pollerMetadata.getErrorHandler());
 
 				pollingConsumer.setReceiveTimeout(this.pollerMetadata.getReceiveTimeout());
+				pollingConsumer.setBatchReceive(this.pollerMetadata.isBatchReceive());
 				pollingConsumer.setTransactionSynchronizationFactory(
 						this.pollerMetadata.getTransactionSynchronizationFactory());
 				pollingConsumer.setBeanClassLoader(this.beanClassLoader);
@@ -46,6 +46,7 @@ import org.springframework.integration.channel.DefaultHeaderChannelRegistry;
 import org.springframework.integration.config.annotation.MessagingAnnotationPostProcessor;
 import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.integration.context.IntegrationProperties;
+import org.springframework.integration.expression.SpelCompilationRegistry;
 import org.springframework.integration.support.DefaultMessageBuilderFactory;
 import org.springframework.integration.support.converter.DefaultDatatypeChannelMessageConverter;
 import org.springframework.integration.support.utils.IntegrationUtils;
@@ -89,6 +90,7 @@ public class IntegrationRegistrar implements ImportBeanDefinitionRegistrar, Bean
 		this.registerImplicitChannelCreator(registry);
 		this.registerIntegrationConfigurationBeanFactoryPostProcessor(registry);
 		this.registerIntegrationEvaluationContext(registry);
+		this.registerSpelCompilationRegistry(registry);
 		this.registerIntegrationProperties(registry);
 		this.registerHeaderChannelRegistry(registry);
 		this.registerGlobalChannelInterceptorProcessor(registry);
@@ -189,6 +191,26 @@ public class IntegrationRegistrar implements ImportBeanDefinitionRegistrar, Bean
 		}
 	}
 
+	/**
+	 * Register {@link SpelCompilationRegistry} bean, if necessary.
+	 * @param registry The {@link BeanDefinitionRegistry} to register additional {@link BeanDefinition}s.
+	 */
+	private void registerSpelCompilationRegistry(BeanDefinitionRegistry registry) {
+		if (!registry.containsBeanDefinition(IntegrationContextUtils.SPEL_COMPILATION_REGISTRY_BEAN_NAME)) {
+			BeanDefinitionBuilder spelCompilationRegistryBuilder = BeanDefinitionBuilder
+					.genericBeanDefinition(SpelCompilationRegistry.class)
+					.addPropertyValue("compilerMode",
+							IntegrationProperties.getExpressionFor(IntegrationProperties.SPEL_COMPILER_MODE));
+			spelCompilationRegistryBuilder.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+
+			BeanDefinitionHolder spelCompilationRegistryHolder =
+					new BeanDefinitionHolder(spelCompilationRegistryBuilder.getBeanDefinition(),
+							IntegrationContextUtils.SPEL_COMPILATION_REGISTRY_BEAN_NAME);
+
+			BeanDefinitionReaderUtils.registerBeanDefinition(spelCompilationRegistryHolder, registry);
+		}
+	}
+
 	/**
 	 * Register {@code jsonPath} and {@code xpath} SpEL-function beans, if necessary.
 	 * @param registry The {@link BeanDefinitionRegistry} to register additional {@link BeanDefinition}s.
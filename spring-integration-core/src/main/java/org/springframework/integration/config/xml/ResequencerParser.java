@@ -35,6 +35,8 @@ public class ResequencerParser extends AbstractCorrelatingMessageHandlerParser {
 
 	private static final String RELEASE_PARTIAL_SEQUENCES_ATTRIBUTE = "release-partial-sequences";
 
+	private static final String STREAMING_RELEASE_ATTRIBUTE = "streaming-release";
+
 	@Override
 	protected BeanDefinitionBuilder parseHandler(Element element, ParserContext parserContext) {
 
@@ -46,6 +48,7 @@ public class ResequencerParser extends AbstractCorrelatingMessageHandlerParser {
 		this.doParse(builder, element, processorBuilder.getBeanDefinition(), parserContext);
 
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, RELEASE_PARTIAL_SEQUENCES_ATTRIBUTE);
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, STREAMING_RELEASE_ATTRIBUTE);
 
 		return builder;
 	}
@@ -21,6 +21,7 @@ import java.util.Properties;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.integration.config.IntegrationConfigUtils;
+import org.springframework.integration.expression.SpelCompilationRegistry;
 import org.springframework.integration.metadata.MetadataStore;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.scheduling.TaskScheduler;
@@ -81,6 +82,8 @@ public abstract class IntegrationContextUtils {
 
 	public static final String INTEGRATION_GRAPH_SERVER_BEAN_NAME = "integrationGraphServer";
 
+	public static final String SPEL_COMPILATION_REGISTRY_BEAN_NAME = "integrationSpelCompilationRegistry";
+
 	/**
 	 * @param beanFactory BeanFactory for lookup, must not be null.
 	 * @return The {@link MetadataStore} bean whose name is "metadataStore".
@@ -124,6 +127,16 @@ public abstract class IntegrationContextUtils {
 		return getBeanOfType(beanFactory, INTEGRATION_EVALUATION_CONTEXT_BEAN_NAME, StandardEvaluationContext.class);
 	}
 
+	/**
+	 * @param beanFactory BeanFactory for lookup, must not be null.
+	 * @return the {@link SpelCompilationRegistry} bean whose name is
+	 * "integrationSpelCompilationRegistry", if available.
+	 * @since 5.0
+	 */
+	public static SpelCompilationRegistry getSpelCompilationRegistry(BeanFactory beanFactory) {
+		return getBeanOfType(beanFactory, SPEL_COMPILATION_REGISTRY_BEAN_NAME, SpelCompilationRegistry.class);
+	}
+
 	private static <T> T getBeanOfType(BeanFactory beanFactory, String beanName, Class<T> type) {
 		Assert.notNull(beanFactory, "BeanFactory must not be null");
 		if (!beanFactory.containsBean(beanName)) {
@@ -71,6 +71,14 @@ public final class IntegrationProperties {
 	 */
 	public static final String READ_ONLY_HEADERS = INTEGRATION_PROPERTIES_PREFIX + "readOnly.headers";
 
+	/**
+	 * Specifies the {@link org.springframework.expression.spel.SpelCompilerMode} ({@code off},
+	 * {@code mixed} or {@code immediate}) used for expressions evaluated by expression-driven
+	 * components; see {@link org.springframework.integration.expression.SpelCompilationRegistry}.
+	 * @since 5.0
+	 */
+	public static final String SPEL_COMPILER_MODE = INTEGRATION_PROPERTIES_PREFIX + "spel.compilerMode";
+
 
 	private static Properties defaults;
 
@@ -16,9 +16,16 @@
 
 package org.springframework.integration.dispatcher;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
@@ -29,6 +36,7 @@ import org.springframework.integration.support.MessageBuilderFactory;
 import org.springframework.integration.support.MessageDecorator;
 import org.springframework.integration.support.utils.IntegrationUtils;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.MessageHandlingRunnable;
@@ -43,6 +51,15 @@ import org.springframework.util.Assert;
  * If the 'ignoreFailures' flag is set to <code>true</code> on the other hand, it will make a best effort to send the
  * message to each of its handlers. In other words, when 'ignoreFailures' is <code>true</code>, if it fails to send to
  * any one handler, it will simply log a warn-level message but continue to send the Message to any other handlers.
+ * <p>
+ * With an Executor, {@link #dispatchWithCompletion(Message)} scatters the Message to the handlers (with at most
+ * {@link #setMaxConcurrency(int) maxConcurrency} handlers running at once) and returns a {@link CompletableFuture}
+ * that is completed when all the handlers have finished; when 'awaitCompletion' is <code>true</code>,
+ * {@link #dispatch(Message)} waits for that future, so that the sender is blocked for the duration of the slowest
+ * handler rather than the sum of the handlers' durations, and handler exceptions are thrown to the sender. The
+ * waiting sender takes part in the scatter: it invokes handlers itself, and only {@code workers - 1} tasks are
+ * submitted to the Executor, so a sender running on a bounded Executor (for example, a nested broadcast) cannot
+ * be starved by its own tasks.
  *
  * @author Mark Fisher
  * @author Iwein Fuld
@@ -62,6 +79,12 @@ public class BroadcastingDispatcher extends AbstractDispatcher implements BeanFa
 
 	private volatile int minSubscribers;
 
+	private volatile boolean awaitCompletion;
+
+	private volatile int maxConcurrency;
+
+	private volatile boolean failFast;
+
 	private volatile MessageBuilderFactory messageBuilderFactory = new DefaultMessageBuilderFactory();
 
 	private volatile boolean messageBuilderFactorySet;
@@ -131,6 +154,40 @@ public class BroadcastingDispatcher extends AbstractDispatcher implements BeanFa
 		this.minSubscribers = minSubscribers;
 	}
 
+	/**
+	 * When an Executor is provided, specify whether {@link #dispatch(Message)} should wait until all the handlers
+	 * have handled the Message, throwing any exceptions to the sender. Default <code>false</code>.
+	 * @param awaitCompletion true to wait for the handlers.
+	 * @since 5.0
+	 * @see #dispatchWithCompletion(Message)
+	 */
+	public void setAwaitCompletion(boolean awaitCompletion) {
+		this.awaitCompletion = awaitCompletion;
+	}
+
+	/**
+	 * Set the maximum number of handlers that are invoked concurrently for a Message by
+	 * {@link #dispatchWithCompletion(Message)}. Default 0, meaning a task is submitted for each handler.
+	 * @param maxConcurrency the maximum concurrency.
+	 * @since 5.0
+	 */
+	public void setMaxConcurrency(int maxConcurrency) {
+		Assert.isTrue(maxConcurrency >= 0, "'maxConcurrency' cannot be negative");
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * Specify whether the future returned by {@link #dispatchWithCompletion(Message)} should be completed with the
+	 * first exception thrown by a handler, in which case handlers that have not yet been invoked are skipped. By
+	 * default (<code>false</code>), all handlers are invoked and the future is completed with the exception, or an
+	 * {@link AggregateMessageDeliveryException} if several handlers fail.
+	 * @param failFast true to fail fast.
+	 * @since 5.0
+	 */
+	public void setFailFast(boolean failFast) {
+		this.failFast = failFast;
+	}
+
 	public void setMessageHandlingTaskDecorator(MessageHandlingTaskDecorator messageHandlingTaskDecorator) {
 		Assert.notNull(messageHandlingTaskDecorator, "'messageHandlingTaskDecorator' must not be null.");
 		this.messageHandlingTaskDecorator = messageHandlingTaskDecorator;
@@ -153,6 +210,13 @@ public class BroadcastingDispatcher extends AbstractDispatcher implements BeanFa
 
 	@Override
 	public boolean dispatch(Message<?> message) {
+		if (this.awaitCompletion && this.executor != null) {
+			int dispatched = awaitCompletion(message, scatter(message, true));
+			if (dispatched == 0 && this.minSubscribers == 0 && logger.isDebugEnabled()) {
+				logger.debug("No subscribers received message, default behavior is ignore");
+			}
+			return dispatched >= this.minSubscribers;
+		}
 		int dispatched = 0;
 		int sequenceNumber = 1;
 		Collection<MessageHandler> handlers = this.getHandlers();
@@ -199,7 +263,97 @@ public class BroadcastingDispatcher extends AbstractDispatcher implements BeanFa
 	}
 
 
-	private Runnable createMessageHandlingTask(final MessageHandler handler, final Message<?> message) {
+	/**
+	 * Dispatch the Message to all the handlers, on the Executor if provided, invoking at most
+	 * {@link #setMaxConcurrency(int) maxConcurrency} handlers concurrently. If the executor rejects a task, that
+	 * task runs on the calling thread.
+	 * @param message the message.
+	 * @return a future that is completed with the number of handlers that handled the Message when all the handlers
+	 * have finished, or exceptionally as described in {@link #setFailFast(boolean)}.
+	 * @since 5.0
+	 */
+	public CompletableFuture<Integer> dispatchWithCompletion(Message<?> message) {
+		return scatter(message, false);
+	}
+
+	/**
+	 * Scatter the Message to the handlers.
+	 * @param message the message.
+	 * @param inline true to run one of the workers on the calling thread.
+	 * @return the future.
+	 */
+	private CompletableFuture<Integer> scatter(Message<?> message, boolean inline) {
+		Collection<MessageHandler> handlers = this.getHandlers();
+		if (this.requireSubscribers && handlers.size() == 0) {
+			throw new MessageDispatchingException(message, "Dispatcher has no subscribers");
+		}
+		MessageHandler[] handlerArray = handlers.toArray(new MessageHandler[handlers.size()]);
+		CompletableFuture<Integer> future = new CompletableFuture<Integer>();
+		if (handlerArray.length == 0) {
+			future.complete(0);
+			return future;
+		}
+		Message<?>[] messages = new Message<?>[handlerArray.length];
+		for (int i = 0; i < messages.length; i++) {
+			messages[i] = message;
+			if (this.applySequence) {
+				messages[i] = getMessageBuilderFactory()
+						.fromMessage(message)
+						.pushSequenceDetails(message.getHeaders().getId(), i + 1, messages.length)
+						.build();
+				if (message instanceof MessageDecorator) {
+					messages[i] = ((MessageDecorator) message).decorateMessage(messages[i]);
+				}
+			}
+		}
+		int workers = 1;
+		if (this.executor != null) {
+			int maxConcurrency = this.maxConcurrency;
+			workers = maxConcurrency > 0 ? Math.min(maxConcurrency, handlerArray.length) : handlerArray.length;
+		}
+		Scatter scatter = new Scatter(message, handlerArray, messages, future);
+		int submitted = inline || this.executor == null ? workers - 1 : workers;
+		for (int i = 0; i < submitted; i++) {
+			if (this.executor == null) {
+				scatter.run();
+			}
+			else {
+				try {
+					this.executor.execute(scatter);
+				}
+				catch (RejectedExecutionException e) {
+					scatter.run();
+				}
+			}
+		}
+		if (submitted < workers) {
+			scatter.run();
+		}
+		return future;
+	}
+
+	private int awaitCompletion(Message<?> message, CompletableFuture<Integer> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessageDeliveryException(message, "Interrupted while waiting for the subscribers", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new MessageDeliveryException(message, "Failed to handle Message", e.getCause());
+		}
+	}
+
+	private Runnable createMessageHandlingTask(MessageHandler handler, Message<?> message) {
+		return createMessageHandlingTask(handler, message, null);
+	}
+
+	private Runnable createMessageHandlingTask(final MessageHandler handler, final Message<?> message,
+			final AtomicInteger handled) {
 		MessageHandlingRunnable task = new MessageHandlingRunnable() {
 
 			private final MessageHandler delegate = new MessageHandler() {
@@ -213,7 +367,9 @@ public class BroadcastingDispatcher extends AbstractDispatcher implements BeanFa
 
 			@Override
 			public void run() {
-				invokeHandler(handler, message);
+				if (invokeHandler(handler, message) && handled != null) {
+					handled.incrementAndGet();
+				}
 			}
 
 			@Override
@@ -250,4 +406,80 @@ public class BroadcastingDispatcher extends AbstractDispatcher implements BeanFa
 		}
 	}
 
+	/**
+	 * Invokes the handlers of one Message; the same instance is run by each worker, and
+	 * each worker invokes the next handler that has not been started until there are
+	 * none left. The last worker to finish completes the future.
+	 */
+	/**
+	 * Invokes the handlers that have not yet been claimed by another worker; the future is completed when all
+	 * the handlers have been invoked, regardless of which workers have run, so that tasks still queued in the
+	 * Executor when the other workers have claimed all the handlers do not delay completion.
+	 */
+	private final class Scatter implements Runnable {
+
+		private final Message<?> message;
+
+		private final MessageHandler[] handlers;
+
+		private final Message<?>[] messages;
+
+		private final CompletableFuture<Integer> future;
+
+		private final AtomicInteger next = new AtomicInteger();
+
+		private final AtomicInteger pending;
+
+		private final AtomicInteger handled = new AtomicInteger();
+
+		private final List<RuntimeException> exceptions =
+				Collections.synchronizedList(new ArrayList<RuntimeException>());
+
+		Scatter(Message<?> message, MessageHandler[] handlers, Message<?>[] messages,
+				CompletableFuture<Integer> future) {
+			this.message = message;
+			this.handlers = handlers;
+			this.messages = messages;
+			this.pending = new AtomicInteger(handlers.length);
+			this.future = future;
+		}
+
+		@Override
+		public void run() {
+			int index;
+			while (!(BroadcastingDispatcher.this.failFast && this.future.isDone())
+					&& (index = this.next.getAndIncrement()) < this.handlers.length) {
+				try {
+					createMessageHandlingTask(this.handlers[index], this.messages[index], this.handled).run();
+				}
+				catch (RuntimeException e) {
+					this.exceptions.add(e);
+					if (BroadcastingDispatcher.this.failFast) {
+						this.future.completeExceptionally(e);
+					}
+				}
+				finally {
+					if (this.pending.decrementAndGet() == 0) {
+						complete();
+					}
+				}
+			}
+		}
+
+		private void complete() {
+			if (this.exceptions.isEmpty()) {
+				this.future.complete(this.handled.get());
+			}
+			else if (this.exceptions.size() == 1) {
+				this.future.completeExceptionally(this.exceptions.get(0));
+			}
+			else {
+				this.future.completeExceptionally(new AggregateMessageDeliveryException(this.message,
+						"Failed to handle Message in " + this.exceptions.size() + " handlers.",
+						new ArrayList<RuntimeException>(this.exceptions)));
+			}
+		}
+
+	}
+
 }
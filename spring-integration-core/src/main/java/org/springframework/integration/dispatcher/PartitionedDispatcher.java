@@ -0,0 +1,286 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.dispatcher;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.aggregator.CorrelationStrategy;
+import org.springframework.integration.aggregator.HeaderAttributeCorrelationStrategy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * A {@link MessageDispatcher} that assigns each message to one of a fixed number of
+ * partitions, according to the hash of a partition key, and dispatches the messages of
+ * each partition in order, one at a time, on the {@link Executor}. Messages with the
+ * same key are therefore handled in the order they were sent, while messages in
+ * different partitions are handled in parallel.
+ * <p>
+ * A partition is not bound to a thread: when it has pending messages, a task that
+ * drains it (up to {@link #setDrainBatchSize(int) drainBatchSize} messages, after
+ * which the task is resubmitted) is submitted to the executor, so the threads of a
+ * shared executor serve whichever partitions have work.
+ * <p>
+ * The partition key is determined by the {@link CorrelationStrategy}; by default the
+ * {@code correlationId} header. Messages without a key are distributed by their
+ * {@code id} and so are not ordered.
+ * <p>
+ * The handler for each message is selected as in an executor-less
+ * {@link UnicastingDispatcher} (load balancing and failover). Exceptions are passed
+ * to the {@link ErrorHandler}, if any, or logged; they do not stop the partition.
+ *
+ * @since 5.0
+ */
+public class PartitionedDispatcher extends AbstractDispatcher {
+
+	/**
+	 * The default maximum number of messages handled by a partition task before it is
+	 * resubmitted to the executor.
+	 */
+	public static final int DEFAULT_DRAIN_BATCH_SIZE = 64;
+
+	private final UnicastingDispatcher delegate = new UnicastingDispatcher();
+
+	private final MessageHandler dispatchHandler = new MessageHandler() {
+
+		@Override
+		public void handleMessage(Message<?> message) throws MessagingException {
+			PartitionedDispatcher.this.delegate.dispatch(message);
+		}
+
+	};
+
+	private final Executor executor;
+
+	private final Partition[] partitions;
+
+	private volatile CorrelationStrategy partitionKeyStrategy =
+			new HeaderAttributeCorrelationStrategy(IntegrationMessageHeaderAccessor.CORRELATION_ID);
+
+	private volatile int drainBatchSize = DEFAULT_DRAIN_BATCH_SIZE;
+
+	private volatile ErrorHandler errorHandler;
+
+	private volatile MessageHandlingTaskDecorator messageHandlingTaskDecorator =
+			new MessageHandlingTaskDecorator() {
+
+				@Override
+				public Runnable decorate(MessageHandlingRunnable task) {
+					return task;
+				}
+
+			};
+
+	/**
+	 * Construct an instance with the provided number of partitions, dispatching on the
+	 * provided executor.
+	 * @param partitionCount the number of partitions.
+	 * @param executor the executor.
+	 */
+	public PartitionedDispatcher(int partitionCount, Executor executor) {
+		Assert.isTrue(partitionCount > 0, "'partitionCount' must be greater than 0");
+		Assert.notNull(executor, "'executor' cannot be null");
+		this.executor = executor;
+		this.partitions = new Partition[partitionCount];
+		for (int i = 0; i < partitionCount; i++) {
+			this.partitions[i] = new Partition();
+		}
+	}
+
+	/**
+	 * Set the strategy to determine the partition key of a message.
+	 * @param partitionKeyStrategy the strategy.
+	 */
+	public void setPartitionKeyStrategy(CorrelationStrategy partitionKeyStrategy) {
+		Assert.notNull(partitionKeyStrategy, "'partitionKeyStrategy' cannot be null");
+		this.partitionKeyStrategy = partitionKeyStrategy;
+	}
+
+	/**
+	 * Set the maximum number of messages handled by a partition task before it is
+	 * resubmitted to the executor, allowing other partitions to be served when the
+	 * executor has fewer threads than there are busy partitions. Default
+	 * {@value #DEFAULT_DRAIN_BATCH_SIZE}.
+	 * @param drainBatchSize the batch size.
+	 */
+	public void setDrainBatchSize(int drainBatchSize) {
+		Assert.isTrue(drainBatchSize > 0, "'drainBatchSize' must be greater than 0");
+		this.drainBatchSize = drainBatchSize;
+	}
+
+	/**
+	 * Set an {@link ErrorHandler} to handle exceptions thrown by the handlers.
+	 * @param errorHandler the error handler.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * Specify whether the dispatcher should failover when a single
+	 * {@link MessageHandler} throws an Exception. Default true.
+	 * @param failover The failover boolean.
+	 * @see UnicastingDispatcher#setFailover(boolean)
+	 */
+	public void setFailover(boolean failover) {
+		this.delegate.setFailover(failover);
+	}
+
+	/**
+	 * Provide a {@link LoadBalancingStrategy} for selecting the handler of each message.
+	 * @param loadBalancingStrategy The load balancing strategy implementation.
+	 * @see UnicastingDispatcher#setLoadBalancingStrategy(LoadBalancingStrategy)
+	 */
+	public void setLoadBalancingStrategy(LoadBalancingStrategy loadBalancingStrategy) {
+		this.delegate.setLoadBalancingStrategy(loadBalancingStrategy);
+	}
+
+	public void setMessageHandlingTaskDecorator(MessageHandlingTaskDecorator messageHandlingTaskDecorator) {
+		Assert.notNull(messageHandlingTaskDecorator, "'messageHandlingTaskDecorator' must not be null.");
+		this.messageHandlingTaskDecorator = messageHandlingTaskDecorator;
+	}
+
+	@Override
+	public synchronized boolean addHandler(MessageHandler handler) {
+		boolean added = super.addHandler(handler);
+		if (added) {
+			this.delegate.addHandler(handler);
+		}
+		return added;
+	}
+
+	@Override
+	public synchronized boolean removeHandler(MessageHandler handler) {
+		boolean removed = super.removeHandler(handler);
+		if (removed) {
+			this.delegate.removeHandler(handler);
+		}
+		return removed;
+	}
+
+	/**
+	 * @return the number of partitions.
+	 */
+	public int getPartitionCount() {
+		return this.partitions.length;
+	}
+
+	/**
+	 * @return the number of messages waiting in, or being handled by, each partition.
+	 */
+	public int[] getPartitionQueueDepths() {
+		int[] depths = new int[this.partitions.length];
+		for (int i = 0; i < depths.length; i++) {
+			depths[i] = this.partitions[i].pending.get();
+		}
+		return depths;
+	}
+
+	@Override
+	public boolean dispatch(Message<?> message) {
+		Object key = this.partitionKeyStrategy.getCorrelationKey(message);
+		if (key == null) {
+			key = message.getHeaders().getId();
+		}
+		Partition partition = this.partitions[(key.hashCode() & Integer.MAX_VALUE) % this.partitions.length];
+		partition.messages.add(message);
+		if (partition.pending.incrementAndGet() == 1 && !partition.submit()) {
+			partition.run();
+		}
+		return true;
+	}
+
+	private void handle(final Message<?> message) {
+		MessageHandlingRunnable task = new MessageHandlingRunnable() {
+
+			@Override
+			public void run() {
+				PartitionedDispatcher.this.dispatchHandler.handleMessage(message);
+			}
+
+			@Override
+			public Message<?> getMessage() {
+				return message;
+			}
+
+			@Override
+			public MessageHandler getMessageHandler() {
+				return PartitionedDispatcher.this.dispatchHandler;
+			}
+
+		};
+		try {
+			this.messageHandlingTaskDecorator.decorate(task).run();
+		}
+		catch (Throwable t) { //NOSONAR - the partition must not stop
+			if (this.errorHandler != null) {
+				this.errorHandler.handleError(t);
+			}
+			else {
+				this.logger.error("Failed to handle " + message, t);
+			}
+		}
+	}
+
+	/**
+	 * A queue of messages drained by at most one task at a time; {@code pending}
+	 * counts the messages not yet handled, and a task is submitted when it goes from
+	 * 0 to 1. The task stops when it has handled the last pending message. If the
+	 * executor rejects the task, the partition is drained on the current thread.
+	 */
+	private final class Partition implements Runnable {
+
+		private final Queue<Message<?>> messages = new ConcurrentLinkedQueue<Message<?>>();
+
+		private final AtomicInteger pending = new AtomicInteger();
+
+		@Override
+		public void run() {
+			int batch = PartitionedDispatcher.this.drainBatchSize;
+			do {
+				for (int i = 0; i < batch; i++) {
+					handle(this.messages.poll());
+					if (this.pending.decrementAndGet() == 0) {
+						return;
+					}
+				}
+			}
+			while (!submit());
+		}
+
+		boolean submit() {
+			try {
+				PartitionedDispatcher.this.executor.execute(this);
+				return true;
+			}
+			catch (RejectedExecutionException e) {
+				return false;
+			}
+		}
+
+	}
+
+}
@@ -240,15 +240,15 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 	private boolean doPoll() {
 		IntegrationResourceHolder holder = this.bindResourceHolderIfNecessary(
 				this.getResourceKey(), this.getResourceToBind());
+		if (isBatchPolling()) {
+			return doPollBatch(holder);
+		}
 		Message<?> message = null;
 		try {
 			message = this.receiveMessage();
 		}
 		catch (Exception e) {
-			if (Thread.interrupted()) {
-				if (logger.isDebugEnabled()) {
-					logger.debug("Poll interrupted - during stop()? : " + e.getMessage());
-				}
+			if (isInterruptedDuringStop(e)) {
 				return false;
 			}
 			else {
@@ -275,6 +275,48 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 		return result;
 	}
 
+	private boolean doPollBatch(IntegrationResourceHolder holder) {
+		int maxMessages = this.maxMessagesPerPoll > 0 && this.maxMessagesPerPoll < Integer.MAX_VALUE
+				? (int) this.maxMessagesPerPoll
+				: Integer.MAX_VALUE;
+		List<Message<?>> messages = null;
+		try {
+			messages = this.receiveMessages(maxMessages);
+		}
+		catch (Exception e) {
+			if (isInterruptedDuringStop(e)) {
+				return false;
+			}
+			else {
+				throw (RuntimeException) e;
+			}
+		}
+		if (CollectionUtils.isEmpty(messages)) {
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Received no Messages during the poll, returning 'false'");
+			}
+			return false;
+		}
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Poll resulted in " + messages.size() + " Message(s)");
+		}
+		if (holder != null) {
+			holder.setMessage(getMessageBuilderFactory().withPayload(messages).build());
+		}
+		this.handleMessages(messages);
+		return true;
+	}
+
+	private boolean isInterruptedDuringStop(Exception e) {
+		if (Thread.interrupted()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Poll interrupted - during stop()? : " + e.getMessage());
+			}
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Obtain the next message (if one is available). MAY return null
 	 * if no message is immediately available.
@@ -288,6 +330,50 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 	 */
 	protected abstract void handleMessage(Message<?> message);
 
+	/**
+	 * Return true if each poll should obtain up to {@code maxMessagesPerPoll}
+	 * messages in one {@link #receiveMessages(int)} operation and hand them to
+	 * {@link #handleMessages(List)}, rather than calling {@link #receiveMessage()}
+	 * once per message. Default false.
+	 * @return true for batch polling.
+	 * @since 5.0
+	 */
+	protected boolean isBatchPolling() {
+		return false;
+	}
+
+	/**
+	 * Obtain up to {@code maxMessages} messages in batch polling mode. The default
+	 * implementation calls {@link #receiveMessage()} until it returns null or the
+	 * batch is complete; subclasses should override if the source supports a more
+	 * efficient bulk operation.
+	 * @param maxMessages the maximum number of messages.
+	 * @return the messages; may be empty.
+	 * @since 5.0
+	 * @see #isBatchPolling()
+	 */
+	protected List<Message<?>> receiveMessages(int maxMessages) {
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		Message<?> message;
+		while (messages.size() < maxMessages && (message = receiveMessage()) != null) {
+			messages.add(message);
+		}
+		return messages;
+	}
+
+	/**
+	 * Handle a batch of messages obtained in batch polling mode. The default
+	 * implementation calls {@link #handleMessage(Message)} for each message.
+	 * @param messages the messages.
+	 * @since 5.0
+	 * @see #isBatchPolling()
+	 */
+	protected void handleMessages(List<Message<?>> messages) {
+		for (Message<?> message : messages) {
+			handleMessage(message);
+		}
+	}
+
 	/**
 	 * Return a resource (MessageSource etc) to bind when using transaction
 	 * synchronization.
@@ -354,6 +440,11 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 								break;
 							}
 							count++;
+							if (AbstractPollingEndpoint.this.maxMessagesPerPoll > 0
+									&& AbstractPollingEndpoint.this.isBatchPolling()) {
+								// the whole batch was received in a single poll
+								break;
+							}
 						}
 						catch (Exception e) {
 							if (e instanceof RuntimeException) {
@@ -16,6 +16,13 @@
 
 package org.springframework.integration.endpoint;
 
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
 import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.integration.core.MessageProducer;
 import org.springframework.integration.core.MessagingTemplate;
@@ -23,6 +30,7 @@ import org.springframework.integration.history.MessageHistory;
 import org.springframework.integration.support.management.TrackableComponent;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.ErrorMessage;
 import org.springframework.util.Assert;
@@ -31,6 +39,10 @@ import org.springframework.util.StringUtils;
 /**
  * A support class for producer endpoints that provides a setter for the
  * output channel and a convenience method for sending Messages.
+ * <p>
+ * Alternatively, the produced messages can be consumed through a Reactive Streams
+ * {@link Publisher} obtained from {@link #toPublisher()}, in which case the source is
+ * subject to the subscriber's demand.
  *
  * @author Mark Fisher
  * @author Artem Bilan
@@ -51,6 +63,10 @@ public abstract class MessageProducerSupport extends AbstractEndpoint implements
 
 	private volatile boolean shouldTrack = false;
 
+	private volatile long sendTimeout = -1;
+
+	private volatile ProducerPublisher publisher;
+
 	protected MessageProducerSupport() {
 		this.setPhase(Integer.MAX_VALUE / 2);
 	}
@@ -118,8 +134,42 @@ public abstract class MessageProducerSupport extends AbstractEndpoint implements
 		return this.errorChannel;
 	}
 
+	/**
+	 * Set the timeout for sending a message to the output channel or, when a
+	 * {@link #toPublisher() publisher} is used, for waiting for demand from its
+	 * subscriber. Default: wait indefinitely.
+	 * @param sendTimeout the timeout in milliseconds.
+	 */
 	public void setSendTimeout(long sendTimeout) {
 		this.messagingTemplate.setSendTimeout(sendTimeout);
+		this.sendTimeout = sendTimeout;
+	}
+
+	/**
+	 * Return a {@link Publisher} of the messages produced by this endpoint; once called,
+	 * messages are emitted to the publisher's subscriber instead of being sent to the
+	 * output channel, which is then not required. The publisher supports one subscriber
+	 * at a time; after a subscription is cancelled, another subscriber can subscribe.
+	 * <p>
+	 * Messages are only emitted when the subscriber has requested them; while there is
+	 * no outstanding demand (or no subscriber), the thread producing a message waits,
+	 * up to the {@link #setSendTimeout(long) send timeout}, which stops thread-driven
+	 * sources from consuming further input; waiting threads give up when the endpoint is
+	 * stopped. In addition, {@link #doPause()} is invoked when the demand is exhausted
+	 * and {@link #doResume()} when the subscriber requests more messages, allowing
+	 * sources to be suspended without holding a thread.
+	 * @return the publisher.
+	 * @since 5.0
+	 */
+	public Publisher<Message<?>> toPublisher() {
+		if (this.publisher == null) {
+			synchronized (this) {
+				if (this.publisher == null) {
+					this.publisher = new ProducerPublisher();
+				}
+			}
+		}
+		return this.publisher;
 	}
 
 	@Override
@@ -133,7 +183,8 @@ public abstract class MessageProducerSupport extends AbstractEndpoint implements
 
 	@Override
 	public void afterSingletonsInstantiated() {
-		Assert.state(this.outputChannel != null || StringUtils.hasText(this.outputChannelName),
+		Assert.state(this.publisher != null || this.outputChannel != null
+				|| StringUtils.hasText(this.outputChannelName),
 				"'outputChannel' or 'outputChannelName' is required");
 	}
 
@@ -153,11 +204,35 @@ public abstract class MessageProducerSupport extends AbstractEndpoint implements
 	}
 
 	/**
-	 * Takes no action by default. Subclasses may override this if they
-	 * need lifecycle-managed behavior.
+	 * Releases the threads waiting for demand from the subscriber of the
+	 * {@link #toPublisher() publisher}. Subclasses may override this if they
+	 * need lifecycle-managed behavior, and should call {@code super.doStop()};
+	 * otherwise, waiting threads notice that the endpoint is stopped within a second.
 	 */
 	@Override
 	protected void doStop() {
+		ProducerPublisher publisher = this.publisher;
+		if (publisher != null) {
+			publisher.stopped();
+		}
+	}
+
+	/**
+	 * Takes no action by default. Subclasses may override this to suspend the source
+	 * when the subscriber of the {@link #toPublisher() publisher} has no outstanding
+	 * demand. Invoked while holding the publisher's lock, so it must not block.
+	 * @since 5.0
+	 */
+	protected void doPause() {
+	}
+
+	/**
+	 * Takes no action by default. Subclasses may override this to resume a source
+	 * suspended by {@link #doPause()} when the subscriber requests more messages.
+	 * Invoked while holding the publisher's lock.
+	 * @since 5.0
+	 */
+	protected void doResume() {
 	}
 
 	protected void sendMessage(Message<?> message) {
@@ -168,7 +243,13 @@ public abstract class MessageProducerSupport extends AbstractEndpoint implements
 			message = MessageHistory.write(message, this, this.getMessageBuilderFactory());
 		}
 		try {
-			this.messagingTemplate.send(getOutputChannel(), message);
+			ProducerPublisher publisher = this.publisher;
+			if (publisher != null) {
+				publisher.emit(message);
+			}
+			else {
+				this.messagingTemplate.send(getOutputChannel(), message);
+			}
 		}
 		catch (RuntimeException e) {
 			MessageChannel errorChannel = getErrorChannel();
@@ -181,4 +262,156 @@ public abstract class MessageProducerSupport extends AbstractEndpoint implements
 		}
 	}
 
+	/**
+	 * Emits the produced messages to a single subscriber, according to its demand. The
+	 * subscription and demand are guarded by the publisher's monitor; the signals to the
+	 * subscriber are serialized by a separate lock, so that the subscriber can request
+	 * and cancel while a producing thread is in {@code onNext()}.
+	 */
+	private final class ProducerPublisher implements Publisher<Message<?>> {
+
+		/**
+		 * The maximum time a producing thread waits before checking whether the
+		 * endpoint is still running.
+		 */
+		private static final long RUNNING_CHECK_INTERVAL = 1000;
+
+		private final Lock signalLock = new ReentrantLock();
+
+		private ProducerSubscription current;
+
+		private boolean paused;
+
+		private int stops;
+
+		@Override
+		public void subscribe(Subscriber<? super Message<?>> subscriber) {
+			Assert.notNull(subscriber, "'subscriber' cannot be null");
+			ProducerSubscription subscription = new ProducerSubscription(subscriber);
+			boolean subscribed;
+			synchronized (this) {
+				subscribed = this.current == null;
+				if (subscribed) {
+					this.current = subscription;
+				}
+			}
+			this.signalLock.lock();
+			try {
+				subscriber.onSubscribe(subscription);
+				if (!subscribed) {
+					subscriber.onError(new IllegalStateException("The publisher of " + MessageProducerSupport.this
+							+ " already has a subscriber"));
+				}
+			}
+			finally {
+				this.signalLock.unlock();
+			}
+		}
+
+		void emit(Message<?> message) {
+			long timeout = MessageProducerSupport.this.sendTimeout;
+			long deadline = timeout >= 0 ? System.currentTimeMillis() + timeout : 0;
+			ProducerSubscription subscription;
+			synchronized (this) {
+				int stops = this.stops;
+				while (this.current == null || this.current.demand == 0) {
+					if (!isRunning() || this.stops != stops) {
+						throw new MessageDeliveryException(message,
+								"The endpoint was stopped while waiting for demand from a subscriber");
+					}
+					long waitTime = RUNNING_CHECK_INTERVAL;
+					if (timeout >= 0) {
+						long remaining = deadline - System.currentTimeMillis();
+						if (remaining <= 0) {
+							throw new MessageDeliveryException(message,
+									"No demand from a subscriber within the send timeout");
+						}
+						waitTime = Math.min(remaining, waitTime);
+					}
+					try {
+						wait(waitTime);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new MessageDeliveryException(message,
+								"Interrupted while waiting for demand from a subscriber", e);
+					}
+				}
+				subscription = this.current;
+				if (subscription.demand != Long.MAX_VALUE) {
+					subscription.demand--;
+				}
+				if (subscription.demand == 0 && !this.paused) {
+					this.paused = true;
+					doPause();
+				}
+			}
+			this.signalLock.lock();
+			try {
+				subscription.subscriber.onNext(message);
+			}
+			finally {
+				this.signalLock.unlock();
+			}
+		}
+
+		synchronized void stopped() {
+			this.stops++;
+			notifyAll();
+		}
+
+		private final class ProducerSubscription implements Subscription {
+
+			private final Subscriber<? super Message<?>> subscriber;
+
+			private long demand;
+
+			ProducerSubscription(Subscriber<? super Message<?>> subscriber) {
+				this.subscriber = subscriber;
+			}
+
+			@Override
+			public void request(long n) {
+				ProducerPublisher publisher = ProducerPublisher.this;
+				synchronized (publisher) {
+					if (publisher.current != this) {
+						return;
+					}
+					if (n > 0) {
+						this.demand = this.demand + n < 0 ? Long.MAX_VALUE : this.demand + n;
+						if (publisher.paused) {
+							publisher.paused = false;
+							doResume();
+						}
+						publisher.notifyAll();
+						return;
+					}
+					publisher.current = null;
+					publisher.notifyAll();
+				}
+				publisher.signalLock.lock();
+				try {
+					this.subscriber.onError(new IllegalArgumentException(
+							"The number of requested messages must be positive (Reactive Streams rule 3.9)"));
+				}
+				finally {
+					publisher.signalLock.unlock();
+				}
+			}
+
+			@Override
+			public void cancel() {
+				ProducerPublisher publisher = ProducerPublisher.this;
+				synchronized (publisher) {
+					if (publisher.current == this) {
+						publisher.current = null;
+						publisher.notifyAll();
+					}
+				}
+			}
+
+		}
+
+	}
+
 }
@@ -16,14 +16,14 @@
 
 package org.springframework.integration.endpoint;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Iterator;
 import java.util.List;
 
 import org.springframework.context.Lifecycle;
+import org.springframework.integration.channel.AbstractMessageChannel;
+import org.springframework.integration.channel.AbstractPollableChannel;
 import org.springframework.integration.channel.ExecutorChannelInterceptorAware;
 import org.springframework.integration.core.MessageProducer;
+import org.springframework.integration.handler.BatchMessageHandler;
 import org.springframework.integration.router.MessageRouter;
 import org.springframework.integration.transaction.IntegrationResourceHolder;
 import org.springframework.messaging.Message;
@@ -35,7 +35,6 @@ import org.springframework.messaging.PollableChannel;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.ExecutorChannelInterceptor;
 import org.springframework.util.Assert;
-import org.springframework.util.CollectionUtils;
 
 /**
  * Message Endpoint that connects any {@link MessageHandler} implementation
@@ -56,6 +55,8 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 
 	private volatile long receiveTimeout = 1000;
 
+	private volatile boolean batchReceive;
+
 	public PollingConsumer(PollableChannel inputChannel, MessageHandler handler) {
 		Assert.notNull(inputChannel, "inputChannel must not be null");
 		Assert.notNull(handler, "handler must not be null");
@@ -74,6 +75,21 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 		this.receiveTimeout = receiveTimeout;
 	}
 
+	/**
+	 * Set to true to receive up to {@code maxMessagesPerPoll} messages from the
+	 * channel in one operation on each poll (see
+	 * {@link AbstractPollableChannel#receive(int, long)}), instead of one
+	 * {@code receive()} per message. If the handler is a {@link BatchMessageHandler},
+	 * the whole batch is passed to it, otherwise the messages are handled one by one.
+	 * When the channel has {@link ExecutorChannelInterceptor}s, the messages are
+	 * always handled one by one so the interceptors see each message.
+	 * @param batchReceive true to enable batch receive.
+	 * @since 5.0
+	 */
+	public void setBatchReceive(boolean batchReceive) {
+		this.batchReceive = batchReceive;
+	}
+
 	@Override
 	public MessageChannel getInputChannel() {
 		return this.inputChannel;
@@ -116,24 +132,36 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 	@Override
 	protected void handleMessage(Message<?> message) {
 		Message<?> theMessage = message;
-		Deque<ExecutorChannelInterceptor> interceptorStack = null;
+		ChannelInterceptor[] interceptorArray = null;
+		int applied = 0;
 		try {
 			if (this.channelInterceptors != null
 					&& ((ExecutorChannelInterceptorAware) this.inputChannel).hasExecutorInterceptors()) {
-				interceptorStack = new ArrayDeque<ExecutorChannelInterceptor>();
-				theMessage = applyBeforeHandle(theMessage, interceptorStack);
-				if (theMessage == null) {
-					return;
+				interceptorArray = getInterceptorArray();
+				for (; applied < interceptorArray.length; applied++) {
+					if (interceptorArray[applied] instanceof ExecutorChannelInterceptor) {
+						ExecutorChannelInterceptor executorInterceptor =
+								(ExecutorChannelInterceptor) interceptorArray[applied];
+						theMessage = executorInterceptor.beforeHandle(theMessage, this.inputChannel, this.handler);
+						if (theMessage == null) {
+							if (logger.isDebugEnabled()) {
+								logger.debug(executorInterceptor.getClass().getSimpleName()
+										+ " returned null from beforeHandle, i.e. precluding the send.");
+							}
+							triggerAfterMessageHandled(null, null, interceptorArray, applied);
+							return;
+						}
+					}
 				}
 			}
 			this.handler.handleMessage(theMessage);
-			if (!CollectionUtils.isEmpty(interceptorStack)) {
-				triggerAfterMessageHandled(theMessage, null, interceptorStack);
+			if (interceptorArray != null) {
+				triggerAfterMessageHandled(theMessage, null, interceptorArray, applied);
 			}
 		}
 		catch (Exception ex) {
-			if (!CollectionUtils.isEmpty(interceptorStack)) {
-				triggerAfterMessageHandled(theMessage, ex, interceptorStack);
+			if (interceptorArray != null) {
+				triggerAfterMessageHandled(theMessage, ex, interceptorArray, applied);
 			}
 			if (ex instanceof MessagingException) {
 				throw (MessagingException) ex;
@@ -142,47 +170,78 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 			throw new MessageDeliveryException(theMessage, description, ex);
 		}
 		catch (Error ex) { //NOSONAR - ok, we re-throw below
-			if (!CollectionUtils.isEmpty(interceptorStack)) {
+			if (interceptorArray != null) {
 				String description = "Failed to handle " + theMessage + " to " + this + " in " + this.handler;
 				triggerAfterMessageHandled(theMessage,
 						new MessageDeliveryException(theMessage, description, ex),
-						interceptorStack);
+						interceptorArray, applied);
 			}
 			throw ex;
 		}
 	}
 
-	private Message<?> applyBeforeHandle(Message<?> message, Deque<ExecutorChannelInterceptor> interceptorStack) {
-		Message<?> theMessage = message;
-		for (ChannelInterceptor interceptor : this.channelInterceptors) {
-			if (interceptor instanceof ExecutorChannelInterceptor) {
-				ExecutorChannelInterceptor executorInterceptor = (ExecutorChannelInterceptor) interceptor;
-				theMessage = executorInterceptor.beforeHandle(theMessage, this.inputChannel, this.handler);
-				if (message == null) {
-					if (logger.isDebugEnabled()) {
-						logger.debug(executorInterceptor.getClass().getSimpleName()
-								+ " returned null from beforeHandle, i.e. precluding the send.");
-					}
-					triggerAfterMessageHandled(null, null, interceptorStack);
-					return null;
+	private ChannelInterceptor[] getInterceptorArray() {
+		if (this.inputChannel instanceof AbstractMessageChannel) {
+			return ((AbstractMessageChannel) this.inputChannel).getChannelInterceptorArray();
+		}
+		else {
+			return this.channelInterceptors.toArray(new ChannelInterceptor[this.channelInterceptors.size()]);
+		}
+	}
+
+	/**
+	 * Invoke {@code afterMessageHandled()}, in reverse order, on the
+	 * {@link ExecutorChannelInterceptor}s among the first {@code applied} elements
+	 * of the interceptor snapshot.
+	 */
+	private void triggerAfterMessageHandled(Message<?> message, Exception ex,
+			ChannelInterceptor[] interceptorArray, int applied) {
+		for (int i = applied - 1; i >= 0; i--) {
+			if (interceptorArray[i] instanceof ExecutorChannelInterceptor) {
+				ExecutorChannelInterceptor interceptor = (ExecutorChannelInterceptor) interceptorArray[i];
+				try {
+					interceptor.afterMessageHandled(message, this.inputChannel, this.handler, ex);
+				}
+				catch (Throwable ex2) { //NOSONAR
+					logger.error("Exception from afterMessageHandled in " + interceptor, ex2);
 				}
-				interceptorStack.add(executorInterceptor);
 			}
 		}
-		return theMessage;
 	}
 
-	private void triggerAfterMessageHandled(Message<?> message, Exception ex,
-			Deque<ExecutorChannelInterceptor> interceptorStack) {
-		Iterator<ExecutorChannelInterceptor> iterator = interceptorStack.descendingIterator();
-		while (iterator.hasNext()) {
-			ExecutorChannelInterceptor interceptor = iterator.next();
+	@Override
+	protected boolean isBatchPolling() {
+		return this.batchReceive;
+	}
+
+	@Override
+	protected List<Message<?>> receiveMessages(int maxMessages) {
+		if (this.inputChannel instanceof AbstractPollableChannel) {
+			return ((AbstractPollableChannel) this.inputChannel).receive(maxMessages, this.receiveTimeout);
+		}
+		else {
+			return super.receiveMessages(maxMessages);
+		}
+	}
+
+	@Override
+	protected void handleMessages(List<Message<?>> messages) {
+		if (this.handler instanceof BatchMessageHandler
+				&& (this.channelInterceptors == null
+						|| !((ExecutorChannelInterceptorAware) this.inputChannel).hasExecutorInterceptors())) {
 			try {
-				interceptor.afterMessageHandled(message, this.inputChannel, this.handler, ex);
+				((BatchMessageHandler) this.handler).handleMessages(messages);
 			}
-			catch (Throwable ex2) { //NOSONAR
-				logger.error("Exception from afterMessageHandled in " + interceptor, ex2);
+			catch (MessagingException ex) {
+				throw ex;
 			}
+			catch (Exception ex) {
+				throw new MessagingException("Failed to handle a batch of " + messages.size() + " messages to "
+						+ this + " in " + this.handler, ex);
+			}
+		}
+		else {
+			super.handleMessages(messages);
 		}
 	}
 
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.expression;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link Expression} that wraps a {@link SpelExpression} and compiles it to bytecode
+ * once it has been evaluated in interpreted mode, keeping track of its compilation
+ * status and of the number of times the compiled form failed at runtime.
+ * <p>
+ * In {@link SpelCompilerMode#MIXED} mode, compilation is attempted after a number of
+ * interpreted evaluations; if the compiled form later fails (for example because the
+ * type of the root object changed), the expression reverts to interpreted mode, the
+ * evaluation is repeated and compilation is attempted again later. In
+ * {@link SpelCompilerMode#IMMEDIATE} mode, compilation is attempted after the first
+ * evaluation and failures of the compiled form are propagated to the caller.
+ *
+ * @since 5.0
+ * @see SpelCompilationRegistry
+ */
+public class CompilingSpelExpression implements Expression {
+
+	/**
+	 * The number of interpreted evaluations, in {@link SpelCompilerMode#MIXED} mode,
+	 * before compilation is attempted.
+	 */
+	public static final int INTERPRETED_COUNT_THRESHOLD = 100;
+
+	/**
+	 * The number of failed compilation attempts after which the expression is no
+	 * longer compiled.
+	 */
+	public static final int FAILED_ATTEMPTS_THRESHOLD = 100;
+
+	private final SpelExpression expression;
+
+	private final SpelCompilerMode compilerMode;
+
+	private final AtomicInteger interpretedCount = new AtomicInteger();
+
+	private final AtomicInteger failedCompilations = new AtomicInteger();
+
+	private final AtomicLong fallbacks = new AtomicLong();
+
+	private volatile boolean compiled;
+
+	public CompilingSpelExpression(SpelExpression expression, SpelCompilerMode compilerMode) {
+		Assert.notNull(expression, "'expression' cannot be null");
+		Assert.isTrue(compilerMode != null && compilerMode != SpelCompilerMode.OFF,
+				"'compilerMode' must be MIXED or IMMEDIATE");
+		this.expression = expression;
+		this.compilerMode = compilerMode;
+	}
+
+	public SpelExpression getExpression() {
+		return this.expression;
+	}
+
+	/**
+	 * @return true if the expression is currently evaluated in compiled form.
+	 */
+	public boolean isCompiled() {
+		return this.compiled;
+	}
+
+	/**
+	 * @return the number of failed compilation attempts.
+	 */
+	public int getFailedCompilationCount() {
+		return this.failedCompilations.get();
+	}
+
+	/**
+	 * @return the number of times the compiled form failed and the expression reverted
+	 * to interpreted mode.
+	 */
+	public long getFallbackCount() {
+		return this.fallbacks.get();
+	}
+
+	@Override
+	public Object getValue() throws EvaluationException {
+		try {
+			return evaluated(this.expression.getValue());
+		}
+		catch (SpelEvaluationException e) {
+			revert(e);
+			return this.expression.getValue();
+		}
+	}
+
+	@Override
+	public Object getValue(Object rootObject) throws EvaluationException {
+		try {
+			return evaluated(this.expression.getValue(rootObject));
+		}
+		catch (SpelEvaluationException e) {
+			revert(e);
+			return this.expression.getValue(rootObject);
+		}
+	}
+
+	@Override
+	public <T> T getValue(Class<T> desiredResultType) throws EvaluationException {
+		try {
+			return evaluated(this.expression.getValue(desiredResultType));
+		}
+		catch (SpelEvaluationException e) {
+			revert(e);
+			return this.expression.getValue(desiredResultType);
+		}
+	}
+
+	@Override
+	public <T> T getValue(Object rootObject, Class<T> desiredResultType) throws EvaluationException {
+		try {
+			return evaluated(this.expression.getValue(rootObject, desiredResultType));
+		}
+		catch (SpelEvaluationException e) {
+			revert(e);
+			return this.expression.getValue(rootObject, desiredResultType);
+		}
+	}
+
+	@Override
+	public Object getValue(EvaluationContext context) throws EvaluationException {
+		try {
+			return evaluated(this.expression.getValue(context));
+		}
+		catch (SpelEvaluationException e) {
+			revert(e);
+			return this.expression.getValue(context);
+		}
+	}
+
+	@Override
+	public Object getValue(EvaluationContext context, Object rootObject) throws EvaluationException {
+		try {
+			return evaluated(this.expression.getValue(context, rootObject));
+		}
+		catch (SpelEvaluationException e) {
+			revert(e);
+			return this.expression.getValue(context, rootObject);
+		}
+	}
+
+	@Override
+	public <T> T getValue(EvaluationContext context, Class<T> desiredResultType) throws EvaluationException {
+		try {
+			return evaluated(this.expression.getValue(context, desiredResultType));
+		}
+		catch (SpelEvaluationException e) {
+			revert(e);
+			return this.expression.getValue(context, desiredResultType);
+		}
+	}
+
+	@Override
+	public <T> T getValue(EvaluationContext context, Object rootObject, Class<T> desiredResultType)
+			throws EvaluationException {
+		try {
+			return evaluated(this.expression.getValue(context, rootObject, desiredResultType));
+		}
+		catch (SpelEvaluationException e) {
+			revert(e);
+			return this.expression.getValue(context, rootObject, desiredResultType);
+		}
+	}
+
+	@Override
+	public Class<?> getValueType() throws EvaluationException {
+		return this.expression.getValueType();
+	}
+
+	@Override
+	public Class<?> getValueType(Object rootObject) throws EvaluationException {
+		return this.expression.getValueType(rootObject);
+	}
+
+	@Override
+	public Class<?> getValueType(EvaluationContext context) throws EvaluationException {
+		return this.expression.getValueType(context);
+	}
+
+	@Override
+	public Class<?> getValueType(EvaluationContext context, Object rootObject) throws EvaluationException {
+		return this.expression.getValueType(context, rootObject);
+	}
+
+	@Override
+	public TypeDescriptor getValueTypeDescriptor() throws EvaluationException {
+		return this.expression.getValueTypeDescriptor();
+	}
+
+	@Override
+	public TypeDescriptor getValueTypeDescriptor(Object rootObject) throws EvaluationException {
+		return this.expression.getValueTypeDescriptor(rootObject);
+	}
+
+	@Override
+	public TypeDescriptor getValueTypeDescriptor(EvaluationContext context) throws EvaluationException {
+		return this.expression.getValueTypeDescriptor(context);
+	}
+
+	@Override
+	public TypeDescriptor getValueTypeDescriptor(EvaluationContext context, Object rootObject)
+			throws EvaluationException {
+		return this.expression.getValueTypeDescriptor(context, rootObject);
+	}
+
+	@Override
+	public boolean isWritable(EvaluationContext context) throws EvaluationException {
+		return this.expression.isWritable(context);
+	}
+
+	@Override
+	public boolean isWritable(EvaluationContext context, Object rootObject) throws EvaluationException {
+		return this.expression.isWritable(context, rootObject);
+	}
+
+	@Override
+	public boolean isWritable(Object rootObject) throws EvaluationException {
+		return this.expression.isWritable(rootObject);
+	}
+
+	@Override
+	public void setValue(EvaluationContext context, Object value) throws EvaluationException {
+		this.expression.setValue(context, value);
+	}
+
+	@Override
+	public void setValue(Object rootObject, Object value) throws EvaluationException {
+		this.expression.setValue(rootObject, value);
+	}
+
+	@Override
+	public void setValue(EvaluationContext context, Object rootObject, Object value) throws EvaluationException {
+		this.expression.setValue(context, rootObject, value);
+	}
+
+	@Override
+	public String getExpressionString() {
+		return this.expression.getExpressionString();
+	}
+
+	/**
+	 * Called after a successful evaluation; compiles the expression when it is still
+	 * interpreted and the thresholds for the compiler mode allow it. Compilation
+	 * requires the types encountered during an interpreted evaluation.
+	 */
+	private <V> V evaluated(V value) {
+		if (!this.compiled && this.failedCompilations.get() < FAILED_ATTEMPTS_THRESHOLD
+				&& (this.compilerMode == SpelCompilerMode.IMMEDIATE
+						|| this.interpretedCount.incrementAndGet() >= INTERPRETED_COUNT_THRESHOLD)) {
+			if (this.expression.compileExpression()) {
+				this.compiled = true;
+			}
+			else {
+				this.failedCompilations.incrementAndGet();
+			}
+			this.interpretedCount.set(0);
+		}
+		return value;
+	}
+
+	/**
+	 * Called when an evaluation failed; unless the failure occurred in the compiled form
+	 * and the mode is {@link SpelCompilerMode#MIXED}, the exception is rethrown. Otherwise
+	 * the expression reverts to interpreted mode so the evaluation can be repeated.
+	 */
+	private void revert(SpelEvaluationException e) {
+		if (this.compilerMode != SpelCompilerMode.MIXED
+				|| !SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION.equals(e.getMessageCode())) {
+			throw e;
+		}
+		this.fallbacks.incrementAndGet();
+		this.compiled = false;
+		this.interpretedCount.set(0);
+		this.expression.revertToInterpreted();
+	}
+
+	@Override
+	public String toString() {
+		return "CompilingSpelExpression [expression=" + getExpressionString() + ", compilerMode="
+				+ this.compilerMode + ", compiled=" + this.compiled + ", fallbacks=" + this.fallbacks.get()
+				+ ", failedCompilations=" + this.failedCompilations.get() + "]";
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.expression;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+/**
+ * Holds the framework-wide SpEL compiler mode and the {@link CompilingSpelExpression}s
+ * created for the expressions evaluated by expression-driven components (routers,
+ * transformers, correlation strategies, header enrichers, SQL parameter sources, etc).
+ * Registered by the framework with the bean name
+ * {@link org.springframework.integration.context.IntegrationContextUtils#SPEL_COMPILATION_REGISTRY_BEAN_NAME};
+ * the mode is set with the {@code spring.integration.spel.compilerMode} integration
+ * property ({@code off}, {@code mixed} or {@code immediate}).
+ * <p>
+ * When the mode is {@code off} (default), expressions are evaluated unchanged.
+ *
+ * @since 5.0
+ */
+@ManagedResource
+public class SpelCompilationRegistry {
+
+	/**
+	 * The default maximum number of expressions tracked by the registry.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private final Map<SpelExpression, CompilingSpelExpression> expressions =
+			new ConcurrentHashMap<SpelExpression, CompilingSpelExpression>();
+
+	private volatile SpelCompilerMode compilerMode = SpelCompilerMode.OFF;
+
+	private volatile int capacity = DEFAULT_CAPACITY;
+
+	/**
+	 * Set the compiler mode; one of {@code off}, {@code mixed} or {@code immediate}
+	 * (case insensitive). Only expressions first evaluated after a change are affected.
+	 * @param compilerMode the compiler mode.
+	 */
+	public void setCompilerMode(String compilerMode) {
+		Assert.hasText(compilerMode, "'compilerMode' cannot be empty");
+		this.compilerMode = SpelCompilerMode.valueOf(compilerMode.trim().toUpperCase());
+	}
+
+	/**
+	 * Set the maximum number of expressions that are compiled; once reached, further
+	 * expressions (for example, expressions parsed for each message) are evaluated in
+	 * interpreted mode. Default {@value #DEFAULT_CAPACITY}.
+	 * @param capacity the capacity.
+	 */
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	@ManagedAttribute(description = "The SpEL compiler mode")
+	public String getCompilerMode() {
+		return this.compilerMode.name();
+	}
+
+	@ManagedAttribute(description = "The number of expressions tracked")
+	public int getExpressionCount() {
+		return this.expressions.size();
+	}
+
+	@ManagedAttribute(description = "The number of expressions currently compiled")
+	public int getCompiledExpressionCount() {
+		int count = 0;
+		for (CompilingSpelExpression expression : this.expressions.values()) {
+			if (expression.isCompiled()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@ManagedAttribute(description = "The number of times compiled expressions reverted to interpreted mode")
+	public long getFallbackCount() {
+		long count = 0;
+		for (CompilingSpelExpression expression : this.expressions.values()) {
+			count += expression.getFallbackCount();
+		}
+		return count;
+	}
+
+	@ManagedAttribute(description = "The compilation status and fallback count of each expression")
+	public String[] getExpressionStatistics() {
+		List<String> statistics = new ArrayList<String>();
+		for (CompilingSpelExpression expression : this.expressions.values()) {
+			statistics.add(expression.getExpressionString() + ": compiled=" + expression.isCompiled()
+					+ ", fallbacks=" + expression.getFallbackCount()
+					+ ", failedCompilations=" + expression.getFailedCompilationCount());
+		}
+		return statistics.toArray(new String[statistics.size()]);
+	}
+
+	/**
+	 * @return the expressions tracked by the registry.
+	 */
+	public Collection<CompilingSpelExpression> getExpressions() {
+		return Collections.unmodifiableCollection(this.expressions.values());
+	}
+
+	/**
+	 * Return the expression to evaluate in place of the provided one: a
+	 * {@link CompilingSpelExpression} when the mode is not {@code off} and the expression
+	 * is a {@link SpelExpression}, otherwise the expression itself.
+	 * @param expression the expression.
+	 * @return the expression to evaluate.
+	 */
+	public Expression compilable(Expression expression) {
+		SpelCompilerMode compilerMode = this.compilerMode;
+		if (compilerMode == SpelCompilerMode.OFF || !(expression instanceof SpelExpression)) {
+			return expression;
+		}
+		SpelExpression spelExpression = (SpelExpression) expression;
+		CompilingSpelExpression compiling = this.expressions.get(spelExpression);
+		if (compiling == null) {
+			if (this.expressions.size() >= this.capacity) {
+				return expression;
+			}
+			compiling = new CompilingSpelExpression(spelExpression, compilerMode);
+			CompilingSpelExpression existing = this.expressions.putIfAbsent(spelExpression, compiling);
+			if (existing != null) {
+				compiling = existing;
+			}
+		}
+		return compiling;
+	}
+
+	@Override
+	public String toString() {
+		return "SpelCompilationRegistry [compilerMode=" + this.compilerMode + ", expressions="
+				+ this.expressions.size() + "]";
+	}
+
+}
@@ -233,6 +233,11 @@ public abstract class AbstractMessageHandler extends IntegrationObjectSupport im
 		return this.handlerMetrics.getDuration();
 	}
 
+	@Override
+	public double getDurationPercentile(double percentile) {
+		return this.handlerMetrics.getDurationPercentile(percentile);
+	}
+
 	@Override
 	public void setStatsEnabled(boolean statsEnabled) {
 		if (statsEnabled) {
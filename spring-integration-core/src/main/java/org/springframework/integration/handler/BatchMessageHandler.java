@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.handler;
+
+import java.util.List;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+
+/**
+ * Classes implementing this interface can handle a batch of messages in one
+ * operation; for example, a JDBC batch insert. A
+ * {@link org.springframework.integration.endpoint.PollingConsumer} in batch
+ * receive mode passes all the messages received in a poll to
+ * {@link #handleMessages(List)}.
+ *
+ * @since 5.0
+ *
+ */
+public interface BatchMessageHandler extends MessageHandler {
+
+	/**
+	 * Handle the messages.
+	 * @param messages the messages.
+	 * @throws MessagingException if the batch cannot be handled.
+	 */
+	void handleMessages(List<Message<?>> messages) throws MessagingException;
+
+}
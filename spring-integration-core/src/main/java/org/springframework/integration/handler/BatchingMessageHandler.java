@@ -0,0 +1,255 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.Lifecycle;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandlingException;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link org.springframework.messaging.MessageHandler} that accumulates messages and
+ * sends them to the output channel as a single message with a {@link List} payload
+ * containing the payloads of the batched messages. A batch is released when it reaches
+ * the batch size or the byte budget, or when the flush interval elapses. This is a
+ * lightweight alternative to an aggregator with a
+ * {@link org.springframework.integration.store.MessageGroupStoreReaper} when messages
+ * simply need to be grouped for a batch-capable downstream component; there is no
+ * correlation, no message store and no lock; messages are buffered in memory only
+ * and those that have not been released are lost if the application terminates
+ * abnormally.
+ * <p>
+ * The interval flush is only performed while the handler is running (it is started
+ * and stopped by its endpoint); remaining messages are released when it is stopped.
+ * <p>
+ * If sending a batch fails, an {@link org.springframework.messaging.support.ErrorMessage}
+ * is sent for each message in the batch to its {@code errorChannel} header (or the
+ * {@code errorChannel} bean), with a {@link MessageHandlingException} whose
+ * {@code failedMessage} is the original message.
+ *
+ * @since 5.0
+ */
+public class BatchingMessageHandler extends AbstractMessageProducingHandler implements Lifecycle {
+
+	/**
+	 * The default batch size.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 500;
+
+	/**
+	 * The default flush interval in milliseconds.
+	 */
+	public static final long DEFAULT_FLUSH_INTERVAL = 50;
+
+	private final Queue<Message<?>> buffer = new ConcurrentLinkedQueue<Message<?>>();
+
+	private final AtomicInteger bufferedCount = new AtomicInteger();
+
+	private final AtomicLong bufferedBytes = new AtomicLong();
+
+	private final AtomicBoolean flushing = new AtomicBoolean();
+
+	private volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+	private volatile long byteBudget;
+
+	private volatile long flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+	private volatile ScheduledFuture<?> flushTask;
+
+	/**
+	 * Set the maximum number of messages in a batch; a batch is released as soon as it
+	 * reaches this size. Default {@value #DEFAULT_BATCH_SIZE}.
+	 * @param batchSize the batch size.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set the maximum number of payload bytes in a batch, as determined by
+	 * {@link #messageSize(Message)}; a batch is released as soon as it reaches this
+	 * size. Default 0 (no byte budget).
+	 * @param byteBudget the byte budget.
+	 */
+	public void setByteBudget(long byteBudget) {
+		Assert.isTrue(byteBudget >= 0, "'byteBudget' cannot be negative");
+		this.byteBudget = byteBudget;
+	}
+
+	/**
+	 * Set the interval (milliseconds) at which partial batches are released. Default
+	 * {@value #DEFAULT_FLUSH_INTERVAL}. Takes effect when the handler is next started.
+	 * @param flushInterval the flush interval.
+	 */
+	public void setFlushInterval(long flushInterval) {
+		Assert.isTrue(flushInterval > 0, "'flushInterval' must be greater than 0");
+		this.flushInterval = flushInterval;
+	}
+
+	@Override
+	public String getComponentType() {
+		return "batching-handler";
+	}
+
+	@Override
+	public synchronized void start() {
+		if (this.flushTask == null) {
+			Assert.state(getTaskScheduler() != null,
+					"A 'taskScheduler' bean is required to flush partial batches at the 'flushInterval'");
+			this.flushTask = getTaskScheduler().scheduleAtFixedRate(new Runnable() {
+
+				@Override
+				public void run() {
+					flush(true);
+				}
+
+			}, this.flushInterval);
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (this.flushTask != null) {
+			this.flushTask.cancel(false);
+			this.flushTask = null;
+		}
+		while (!flush(true)) {
+			// another thread is releasing full batches only; wait for it to finish
+			Thread.yield();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.flushTask != null;
+	}
+
+	/**
+	 * @return the number of messages currently buffered.
+	 */
+	public int getBufferedCount() {
+		return this.bufferedCount.get();
+	}
+
+	@Override
+	protected void handleMessageInternal(Message<?> message) throws Exception {
+		this.buffer.add(message);
+		this.bufferedBytes.addAndGet(messageSize(message));
+		this.bufferedCount.incrementAndGet();
+		flush(false);
+	}
+
+	/**
+	 * Return the number of bytes the message contributes to the byte budget. This
+	 * implementation returns the length of {@code byte[]} and {@link String} payloads
+	 * and 0 for other payloads.
+	 * @param message the message.
+	 * @return the size.
+	 */
+	protected long messageSize(Message<?> message) {
+		Object payload = message.getPayload();
+		if (payload instanceof byte[]) {
+			return ((byte[]) payload).length;
+		}
+		else if (payload instanceof String) {
+			return ((String) payload).length();
+		}
+		return 0;
+	}
+
+	/**
+	 * Release batches; when {@code all} is false, only full batches are released. Only
+	 * one thread releases at a time; the condition is re-checked after releasing the
+	 * flag so that messages added by other threads in the meantime are not stranded.
+	 * @param all true to release all buffered messages.
+	 * @return false if another thread was releasing, in which case messages may remain.
+	 */
+	private boolean flush(boolean all) {
+		while (all ? this.bufferedCount.get() > 0 : isBatchFull()) {
+			if (!this.flushing.compareAndSet(false, true)) {
+				return false;
+			}
+			try {
+				do {
+					List<Message<?>> batch = drain();
+					if (batch.isEmpty()) {
+						break;
+					}
+					release(batch);
+				}
+				while (all ? this.bufferedCount.get() > 0 : isBatchFull());
+			}
+			finally {
+				this.flushing.set(false);
+			}
+		}
+		return true;
+	}
+
+	private boolean isBatchFull() {
+		long byteBudget = this.byteBudget;
+		return this.bufferedCount.get() >= this.batchSize
+				|| (byteBudget > 0 && this.bufferedBytes.get() >= byteBudget);
+	}
+
+	private List<Message<?>> drain() {
+		int batchSize = this.batchSize;
+		long byteBudget = this.byteBudget;
+		List<Message<?>> batch = new ArrayList<Message<?>>();
+		long bytes = 0;
+		while (batch.size() < batchSize && (byteBudget == 0 || bytes < byteBudget)) {
+			Message<?> message = this.buffer.poll();
+			if (message == null) {
+				break;
+			}
+			long size = messageSize(message);
+			this.bufferedCount.decrementAndGet();
+			this.bufferedBytes.addAndGet(-size);
+			bytes += size;
+			batch.add(message);
+		}
+		return batch;
+	}
+
+	private void release(List<Message<?>> batch) {
+		List<Object> payloads = new ArrayList<Object>(batch.size());
+		for (Message<?> message : batch) {
+			payloads.add(message.getPayload());
+		}
+		try {
+			sendOutput(getMessageBuilderFactory().withPayload(payloads).build(), null, false);
+		}
+		catch (Exception e) {
+			for (Message<?> message : batch) {
+				sendErrorMessage(message, new MessageHandlingException(message,
+						"Failed to send a batch of " + batch.size() + " messages", e));
+			}
+		}
+	}
+
+}
@@ -17,6 +17,7 @@
 package org.springframework.integration.handler;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
@@ -33,6 +34,7 @@ import org.springframework.expression.EvaluationException;
 import org.springframework.expression.Expression;
 import org.springframework.integration.context.IntegrationObjectSupport;
 import org.springframework.integration.expression.ExpressionUtils;
+import org.springframework.integration.scheduling.HashedWheelTaskScheduler;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageStore;
@@ -72,6 +74,11 @@ import org.springframework.util.CollectionUtils;
  * delayed at least until that Date occurs (i.e. the delay in that case is
  * equivalent to {@code headerDate.getTime() - new Date().getTime()}).
  *
+ * <p>
+ * With very large numbers of pending delayed messages, consider providing a
+ * {@link HashedWheelTaskScheduler}, which schedules and cancels the release tasks in
+ * constant time.
+ *
  * @author Mark Fisher
  * @author Artem Bilan
  * @author Gary Russell
@@ -412,10 +419,16 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 	 * The logic is based on iteration over {@code messageGroup.getMessages()}
 	 * and schedules task for 'delay' logic.
 	 * This behavior is dictated by the avoidance of invocation thread overload.
+	 * When the task scheduler is a {@link HashedWheelTaskScheduler}, where scheduling is
+	 * cheap and does not block, the release tasks are scheduled directly, in bulk.
 	 */
 	@Override
 	public synchronized void reschedulePersistedMessages() {
 		MessageGroup messageGroup = this.messageStore.getMessageGroup(this.messageGroupId);
+		if (getTaskScheduler() instanceof HashedWheelTaskScheduler) {
+			bulkReschedule(new ArrayList<Message<?>>(messageGroup.getMessages()));
+			return;
+		}
 		for (final Message<?> message : messageGroup.getMessages()) {
 			getTaskScheduler().schedule(new Runnable() {
 
@@ -436,6 +449,20 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		}
 	}
 
+	private void bulkReschedule(List<Message<?>> messages) {
+		for (Message<?> message : messages) {
+			try {
+				releaseMessageAfterDelay(message, Math.max(determineDelayForMessage(message), 0));
+			}
+			catch (RuntimeException e) {
+				logger.error("Failed to reschedule persisted message: " + message, e);
+			}
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Rescheduled " + messages.size() + " persisted messages");
+		}
+	}
+
 	/**
 	 * Handles {@link ContextRefreshedEvent} to invoke {@link #reschedulePersistedMessages}
 	 * as late as possible after application context startup.
@@ -81,8 +81,15 @@ public final class MessageHistory implements List<Properties>, Serializable {
 		Properties metadata = extractMetadata(component);
 		if (!metadata.isEmpty()) {
 			MessageHistory previousHistory = message.getHeaders().get(HEADER_NAME, MessageHistory.class);
-			List<Properties> components = (previousHistory != null) ?
-					new ArrayList<Properties>(previousHistory) : new ArrayList<Properties>();
+			List<Properties> components;
+			if (previousHistory != null) {
+				// size for the new entry up front so the list is only copied once
+				components = new ArrayList<Properties>(previousHistory.size() + 1);
+				components.addAll(previousHistory.components);
+			}
+			else {
+				components = new ArrayList<Properties>(1);
+			}
 			components.add(metadata);
 			MessageHistory history = new MessageHistory(components);
 
@@ -0,0 +1,607 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.scheduling;
+
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * A {@link TaskScheduler} based on a hashed timing wheel, for very large numbers of
+ * one-shot tasks that are often cancelled, such as the release tasks of a
+ * {@link org.springframework.integration.handler.DelayHandler} or the group timeouts
+ * of an aggregator.
+ * <p>
+ * Scheduling and cancelling a task are O(1): new tasks are added to a lock-free queue
+ * and a single tick thread moves them into the bucket of the wheel for their
+ * deadline; cancelled tasks are unlinked from their bucket on the next tick. Unlike a
+ * {@link org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler}, there is
+ * no shared priority queue, so inserts and cancellations do not contend or degrade as
+ * the number of pending tasks grows.
+ * <p>
+ * The trade-off is precision: a task runs no earlier than its scheduled time but up
+ * to one {@link #setTickDuration(long) tick} later. Expired tasks are run on a
+ * separate {@link Executor}; by default a fixed pool of
+ * {@link #setPoolSize(int) poolSize} threads.
+ * <p>
+ * The tick thread is started when the first task is scheduled.
+ *
+ * @since 5.0
+ */
+public class HashedWheelTaskScheduler implements TaskScheduler, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(HashedWheelTaskScheduler.class);
+
+	private static final int STATE_INIT = 0;
+
+	private static final int STATE_STARTED = 1;
+
+	private static final int STATE_SHUTDOWN = 2;
+
+	/**
+	 * The maximum number of new tasks moved into the wheel on each tick, so that a bulk
+	 * load of tasks does not delay the expiry of the current bucket.
+	 */
+	private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+	private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+
+	private final Queue<WheelTask> pendingTasks = new ConcurrentLinkedQueue<WheelTask>();
+
+	private final Queue<WheelTask> cancelledTasks = new ConcurrentLinkedQueue<WheelTask>();
+
+	private long tickNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private int ticksPerWheel = 512;
+
+	private int poolSize = 1;
+
+	private String threadNamePrefix = "wheel-scheduler-";
+
+	private Executor taskExecutor;
+
+	private ErrorHandler errorHandler;
+
+	private ExecutorService internalExecutor;
+
+	private Bucket[] wheel;
+
+	private int mask;
+
+	private volatile long startTime;
+
+	private Thread tickThread;
+
+	/**
+	 * Set the tick duration in milliseconds; tasks run up to one tick after their
+	 * scheduled time. Default 10.
+	 * @param tickDuration the tick duration.
+	 */
+	public void setTickDuration(long tickDuration) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be greater than 0");
+		assertNotStarted();
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+	}
+
+	/**
+	 * Set the number of buckets in the wheel; rounded up to a power of two. Tasks more
+	 * than {@code ticksPerWheel * tickDuration} in the future are visited once per
+	 * revolution until they are due. Default 512.
+	 * @param ticksPerWheel the number of buckets.
+	 */
+	public void setTicksPerWheel(int ticksPerWheel) {
+		Assert.isTrue(ticksPerWheel > 0 && ticksPerWheel <= 1 << 30, "'ticksPerWheel' must be between 1 and 2^30");
+		assertNotStarted();
+		this.ticksPerWheel = ticksPerWheel;
+	}
+
+	/**
+	 * Set the number of threads used to run expired tasks when no
+	 * {@link #setTaskExecutor(Executor) taskExecutor} is provided. Default 1.
+	 * @param poolSize the pool size.
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "'poolSize' must be greater than 0");
+		assertNotStarted();
+		this.poolSize = poolSize;
+	}
+
+	public void setThreadNamePrefix(String threadNamePrefix) {
+		Assert.notNull(threadNamePrefix, "'threadNamePrefix' must not be null");
+		assertNotStarted();
+		this.threadNamePrefix = threadNamePrefix;
+	}
+
+	/**
+	 * Set an {@link Executor} to run expired tasks; the tick thread never runs tasks
+	 * itself. The executor is not shut down when this scheduler is destroyed.
+	 * @param taskExecutor the executor.
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		Assert.notNull(taskExecutor, "'taskExecutor' must not be null");
+		assertNotStarted();
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Set a custom {@link ErrorHandler} for exceptions thrown by tasks; by default,
+	 * exceptions from one-shot tasks are logged and made available from the
+	 * {@link ScheduledFuture}, and exceptions from repeating tasks are logged.
+	 * @param errorHandler the error handler.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		return new ReschedulingTask(decorate(task, true), trigger).schedule();
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		return doSchedule(decorate(task, false), startTime.getTime());
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		return schedule(task, periodicTrigger(period, true, startTime.getTime() - System.currentTimeMillis()));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		return schedule(task, periodicTrigger(period, true, 0));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		return schedule(task, periodicTrigger(delay, false, startTime.getTime() - System.currentTimeMillis()));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		return schedule(task, periodicTrigger(delay, false, 0));
+	}
+
+	/**
+	 * @return the number of tasks that have been scheduled but not yet moved into the
+	 * wheel by the tick thread.
+	 */
+	public int getPendingTaskCount() {
+		return this.pendingTasks.size();
+	}
+
+	@Override
+	public void destroy() {
+		if (this.state.getAndSet(STATE_SHUTDOWN) == STATE_STARTED) {
+			this.tickThread.interrupt();
+			try {
+				this.tickThread.join(TimeUnit.NANOSECONDS.toMillis(this.tickNanos) * 10 + 1000);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (this.internalExecutor != null) {
+				this.internalExecutor.shutdownNow();
+			}
+		}
+	}
+
+	private WheelTask doSchedule(Runnable task, long startTime) {
+		Assert.notNull(task, "'task' must not be null");
+		start();
+		long deadline = TimeUnit.MILLISECONDS.toNanos(startTime - System.currentTimeMillis())
+				+ System.nanoTime() - this.startTime;
+		WheelTask wheelTask = new WheelTask(task, deadline);
+		this.pendingTasks.add(wheelTask);
+		if (this.state.get() == STATE_SHUTDOWN) {
+			// the tick thread may have already drained the queue
+			wheelTask.cancel(false);
+			throw new RejectedExecutionException("The scheduler has been shut down");
+		}
+		return wheelTask;
+	}
+
+	private void start() {
+		switch (this.state.get()) {
+			case STATE_STARTED:
+				return;
+			case STATE_SHUTDOWN:
+				throw new RejectedExecutionException("The scheduler has been shut down");
+			default:
+				synchronized (this.state) {
+					if (this.state.get() == STATE_INIT) {
+						int wheelSize = this.ticksPerWheel == 1 ? 1 : Integer.highestOneBit(this.ticksPerWheel - 1) << 1;
+						this.wheel = new Bucket[wheelSize];
+						for (int i = 0; i < wheelSize; i++) {
+							this.wheel[i] = new Bucket();
+						}
+						this.mask = wheelSize - 1;
+						if (this.taskExecutor == null) {
+							this.internalExecutor = Executors.newFixedThreadPool(this.poolSize,
+									new CustomizableThreadFactory(this.threadNamePrefix));
+							this.taskExecutor = this.internalExecutor;
+						}
+						this.startTime = System.nanoTime();
+						this.tickThread = new Thread(new Worker(), this.threadNamePrefix + "tick");
+						this.tickThread.setDaemon(true);
+						this.state.set(STATE_STARTED);
+						this.tickThread.start();
+					}
+				}
+				if (this.state.get() == STATE_SHUTDOWN) {
+					throw new RejectedExecutionException("The scheduler has been shut down");
+				}
+		}
+	}
+
+	private void assertNotStarted() {
+		Assert.state(this.state.get() == STATE_INIT, "The scheduler cannot be reconfigured after it has started");
+	}
+
+	private Runnable decorate(Runnable task, boolean repeating) {
+		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, repeating);
+	}
+
+	private static Trigger periodicTrigger(long period, boolean fixedRate, long initialDelay) {
+		PeriodicTrigger trigger = new PeriodicTrigger(period);
+		trigger.setFixedRate(fixedRate);
+		trigger.setInitialDelay(Math.max(initialDelay, 0));
+		return trigger;
+	}
+
+	private long currentTime() {
+		return System.nanoTime() - this.startTime;
+	}
+
+	/**
+	 * A doubly-linked list of tasks; only accessed by the tick thread.
+	 */
+	private static final class Bucket {
+
+		private WheelTask head;
+
+		private WheelTask tail;
+
+		void add(WheelTask task) {
+			task.bucket = this;
+			if (this.head == null) {
+				this.head = task;
+				this.tail = task;
+			}
+			else {
+				this.tail.next = task;
+				task.prev = this.tail;
+				this.tail = task;
+			}
+		}
+
+		void remove(WheelTask task) {
+			if (task.prev != null) {
+				task.prev.next = task.next;
+			}
+			if (task.next != null) {
+				task.next.prev = task.prev;
+			}
+			if (task == this.head) {
+				this.head = task.next;
+			}
+			if (task == this.tail) {
+				this.tail = task.prev;
+			}
+			task.prev = null;
+			task.next = null;
+			task.bucket = null;
+		}
+
+	}
+
+	/**
+	 * A one-shot task in the wheel.
+	 */
+	private final class WheelTask extends FutureTask<Object> implements ScheduledFuture<Object> {
+
+		/**
+		 * Nanoseconds relative to the scheduler start time.
+		 */
+		private final long deadline;
+
+		// the following fields are only accessed by the tick thread
+
+		private long remainingRounds;
+
+		private Bucket bucket;
+
+		private WheelTask prev;
+
+		private WheelTask next;
+
+		WheelTask(Runnable task, long deadline) {
+			super(task, null);
+			this.deadline = deadline;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				HashedWheelTaskScheduler.this.cancelledTasks.add(this);
+			}
+			return cancelled;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadline - currentTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+		}
+
+	}
+
+	/**
+	 * Reschedules a task according to a {@link Trigger} after each execution.
+	 */
+	private final class ReschedulingTask implements Runnable, ScheduledFuture<Object> {
+
+		private final Runnable delegate;
+
+		private final Trigger trigger;
+
+		private final SimpleTriggerContext triggerContext = new SimpleTriggerContext();
+
+		private final Object monitor = new Object();
+
+		private WheelTask current;
+
+		private Date scheduledExecutionTime;
+
+		ReschedulingTask(Runnable delegate, Trigger trigger) {
+			Assert.notNull(trigger, "'trigger' must not be null");
+			this.delegate = delegate;
+			this.trigger = trigger;
+		}
+
+		ScheduledFuture<?> schedule() {
+			synchronized (this.monitor) {
+				this.scheduledExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+				if (this.scheduledExecutionTime == null) {
+					return null;
+				}
+				this.current = doSchedule(this, this.scheduledExecutionTime.getTime());
+				return this;
+			}
+		}
+
+		@Override
+		public void run() {
+			Date actualExecutionTime = new Date();
+			this.delegate.run();
+			Date completionTime = new Date();
+			synchronized (this.monitor) {
+				this.triggerContext.update(this.scheduledExecutionTime, actualExecutionTime, completionTime);
+				if (!this.current.isCancelled() && HashedWheelTaskScheduler.this.state.get() == STATE_STARTED) {
+					schedule();
+				}
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			synchronized (this.monitor) {
+				return this.current.cancel(mayInterruptIfRunning);
+			}
+		}
+
+		@Override
+		public boolean isCancelled() {
+			synchronized (this.monitor) {
+				return this.current.isCancelled();
+			}
+		}
+
+		@Override
+		public boolean isDone() {
+			synchronized (this.monitor) {
+				return this.current.isDone();
+			}
+		}
+
+		@Override
+		public Object get() throws InterruptedException, ExecutionException {
+			WheelTask task;
+			synchronized (this.monitor) {
+				task = this.current;
+			}
+			return task.get();
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+			WheelTask task;
+			synchronized (this.monitor) {
+				task = this.current;
+			}
+			return task.get(timeout, unit);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			synchronized (this.monitor) {
+				return this.current.getDelay(unit);
+			}
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+		}
+
+	}
+
+	private final class Worker implements Runnable {
+
+		private long tick;
+
+		@Override
+		public void run() {
+			while (HashedWheelTaskScheduler.this.state.get() == STATE_STARTED) {
+				if (!waitForNextTick()) {
+					break;
+				}
+				removeCancelledTasks();
+				transferPendingTasks();
+				expire(HashedWheelTaskScheduler.this.wheel[(int) (this.tick & HashedWheelTaskScheduler.this.mask)]);
+				this.tick++;
+			}
+			cancelRemainingTasks();
+		}
+
+		/**
+		 * Sleep until the end of the current tick; all the tasks in the current bucket
+		 * are then due.
+		 * @return false if the scheduler has been shut down.
+		 */
+		private boolean waitForNextTick() {
+			long deadline = HashedWheelTaskScheduler.this.tickNanos * (this.tick + 1);
+			while (true) {
+				long sleepMillis = (deadline - currentTime() + 999999) / 1000000;
+				if (sleepMillis <= 0) {
+					return true;
+				}
+				try {
+					Thread.sleep(sleepMillis);
+				}
+				catch (InterruptedException e) {
+					if (HashedWheelTaskScheduler.this.state.get() == STATE_SHUTDOWN) {
+						return false;
+					}
+				}
+			}
+		}
+
+		private void removeCancelledTasks() {
+			WheelTask task;
+			while ((task = HashedWheelTaskScheduler.this.cancelledTasks.poll()) != null) {
+				if (task.bucket != null) {
+					task.bucket.remove(task);
+				}
+			}
+		}
+
+		private void transferPendingTasks() {
+			long wheelSize = HashedWheelTaskScheduler.this.wheel.length;
+			for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+				WheelTask task = HashedWheelTaskScheduler.this.pendingTasks.poll();
+				if (task == null) {
+					break;
+				}
+				if (task.isCancelled()) {
+					continue;
+				}
+				long calculated = Math.max(task.deadline, 0) / HashedWheelTaskScheduler.this.tickNanos;
+				task.remainingRounds = (calculated - this.tick) / wheelSize;
+				long ticks = Math.max(calculated, this.tick);
+				HashedWheelTaskScheduler.this.wheel[(int) (ticks & HashedWheelTaskScheduler.this.mask)].add(task);
+			}
+		}
+
+		private void expire(Bucket bucket) {
+			WheelTask task = bucket.head;
+			while (task != null) {
+				WheelTask next = task.next;
+				if (task.isCancelled()) {
+					bucket.remove(task);
+				}
+				else if (task.remainingRounds <= 0) {
+					// the bucket placement guarantees that task.deadline <= deadline
+					bucket.remove(task);
+					execute(task);
+				}
+				else {
+					task.remainingRounds--;
+				}
+				task = next;
+			}
+		}
+
+		private void execute(WheelTask task) {
+			try {
+				HashedWheelTaskScheduler.this.taskExecutor.execute(task);
+			}
+			catch (RejectedExecutionException e) {
+				logger.error("The task executor rejected a task", e);
+				task.cancel(false);
+			}
+		}
+
+		private void cancelRemainingTasks() {
+			for (Bucket bucket : HashedWheelTaskScheduler.this.wheel) {
+				WheelTask task = bucket.head;
+				while (task != null) {
+					WheelTask next = task.next;
+					task.cancel(false);
+					bucket.remove(task);
+					task = next;
+				}
+			}
+			WheelTask task;
+			while ((task = HashedWheelTaskScheduler.this.pendingTasks.poll()) != null) {
+				task.cancel(false);
+			}
+			HashedWheelTaskScheduler.this.cancelledTasks.clear();
+		}
+
+	}
+
+}
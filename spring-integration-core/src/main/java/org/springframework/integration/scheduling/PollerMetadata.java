@@ -50,6 +50,8 @@ public class PollerMetadata {
 
 	private volatile long receiveTimeout = 1000;
 
+	private volatile boolean batchReceive;
+
 	private volatile ErrorHandler errorHandler;
 
 	private volatile List<Advice> adviceChain;
@@ -114,6 +116,21 @@ public class PollerMetadata {
 		return this.receiveTimeout;
 	}
 
+	/**
+	 * Set to true for polling consumers to receive up to {@code maxMessagesPerPoll}
+	 * messages from the channel in a single operation on each poll.
+	 * @param batchReceive true for batch receive.
+	 * @since 5.0
+	 * @see org.springframework.integration.endpoint.PollingConsumer#setBatchReceive(boolean)
+	 */
+	public void setBatchReceive(boolean batchReceive) {
+		this.batchReceive = batchReceive;
+	}
+
+	public boolean isBatchReceive() {
+		return this.batchReceive;
+	}
+
 	public void setAdviceChain(List<Advice> adviceChain) {
 		this.adviceChain = adviceChain;
 	}
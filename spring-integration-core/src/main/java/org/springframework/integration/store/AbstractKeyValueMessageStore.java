@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -38,7 +39,8 @@ import org.springframework.util.Assert;
  * @author Artem Bilan
  * @since 2.1
  */
-public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupStore implements MessageStore {
+public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupStore
+		implements MessageStore, PagingMessageGroupStore {
 
 	protected static final String MESSAGE_KEY_PREFIX = "MESSAGE_";
 
@@ -101,6 +103,9 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 					.create(this, groupId, metadata.getTimestamp(), metadata.isComplete());
 			messageGroup.setLastModified(metadata.getLastModified());
 			messageGroup.setLastReleasedMessageSequenceNumber(metadata.getLastReleasedMessageSequenceNumber());
+			if (messageGroup instanceof PersistentMessageGroup) {
+				((PersistentMessageGroup) messageGroup).setMessageIds(messageIds(metadata));
+			}
 			return messageGroup;
 		}
 		else {
@@ -247,11 +252,33 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 	@Override
 	public Collection<Message<?>> getMessagesForGroup(Object groupId) {
 		MessageGroupMetadata groupMetadata = getGroupMetadata(groupId);
-		ArrayList<Message<?>> messages = new ArrayList<Message<?>>();
 		if (groupMetadata != null) {
-			Iterator<UUID> messageIds = groupMetadata.messageIdIterator();
-			while (messageIds.hasNext()) {
-				messages.add(getMessage(messageIds.next()));
+			return getMessages(messageIds(groupMetadata));
+		}
+		return new ArrayList<Message<?>>();
+	}
+
+	@Override
+	public List<UUID> getMessageIdsForGroup(Object groupId) {
+		MessageGroupMetadata groupMetadata = getGroupMetadata(groupId);
+		if (groupMetadata != null) {
+			return messageIds(groupMetadata);
+		}
+		return new ArrayList<UUID>();
+	}
+
+	@Override
+	public List<Message<?>> getMessages(List<UUID> messageIds) {
+		Assert.notNull(messageIds, "'messageIds' must not be null");
+		List<String> keys = new ArrayList<String>(messageIds.size());
+		for (UUID id : messageIds) {
+			keys.add(MESSAGE_KEY_PREFIX + id);
+		}
+		List<?> values = doRetrieveAll(keys);
+		List<Message<?>> messages = new ArrayList<Message<?>>(values.size());
+		for (Object value : values) {
+			if (value != null) {
+				messages.add(normalizeMessage((Message<?>) value));
 			}
 		}
 		return messages;
@@ -294,12 +321,38 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 	protected abstract Object doRetrieve(Object id);
 
+	/**
+	 * Retrieve the objects stored with the provided keys, in the same order, with
+	 * {@code null} for keys that are not present. This implementation calls
+	 * {@link #doRetrieve(Object)} for each key; subclasses should override it when the
+	 * underlying store can fetch several keys with one round trip.
+	 * @param ids the keys.
+	 * @return the objects.
+	 * @since 5.0
+	 */
+	protected List<?> doRetrieveAll(List<?> ids) {
+		List<Object> values = new ArrayList<Object>(ids.size());
+		for (Object id : ids) {
+			values.add(doRetrieve(id));
+		}
+		return values;
+	}
+
 	protected abstract void doStore(Object id, Object objectToStore);
 
 	protected abstract Object doRemove(Object id);
 
 	protected abstract Collection<?> doListKeys(String keyPattern);
 
+	private List<UUID> messageIds(MessageGroupMetadata groupMetadata) {
+		List<UUID> messageIds = new ArrayList<UUID>(groupMetadata.size());
+		Iterator<UUID> iterator = groupMetadata.messageIdIterator();
+		while (iterator.hasNext()) {
+			messageIds.add(iterator.next());
+		}
+		return messageIds;
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	private Message<?> normalizeMessage(Message<?> message) {
 		Message<?> normalizedMessage = getMessageBuilderFactory().fromMessage(message)
@@ -32,6 +32,7 @@ import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.messaging.Message;
+import org.springframework.util.Assert;
 
 /**
  * @author Dave Syer
@@ -45,6 +46,13 @@ import org.springframework.messaging.Message;
 public abstract class AbstractMessageGroupStore extends AbstractBatchingMessageGroupStore
 		implements MessageGroupStore, Iterable<MessageGroup>, BeanFactoryAware {
 
+	/**
+	 * The default number of messages fetched at a time when a lazy-loaded group is
+	 * iterated.
+	 * @since 5.0
+	 */
+	public static final int DEFAULT_LAZY_LOAD_PAGE_SIZE = 100;
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Collection<MessageGroupCallback> expiryCallbacks = new LinkedHashSet<MessageGroupCallback>();
@@ -62,6 +70,8 @@ public abstract class AbstractMessageGroupStore extends AbstractBatchingMessageG
 
 	private boolean lazyLoadMessageGroups = true;
 
+	private volatile int lazyLoadPageSize = DEFAULT_LAZY_LOAD_PAGE_SIZE;
+
 	protected AbstractMessageGroupStore() {
 		super();
 	}
@@ -135,6 +145,27 @@ public abstract class AbstractMessageGroupStore extends AbstractBatchingMessageG
 		this.lazyLoadMessageGroups = lazyLoadMessageGroups;
 	}
 
+	/**
+	 * Set the maximum number of messages fetched with one round trip when the messages
+	 * of a lazy-loaded group are iterated; only applies to stores implementing
+	 * {@link PagingMessageGroupStore}. Default {@value #DEFAULT_LAZY_LOAD_PAGE_SIZE}.
+	 * @param lazyLoadPageSize the page size.
+	 * @since 5.0
+	 */
+	public void setLazyLoadPageSize(int lazyLoadPageSize) {
+		Assert.isTrue(lazyLoadPageSize > 0, "'lazyLoadPageSize' must be greater than 0");
+		this.lazyLoadPageSize = lazyLoadPageSize;
+	}
+
+	/**
+	 * @return the lazy load page size.
+	 * @since 5.0
+	 * @see #setLazyLoadPageSize(int)
+	 */
+	public int getLazyLoadPageSize() {
+		return this.lazyLoadPageSize;
+	}
+
 	@Override
 	public void registerMessageGroupExpiryCallback(MessageGroupCallback callback) {
 		this.expiryCallbacks.add(callback);
@@ -210,7 +241,14 @@ public abstract class AbstractMessageGroupStore extends AbstractBatchingMessageG
 		return getMessageGroup(groupId);
 	}
 
-	private void expire(MessageGroup group) {
+	/**
+	 * Invoke the registered expiry callbacks for the group. If a callback throws an
+	 * exception, the remaining callbacks are still invoked and the first exception is
+	 * then rethrown.
+	 * @param group the group (typically a snapshot, see {@link #copy(MessageGroup)}).
+	 * @since 5.0
+	 */
+	protected void expire(MessageGroup group) {
 
 		RuntimeException exception = null;
 
@@ -201,10 +201,20 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 		try {
 			storeLock.lockInterruptibly();
 			try {
-				Message<?> message = this.messageGroupStore.pollMessageFromGroup(this.groupId);
-				for (int i = 0; i < maxElements && message != null; i++) {
-					list.add(message);
-					message = this.messageGroupStore.pollMessageFromGroup(this.groupId);
+				if (this.messageGroupStore instanceof BatchPollingChannelMessageStore) {
+					if (maxElements > 0) {
+						list.addAll(((BatchPollingChannelMessageStore) this.messageGroupStore)
+								.pollMessagesFromGroup(this.groupId, maxElements));
+					}
+				}
+				else {
+					for (int i = 0; i < maxElements; i++) {
+						Message<?> message = this.messageGroupStore.pollMessageFromGroup(this.groupId);
+						if (message == null) {
+							break;
+						}
+						list.add(message);
+					}
 				}
 				this.messageStoreNotFull.signal();
 			}
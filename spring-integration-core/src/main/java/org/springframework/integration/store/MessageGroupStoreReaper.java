@@ -30,6 +30,10 @@ import org.springframework.util.Assert;
  * Convenient configurable component to allow explicit timed expiry of {@link MessageGroup} instances in a
  * {@link MessageGroupStore}. This component provides a no-args {@link #run()} method that is useful for remote or timed
  * execution and a {@link #destroy()} method that can optionally be called on shutdown.
+ * <p>
+ * When the store is a {@link TimeIndexedMessageGroupStore}, its expiry index is used to find the expired groups
+ * and the number of groups expired by each run can be limited with {@link #setMaxGroupsPerRun(int)}; the remaining
+ * expired groups are expired by the following runs.
  *
  * @author Dave Syer
  * @author Dave Turanski
@@ -45,6 +49,8 @@ public class MessageGroupStoreReaper implements Runnable, DisposableBean, Initia
 
 	private long timeout = -1;
 
+	private volatile int maxGroupsPerRun;
+
 	private volatile boolean running;
 
 	private final ReentrantLock lifecycleLock = new ReentrantLock();
@@ -80,6 +86,18 @@ public class MessageGroupStoreReaper implements Runnable, DisposableBean, Initia
 		this.timeout = timeout;
 	}
 
+	/**
+	 * The maximum number of groups to expire on each {@link #run()} (default 0 - no limit). Only applies when
+	 * the store is a {@link TimeIndexedMessageGroupStore}; other stores always expire all the expired groups.
+	 * Limiting the batch bounds the time each run holds the scheduler thread when many groups expire at once.
+	 * @param maxGroupsPerRun the maximum number of groups; 0 for no limit.
+	 * @since 5.0
+	 */
+	public void setMaxGroupsPerRun(int maxGroupsPerRun) {
+		Assert.isTrue(maxGroupsPerRun >= 0, "'maxGroupsPerRun' cannot be negative");
+		this.maxGroupsPerRun = maxGroupsPerRun;
+	}
+
 	/**
 	 * A message group store to expire according the other configurations.
 	 *
@@ -97,7 +115,7 @@ public class MessageGroupStoreReaper implements Runnable, DisposableBean, Initia
 		if (this.expireOnDestroy) {
 			if (this.isRunning()) {
 				logger.info("Expiring all messages from message group store: " + this.messageGroupStore);
-				this.messageGroupStore.expireMessageGroups(0);
+				expire(0, Integer.MAX_VALUE);
 			}
 			else {
 				logger.debug("'expireOnDestroy' is set to 'true' but the reaper is not currently running");
@@ -115,7 +133,16 @@ public class MessageGroupStoreReaper implements Runnable, DisposableBean, Initia
 				logger.debug("Expiring all messages older than timeout=" + this.timeout + " from message group store: "
 						+ this.messageGroupStore);
 			}
-			this.messageGroupStore.expireMessageGroups(this.timeout);
+			expire(this.timeout, this.maxGroupsPerRun > 0 ? this.maxGroupsPerRun : Integer.MAX_VALUE);
+		}
+	}
+
+	private void expire(long timeout, int maxGroups) {
+		if (this.messageGroupStore instanceof TimeIndexedMessageGroupStore) {
+			((TimeIndexedMessageGroupStore) this.messageGroupStore).expireMessageGroups(timeout, maxGroups);
+		}
+		else {
+			this.messageGroupStore.expireMessageGroups(timeout);
 		}
 	}
 
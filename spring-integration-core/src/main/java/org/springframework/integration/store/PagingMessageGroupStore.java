@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.messaging.Message;
+
+/**
+ * A {@link MessageGroupStore} that can return the ids of a group's messages and then
+ * fetch the messages by id in bulk. A lazy-loaded {@link MessageGroup} uses it to read
+ * the group's messages in pages of {@link #getLazyLoadPageSize()} messages, with one
+ * round trip per page, instead of loading the whole group (or each message) at once.
+ *
+ * @since 5.0
+ *
+ */
+public interface PagingMessageGroupStore extends MessageGroupStore {
+
+	/**
+	 * Return the ids of the messages in the group, in the same order that
+	 * {@link #getMessagesForGroup(Object)} would return the messages.
+	 * @param groupId the group id.
+	 * @return the message ids; an empty list if the group has no messages.
+	 */
+	List<UUID> getMessageIdsForGroup(Object groupId);
+
+	/**
+	 * Return the messages with the provided ids, in the same order; ids for which there
+	 * is no message in the store are skipped.
+	 * @param messageIds the message ids.
+	 * @return the messages.
+	 */
+	List<Message<?>> getMessages(List<UUID> messageIds);
+
+	/**
+	 * @return the maximum number of messages to fetch with one
+	 * {@link #getMessages(List)} call when a lazy-loaded group is iterated.
+	 */
+	int getLazyLoadPageSize();
+
+}
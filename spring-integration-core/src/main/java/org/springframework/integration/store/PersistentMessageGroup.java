@@ -17,9 +17,13 @@
 package org.springframework.integration.store;
 
 import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -28,6 +32,10 @@ import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.messaging.Message;
 
 /**
+ * A {@link MessageGroup} proxy that loads the messages of a group from the store only
+ * when they are needed. When the store is a {@link PagingMessageGroupStore}, the
+ * messages are fetched in pages as the group is iterated.
+ *
  * @author Artem Bilan
  * @since 4.3
  */
@@ -37,7 +45,7 @@ class PersistentMessageGroup implements MessageGroup {
 
 	private MessageGroupStore messageGroupStore;
 
-	private final Collection<Message<?>> messages = new PersistentCollection();
+	private final PersistentCollection messages = new PersistentCollection();
 
 	private final MessageGroup original;
 
@@ -54,6 +62,18 @@ class PersistentMessageGroup implements MessageGroup {
 		this.size = size;
 	}
 
+	/**
+	 * Provide the ids of the group's messages, when already known by the store, so they
+	 * are not queried again when the group is iterated with a
+	 * {@link PagingMessageGroupStore}; also sets the size.
+	 * @param messageIds the message ids.
+	 * @since 5.0
+	 */
+	public void setMessageIds(List<UUID> messageIds) {
+		this.messages.setMessageIds(messageIds);
+		this.size = messageIds.size();
+	}
+
 	@Override
 	public Collection<Message<?>> getMessages() {
 		return Collections.unmodifiableCollection(this.messages);
@@ -170,8 +190,18 @@ class PersistentMessageGroup implements MessageGroup {
 
 	private class PersistentCollection extends AbstractCollection<Message<?>> {
 
+		private final List<Message<?>> loaded = new ArrayList<Message<?>>();
+
 		private volatile Collection<Message<?>> collection;
 
+		private List<UUID> messageIds;
+
+		private int nextId;
+
+		private synchronized void setMessageIds(List<UUID> messageIds) {
+			this.messageIds = messageIds;
+		}
+
 		private void load() {
 			if (this.collection == null) {
 				synchronized (this) {
@@ -180,12 +210,50 @@ class PersistentMessageGroup implements MessageGroup {
 						if (logger.isDebugEnabled()) {
 							logger.debug("Lazy loading of messages for messageGroup: " + groupId);
 						}
-						this.collection = PersistentMessageGroup.this.messageGroupStore.getMessagesForGroup(groupId);
+						if (PersistentMessageGroup.this.messageGroupStore instanceof PagingMessageGroupStore) {
+							while (loadPage()) {
+								// fetch all remaining pages
+							}
+						}
+						else {
+							this.collection =
+									PersistentMessageGroup.this.messageGroupStore.getMessagesForGroup(groupId);
+						}
 					}
 				}
 			}
 		}
 
+		/**
+		 * Fetch the next page of messages from a {@link PagingMessageGroupStore}; the
+		 * collection is complete when there are no more ids. Must be called while
+		 * holding the lock.
+		 * @return true if a page was fetched.
+		 */
+		private boolean loadPage() {
+			if (this.collection != null) {
+				return false;
+			}
+			PagingMessageGroupStore store = (PagingMessageGroupStore) PersistentMessageGroup.this.messageGroupStore;
+			if (this.messageIds == null) {
+				this.messageIds = store.getMessageIdsForGroup(PersistentMessageGroup.this.original.getGroupId());
+			}
+			int from = this.nextId;
+			int to = Math.min(from + store.getLazyLoadPageSize(), this.messageIds.size());
+			if (from < to) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Lazy loading of messages " + from + " to " + to + " for messageGroup: "
+							+ PersistentMessageGroup.this.original.getGroupId());
+				}
+				this.loaded.addAll(store.getMessages(this.messageIds.subList(from, to)));
+				this.nextId = to;
+			}
+			if (this.nextId >= this.messageIds.size()) {
+				this.collection = this.loaded;
+			}
+			return from < to;
+		}
+
 		@Override
 		public boolean contains(Object o) {
 			load();
@@ -212,6 +280,10 @@ class PersistentMessageGroup implements MessageGroup {
 
 		@Override
 		public Iterator<Message<?>> iterator() {
+			if (this.collection == null
+					&& PersistentMessageGroup.this.messageGroupStore instanceof PagingMessageGroupStore) {
+				return new PagingIterator();
+			}
 			load();
 			return this.collection.iterator();
 		}
@@ -221,6 +293,40 @@ class PersistentMessageGroup implements MessageGroup {
 			return PersistentMessageGroup.this.size();
 		}
 
+		/**
+		 * Iterates over the messages fetched so far, fetching the next page when needed.
+		 */
+		private class PagingIterator implements Iterator<Message<?>> {
+
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				synchronized (PersistentCollection.this) {
+					while (this.index >= PersistentCollection.this.loaded.size() && loadPage()) {
+						// skip pages with no messages
+					}
+					return this.index < PersistentCollection.this.loaded.size();
+				}
+			}
+
+			@Override
+			public Message<?> next() {
+				synchronized (PersistentCollection.this) {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return PersistentCollection.this.loaded.get(this.index++);
+				}
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("Cannot remove a message from this iterator.");
+			}
+
+		}
+
 	}
 
 }
@@ -0,0 +1,483 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.util.Assert;
+
+/**
+ * In-memory {@link MessageGroupStore} for large numbers of concurrently open groups.
+ * <p>
+ * Groups are partitioned by the hash of their group id into a fixed number of shards;
+ * each shard has its own map, lock and message count, so operations on groups in
+ * different shards never contend. Each shard also keeps its groups in expiry order
+ * (creation order, or last-modified order when {@link #setTimeoutOnIdle(boolean)
+ * timeoutOnIdle} is true), so {@link #expireMessageGroups(long)} only visits the
+ * groups that have actually expired rather than scanning the whole store.
+ * <p>
+ * {@link #getMessageGroup(Object)} returns the live group (there is no copy-on-get)
+ * and {@link #iterator()} iterates over the shards directly, without copying the
+ * groups into a new collection. Unlike {@link SimpleMessageStore}, this store does
+ * not enforce a capacity, and does not store individual messages.
+ *
+ * @since 5.0
+ */
+public class ShardedMessageGroupStore extends AbstractMessageGroupStore
+		implements ChannelMessageStore, TimeIndexedMessageGroupStore {
+
+	/**
+	 * The default number of shards.
+	 */
+	public static final int DEFAULT_SHARD_COUNT = 64;
+
+	private final Shard[] shards;
+
+	private final int mask;
+
+	/**
+	 * The shard where the next bounded expiry starts; guarded by the store's monitor.
+	 */
+	private int nextExpiryShard;
+
+	/**
+	 * Create a store with {@value #DEFAULT_SHARD_COUNT} shards.
+	 */
+	public ShardedMessageGroupStore() {
+		this(DEFAULT_SHARD_COUNT);
+	}
+
+	/**
+	 * Create a store with the provided number of shards.
+	 * @param shardCount the number of shards; rounded up to a power of two.
+	 */
+	public ShardedMessageGroupStore(int shardCount) {
+		super(false);
+		Assert.isTrue(shardCount > 0 && shardCount <= 1 << 16, "'shardCount' must be between 1 and 65536");
+		int count = shardCount == 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+		this.shards = new Shard[count];
+		for (int i = 0; i < count; i++) {
+			this.shards[i] = new Shard();
+		}
+		this.mask = count - 1;
+	}
+
+	/**
+	 * @return the number of shards.
+	 */
+	public int getShardCount() {
+		return this.shards.length;
+	}
+
+	@Override
+	public void setLazyLoadMessageGroups(boolean lazyLoadMessageGroups) {
+		throw new UnsupportedOperationException("The lazy-load isn't supported for in-memory '"
+				+ getClass().getSimpleName() + "'");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The expiry order of existing groups depends on this setting, so it cannot be
+	 * changed while the store contains groups.
+	 */
+	@Override
+	public void setTimeoutOnIdle(boolean timeoutOnIdle) {
+		Assert.state(getMessageGroupCount() == 0, "'timeoutOnIdle' cannot be changed while the store has groups");
+		super.setTimeoutOnIdle(timeoutOnIdle);
+	}
+
+	@Override
+	public MessageGroup getMessageGroup(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		MessageGroup group = shardFor(groupId).groups.get(groupId);
+		if (group == null) {
+			return getMessageGroupFactory().create(groupId);
+		}
+		return group;
+	}
+
+	@Override
+	public void addMessagesToGroup(Object groupId, Message<?>... messages) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Assert.notNull(messages, "'messages' must not be null");
+		Shard shard = lockShardFor(groupId);
+		try {
+			MessageGroup group = shard.groups.get(groupId);
+			int previousSize = 0;
+			if (group == null) {
+				group = getMessageGroupFactory().create(groupId);
+				addAll(group, messages);
+				// publish the group only once its initial messages have been added
+				shard.groups.put(groupId, group);
+				shard.expiryIndex.put(groupId, group);
+			}
+			else {
+				previousSize = group.size();
+				addAll(group, messages);
+			}
+			shard.messageCount += group.size() - previousSize;
+			modified(shard, group);
+		}
+		finally {
+			shard.lock.unlock();
+		}
+	}
+
+	@Override
+	public void removeMessageGroup(Object groupId) {
+		Shard shard = lockShardFor(groupId);
+		try {
+			MessageGroup group = shard.groups.remove(groupId);
+			if (group != null) {
+				shard.expiryIndex.remove(groupId);
+				shard.messageCount -= group.size();
+			}
+		}
+		finally {
+			shard.lock.unlock();
+		}
+	}
+
+	@Override
+	public void removeMessagesFromGroup(Object groupId, Collection<Message<?>> messages) {
+		Shard shard = lockShardFor(groupId);
+		try {
+			MessageGroup group = existingGroup(shard, groupId, "remove Message(s) from the MessageGroup");
+			boolean modified = false;
+			for (Message<?> messageToRemove : messages) {
+				if (group.remove(messageToRemove)) {
+					shard.messageCount--;
+					modified = true;
+				}
+			}
+			if (modified) {
+				modified(shard, group);
+			}
+		}
+		finally {
+			shard.lock.unlock();
+		}
+	}
+
+	@Override
+	public void setLastReleasedSequenceNumberForGroup(Object groupId, int sequenceNumber) {
+		Shard shard = lockShardFor(groupId);
+		try {
+			MessageGroup group = existingGroup(shard, groupId, "set 'lastReleasedSequenceNumber'");
+			group.setLastReleasedMessageSequenceNumber(sequenceNumber);
+			modified(shard, group);
+		}
+		finally {
+			shard.lock.unlock();
+		}
+	}
+
+	@Override
+	public void completeGroup(Object groupId) {
+		Shard shard = lockShardFor(groupId);
+		try {
+			MessageGroup group = existingGroup(shard, groupId, "complete the MessageGroup");
+			group.complete();
+			modified(shard, group);
+		}
+		finally {
+			shard.lock.unlock();
+		}
+	}
+
+	@Override
+	public Message<?> pollMessageFromGroup(Object groupId) {
+		Shard shard = lockShardFor(groupId);
+		try {
+			MessageGroup group = shard.groups.get(groupId);
+			Message<?> message = group != null ? group.getOne() : null;
+			if (message != null) {
+				group.remove(message);
+				shard.messageCount--;
+				modified(shard, group);
+			}
+			return message;
+		}
+		finally {
+			shard.lock.unlock();
+		}
+	}
+
+	@Override
+	public int messageGroupSize(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		MessageGroup group = shardFor(groupId).groups.get(groupId);
+		return group != null ? group.size() : 0;
+	}
+
+	@Override
+	public MessageGroupMetadata getGroupMetadata(Object groupId) {
+		return new MessageGroupMetadata(getMessageGroup(groupId));
+	}
+
+	@Override
+	public Message<?> getOneMessageFromGroup(Object groupId) {
+		return getMessageGroup(groupId).getOne();
+	}
+
+	@Override
+	public Collection<Message<?>> getMessagesForGroup(Object groupId) {
+		return getMessageGroup(groupId).getMessages();
+	}
+
+	@Override
+	public Iterator<MessageGroup> iterator() {
+		return new GroupIterator();
+	}
+
+	@Override
+	public int getMessageGroupCount() {
+		int count = 0;
+		for (Shard shard : this.shards) {
+			count += shard.groups.size();
+		}
+		return count;
+	}
+
+	@Override
+	public int getMessageCountForAllMessageGroups() {
+		int count = 0;
+		for (Shard shard : this.shards) {
+			count += shard.messageCount;
+		}
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Each shard's expiry index is visited from the oldest group and the scan of a
+	 * shard stops at the first group that has not expired. The expiry callbacks are
+	 * invoked with a snapshot of the group, taken under the shard lock, after the lock
+	 * has been released.
+	 */
+	@Override
+	public synchronized int expireMessageGroups(long timeout) {
+		return expireMessageGroups(timeout, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Groups are expired oldest first within each shard; when the limit is reached, the
+	 * next call starts with the following shard so that every shard is eventually
+	 * visited.
+	 */
+	@Override
+	public synchronized int expireMessageGroups(long timeout, int maxGroups) {
+		Assert.isTrue(maxGroups > 0, "'maxGroups' must be greater than 0");
+		int count = 0;
+		long threshold = System.currentTimeMillis() - timeout;
+		List<MessageGroup> expired = new ArrayList<MessageGroup>();
+		Set<Object> survivors = new HashSet<Object>();
+		RuntimeException exception = null;
+		int start = this.nextExpiryShard;
+		int visited = 0;
+		while (visited < this.shards.length && count < maxGroups) {
+			Shard shard = this.shards[(start + visited++) & this.mask];
+			do {
+				expired.clear();
+				lock(shard);
+				try {
+					for (MessageGroup group : shard.expiryIndex.values()) {
+						if (expiryTime(group) > threshold || count + expired.size() >= maxGroups) {
+							break;
+						}
+						if (!survivors.contains(group.getGroupId())) {
+							expired.add(copy(group));
+						}
+					}
+				}
+				finally {
+					shard.lock.unlock();
+				}
+				for (MessageGroup group : expired) {
+					try {
+						expire(group);
+					}
+					catch (RuntimeException e) {
+						if (exception == null) {
+							exception = e;
+						}
+					}
+					if (isExpired(shard, group.getGroupId(), threshold)) {
+						// not removed by the callbacks; skip it for the rest of this call
+						survivors.add(group.getGroupId());
+					}
+					else {
+						count++;
+					}
+				}
+			}
+			while (!expired.isEmpty() && count < maxGroups);
+		}
+		this.nextExpiryShard = (start + visited) & this.mask;
+		if (exception != null) {
+			throw exception;
+		}
+		return count;
+	}
+
+	private long expiryTime(MessageGroup group) {
+		if (isTimeoutOnIdle() && group.getLastModified() > 0) {
+			return group.getLastModified();
+		}
+		return group.getTimestamp();
+	}
+
+	private boolean isExpired(Shard shard, Object groupId, long threshold) {
+		lock(shard);
+		try {
+			MessageGroup group = shard.groups.get(groupId);
+			return group != null && expiryTime(group) <= threshold;
+		}
+		finally {
+			shard.lock.unlock();
+		}
+	}
+
+	/**
+	 * Create a snapshot of the group; must be called while holding the group's
+	 * shard lock.
+	 */
+	@Override
+	protected MessageGroup copy(MessageGroup group) {
+		MessageGroup copy = getMessageGroupFactory()
+				.create(group.getMessages(), group.getGroupId(), group.getTimestamp(), group.isComplete());
+		copy.setLastModified(group.getLastModified());
+		copy.setLastReleasedMessageSequenceNumber(group.getLastReleasedMessageSequenceNumber());
+		return copy;
+	}
+
+	private Shard shardFor(Object groupId) {
+		int hash = groupId.hashCode();
+		return this.shards[(hash ^ (hash >>> 16)) & this.mask];
+	}
+
+	private Shard lockShardFor(Object groupId) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Shard shard = shardFor(groupId);
+		lock(shard);
+		return shard;
+	}
+
+	private void lock(Shard shard) {
+		try {
+			shard.lock.lockInterruptibly();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted while obtaining lock", e);
+		}
+	}
+
+	private void modified(Shard shard, MessageGroup group) {
+		group.setLastModified(System.currentTimeMillis());
+		if (isTimeoutOnIdle()) {
+			// move the group to the tail of the expiry order
+			Object groupId = group.getGroupId();
+			shard.expiryIndex.remove(groupId);
+			shard.expiryIndex.put(groupId, group);
+		}
+	}
+
+	private static MessageGroup existingGroup(Shard shard, Object groupId, String operation) {
+		MessageGroup group = shard.groups.get(groupId);
+		Assert.notNull(group, "MessageGroup for groupId '" + groupId + "' " +
+				"can not be located while attempting to " + operation);
+		return group;
+	}
+
+	private static void addAll(MessageGroup group, Message<?>... messages) {
+		for (Message<?> message : messages) {
+			group.add(message);
+		}
+	}
+
+	private static final class Shard {
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final ConcurrentMap<Object, MessageGroup> groups = new ConcurrentHashMap<Object, MessageGroup>();
+
+		/**
+		 * The groups in expiry order; guarded by the lock.
+		 */
+		private final LinkedHashMap<Object, MessageGroup> expiryIndex = new LinkedHashMap<Object, MessageGroup>();
+
+		/**
+		 * Updated under the lock; read without it for statistics.
+		 */
+		private volatile int messageCount;
+
+	}
+
+	/**
+	 * A weakly consistent iterator over the groups of all the shards.
+	 */
+	private final class GroupIterator implements Iterator<MessageGroup> {
+
+		private int shardIndex;
+
+		private Iterator<MessageGroup> current =
+				ShardedMessageGroupStore.this.shards[0].groups.values().iterator();
+
+		@Override
+		public boolean hasNext() {
+			while (!this.current.hasNext()) {
+				if (++this.shardIndex >= ShardedMessageGroupStore.this.shards.length) {
+					return false;
+				}
+				this.current = ShardedMessageGroupStore.this.shards[this.shardIndex].groups.values().iterator();
+			}
+			return true;
+		}
+
+		@Override
+		public MessageGroup next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return this.current.next();
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Use removeMessageGroup() to remove a group");
+		}
+
+	}
+
+}
@@ -17,11 +17,13 @@
 package org.springframework.integration.store;
 
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 
 import org.springframework.integration.support.locks.DefaultLockRegistry;
@@ -36,6 +38,9 @@ import org.springframework.util.CollectionUtils;
 /**
  * Map-based in-memory implementation of {@link MessageStore} and {@link MessageGroupStore}.
  * Enforces a maximum capacity for the store.
+ * <p>
+ * The groups are also kept in a skip list ordered by expiry time, so
+ * {@link #expireMessageGroups(long, int)} only visits the groups that have expired.
  *
  * @author Iwein Fuld
  * @author Mark Fisher
@@ -48,7 +53,7 @@ import org.springframework.util.CollectionUtils;
  * @since 2.0
  */
 public class SimpleMessageStore extends AbstractMessageGroupStore
-		implements MessageStore, ChannelMessageStore {
+		implements MessageStore, ChannelMessageStore, TimeIndexedMessageGroupStore {
 
 	private final ConcurrentMap<UUID, Message<?>> idToMessage = new ConcurrentHashMap<UUID, Message<?>>();
 
@@ -57,6 +62,12 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 
 	private final ConcurrentMap<Object, UpperBound> groupToUpperBound = new ConcurrentHashMap<Object, UpperBound>();
 
+	private final ConcurrentSkipListSet<ExpiryKey> expiryIndex = new ConcurrentSkipListSet<ExpiryKey>();
+
+	private final ConcurrentMap<Object, ExpiryKey> groupToExpiryKey = new ConcurrentHashMap<Object, ExpiryKey>();
+
+	private final AtomicLong expirySequence = new AtomicLong();
+
 	private final int groupCapacity;
 
 	private final int individualCapacity;
@@ -167,6 +178,19 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 		throw new UnsupportedOperationException("The lazy-load isn't supported for in-memory 'SimpleMessageStore'");
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The expiry index is rebuilt for the existing groups.
+	 */
+	@Override
+	public void setTimeoutOnIdle(boolean timeoutOnIdle) {
+		super.setTimeoutOnIdle(timeoutOnIdle);
+		for (MessageGroup group : this.groupIdToMessageGroup.values()) {
+			indexed(group);
+		}
+	}
+
 	@Override
 	@ManagedAttribute
 	public long getMessageCount() {
@@ -288,6 +312,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 				}
 
 				group.setLastModified(System.currentTimeMillis());
+				indexed(group);
 			}
 			finally {
 				if (!unlocked) {
@@ -312,6 +337,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 					UpperBound upperBound = this.groupToUpperBound.remove(groupId);
 					Assert.state(upperBound != null, "'upperBound' must not be null.");
 					upperBound.release(this.groupCapacity);
+					unindexed(groupId);
 				}
 			}
 			finally {
@@ -344,6 +370,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 				}
 				if (modified) {
 					group.setLastModified(System.currentTimeMillis());
+					indexed(group);
 				}
 			}
 			finally {
@@ -358,7 +385,8 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 
 	@Override
 	public Iterator<MessageGroup> iterator() {
-		return new HashSet<MessageGroup>(this.groupIdToMessageGroup.values()).iterator();
+		// weakly consistent; no need to copy all the groups
+		return Collections.unmodifiableCollection(this.groupIdToMessageGroup.values()).iterator();
 	}
 
 	@Override
@@ -372,6 +400,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 						"can not be located while attempting to set 'lastReleasedSequenceNumber'");
 				group.setLastReleasedMessageSequenceNumber(sequenceNumber);
 				group.setLastModified(System.currentTimeMillis());
+				indexed(group);
 			}
 			finally {
 				lock.unlock();
@@ -394,6 +423,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 						"can not be located while attempting to complete the MessageGroup");
 				group.complete();
 				group.setLastModified(System.currentTimeMillis());
+				indexed(group);
 			}
 			finally {
 				lock.unlock();
@@ -448,6 +478,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 						"can not be located while attempting to complete the MessageGroup");
 				group.clear();
 				group.setLastModified(System.currentTimeMillis());
+				indexed(group);
 				UpperBound upperBound = this.groupToUpperBound.get(groupId);
 				Assert.state(upperBound != null, "'upperBound' must not be null.");
 				upperBound.release(this.groupCapacity);
@@ -462,4 +493,100 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The expired groups are found using the expiry index, without visiting the other
+	 * groups.
+	 */
+	@Override
+	public synchronized int expireMessageGroups(long timeout, int maxGroups) {
+		Assert.isTrue(maxGroups > 0, "'maxGroups' must be greater than 0");
+		long threshold = System.currentTimeMillis() - timeout;
+		int count = 0;
+		RuntimeException exception = null;
+		// the index iterator is weakly consistent; groups that are removed or re-indexed
+		// by the callbacks move out of the expired range
+		for (ExpiryKey key : this.expiryIndex) {
+			if (key.expiryTime > threshold || count >= maxGroups) {
+				break;
+			}
+			MessageGroup group = this.groupIdToMessageGroup.get(key.groupId);
+			if (group == null || expiryTime(group) > threshold) {
+				continue;
+			}
+			try {
+				expire(copy(group));
+			}
+			catch (RuntimeException e) {
+				if (exception == null) {
+					exception = e;
+				}
+			}
+			if (this.groupToExpiryKey.get(key.groupId) != key) {
+				count++;
+			}
+		}
+		if (exception != null) {
+			throw exception;
+		}
+		return count;
+	}
+
+	private long expiryTime(MessageGroup group) {
+		if (isTimeoutOnIdle() && group.getLastModified() > 0) {
+			return group.getLastModified();
+		}
+		return group.getTimestamp();
+	}
+
+	/**
+	 * Update the group's position in the expiry index; must be called while holding
+	 * the group's lock.
+	 */
+	private void indexed(MessageGroup group) {
+		Object groupId = group.getGroupId();
+		long expiryTime = expiryTime(group);
+		ExpiryKey current = this.groupToExpiryKey.get(groupId);
+		if (current == null || current.expiryTime != expiryTime) {
+			ExpiryKey key = new ExpiryKey(expiryTime, this.expirySequence.incrementAndGet(), groupId);
+			this.expiryIndex.add(key);
+			this.groupToExpiryKey.put(groupId, key);
+			if (current != null) {
+				this.expiryIndex.remove(current);
+			}
+		}
+	}
+
+	private void unindexed(Object groupId) {
+		ExpiryKey key = this.groupToExpiryKey.remove(groupId);
+		if (key != null) {
+			this.expiryIndex.remove(key);
+		}
+	}
+
+	private static final class ExpiryKey implements Comparable<ExpiryKey> {
+
+		private final long expiryTime;
+
+		private final long sequence;
+
+		private final Object groupId;
+
+		ExpiryKey(long expiryTime, long sequence, Object groupId) {
+			this.expiryTime = expiryTime;
+			this.sequence = sequence;
+			this.groupId = groupId;
+		}
+
+		@Override
+		public int compareTo(ExpiryKey other) {
+			if (this.expiryTime != other.expiryTime) {
+				return this.expiryTime < other.expiryTime ? -1 : 1;
+			}
+			return this.sequence < other.sequence ? -1 : (this.sequence == other.sequence ? 0 : 1);
+		}
+
+	}
+
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+/**
+ * A {@link MessageGroupStore} that keeps its groups indexed by expiry time (the group
+ * creation time or, when {@code timeoutOnIdle} is true, the last-modified time), so
+ * expired groups can be found without visiting every group in the store. A
+ * {@link MessageGroupStoreReaper} uses it to expire a bounded number of groups on each
+ * run.
+ *
+ * @since 5.0
+ *
+ */
+public interface TimeIndexedMessageGroupStore extends MessageGroupStore {
+
+	/**
+	 * Expire, oldest first, at most {@code maxGroups} of the groups that have expired;
+	 * groups that have not expired are not visited. The expiry callbacks are invoked as
+	 * for {@link #expireMessageGroups(long)}. Groups that are still expired after the
+	 * callbacks ran (because they were not removed, or a callback failed) do not count
+	 * towards {@code maxGroups}: the scan continues past them, and they are visited
+	 * again on the next call. If a callback fails, the remaining groups are still
+	 * expired and the first exception is then rethrown.
+	 * @param timeout the timeout in milliseconds.
+	 * @param maxGroups the maximum number of groups to expire.
+	 * @return the number of groups expired (removed, or no longer expired).
+	 */
+	int expireMessageGroups(long timeout, int maxGroups);
+
+}
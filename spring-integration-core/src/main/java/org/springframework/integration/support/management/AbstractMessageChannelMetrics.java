@@ -102,8 +102,32 @@ public abstract class AbstractMessageChannelMetrics implements ConfigurableMetri
 
 	public abstract Statistics getErrorRate();
 
+	/**
+	 * Return the send duration (milliseconds) at the percentile. This implementation
+	 * returns {@link Double#NaN}; subclasses that maintain a latency histogram override it.
+	 * @param percentile the percentile (0-100).
+	 * @return the duration.
+	 * @since 5.0
+	 */
+	public double getSendDurationPercentile(double percentile) {
+		return Double.NaN;
+	}
+
 	public abstract void afterReceive();
 
+	/**
+	 * Record a batch receive of {@code count} messages. The default implementation
+	 * invokes {@link #afterReceive()} {@code count} times; subclasses should override
+	 * to update their counters once.
+	 * @param count the number of messages received.
+	 * @since 5.0
+	 */
+	public void afterReceive(int count) {
+		for (int i = 0; i < count; i++) {
+			afterReceive();
+		}
+	}
+
 	public abstract void afterError();
 
 	public abstract int getReceiveCount();
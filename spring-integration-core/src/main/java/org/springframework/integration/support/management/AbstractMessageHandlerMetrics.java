@@ -88,4 +88,15 @@ public abstract class AbstractMessageHandlerMetrics implements ConfigurableMetri
 
 	public abstract Statistics getDuration();
 
+	/**
+	 * Return the handler duration (milliseconds) at the percentile. This implementation
+	 * returns {@link Double#NaN}; subclasses that maintain a latency histogram override it.
+	 * @param percentile the percentile (0-100).
+	 * @return the duration.
+	 * @since 5.0
+	 */
+	public double getDurationPercentile(double percentile) {
+		return Double.NaN;
+	}
+
 }
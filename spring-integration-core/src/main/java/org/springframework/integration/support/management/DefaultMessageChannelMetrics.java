@@ -216,6 +216,11 @@ public class DefaultMessageChannelMetrics extends AbstractMessageChannelMetrics
 		this.receiveCount.incrementAndGet();
 	}
 
+	@Override
+	public void afterReceive(int count) {
+		this.receiveCount.addAndGet(count);
+	}
+
 	@Override
 	public void afterError() {
 		this.receiveErrorCount.incrementAndGet();
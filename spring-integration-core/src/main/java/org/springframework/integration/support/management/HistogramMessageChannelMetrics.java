@@ -0,0 +1,235 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Channel metrics that do not lock: counts are maintained in {@link LongAdder}s and
+ * send durations in a {@link LatencyHistogram}, which also provides percentiles.
+ * <p>
+ * Unlike the {@link DefaultMessageChannelMetrics}, the rates and error ratio are
+ * averages since the metrics were created or last reset, rather than exponential
+ * moving averages; the rate {@link Statistics} only contain the count and the mean.
+ *
+ * @since 5.0
+ */
+public class HistogramMessageChannelMetrics extends AbstractMessageChannelMetrics {
+
+	private static final MetricsContext NO_TIMING_CONTEXT = new HistogramChannelMetricsContext(0);
+
+	private static final double NANOS_PER_SECOND = 1000000000.;
+
+	private static final double NANOS_PER_MILLI = 1000000.;
+
+	protected final LatencyHistogram sendDuration = new LatencyHistogram();
+
+	protected final LongAdder sendCount = new LongAdder();
+
+	protected final LongAdder sendErrorCount = new LongAdder();
+
+	protected final LongAdder receiveCount = new LongAdder();
+
+	protected final LongAdder receiveErrorCount = new LongAdder();
+
+	private volatile long startTime = System.nanoTime();
+
+	private volatile long lastSendTime;
+
+	public HistogramMessageChannelMetrics(String name) {
+		super(name);
+	}
+
+	@Override
+	public MetricsContext beforeSend() {
+		this.sendCount.increment();
+		if (isFullStatsEnabled()) {
+			long start = System.nanoTime();
+			this.lastSendTime = start;
+			return new HistogramChannelMetricsContext(start);
+		}
+		return NO_TIMING_CONTEXT;
+	}
+
+	@Override
+	public void afterSend(MetricsContext context, boolean result) {
+		if (result) {
+			long start = ((HistogramChannelMetricsContext) context).start;
+			if (start != 0) {
+				this.sendDuration.record(System.nanoTime() - start);
+			}
+		}
+		else {
+			this.sendErrorCount.increment();
+		}
+	}
+
+	@Override
+	public void reset() {
+		this.sendDuration.reset();
+		this.sendCount.reset();
+		this.sendErrorCount.reset();
+		this.receiveCount.reset();
+		this.receiveErrorCount.reset();
+		this.lastSendTime = 0;
+		this.startTime = System.nanoTime();
+	}
+
+	@Override
+	public int getSendCount() {
+		return (int) getSendCountLong();
+	}
+
+	@Override
+	public long getSendCountLong() {
+		return this.sendCount.sum();
+	}
+
+	@Override
+	public int getSendErrorCount() {
+		return (int) getSendErrorCountLong();
+	}
+
+	@Override
+	public long getSendErrorCountLong() {
+		return this.sendErrorCount.sum();
+	}
+
+	@Override
+	public double getTimeSinceLastSend() {
+		long lastSendTime = this.lastSendTime;
+		return lastSendTime == 0 ? 0 : (System.nanoTime() - lastSendTime) / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getMeanSendRate() {
+		return rate(this.sendCount.sum());
+	}
+
+	@Override
+	public double getMeanErrorRate() {
+		return rate(this.sendErrorCount.sum());
+	}
+
+	@Override
+	public double getMeanErrorRatio() {
+		long sends = this.sendCount.sum();
+		return sends == 0 ? 0 : (double) this.sendErrorCount.sum() / sends;
+	}
+
+	@Override
+	public double getMeanSendDuration() {
+		return this.sendDuration.getMean();
+	}
+
+	@Override
+	public double getMinSendDuration() {
+		return this.sendDuration.getMin();
+	}
+
+	@Override
+	public double getMaxSendDuration() {
+		return this.sendDuration.getMax();
+	}
+
+	@Override
+	public double getStandardDeviationSendDuration() {
+		return this.sendDuration.getStandardDeviation();
+	}
+
+	@Override
+	public Statistics getSendDuration() {
+		return this.sendDuration.getStatistics();
+	}
+
+	@Override
+	public double getSendDurationPercentile(double percentile) {
+		return this.sendDuration.getPercentile(percentile);
+	}
+
+	@Override
+	public Statistics getSendRate() {
+		return rateStatistics(this.sendCount.sum());
+	}
+
+	@Override
+	public Statistics getErrorRate() {
+		return rateStatistics(this.sendErrorCount.sum());
+	}
+
+	@Override
+	public void afterReceive() {
+		this.receiveCount.increment();
+	}
+
+	@Override
+	public void afterReceive(int count) {
+		this.receiveCount.add(count);
+	}
+
+	@Override
+	public void afterError() {
+		this.receiveErrorCount.increment();
+	}
+
+	@Override
+	public int getReceiveCount() {
+		return (int) getReceiveCountLong();
+	}
+
+	@Override
+	public long getReceiveCountLong() {
+		return this.receiveCount.sum();
+	}
+
+	@Override
+	public int getReceiveErrorCount() {
+		return (int) getReceiveErrorCountLong();
+	}
+
+	@Override
+	public long getReceiveErrorCountLong() {
+		return this.receiveErrorCount.sum();
+	}
+
+	private double rate(long count) {
+		double elapsed = (System.nanoTime() - this.startTime) / NANOS_PER_SECOND;
+		return elapsed > 0 ? count / elapsed : 0;
+	}
+
+	private Statistics rateStatistics(long count) {
+		double rate = rate(count);
+		return new Statistics(count, rate, rate, rate, 0);
+	}
+
+	@Override
+	public String toString() {
+		return "HistogramMessageChannelMetrics [name=" + this.name + ", sends=" + this.sendCount.sum()
+				+ ", sendDuration=" + this.sendDuration.getStatistics() + "]";
+	}
+
+	protected static class HistogramChannelMetricsContext implements MetricsContext {
+
+		protected final long start;
+
+		protected HistogramChannelMetricsContext(long start) {
+			this.start = start;
+		}
+
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Handler metrics that do not lock: counts are maintained in {@link LongAdder}s and
+ * durations in a {@link LatencyHistogram}, which also provides percentiles.
+ *
+ * @since 5.0
+ */
+public class HistogramMessageHandlerMetrics extends AbstractMessageHandlerMetrics {
+
+	private static final MetricsContext NO_TIMING_CONTEXT = new HistogramHandlerMetricsContext(0);
+
+	protected final LatencyHistogram duration = new LatencyHistogram();
+
+	protected final LongAdder activeCount = new LongAdder();
+
+	protected final LongAdder handleCount = new LongAdder();
+
+	protected final LongAdder errorCount = new LongAdder();
+
+	public HistogramMessageHandlerMetrics(String name) {
+		super(name);
+	}
+
+	@Override
+	public MetricsContext beforeHandle() {
+		this.handleCount.increment();
+		this.activeCount.increment();
+		if (isFullStatsEnabled()) {
+			return new HistogramHandlerMetricsContext(System.nanoTime());
+		}
+		return NO_TIMING_CONTEXT;
+	}
+
+	@Override
+	public void afterHandle(MetricsContext context, boolean success) {
+		this.activeCount.decrement();
+		if (success) {
+			long start = ((HistogramHandlerMetricsContext) context).start;
+			if (start != 0) {
+				this.duration.record(System.nanoTime() - start);
+			}
+		}
+		else {
+			this.errorCount.increment();
+		}
+	}
+
+	@Override
+	public void reset() {
+		this.duration.reset();
+		this.errorCount.reset();
+		this.handleCount.reset();
+	}
+
+	@Override
+	public long getHandleCountLong() {
+		return this.handleCount.sum();
+	}
+
+	@Override
+	public int getHandleCount() {
+		return (int) getHandleCountLong();
+	}
+
+	@Override
+	public int getErrorCount() {
+		return (int) getErrorCountLong();
+	}
+
+	@Override
+	public long getErrorCountLong() {
+		return this.errorCount.sum();
+	}
+
+	@Override
+	public double getMeanDuration() {
+		return this.duration.getMean();
+	}
+
+	@Override
+	public double getMinDuration() {
+		return this.duration.getMin();
+	}
+
+	@Override
+	public double getMaxDuration() {
+		return this.duration.getMax();
+	}
+
+	@Override
+	public double getStandardDeviationDuration() {
+		return this.duration.getStandardDeviation();
+	}
+
+	@Override
+	public int getActiveCount() {
+		return (int) getActiveCountLong();
+	}
+
+	@Override
+	public long getActiveCountLong() {
+		return this.activeCount.sum();
+	}
+
+	@Override
+	public Statistics getDuration() {
+		return this.duration.getStatistics();
+	}
+
+	@Override
+	public double getDurationPercentile(double percentile) {
+		return this.duration.getPercentile(percentile);
+	}
+
+	@Override
+	public String toString() {
+		return "HistogramMessageHandlerMetrics [name=" + this.name + ", handled=" + this.handleCount.sum()
+				+ ", duration=" + this.duration.getStatistics() + "]";
+	}
+
+	protected static class HistogramHandlerMetricsContext implements MetricsContext {
+
+		protected final long start;
+
+		protected HistogramHandlerMetricsContext(long start) {
+			this.start = start;
+		}
+
+	}
+
+}
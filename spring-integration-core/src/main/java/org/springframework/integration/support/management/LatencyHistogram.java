@@ -0,0 +1,222 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+/**
+ * A lock-free histogram of durations recorded in nanoseconds. Durations are counted in
+ * log-linear buckets (each power of two is divided into 16 sub-buckets, so values are
+ * resolved within about 6%), using striped counters that are only created when a bucket
+ * is first used; recording a duration never blocks. Results are reported in
+ * milliseconds.
+ * <p>
+ * Results are computed from the counters when requested, so they are not an atomic
+ * snapshot while durations are being recorded; the same applies to {@link #reset()}.
+ *
+ * @since 5.0
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	private static final double NANOS_PER_MILLI = 1000000.;
+
+	private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<LongAdder>(BUCKET_COUNT);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder sum = new LongAdder();
+
+	private final DoubleAdder sumOfSquares = new DoubleAdder();
+
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Record a duration.
+	 * @param nanos the duration in nanoseconds; negative values are recorded as 0.
+	 */
+	public void record(long nanos) {
+		long value = Math.max(nanos, 0);
+		bucket(index(value)).increment();
+		this.count.increment();
+		this.sum.add(value);
+		this.sumOfSquares.add((double) value * value);
+		long current = this.min.get();
+		while (value < current && !this.min.compareAndSet(current, value)) {
+			current = this.min.get();
+		}
+		current = this.max.get();
+		while (value > current && !this.max.compareAndSet(current, value)) {
+			current = this.max.get();
+		}
+	}
+
+	/**
+	 * @return the number of recorded durations.
+	 */
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	/**
+	 * @return the minimum duration (milliseconds).
+	 */
+	public double getMin() {
+		long min = this.min.get();
+		return min == Long.MAX_VALUE ? 0 : min / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * @return the maximum duration (milliseconds).
+	 */
+	public double getMax() {
+		return this.max.get() / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * @return the mean duration (milliseconds).
+	 */
+	public double getMean() {
+		long count = this.count.sum();
+		return count == 0 ? 0 : this.sum.sum() / NANOS_PER_MILLI / count;
+	}
+
+	/**
+	 * @return the standard deviation of the durations (milliseconds).
+	 */
+	public double getStandardDeviation() {
+		long count = this.count.sum();
+		if (count == 0) {
+			return 0;
+		}
+		double mean = (double) this.sum.sum() / count;
+		double variance = this.sumOfSquares.sum() / count - mean * mean;
+		return variance > 0 ? Math.sqrt(variance) / NANOS_PER_MILLI : 0;
+	}
+
+	/**
+	 * Return the duration below which the provided percentage of recorded durations
+	 * fall, within the resolution of the histogram.
+	 * @param percentile the percentile (0-100).
+	 * @return the duration (milliseconds); 0 if no durations have been recorded.
+	 */
+	public double getPercentile(double percentile) {
+		Assert.isTrue(percentile >= 0 && percentile <= 100, "'percentile' must be between 0 and 100");
+		long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			LongAdder bucket = this.buckets.get(i);
+			if (bucket != null) {
+				counts[i] = bucket.sum();
+				total += counts[i];
+			}
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long cumulative = 0;
+		int index = 0;
+		for (; index < BUCKET_COUNT - 1; index++) {
+			cumulative += counts[index];
+			if (cumulative >= rank) {
+				break;
+			}
+		}
+		long value = Math.min(valueOf(index), this.max.get());
+		long min = this.min.get();
+		if (min != Long.MAX_VALUE) {
+			value = Math.max(value, min);
+		}
+		return value / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * @return the count, minimum, maximum, mean and standard deviation (milliseconds).
+	 */
+	public Statistics getStatistics() {
+		return new Statistics(getCount(), getMin(), getMax(), getMean(), getStandardDeviation());
+	}
+
+	/**
+	 * Clear the histogram.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			this.buckets.set(i, null);
+		}
+		this.count.reset();
+		this.sum.reset();
+		this.sumOfSquares.reset();
+		this.min.set(Long.MAX_VALUE);
+		this.max.set(0);
+	}
+
+	private LongAdder bucket(int index) {
+		LongAdder bucket = this.buckets.get(index);
+		if (bucket == null) {
+			bucket = new LongAdder();
+			if (!this.buckets.compareAndSet(index, null, bucket)) {
+				bucket = this.buckets.get(index);
+			}
+		}
+		return bucket;
+	}
+
+	/**
+	 * Values below {@link #SUB_BUCKET_COUNT} have their own bucket; above that, each
+	 * power of two is divided into {@link #SUB_BUCKET_COUNT} equal buckets.
+	 */
+	private static int index(long value) {
+		int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		if (highestBit < SUB_BUCKET_BITS) {
+			return (int) value;
+		}
+		int shift = highestBit - SUB_BUCKET_BITS;
+		return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+	}
+
+	/**
+	 * @return the midpoint of the bucket's range.
+	 */
+	private static long valueOf(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index >>> SUB_BUCKET_BITS) - 1;
+		long lowest = (long) (SUB_BUCKET_COUNT + (index & (SUB_BUCKET_COUNT - 1))) << shift;
+		return lowest + ((1L << shift) >>> 1);
+	}
+
+	@Override
+	public String toString() {
+		return "LatencyHistogram " + getStatistics();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -112,6 +112,11 @@ public class LifecycleMessageHandlerMetrics implements MessageHandlerMetrics, Li
 		return this.delegate.getDuration();
 	}
 
+	@Override
+	public double getDurationPercentile(double percentile) {
+		return this.delegate.getDurationPercentile(percentile);
+	}
+
 	@Override
 	public String getManagedName() {
 		return this.delegate.getManagedName();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.support.management;
 
 import org.springframework.jmx.export.annotation.ManagedMetric;
+import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.jmx.support.MetricType;
 
 /**
@@ -108,6 +109,16 @@ public interface MessageChannelMetrics extends IntegrationStatsManagement {
 	 */
 	Statistics getSendDuration();
 
+	/**
+	 * @param percentile the percentile (0-100).
+	 * @return the send duration (milliseconds) at the percentile, or {@link Double#NaN}
+	 * if the metrics do not maintain a latency histogram.
+	 * @since 5.0
+	 * @see HistogramMetricsFactory
+	 */
+	@ManagedOperation(description = "Channel Send Duration in Milliseconds at a Percentile (0-100)")
+	double getSendDurationPercentile(double percentile);
+
 	/**
 	 * @return summary statistics about the send rates (per second)
 	 */
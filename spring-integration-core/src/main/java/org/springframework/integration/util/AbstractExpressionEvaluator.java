@@ -29,7 +29,9 @@ import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.integration.expression.ExpressionUtils;
+import org.springframework.integration.expression.SpelCompilationRegistry;
 import org.springframework.integration.support.DefaultMessageBuilderFactory;
 import org.springframework.integration.support.MessageBuilderFactory;
 import org.springframework.integration.support.utils.IntegrationUtils;
@@ -59,6 +61,10 @@ public abstract class AbstractExpressionEvaluator implements BeanFactoryAware, I
 
 	private volatile MessageBuilderFactory messageBuilderFactory = new DefaultMessageBuilderFactory();
 
+	private volatile SpelCompilationRegistry spelCompilationRegistry;
+
+	private volatile boolean spelCompilationRegistryResolved;
+
 	/**
 	 * Specify a BeanFactory in order to enable resolution via <code>@beanName</code> in the expression.
 	 */
@@ -158,15 +164,31 @@ public abstract class AbstractExpressionEvaluator implements BeanFactoryAware, I
 	}
 
 	protected <T> T evaluateExpression(Expression expression, Class<T> expectedType) {
-		return expression.getValue(this.getEvaluationContext(), expectedType);
+		return compilable(expression).getValue(this.getEvaluationContext(), expectedType);
 	}
 
 	protected Object evaluateExpression(Expression expression) {
-		return expression.getValue(this.getEvaluationContext());
+		return compilable(expression).getValue(this.getEvaluationContext());
 	}
 
 	protected <T> T evaluateExpression(Expression expression, Object input, Class<T> expectedType) {
-		return expression.getValue(this.getEvaluationContext(), input, expectedType);
+		return compilable(expression).getValue(this.getEvaluationContext(), input, expectedType);
+	}
+
+	/**
+	 * Return the expression to evaluate; when a SpEL compiler mode is configured, this
+	 * is a compiling wrapper obtained from the {@link SpelCompilationRegistry}.
+	 * @param expression the expression.
+	 * @return the expression to evaluate.
+	 * @since 5.0
+	 */
+	protected Expression compilable(Expression expression) {
+		if (!this.spelCompilationRegistryResolved && this.beanFactory != null) {
+			this.spelCompilationRegistry = IntegrationContextUtils.getSpelCompilationRegistry(this.beanFactory);
+			this.spelCompilationRegistryResolved = true;
+		}
+		SpelCompilationRegistry registry = this.spelCompilationRegistry;
+		return registry != null ? registry.compilable(expression) : expression;
 	}
 
 }
@@ -0,0 +1,538 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.integration.support.management.LatencyHistogram;
+import org.springframework.integration.util.SimplePool.PoolItemCallback;
+import org.springframework.messaging.MessagingException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link Pool} with the same semantics as {@link SimplePool} (dynamic resizing, a
+ * variable wait timeout, growth on demand up to the limit), designed for many threads
+ * checking items out and in concurrently: neither {@link #getItem()} nor
+ * {@link #releaseItem(Object)} acquire a monitor.
+ * <ul>
+ * <li>Idle items are kept in a lock-free stack, so the most recently used items are
+ * reused first and unused items age, allowing them to be evicted.</li>
+ * <li>Each item has an atomic state (idle, in use, removed); an item is checked out by
+ * switching it from idle to in use, so an item can be claimed without removing it from
+ * the stack. Stack entries for items that are no longer idle are discarded when they
+ * are reached.</li>
+ * <li>Each thread remembers the last item it released and reclaims it, if it is still
+ * idle, on its next checkout (for example, the same connection is reused by the same
+ * thread). An item reclaimed this way keeps its position in the stack.</li>
+ * <li>With an {@link #setIdleTimeout(long) idleTimeout} and a
+ * {@link #scheduleEviction(TaskScheduler, long) schedule}, items that have been idle for
+ * too long are removed and, optionally, the remaining idle items are
+ * {@link #setValidateIdleItems(boolean) validated} with
+ * {@link PoolItemCallback#isStale(Object)}.</li>
+ * <li>The time threads wait for an item, and the checkout rate, are recorded.</li>
+ * </ul>
+ * Only {@link #setPoolSize(int)} is synchronized.
+ *
+ * @param <T> the pooled item type.
+ *
+ * @since 5.0
+ *
+ */
+public class ConcurrentPool<T> implements Pool<T> {
+
+	protected final Log logger = LogFactory.getLog(this.getClass());
+
+	private final Semaphore permits = new Semaphore(0);
+
+	private final AtomicInteger poolSize = new AtomicInteger();
+
+	private final AtomicInteger targetPoolSize = new AtomicInteger();
+
+	private final Deque<PoolEntry<T>> available = new ConcurrentLinkedDeque<PoolEntry<T>>();
+
+	private final Map<T, PoolEntry<T>> entries = new ConcurrentHashMap<T, PoolEntry<T>>();
+
+	private final Set<T> allocated = this.entries.keySet();
+
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+	private final ThreadLocal<WeakReference<PoolEntry<T>>> lastReleased =
+			new ThreadLocal<WeakReference<PoolEntry<T>>>();
+
+	private final LatencyHistogram waitTimes = new LatencyHistogram();
+
+	private final LongAdder timeouts = new LongAdder();
+
+	private final PoolItemCallback<T> callback;
+
+	private volatile long waitTimeout = Long.MAX_VALUE;
+
+	private volatile long idleTimeout;
+
+	private volatile boolean validateIdleItems;
+
+	private volatile long metricsStart = System.nanoTime();
+
+	/**
+	 * Creates a pool with a specific limit.
+	 * @param poolSize The maximum number of items the pool supports; unlimited if 0
+	 * or less.
+	 * @param callback A {@link PoolItemCallback} implementation called during various
+	 * pool operations.
+	 */
+	public ConcurrentPool(int poolSize, PoolItemCallback<T> callback) {
+		Assert.notNull(callback, "'callback' cannot be null");
+		int size = poolSize <= 0 ? Integer.MAX_VALUE : poolSize;
+		this.poolSize.set(size);
+		this.targetPoolSize.set(size);
+		this.permits.release(size);
+		this.callback = callback;
+	}
+
+	/**
+	 * Adjusts the current pool size. When reducing the pool size, attempts to
+	 * remove the delta from the pool. If there are not enough unused items in
+	 * the pool, the actual pool size will decrease to the specified size as in-use
+	 * items are returned.
+	 * @param poolSize The desired target pool size.
+	 */
+	public synchronized void setPoolSize(int poolSize) {
+		int delta = poolSize - this.poolSize.get();
+		this.targetPoolSize.addAndGet(delta);
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug(String.format("Target pool size changed by %d, now %d", delta, this.targetPoolSize.get()));
+		}
+		if (delta > 0) {
+			this.poolSize.addAndGet(delta);
+			this.permits.release(delta);
+		}
+		else {
+			while (delta < 0) {
+				if (!this.permits.tryAcquire()) {
+					break;
+				}
+				PoolEntry<T> entry = pollIdle(false, PoolEntry.REMOVED);
+				if (entry == null) {
+					this.permits.release();
+					break;
+				}
+				doRemoveItem(entry);
+				this.poolSize.decrementAndGet();
+				delta++;
+			}
+		}
+		if (delta < 0 && this.logger.isDebugEnabled()) {
+			this.logger.debug(String.format("Pool is overcommitted by %d; items will be removed when returned", -delta));
+		}
+	}
+
+	/**
+	 * Returns the current size of the pool; may be greater than the target pool size
+	 * if it was recently reduced and too many items were in use to allow the new size
+	 * to be set.
+	 */
+	@Override
+	public int getPoolSize() {
+		return this.poolSize.get();
+	}
+
+	@Override
+	public int getIdleCount() {
+		return this.idleCount.get();
+	}
+
+	@Override
+	public int getActiveCount() {
+		return this.activeCount.get();
+	}
+
+	@Override
+	public int getAllocatedCount() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Adjusts the wait timeout - the time for which getItem() will wait if no idle
+	 * entries are available.
+	 * <br>
+	 * Default: infinity.
+	 * @param waitTimeout The wait timeout in milliseconds.
+	 */
+	public void setWaitTimeout(long waitTimeout) {
+		this.waitTimeout = waitTimeout;
+	}
+
+	/**
+	 * Set the time after which an idle item is removed from the pool by
+	 * {@link #evictIdleItems()}. Default 0 - idle items are not evicted.
+	 * @param idleTimeout the idle timeout in milliseconds.
+	 */
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Set to true for {@link #evictIdleItems()} to check the idle items that are not
+	 * evicted with {@link PoolItemCallback#isStale(Object)}, removing the stale items.
+	 * Default false.
+	 * @param validateIdleItems true to validate idle items.
+	 */
+	public void setValidateIdleItems(boolean validateIdleItems) {
+		this.validateIdleItems = validateIdleItems;
+	}
+
+	/**
+	 * Obtains an item from the pool; waits up to waitTime milliseconds (default infinity).
+	 * @throws MessagingException if no items become available in time.
+	 */
+	@Override
+	public T getItem() {
+		boolean permitted = false;
+		try {
+			long start = System.nanoTime();
+			try {
+				permitted = this.permits.tryAcquire()
+						|| this.permits.tryAcquire(this.waitTimeout, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MessagingException("Interrupted awaiting a pooled resource", e);
+			}
+			if (!permitted) {
+				this.timeouts.increment();
+				throw new IllegalStateException("Timed out while waiting to acquire a pool entry.");
+			}
+			this.waitTimes.record(System.nanoTime() - start);
+			return doGetItem();
+		}
+		catch (Exception e) {
+			if (permitted) {
+				this.permits.release();
+			}
+			if (e instanceof MessagingException) {
+				throw (MessagingException) e;
+			}
+			throw new MessagingException("Failed to obtain pooled item", e);
+		}
+	}
+
+	private T doGetItem() {
+		PoolEntry<T> entry = null;
+		WeakReference<PoolEntry<T>> ref = this.lastReleased.get();
+		if (ref != null) {
+			PoolEntry<T> last = ref.get();
+			if (last != null && last.state.compareAndSet(PoolEntry.IDLE, PoolEntry.IN_USE)) {
+				this.idleCount.decrementAndGet();
+				entry = last;
+			}
+		}
+		if (entry == null) {
+			entry = pollIdle(true, PoolEntry.IN_USE);
+		}
+		if (entry != null && this.logger.isDebugEnabled()) {
+			this.logger.debug("Obtained " + entry.item + " from pool.");
+		}
+		if (entry == null) {
+			T item = this.callback.createForPool();
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Obtained new " + item + ".");
+			}
+			entry = new PoolEntry<T>(item);
+			this.entries.put(item, entry);
+		}
+		else if (this.callback.isStale(entry.item)) {
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Received a stale item " + entry.item + ", will attempt to get a new one.");
+			}
+			doRemoveItem(entry);
+			return doGetItem();
+		}
+		this.activeCount.incrementAndGet();
+		return entry.item;
+	}
+
+	/**
+	 * Remove entries from the idle stack until one can be switched from idle to the
+	 * provided state; entries for items that are no longer idle are discarded.
+	 * @param first true to take from the top of the stack (most recently used), false
+	 * from the bottom.
+	 * @param newState the new state.
+	 * @return the entry, or null if there are no idle items.
+	 */
+	private PoolEntry<T> pollIdle(boolean first, int newState) {
+		PoolEntry<T> entry;
+		while ((entry = first ? this.available.pollFirst() : this.available.pollLast()) != null) {
+			entry.queued.set(false);
+			if (entry.state.compareAndSet(PoolEntry.IDLE, newState)) {
+				this.idleCount.decrementAndGet();
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns an item to the pool.
+	 */
+	@Override
+	public void releaseItem(T item) {
+		Assert.notNull(item, "Item cannot be null");
+		PoolEntry<T> entry = this.entries.get(item);
+		Assert.isTrue(entry != null, "You can only release items that were obtained from the pool");
+		if (entry.state.compareAndSet(PoolEntry.IN_USE, PoolEntry.RELEASING)) {
+			this.activeCount.decrementAndGet();
+			if (shrink()) {
+				doRemoveItem(entry);
+			}
+			else {
+				if (this.logger.isDebugEnabled()) {
+					this.logger.debug("Releasing " + item + " back to the pool");
+				}
+				entry.releaseTime = System.currentTimeMillis();
+				this.idleCount.incrementAndGet();
+				entry.state.set(PoolEntry.IDLE);
+				// an entry reclaimed by thread affinity may still be on the stack
+				if (entry.queued.compareAndSet(false, true)) {
+					this.available.offerFirst(entry);
+				}
+				this.lastReleased.set(new WeakReference<PoolEntry<T>>(entry));
+				this.permits.release();
+			}
+		}
+		else {
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Ignoring release of " + item + " back to the pool - not in use");
+			}
+		}
+	}
+
+	/**
+	 * Decrement the pool size if it exceeds the target size.
+	 * @return true if the pool size was decremented.
+	 */
+	private boolean shrink() {
+		int size = this.poolSize.get();
+		while (size > this.targetPoolSize.get()) {
+			if (this.poolSize.compareAndSet(size, size - 1)) {
+				return true;
+			}
+			size = this.poolSize.get();
+		}
+		return false;
+	}
+
+	@Override
+	public void removeAllIdleItems() {
+		PoolEntry<T> entry;
+		while ((entry = pollIdle(true, PoolEntry.REMOVED)) != null) {
+			doRemoveItem(entry);
+		}
+	}
+
+	/**
+	 * Remove the items that have been idle for longer than the
+	 * {@link #setIdleTimeout(long) idleTimeout} and, if so configured, validate the
+	 * others. Items are examined from the least recently used; an item being examined
+	 * counts as checked out, so the pass stops if there are no permits left. Items that
+	 * are retained keep their position in the stack; stack entries for removed items are
+	 * discarded.
+	 */
+	public void evictIdleItems() {
+		long idleTimeout = this.idleTimeout;
+		if (idleTimeout <= 0 && !this.validateIdleItems) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		Iterator<PoolEntry<T>> iterator = this.available.descendingIterator();
+		while (iterator.hasNext()) {
+			PoolEntry<T> entry = iterator.next();
+			int state = entry.state.get();
+			if (state == PoolEntry.REMOVED) {
+				iterator.remove();
+				continue;
+			}
+			else if (state != PoolEntry.IDLE) {
+				continue;
+			}
+			if (!this.permits.tryAcquire()) {
+				return;
+			}
+			try {
+				if (!entry.state.compareAndSet(PoolEntry.IDLE, PoolEntry.IN_USE)) {
+					continue;
+				}
+				this.idleCount.decrementAndGet();
+				boolean expired = idleTimeout > 0 && now - entry.releaseTime > idleTimeout;
+				if (expired || (this.validateIdleItems && this.callback.isStale(entry.item))) {
+					if (this.logger.isDebugEnabled()) {
+						this.logger.debug((expired ? "Evicting idle " : "Evicting stale ") + entry.item);
+					}
+					doRemoveItem(entry);
+					iterator.remove();
+				}
+				else {
+					this.idleCount.incrementAndGet();
+					entry.state.set(PoolEntry.IDLE);
+					// a concurrent checkout may have polled and discarded the entry while it was claimed
+					if (entry.queued.compareAndSet(false, true)) {
+						this.available.offerLast(entry);
+					}
+				}
+			}
+			finally {
+				this.permits.release();
+			}
+		}
+	}
+
+	/**
+	 * Schedule {@link #evictIdleItems()} to run at a fixed rate.
+	 * @param scheduler the scheduler.
+	 * @param interval the interval in milliseconds.
+	 * @return the future, which can be used to cancel the eviction.
+	 */
+	public ScheduledFuture<?> scheduleEviction(TaskScheduler scheduler, long interval) {
+		Assert.notNull(scheduler, "'scheduler' cannot be null");
+		Assert.isTrue(interval > 0, "'interval' must be greater than 0");
+		return scheduler.scheduleAtFixedRate(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					evictIdleItems();
+				}
+				catch (RuntimeException e) {
+					ConcurrentPool.this.logger.error("Failed to evict idle items", e);
+				}
+			}
+
+		}, interval);
+	}
+
+	private void doRemoveItem(PoolEntry<T> entry) {
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Removing " + entry.item + " from the pool");
+		}
+		entry.state.set(PoolEntry.REMOVED);
+		this.entries.remove(entry.item);
+		this.callback.removedFromPool(entry.item);
+	}
+
+	/**
+	 * @return the number of successful calls to {@link #getItem()} since the pool was
+	 * created or the metrics were reset.
+	 */
+	public long getCheckoutCount() {
+		return this.waitTimes.getCount();
+	}
+
+	/**
+	 * @return the mean number of checkouts per second since the pool was created or
+	 * the metrics were reset.
+	 */
+	public double getCheckoutRate() {
+		double seconds = (System.nanoTime() - this.metricsStart) / 1000000000.;
+		return seconds > 0 ? this.waitTimes.getCount() / seconds : 0;
+	}
+
+	/**
+	 * @return the mean time (milliseconds) threads waited for an item.
+	 */
+	public double getMeanWaitTime() {
+		return this.waitTimes.getMean();
+	}
+
+	/**
+	 * @return the longest time (milliseconds) a thread waited for an item.
+	 */
+	public double getMaxWaitTime() {
+		return this.waitTimes.getMax();
+	}
+
+	/**
+	 * @param percentile the percentile (0-100).
+	 * @return the time (milliseconds) within which the provided percentage of threads
+	 * obtained an item.
+	 */
+	public double getWaitTimePercentile(double percentile) {
+		return this.waitTimes.getPercentile(percentile);
+	}
+
+	/**
+	 * @return the number of calls to {@link #getItem()} that timed out.
+	 */
+	public long getTimeoutCount() {
+		return this.timeouts.sum();
+	}
+
+	/**
+	 * Reset the wait time, checkout and timeout metrics.
+	 */
+	public void resetMetrics() {
+		this.waitTimes.reset();
+		this.timeouts.reset();
+		this.metricsStart = System.nanoTime();
+	}
+
+	/**
+	 * A pooled item and its state. The {@code queued} flag is set while the entry is on
+	 * the idle stack, so an item reclaimed by thread affinity (whose stack entry is left
+	 * in place) is not pushed a second time when it is released.
+	 */
+	private static final class PoolEntry<T> {
+
+		static final int IDLE = 0;
+
+		static final int IN_USE = 1;
+
+		static final int RELEASING = 2;
+
+		static final int REMOVED = 3;
+
+		private final T item;
+
+		private final AtomicInteger state = new AtomicInteger(IN_USE);
+
+		private final AtomicBoolean queued = new AtomicBoolean();
+
+		private volatile long releaseTime;
+
+		PoolEntry(T item) {
+			this.item = item;
+		}
+
+	}
+
+}
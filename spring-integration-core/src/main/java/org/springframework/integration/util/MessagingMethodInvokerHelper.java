@@ -17,6 +17,9 @@
 package org.springframework.integration.util;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
@@ -31,6 +34,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
@@ -74,6 +78,12 @@ import org.springframework.util.StringUtils;
  * the method-selection will be dynamic, based on the underlying SpEL method resolution.
  * Alternatively, an annotation type may be provided so that the candidates for SpEL's
  * method resolution are determined by the presence of that annotation rather than the method name.
+ * <p>
+ * When all the arguments of the selected method can be resolved without SpEL (the payload,
+ * the message, the headers or a named header), the method is invoked directly through a
+ * {@link MethodHandle}; the generated SpEL expression is only evaluated for methods with
+ * argument expressions (such as {@code @Payload("foo.bar")}) or when an argument cannot
+ * be converted to the parameter type.
  *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
@@ -119,6 +129,8 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 
 	private Method method;
 
+	private TypeConverter typeConverter;
+
 
 	public MessagingMethodInvokerHelper(Object targetObject, Method method, Class<?> expectedType,
 			boolean canProcessMessageList) {
@@ -284,6 +296,7 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 			context.registerMethodFilter(targetType, filter);
 		}
 		context.setVariable("target", this.targetObject);
+		this.typeConverter = context.getTypeConverter();
 	}
 
 	private boolean canReturnExpectedType(AnnotatedMethodFilter filter, Class<?> targetType,
@@ -315,8 +328,11 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 		Expression expression = candidate.getExpression();
 		Class<?> expectedType = this.expectedType != null ? this.expectedType : candidate.method.getReturnType();
 		try {
+			Object[] arguments = candidate.resolveArguments(this.targetObject, parameters, this.typeConverter);
 			@SuppressWarnings("unchecked")
-			T result = (T) this.evaluateExpression(expression, parameters, expectedType);
+			T result = (T) (arguments != null
+					? convertResult(candidate.invoke(this.targetObject, arguments), expectedType)
+					: this.evaluateExpression(expression, parameters, expectedType));
 			if (this.requiresReply) {
 				Assert.notNull(result,
 						"Expression evaluation result was null, but this processor requires a reply.");
@@ -337,6 +353,15 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 		}
 	}
 
+	private Object convertResult(Object result, Class<?> expectedType) {
+		if (result == null || expectedType == null
+				|| org.springframework.util.ClassUtils.isAssignableValue(expectedType, result)) {
+			return result;
+		}
+		return this.typeConverter.convertValue(result, TypeDescriptor.forObject(result),
+				TypeDescriptor.valueOf(expectedType));
+	}
+
 	private Map<String, Map<Class<?>, HandlerMethod>> findHandlerMethodsForTarget(final Object targetObject,
 			final Class<? extends Annotation> annotationType, final String methodName, final boolean requiresReply) {
 
@@ -616,7 +641,8 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 
 	/**
 	 * Helper class for generating and exposing metadata for a candidate handler method. The metadata includes the SpEL
-	 * expression and the expected payload type.
+	 * expression, the expected payload type and, when the arguments can be resolved without SpEL, a
+	 * {@link MethodHandle} and the resolvers for its arguments.
 	 */
 	private static class HandlerMethod {
 
@@ -642,6 +668,10 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 
 		private final boolean canProcessMessageList;
 
+		private final List<ArgumentResolver> argumentResolvers = new ArrayList<ArgumentResolver>();
+
+		private final MethodHandle methodHandle;
+
 		private volatile TypeDescriptor targetParameterTypeDescriptor;
 
 		private volatile Class<?> targetParameterType = Void.class;
@@ -652,6 +682,7 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 			this.method = method;
 			this.canProcessMessageList = canProcessMessageList;
 			this.expression = this.generateExpression(method);
+			this.methodHandle = this.createMethodHandle(method);
 		}
 
 
@@ -672,6 +703,71 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 			return this.method.toString();
 		}
 
+		/**
+		 * Resolve the arguments for a direct invocation of the method.
+		 * @return the arguments, or null if the SpEL expression must be evaluated instead.
+		 */
+		Object[] resolveArguments(Object target, ParametersWrapper parameters, TypeConverter typeConverter) {
+			if (this.methodHandle == null || parameters.getMessage() == null
+					|| !(Modifier.isStatic(this.method.getModifiers())
+							|| this.method.getDeclaringClass().isInstance(target))) {
+				return null;
+			}
+			Object[] arguments = new Object[this.argumentResolvers.size()];
+			for (int i = 0; i < arguments.length; i++) {
+				ArgumentResolver resolver = this.argumentResolvers.get(i);
+				Object argument = resolver.resolve(parameters);
+				if (argument != null && resolver.requiresConversion(argument)) {
+					try {
+						argument = typeConverter.convertValue(argument, TypeDescriptor.forObject(argument),
+								resolver.parameterType);
+					}
+					catch (RuntimeException e) {
+						// let SpEL report the failure
+						return null;
+					}
+				}
+				if (argument == null && resolver.parameterType.isPrimitive()) {
+					return null;
+				}
+				arguments[i] = argument;
+			}
+			return arguments;
+		}
+
+		Object invoke(Object target, Object[] arguments) throws Exception {
+			try {
+				return (Object) this.methodHandle.invokeExact(target, arguments);
+			}
+			catch (Exception e) {
+				throw e;
+			}
+			catch (Throwable e) {
+				throw new IllegalStateException("Cannot process message", e);
+			}
+		}
+
+		private MethodHandle createMethodHandle(Method method) {
+			if (method.isVarArgs() || this.argumentResolvers.contains(null)) {
+				return null;
+			}
+			try {
+				ReflectionUtils.makeAccessible(method);
+				MethodHandle handle = MethodHandles.lookup().unreflect(method);
+				if (Modifier.isStatic(method.getModifiers())) {
+					handle = MethodHandles.dropArguments(handle, 0, Object.class);
+				}
+				return handle.asSpreader(Object[].class, method.getParameterTypes().length)
+						.asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+			}
+			catch (Exception e) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Cannot create a MethodHandle for " + method + "; SpEL will be used", e);
+				}
+				return null;
+			}
+		}
+
 		private Expression generateExpression(Method method) {
 			StringBuilder sb = new StringBuilder("#target." + method.getName() + "(");
 			Class<?>[] parameterTypes = method.getParameterTypes();
@@ -694,12 +790,16 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 						if (StringUtils.hasText(qualifierExpression)) {
 							sb.append(".")
 									.append(qualifierExpression);
+							this.argumentResolvers.add(null);
 						}
 						if (!StringUtils.hasText(qualifierExpression)) {
 							this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
+							this.argumentResolvers.add(ArgumentResolver.of(ArgumentResolver.PAYLOAD,
+									parameterTypeDescriptor));
 						}
 					}
 					if (annotationType.equals(Payloads.class)) {
+						this.argumentResolvers.add(null);
 						sb.append("messages.![payload");
 						String qualifierExpression = ((Payloads) mappingAnnotation).value();
 						if (StringUtils.hasText(qualifierExpression)) {
@@ -715,31 +815,39 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 						Assert.isTrue(Map.class.isAssignableFrom(parameterType),
 								"The @Headers annotation can only be applied to a Map-typed parameter.");
 						sb.append("headers");
+						this.argumentResolvers.add(ArgumentResolver.of(ArgumentResolver.HEADERS, parameterTypeDescriptor));
 					}
 					else if (annotationType.equals(Header.class)) {
 						sb.append(this.determineHeaderExpression(mappingAnnotation, methodParameter));
+						this.argumentResolvers.add(this.headerArgumentResolver(mappingAnnotation, methodParameter,
+								parameterTypeDescriptor));
 					}
 				}
 				else if (parameterTypeDescriptor.isAssignableTo(messageTypeDescriptor)) {
 					this.messageMethod = true;
 					sb.append("message");
+					this.argumentResolvers.add(ArgumentResolver.of(ArgumentResolver.MESSAGE, parameterTypeDescriptor));
 					this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
 				}
 				else if ((parameterTypeDescriptor.isAssignableTo(messageListTypeDescriptor)
 						|| parameterTypeDescriptor.isAssignableTo(messageArrayTypeDescriptor))) {
 					sb.append("messages");
+					this.argumentResolvers.add(null);
 					this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
 				}
 				else if (Collection.class.isAssignableFrom(parameterType) || parameterType.isArray()) {
 					if (this.canProcessMessageList) {
 						sb.append("messages.![payload]");
+						this.argumentResolvers.add(null);
 					}
 					else {
 						sb.append("payload");
+						this.argumentResolvers.add(ArgumentResolver.of(ArgumentResolver.PAYLOAD, parameterTypeDescriptor));
 					}
 					this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
 				}
 				else if (Iterator.class.isAssignableFrom(parameterType)) {
+					this.argumentResolvers.add(null);
 					if (this.canProcessMessageList) {
 						Type type = method.getGenericParameterTypes()[i];
 						Type parameterizedType = null;
@@ -765,9 +873,12 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 					if (Properties.class.isAssignableFrom(parameterType)) {
 						sb.append("payload instanceof T(java.util.Map) or "
 								+ "(payload instanceof T(String) and payload.contains('=')) ? payload : headers");
+						this.argumentResolvers.add(null);
 					}
 					else {
 						sb.append("(payload instanceof T(java.util.Map) ? payload : headers)");
+						this.argumentResolvers.add(ArgumentResolver.of(ArgumentResolver.PAYLOAD_OR_HEADERS,
+								parameterTypeDescriptor));
 					}
 					Assert.isTrue(!hasUnqualifiedMapParameter,
 							"Found more than one Map typed parameter without any qualification. "
@@ -777,6 +888,7 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 				else {
 					sb.append("payload");
 					this.setExclusiveTargetParameterType(parameterTypeDescriptor, methodParameter);
+					this.argumentResolvers.add(ArgumentResolver.of(ArgumentResolver.PAYLOAD, parameterTypeDescriptor));
 				}
 			}
 			if (hasUnqualifiedMapParameter) {
@@ -825,6 +937,21 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 			return headerRetrievalExpression + " != null ? " + fullHeaderExpression + " : " + fallbackExpression;
 		}
 
+		private ArgumentResolver headerArgumentResolver(Annotation headerAnnotation, MethodParameter methodParameter,
+				TypeDescriptor parameterTypeDescriptor) {
+			AnnotationAttributes annotationAttributes =
+					(AnnotationAttributes) AnnotationUtils.getAnnotationAttributes(headerAnnotation);
+			String headerName = annotationAttributes.getString(AnnotationUtils.VALUE);
+			if (headerName.indexOf('.') != -1 || Optional.class.equals(parameterTypeDescriptor.getType())) {
+				return null;
+			}
+			if (!StringUtils.hasText(headerName)) {
+				headerName = methodParameter.getParameterName();
+			}
+			return new ArgumentResolver(ArgumentResolver.HEADER, headerName,
+					annotationAttributes.getBoolean("required"), parameterTypeDescriptor);
+		}
+
 		private synchronized void setExclusiveTargetParameterType(TypeDescriptor targetParameterType,
 				MethodParameter methodParameter) {
 			if (this.targetParameterTypeDescriptor != null) {
@@ -843,6 +970,71 @@ public class MessagingMethodInvokerHelper<T> extends AbstractExpressionEvaluator
 		}
 	}
 
+	/**
+	 * Resolves one argument of a directly invoked handler method.
+	 */
+	private static final class ArgumentResolver {
+
+		private static final int PAYLOAD = 0;
+
+		private static final int MESSAGE = 1;
+
+		private static final int HEADERS = 2;
+
+		private static final int HEADER = 3;
+
+		private static final int PAYLOAD_OR_HEADERS = 4;
+
+		private final int source;
+
+		private final String headerName;
+
+		private final boolean required;
+
+		private final TypeDescriptor parameterType;
+
+		private final boolean container;
+
+		ArgumentResolver(int source, String headerName, boolean required, TypeDescriptor parameterType) {
+			this.source = source;
+			this.headerName = headerName;
+			this.required = required;
+			this.parameterType = parameterType;
+			// SpEL converts the elements of collections and maps, even when the argument is assignable
+			this.container = parameterType.isCollection() || parameterType.isMap() || parameterType.isArray();
+		}
+
+		static ArgumentResolver of(int source, TypeDescriptor parameterType) {
+			if (Optional.class.equals(parameterType.getType())) {
+				return null;
+			}
+			return new ArgumentResolver(source, null, false, parameterType);
+		}
+
+		Object resolve(ParametersWrapper parameters) {
+			switch (this.source) {
+				case PAYLOAD:
+					return parameters.getPayload();
+				case MESSAGE:
+					return parameters.getMessage();
+				case HEADERS:
+					return parameters.getHeaders();
+				case HEADER:
+					Object header = parameters.getHeaders().get(this.headerName);
+					Assert.isTrue(header != null || !this.required, "required header not available: " + this.headerName);
+					return header;
+				default:
+					Object payload = parameters.getPayload();
+					return payload instanceof Map ? payload : parameters.getHeaders();
+			}
+		}
+
+		boolean requiresConversion(Object argument) {
+			return this.container || !this.parameterType.getObjectType().isInstance(argument);
+		}
+
+	}
+
 	public class ParametersWrapper {
 
 		private final Object payload;
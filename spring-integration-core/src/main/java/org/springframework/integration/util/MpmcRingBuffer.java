@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.util.Assert;
+
+/**
+ * A bounded, lock-free, multi-producer/multi-consumer ring buffer with a
+ * preallocated slot array. Each slot carries a sequence number that tells producers
+ * and consumers whether the slot is free or published for the current lap, so
+ * {@link #offer(Object)} and {@link #poll()} neither lock nor allocate.
+ * <p>
+ * The capacity is rounded up to the next power of two. This class does not block;
+ * waiting when the buffer is full or empty is the caller's responsibility.
+ *
+ * @param <E> the element type.
+ *
+ * @since 5.0
+ */
+public class MpmcRingBuffer<E> {
+
+	private final int capacity;
+
+	private final int mask;
+
+	private final AtomicReferenceArray<E> elements;
+
+	private final AtomicLongArray sequences;
+
+	private final AtomicLong head = new AtomicLong();
+
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * Create a ring buffer with at least the provided capacity.
+	 * @param capacity the minimum capacity; rounded up to a power of two.
+	 */
+	public MpmcRingBuffer(int capacity) {
+		Assert.isTrue(capacity > 0, "'capacity' must be a positive integer");
+		Assert.isTrue(capacity <= 1 << 30, "'capacity' must not exceed 2^30");
+		this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.mask = this.capacity - 1;
+		this.elements = new AtomicReferenceArray<E>(this.capacity);
+		this.sequences = new AtomicLongArray(this.capacity);
+		for (int i = 0; i < this.capacity; i++) {
+			this.sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * @return the actual (power of two) capacity.
+	 */
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Insert the element if a slot is free.
+	 * @param element the element; must not be null.
+	 * @return true if the element was inserted, false if the buffer is full.
+	 */
+	public boolean offer(E element) {
+		Assert.notNull(element, "'element' must not be null");
+		while (true) {
+			long position = this.tail.get();
+			int index = (int) position & this.mask;
+			long difference = this.sequences.get(index) - position;
+			if (difference == 0) {
+				if (this.tail.compareAndSet(position, position + 1)) {
+					this.elements.lazySet(index, element);
+					this.sequences.set(index, position + 1);
+					return true;
+				}
+			}
+			else if (difference < 0) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Remove the oldest element, if any.
+	 * @return the element, or null if the buffer is empty.
+	 */
+	public E poll() {
+		while (true) {
+			long position = this.head.get();
+			int index = (int) position & this.mask;
+			long difference = this.sequences.get(index) - (position + 1);
+			if (difference == 0) {
+				if (this.head.compareAndSet(position, position + 1)) {
+					return release(index, position);
+				}
+			}
+			else if (difference < 0) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Remove up to {@code maxElements} elements, in order, claiming all the
+	 * published slots with a single compare-and-set.
+	 * @param target the collection to add the elements to.
+	 * @param maxElements the maximum number of elements to remove.
+	 * @return the number of elements removed.
+	 */
+	public int drainTo(Collection<? super E> target, int maxElements) {
+		Assert.notNull(target, "'target' must not be null");
+		if (maxElements <= 0) {
+			return 0;
+		}
+		int limit = Math.min(maxElements, this.capacity);
+		while (true) {
+			long position = this.head.get();
+			int available = 0;
+			while (available < limit
+					&& this.sequences.get((int) (position + available) & this.mask) == position + available + 1) {
+				available++;
+			}
+			if (available == 0) {
+				if (this.sequences.get((int) position & this.mask) - (position + 1) < 0) {
+					return 0;
+				}
+			}
+			else if (this.head.compareAndSet(position, position + available)) {
+				for (int i = 0; i < available; i++) {
+					target.add(release((int) (position + i) & this.mask, position + i));
+				}
+				return available;
+			}
+		}
+	}
+
+	/**
+	 * @return the approximate number of elements; exact when there is no concurrent
+	 * activity.
+	 */
+	public int size() {
+		long consumed = this.head.get();
+		long produced = this.tail.get();
+		return (int) Math.max(0, Math.min(this.capacity, produced - consumed));
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public int remainingCapacity() {
+		return this.capacity - size();
+	}
+
+	private E release(int index, long position) {
+		E element = this.elements.get(index);
+		this.elements.lazySet(index, null);
+		this.sequences.set(index, position + this.capacity);
+		return element;
+	}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.aggregator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * @since 5.0
+ */
+public class AccumulatingAggregatorTests {
+
+	private final SimpleMessageStore store = new SimpleMessageStore();
+
+	private final QueueChannel output = new QueueChannel();
+
+	private AggregatingMessageHandler aggregator;
+
+	@Before
+	public void setUp() {
+		this.aggregator = new AggregatingMessageHandler(
+				new AccumulatingMessageGroupProcessor<Long>(new SumAccumulator()), this.store);
+		this.aggregator.setOutputChannel(this.output);
+		this.aggregator.setBeanFactory(mock(BeanFactory.class));
+	}
+
+	@Test
+	public void testSequenceReleasedWithOneStoredMessage() {
+		this.aggregator.afterPropertiesSet();
+		for (int i = 1; i <= 5; i++) {
+			this.aggregator.handleMessage(MessageBuilder.withPayload(i)
+					.setCorrelationId("foo")
+					.setSequenceNumber(i)
+					.setSequenceSize(5)
+					.setHeader("same", "bar")
+					.setHeader("different", i)
+					.build());
+			if (i < 5) {
+				assertEquals(1, this.store.getMessageGroup("foo").size());
+				assertEquals(1, this.store.getMessageCountForAllMessageGroups());
+			}
+		}
+		Message<?> result = this.output.receive(0);
+		assertNotNull(result);
+		assertEquals(15L, result.getPayload());
+		assertEquals("bar", result.getHeaders().get("same"));
+		assertFalse(result.getHeaders().containsKey("different"));
+		assertNull(new IntegrationMessageHeaderAccessor(result).getSequenceNumber());
+		assertEquals(0, this.store.getMessageCountForAllMessageGroups());
+		assertTrue(this.store.getMessageGroup("foo").isComplete());
+	}
+
+	@Test
+	public void testDuplicateSequenceNumberDiscarded() {
+		QueueChannel discards = new QueueChannel();
+		this.aggregator.setDiscardChannel(discards);
+		this.aggregator.afterPropertiesSet();
+		this.aggregator.handleMessage(MessageBuilder.withPayload(1)
+				.setCorrelationId("foo")
+				.setSequenceNumber(1)
+				.setSequenceSize(2)
+				.build());
+		this.aggregator.handleMessage(MessageBuilder.withPayload(10)
+				.setCorrelationId("foo")
+				.setSequenceNumber(1)
+				.setSequenceSize(2)
+				.build());
+		this.aggregator.handleMessage(MessageBuilder.withPayload(100)
+				.setCorrelationId("foo")
+				.setSequenceNumber(2)
+				.setSequenceSize(3)
+				.build());
+		assertNull(this.output.receive(0));
+		assertEquals(10, discards.receive(0).getPayload());
+		assertEquals(100, discards.receive(0).getPayload());
+		this.aggregator.handleMessage(MessageBuilder.withPayload(2)
+				.setCorrelationId("foo")
+				.setSequenceNumber(2)
+				.setSequenceSize(2)
+				.build());
+		Message<?> result = this.output.receive(0);
+		assertNotNull(result);
+		assertEquals(3L, result.getPayload());
+		assertNull(discards.receive(0));
+	}
+
+	@Test
+	public void testLargeGroupsReleasedByCount() {
+		this.aggregator.setReleaseStrategy(new MessageCountReleaseStrategy(1000));
+		this.aggregator.setExpireGroupsUponCompletion(true);
+		this.aggregator.afterPropertiesSet();
+		for (int i = 0; i < 10000; i++) {
+			this.aggregator.handleMessage(MessageBuilder.withPayload(1)
+					.setCorrelationId("foo")
+					.build());
+			assertTrue(this.store.getMessageCountForAllMessageGroups() <= 1);
+		}
+		List<Message<?>> results = this.output.clear();
+		assertEquals(10, results.size());
+		for (Message<?> result : results) {
+			assertEquals(1000L, result.getPayload());
+		}
+	}
+
+	@Test
+	public void testReleaseStrategyEvaluatesAccumulation() {
+		this.aggregator.setReleaseStrategy(new ExpressionEvaluatingReleaseStrategy("one.payload.state >= 10"));
+		this.aggregator.afterPropertiesSet();
+		for (int i = 1; i <= 4; i++) {
+			this.aggregator.handleMessage(MessageBuilder.withPayload(i)
+					.setCorrelationId("foo")
+					.build());
+		}
+		Message<?> result = this.output.receive(0);
+		assertNotNull(result);
+		assertEquals(10L, result.getPayload());
+	}
+
+	@Test
+	public void testPartialResultOnExpiry() {
+		this.aggregator.setSendPartialResultOnExpiry(true);
+		this.aggregator.afterPropertiesSet();
+		this.aggregator.handleMessage(MessageBuilder.withPayload(3)
+				.setCorrelationId("foo")
+				.setSequenceNumber(1)
+				.setSequenceSize(3)
+				.build());
+		this.aggregator.handleMessage(MessageBuilder.withPayload(4)
+				.setCorrelationId("foo")
+				.setSequenceNumber(2)
+				.setSequenceSize(3)
+				.build());
+		assertNull(this.output.receive(0));
+		assertEquals(1, this.store.expireMessageGroups(-10000));
+		Message<?> result = this.output.receive(0);
+		assertNotNull(result);
+		assertEquals(7L, result.getPayload());
+		assertEquals(0, this.store.getMessageGroupCount());
+	}
+
+	@Test
+	public void testAccumulatedGroupSize() {
+		AccumulatingMessageGroupProcessor<Long> processor =
+				new AccumulatingMessageGroupProcessor<Long>(new SumAccumulator());
+		Message<?> accumulation = processor.accumulate("foo", null, new GenericMessage<Integer>(2));
+		accumulation = processor.accumulate("foo", accumulation, new GenericMessage<Integer>(3));
+		Accumulation<?> payload = (Accumulation<?>) accumulation.getPayload();
+		assertEquals(2, payload.getCount());
+		assertEquals(5L, payload.getState());
+		this.store.addMessagesToGroup("foo", accumulation);
+		assertEquals(2, new AbstractCorrelatingMessageHandler.AccumulatedMessageGroup(
+				this.store.getMessageGroup("foo")).size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testPartialSequencesRejected() {
+		this.aggregator.setReleasePartialSequences(true);
+		this.aggregator.afterPropertiesSet();
+	}
+
+	private static class SumAccumulator implements MessageAccumulator<Long> {
+
+		@Override
+		public Long createState(Object groupId) {
+			return 0L;
+		}
+
+		@Override
+		public Long accumulate(Long state, Message<?> message) {
+			return state + (Integer) message.getPayload();
+		}
+
+		@Override
+		public Object getResult(Long state) {
+			return state;
+		}
+
+	}
+
+}
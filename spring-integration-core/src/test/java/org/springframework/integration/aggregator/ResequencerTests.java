@@ -28,6 +28,8 @@ import static org.mockito.Mockito.mock;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -407,6 +409,71 @@ public class ResequencerTests {
 		assertNotNull(out3);
 	}
 
+	@Test
+	public void testStreamingRelease() {
+		this.resequencer = new ResequencingMessageHandler(this.processor, this.store, null, null);
+		this.resequencer.setStreamingRelease(true);
+		QueueChannel discardChannel = new QueueChannel();
+		this.resequencer.setDiscardChannel(discardChannel);
+		QueueChannel replyChannel = new QueueChannel();
+		this.resequencer.setOutputChannel(replyChannel);
+		this.resequencer.setBeanFactory(mock(BeanFactory.class));
+		this.resequencer.afterPropertiesSet();
+
+		List<Integer> sequenceNumbers = new ArrayList<Integer>();
+		for (int i = 1; i <= 1000; i++) {
+			sequenceNumbers.add(i);
+		}
+		Collections.shuffle(sequenceNumbers, new Random(42));
+		for (int sequenceNumber : sequenceNumbers) {
+			this.resequencer.handleMessage(createMessage("foo", "ABC", 1000, sequenceNumber, null));
+		}
+		for (int i = 1; i <= 1000; i++) {
+			Message<?> out = replyChannel.receive(0);
+			assertNotNull(out);
+			assertEquals(new Integer(i), new IntegrationMessageHeaderAccessor(out).getSequenceNumber());
+		}
+		assertNull(replyChannel.receive(0));
+		assertNull(discardChannel.receive(0));
+		assertEquals(0, this.store.getMessageGroupCount());
+	}
+
+	@Test
+	public void testStreamingReleaseEvictsAndDiscards() {
+		this.resequencer = new ResequencingMessageHandler(this.processor, this.store, null, null);
+		this.resequencer.setStreamingRelease(true);
+		QueueChannel discardChannel = new QueueChannel();
+		this.resequencer.setDiscardChannel(discardChannel);
+		QueueChannel replyChannel = new QueueChannel();
+		this.resequencer.setOutputChannel(replyChannel);
+		this.resequencer.setBeanFactory(mock(BeanFactory.class));
+		this.resequencer.afterPropertiesSet();
+
+		this.resequencer.handleMessage(createMessage("3", "ABC", 5, 3, null));
+		this.resequencer.handleMessage(createMessage("1", "ABC", 5, 1, null));
+		assertEquals("1", replyChannel.receive(0).getPayload());
+		assertNull(replyChannel.receive(0));
+		assertEquals(1, this.store.getMessageGroup("ABC").size());
+		assertEquals(1, this.store.getMessageGroup("ABC").getLastReleasedMessageSequenceNumber());
+
+		this.resequencer.handleMessage(createMessage("1", "ABC", 5, 1, null));
+		this.resequencer.handleMessage(createMessage("3", "ABC", 5, 3, null));
+		assertEquals("1", discardChannel.receive(0).getPayload());
+		assertEquals("3", discardChannel.receive(0).getPayload());
+
+		this.resequencer.handleMessage(createMessage("2", "ABC", 5, 2, null));
+		assertEquals("2", replyChannel.receive(0).getPayload());
+		assertEquals("3", replyChannel.receive(0).getPayload());
+		assertEquals(0, this.store.getMessageGroup("ABC").size());
+		assertEquals(3, this.store.getMessageGroup("ABC").getLastReleasedMessageSequenceNumber());
+
+		this.resequencer.handleMessage(createMessage("5", "ABC", 5, 5, null));
+		this.resequencer.handleMessage(createMessage("4", "ABC", 5, 4, null));
+		assertEquals("4", replyChannel.receive(0).getPayload());
+		assertEquals("5", replyChannel.receive(0).getPayload());
+		assertEquals(0, this.store.getMessageGroupCount());
+	}
+
 	private static Message<?> createMessage(String payload, Object correlationId, int sequenceSize, int sequenceNumber,
 			MessageChannel replyChannel) {
 		return MessageBuilder.withPayload(payload).setCorrelationId(correlationId).setSequenceSize(sequenceSize)
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ErrorMessage;
+
+/**
+ * @since 5.0
+ */
+public class PartitionedChannelTests {
+
+	@Test
+	public void testOrderPerKey() throws Exception {
+		PartitionedChannel channel = new PartitionedChannel(4);
+		channel.setPartitionKeyHeader("customer");
+		channel.setBeanFactory(mock(BeanFactory.class));
+		channel.afterPropertiesSet();
+		assertEquals(4, channel.getPartitionCount());
+		final Map<Object, List<Integer>> received = new ConcurrentHashMap<Object, List<Integer>>();
+		final Set<String> threads = ConcurrentHashMap.newKeySet();
+		final CountDownLatch latch = new CountDownLatch(1000);
+		channel.subscribe(new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				Object customer = message.getHeaders().get("customer");
+				List<Integer> list = received.get(customer);
+				if (list == null) {
+					list = new ArrayList<Integer>();
+					received.put(customer, list);
+				}
+				list.add((Integer) message.getPayload());
+				threads.add(Thread.currentThread().getName());
+				latch.countDown();
+			}
+
+		});
+		for (int i = 0; i < 100; i++) {
+			for (int customer = 0; customer < 10; customer++) {
+				channel.send(MessageBuilder.withPayload(i).setHeader("customer", customer).build());
+			}
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertEquals(10, received.size());
+		for (List<Integer> list : received.values()) {
+			assertEquals(100, list.size());
+			for (int i = 0; i < 100; i++) {
+				assertEquals(Integer.valueOf(i), list.get(i));
+			}
+		}
+		assertTrue(threads.size() > 1);
+		int n = 0;
+		while (!Arrays.equals(new int[4], channel.getPartitionQueueDepths()) && n++ < 100) {
+			Thread.sleep(100);
+		}
+		assertArrayEquals(new int[4], channel.getPartitionQueueDepths());
+		channel.destroy();
+	}
+
+	@Test
+	public void testSharedExecutorAndErrors() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		PartitionedChannel channel = new PartitionedChannel(8, executor);
+		channel.setPartitionKeyExpression(new SpelExpressionParser().parseExpression("payload % 3"));
+		channel.setDrainBatchSize(2);
+		channel.setBeanFactory(mock(BeanFactory.class));
+		channel.afterPropertiesSet();
+		final List<Integer> received = new ArrayList<Integer>();
+		final CountDownLatch latch = new CountDownLatch(29);
+		channel.subscribe(new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				if (message.getPayload().equals(4)) {
+					throw new MessagingException(message, "test");
+				}
+				received.add((Integer) message.getPayload());
+				latch.countDown();
+			}
+
+		});
+		QueueChannel errors = new QueueChannel();
+		for (int i = 0; i < 30; i++) {
+			channel.send(MessageBuilder.withPayload(i).setErrorChannel(errors).build());
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		Message<?> error = errors.receive(10000);
+		assertNotNull(error);
+		assertThat(error, instanceOf(ErrorMessage.class));
+		assertEquals(4, ((MessagingException) error.getPayload()).getFailedMessage().getPayload());
+		int last = -1;
+		for (Integer value : received) {
+			if (value % 3 == 1) {
+				assertTrue(value > last);
+				last = value;
+			}
+		}
+		executor.shutdownNow();
+	}
+
+}
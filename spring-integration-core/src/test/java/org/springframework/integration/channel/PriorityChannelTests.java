@@ -23,6 +23,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
@@ -310,6 +311,24 @@ public class PriorityChannelTests {
 	}
 
 
+	@Test
+	public void testBatchReceive() {
+		PriorityChannel channel = new PriorityChannel(3);
+		channel.send(createPriorityMessage(1));
+		channel.send(createPriorityMessage(5));
+		channel.send(createPriorityMessage(3));
+		assertFalse(channel.send(createPriorityMessage(2), 0));
+		List<Message<?>> messages = channel.receive(3, 0);
+		assertEquals(3, messages.size());
+		assertEquals("test:5", messages.get(0).getPayload());
+		assertEquals("test:3", messages.get(1).getPayload());
+		assertEquals("test:1", messages.get(2).getPayload());
+		// the capacity must have been released for every message in the batch
+		assertEquals(3, channel.getRemainingCapacity());
+		assertTrue(channel.send(createPriorityMessage(2), 0));
+	}
+
+
 	private static Message<String> createPriorityMessage(int priority) {
 		return MessageBuilder.withPayload("test:" + priority).setPriority(priority).build();
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.integration.channel;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
@@ -27,6 +28,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -35,6 +37,8 @@ import org.junit.rules.TemporaryFolder;
 import org.springframework.integration.selector.UnexpiredMessageSelector;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
 import org.springframework.messaging.support.GenericMessage;
 
 /**
@@ -44,6 +48,66 @@ import org.springframework.messaging.support.GenericMessage;
  */
 public class QueueChannelTests {
 
+	@Test
+	public void testBatchReceive() {
+		QueueChannel channel = new QueueChannel();
+		final AtomicInteger preReceives = new AtomicInteger();
+		final AtomicInteger postReceives = new AtomicInteger();
+		channel.addInterceptor(new ChannelInterceptorAdapter() {
+
+			@Override
+			public boolean preReceive(MessageChannel channel) {
+				preReceives.incrementAndGet();
+				return true;
+			}
+
+			@Override
+			public Message<?> postReceive(Message<?> message, MessageChannel channel) {
+				postReceives.incrementAndGet();
+				return "skip".equals(message.getPayload()) ? null : message;
+			}
+
+		});
+		channel.setCountsEnabled(true);
+		for (int i = 0; i < 5; i++) {
+			channel.send(new GenericMessage<String>(i == 1 ? "skip" : "foo" + i));
+		}
+		List<Message<?>> messages = channel.receive(4, 0);
+		assertEquals(3, messages.size());
+		assertEquals("foo0", messages.get(0).getPayload());
+		assertEquals("foo3", messages.get(2).getPayload());
+		assertEquals(1, preReceives.get());
+		assertEquals(4, postReceives.get());
+		assertEquals(4, channel.getReceiveCount());
+		assertEquals(1, channel.getQueueSize());
+		messages = channel.receive(4, 0);
+		assertEquals(1, messages.size());
+		assertTrue(channel.receive(4, 0).isEmpty());
+	}
+
+	@Test
+	public void testBatchReceiveWaitsForFirstMessage() throws Exception {
+		final QueueChannel channel = new QueueChannel();
+		final Message<?> message = new GenericMessage<String>("foo");
+		new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(100);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				channel.send(message);
+			}
+
+		}).start();
+		List<Message<?>> messages = channel.receive(10, 10000);
+		assertEquals(1, messages.size());
+		assertSame(message, messages.get(0));
+	}
+
 	@Test
 	public void testSimpleSendAndReceive() throws Exception {
 		final AtomicBoolean messageReceived = new AtomicBoolean(false);
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.integration.channel.RingBufferChannel.WaitStrategy;
+import org.springframework.integration.core.MessageSelector;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * @since 5.0
+ */
+public class RingBufferChannelTests {
+
+	@Test
+	public void testCapacityRoundedUp() {
+		RingBufferChannel channel = new RingBufferChannel(5);
+		assertEquals(8, channel.getCapacity());
+		assertEquals(8, channel.getRemainingCapacity());
+		for (int i = 0; i < 8; i++) {
+			assertTrue(channel.send(new GenericMessage<Integer>(i), 0));
+		}
+		assertFalse(channel.send(new GenericMessage<Integer>(8), 0));
+		assertEquals(8, channel.getQueueSize());
+		assertEquals(0, channel.getRemainingCapacity());
+		assertFalse(channel.send(new GenericMessage<Integer>(8), 10));
+		for (int i = 0; i < 8; i++) {
+			assertEquals(i, channel.receive(0).getPayload());
+		}
+		assertNull(channel.receive(0));
+		assertNull(channel.receive(10));
+	}
+
+	@Test
+	public void testDrainTo() {
+		RingBufferChannel channel = new RingBufferChannel(16);
+		for (int i = 0; i < 10; i++) {
+			channel.send(new GenericMessage<Integer>(i));
+		}
+		List<Message<?>> drained = new ArrayList<Message<?>>();
+		assertEquals(4, channel.drainTo(drained, 4));
+		assertEquals(4, drained.size());
+		assertEquals(3, drained.get(3).getPayload());
+		assertEquals(6, channel.getQueueSize());
+		assertEquals(6, channel.clear().size());
+		assertEquals(0, channel.getQueueSize());
+	}
+
+	@Test
+	public void testPurge() {
+		RingBufferChannel channel = new RingBufferChannel(16);
+		for (int i = 0; i < 10; i++) {
+			channel.send(new GenericMessage<Integer>(i));
+		}
+		List<Message<?>> purged = channel.purge(new MessageSelector() {
+
+			@Override
+			public boolean accept(Message<?> message) {
+				return ((Integer) message.getPayload()) % 2 == 0;
+			}
+
+		});
+		assertEquals(5, purged.size());
+		assertEquals(5, channel.getQueueSize());
+		for (int i = 0; i < 10; i += 2) {
+			assertEquals(i, channel.receive(0).getPayload());
+		}
+	}
+
+	@Test
+	public void testBlockingReceiveIsSignalled() throws Exception {
+		final RingBufferChannel channel = new RingBufferChannel(4);
+		final CountDownLatch latch = new CountDownLatch(1);
+		new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				if (channel.receive(10000) != null) {
+					latch.countDown();
+				}
+			}
+
+		}).start();
+		Thread.sleep(100);
+		channel.send(new GenericMessage<String>("foo"));
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testBlockingSendIsSignalled() throws Exception {
+		final RingBufferChannel channel = new RingBufferChannel(1);
+		channel.send(new GenericMessage<String>("foo"));
+		final CountDownLatch latch = new CountDownLatch(1);
+		new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				if (channel.send(new GenericMessage<String>("bar"), 10000)) {
+					latch.countDown();
+				}
+			}
+
+		}).start();
+		Thread.sleep(100);
+		assertEquals("foo", channel.receive(0).getPayload());
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertEquals("bar", channel.receive(0).getPayload());
+	}
+
+	@Test
+	public void testBlockingReceiveInterrupted() throws Exception {
+		final RingBufferChannel channel = new RingBufferChannel(4, WaitStrategy.PARK);
+		final CountDownLatch latch = new CountDownLatch(1);
+		Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				if (channel.receive() == null && Thread.currentThread().isInterrupted()) {
+					latch.countDown();
+				}
+			}
+
+		});
+		thread.start();
+		thread.interrupt();
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testConcurrentProducersAndConsumers() throws Exception {
+		// SPIN is not exercised here; it can starve the other threads on small CI machines
+		concurrentProducersAndConsumers(WaitStrategy.YIELD);
+		concurrentProducersAndConsumers(WaitStrategy.PARK);
+		concurrentProducersAndConsumers(WaitStrategy.BLOCK);
+	}
+
+	private void concurrentProducersAndConsumers(WaitStrategy strategy) throws Exception {
+		final RingBufferChannel channel = new RingBufferChannel(8, strategy);
+		final int producers = 2;
+		final int messagesPerProducer = 5000;
+		final AtomicInteger sum = new AtomicInteger();
+		final CountDownLatch received = new CountDownLatch(producers * messagesPerProducer);
+		ExecutorService exec = Executors.newCachedThreadPool();
+		for (int i = 0; i < 2; i++) {
+			exec.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					Message<?> message;
+					while ((message = channel.receive(1000)) != null) {
+						sum.addAndGet((Integer) message.getPayload());
+						received.countDown();
+					}
+				}
+
+			});
+		}
+		for (int i = 0; i < producers; i++) {
+			exec.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 1; j <= messagesPerProducer; j++) {
+						channel.send(new GenericMessage<Integer>(j));
+					}
+				}
+
+			});
+		}
+		assertTrue("Timed out with " + strategy, received.await(30, TimeUnit.SECONDS));
+		assertEquals(producers * messagesPerProducer * (messagesPerProducer + 1) / 2, sum.get());
+		exec.shutdownNow();
+	}
+
+}
@@ -25,6 +25,7 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -181,6 +182,48 @@ public class ChannelInterceptorTests {
 		assertFalse(interceptor2.wasAfterCompletionInvoked());
 	}
 
+	@Test
+	public void afterCompletionInReverseOrderWithInterceptorRemovedDuringSend() {
+		final List<String> calls = new ArrayList<String>();
+		final ChannelInterceptor interceptor2 = new OrderRecordingInterceptor("two", calls);
+		this.channel.addInterceptor(new OrderRecordingInterceptor("one", calls) {
+
+			@Override
+			public Message<?> preSend(Message<?> message, MessageChannel channel) {
+				// the in-flight send must still complete against the interceptors it started with
+				ChannelInterceptorTests.this.channel.removeInterceptor(interceptor2);
+				return super.preSend(message, channel);
+			}
+
+		});
+		this.channel.addInterceptor(interceptor2);
+		assertTrue(this.channel.send(new GenericMessage<String>("test")));
+		assertEquals("[preSend:one, preSend:two, afterSendCompletion:two, afterSendCompletion:one]",
+				calls.toString());
+		calls.clear();
+		assertTrue(this.channel.send(new GenericMessage<String>("test")));
+		assertEquals("[preSend:one, afterSendCompletion:one]", calls.toString());
+	}
+
+	@Test
+	public void afterCompletionOnlyForAppliedInterceptorsWhenPreSendReturnsNull() {
+		final List<String> calls = new ArrayList<String>();
+		this.channel.addInterceptor(new OrderRecordingInterceptor("one", calls));
+		this.channel.addInterceptor(new OrderRecordingInterceptor("two", calls) {
+
+			@Override
+			public Message<?> preSend(Message<?> message, MessageChannel channel) {
+				super.preSend(message, channel);
+				return null;
+			}
+
+		});
+		this.channel.addInterceptor(new OrderRecordingInterceptor("three", calls));
+		assertFalse(this.channel.send(new GenericMessage<String>("test")));
+		assertEquals("[preSend:one, preSend:two, afterSendCompletion:one]", calls.toString());
+		assertEquals(0, this.channel.getQueueSize());
+	}
+
 	@Test
 	public void testPreReceiveInterceptorReturnsTrue() {
 		PreReceiveReturnsTrueInterceptor interceptor = new PreReceiveReturnsTrueInterceptor();
@@ -301,6 +344,52 @@ public class ChannelInterceptorTests {
 		testApplicationContext.close();
 	}
 
+	@Test
+	public void testPollingConsumerExecutorInterceptorReturnsNull() throws InterruptedException {
+		TestUtils.TestApplicationContext testApplicationContext = TestUtils.createTestApplicationContext();
+		QueueChannel channel = new QueueChannel();
+		final List<String> calls = new ArrayList<>();
+		final CountDownLatch latch = new CountDownLatch(1);
+		channel.addInterceptor(new TestExecutorInterceptor() {
+
+			@Override
+			public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+					Exception ex) {
+				calls.add("first:" + message);
+				latch.countDown();
+			}
+
+		});
+		channel.addInterceptor(new TestExecutorInterceptor() {
+
+			@Override
+			public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+				return null;
+			}
+
+			@Override
+			public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+					Exception ex) {
+				calls.add("second");
+			}
+
+		});
+		PollingConsumer consumer = new PollingConsumer(channel, new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				calls.add("handler");
+			}
+
+		});
+		testApplicationContext.registerBean("consumer", consumer);
+		testApplicationContext.refresh();
+		channel.send(new GenericMessage<>("foo"));
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertEquals(Collections.singletonList("first:null"), calls);
+		testApplicationContext.close();
+	}
+
 	public static class PreSendReturnsMessageInterceptor extends ChannelInterceptorAdapter {
 		private String foo;
 
@@ -389,6 +478,30 @@ public class ChannelInterceptorTests {
 
 	}
 
+	private static class OrderRecordingInterceptor extends ChannelInterceptorAdapter {
+
+		private final String name;
+
+		private final List<String> calls;
+
+		OrderRecordingInterceptor(String name, List<String> calls) {
+			this.name = name;
+			this.calls = calls;
+		}
+
+		@Override
+		public Message<?> preSend(Message<?> message, MessageChannel channel) {
+			this.calls.add("preSend:" + this.name);
+			return message;
+		}
+
+		@Override
+		public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+			this.calls.add("afterSendCompletion:" + this.name);
+		}
+
+	}
+
 	private static class PreReceiveReturnsTrueInterceptor extends ChannelInterceptorAdapter {
 
 		private final AtomicInteger counter = new AtomicInteger();
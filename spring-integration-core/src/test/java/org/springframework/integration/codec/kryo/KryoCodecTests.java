@@ -17,17 +17,27 @@
 package org.springframework.integration.codec.kryo;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.Test;
 
+import org.springframework.integration.codec.CodecDeserializingConverter;
+import org.springframework.integration.codec.CodecSerializingConverter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
 /**
  * @author David Turanski
  * @since 4.2
@@ -124,6 +134,58 @@ public class KryoCodecTests {
 		assertEquals(2, foo2.get("two"));
 	}
 
+	@Test
+	public void testPooledBuffersReused() throws IOException {
+		PojoCodec codec = new PojoCodec();
+		codec.setBufferSize(16);
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			builder.append("hello");
+		}
+		String large = builder.toString();
+		assertEquals(large, codec.decode(codec.encode(large), String.class));
+		assertEquals("hello", codec.decode(codec.encode("hello"), String.class));
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		codec.encode(large, bos);
+		assertEquals(large, codec.decode(new ByteArrayInputStream(bos.toByteArray()), String.class));
+		assertEquals(large, codec.decode(new ByteArrayInputStream(bos.toByteArray()), String.class));
+	}
+
+	@Test
+	public void testByteBuffers() throws IOException {
+		PojoCodec codec = new PojoCodec();
+		for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64) }) {
+			buffer.put((byte) 'x');
+			codec.encode("foo", buffer);
+			codec.encode("bar", buffer);
+			buffer.flip();
+			buffer.get();
+			assertEquals("foo", codec.decode(buffer, String.class));
+			assertEquals("bar", codec.decode(buffer.slice(), String.class));
+			assertEquals("bar", codec.decode(buffer, String.class));
+			assertFalse(buffer.hasRemaining());
+		}
+		ByteBuffer small = ByteBuffer.allocate(2);
+		try {
+			codec.encode("foo", small);
+			fail("Expected BufferOverflowException");
+		}
+		catch (BufferOverflowException e) {
+			assertEquals(0, small.position());
+		}
+	}
+
+	@Test
+	public void testMessageConverters() {
+		MessageCodec codec = new MessageCodec();
+		CodecSerializingConverter serializer = new CodecSerializingConverter(codec);
+		CodecDeserializingConverter deserializer = new CodecDeserializingConverter(codec, GenericMessage.class);
+		Message<?> message = new GenericMessage<String>("foo");
+		Message<?> decoded = (Message<?>) deserializer.convert(serializer.convert(message));
+		assertEquals("foo", decoded.getPayload());
+		assertEquals(message.getHeaders().getId(), decoded.getHeaders().getId());
+	}
+
 	static class SomeClassWithNoDefaultConstructors {
 
 		private String val1;
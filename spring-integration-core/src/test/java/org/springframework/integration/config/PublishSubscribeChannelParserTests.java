@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -159,6 +159,22 @@ public class PublishSubscribeChannelParserTests {
 		context.close();
 	}
 
+	@Test
+	public void awaitCompletionWithTaskExecutor() {
+		ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(
+				"publishSubscribeChannelParserTests.xml", this.getClass());
+		PublishSubscribeChannel channel = (PublishSubscribeChannel)
+				context.getBean("channelWithAwaitCompletionAndTaskExecutor");
+		DirectFieldAccessor accessor = new DirectFieldAccessor(channel);
+		BroadcastingDispatcher dispatcher = (BroadcastingDispatcher)
+				accessor.getPropertyValue("dispatcher");
+		DirectFieldAccessor dispatcherAccessor = new DirectFieldAccessor(dispatcher);
+		assertTrue((Boolean) dispatcherAccessor.getPropertyValue("awaitCompletion"));
+		assertEquals(2, dispatcherAccessor.getPropertyValue("maxConcurrency"));
+		assertTrue((Boolean) dispatcherAccessor.getPropertyValue("failFast"));
+		context.close();
+	}
+
 	@Test
 	public void channelWithErrorHandler() {
 		ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(
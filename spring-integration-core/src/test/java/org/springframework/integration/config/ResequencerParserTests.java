@@ -96,6 +96,7 @@ public class ResequencerParserTests {
 		assertEquals("The ResequencerEndpoint is not configured with the appropriate 'release partial sequences' flag",
 				true, getPropertyValue(getPropertyValue(resequencer, "releaseStrategy"), "releasePartialSequences"));
 		assertEquals(60000L, getPropertyValue(resequencer, "minimumTimeoutForEmptyGroups", Long.class).longValue());
+		assertTrue(getPropertyValue(resequencer, "streamingRelease", Boolean.class));
 	}
 
 	@Test
@@ -16,12 +16,23 @@
 
 package org.springframework.integration.dispatcher;
 
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
@@ -276,6 +287,158 @@ public class BroadcastingDispatcherTests {
 		}
 	}
 
+	@Test
+	public void testAwaitCompletionInvokesHandlersConcurrently() {
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		dispatcher = new BroadcastingDispatcher(executor);
+		dispatcher.setAwaitCompletion(true);
+		final CountDownLatch started = new CountDownLatch(3);
+		final AtomicInteger handled = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			dispatcher.addHandler(new MessageHandler() {
+
+				@Override
+				public void handleMessage(Message<?> message) throws MessagingException {
+					started.countDown();
+					try {
+						// all three must be running at the same time to get past here
+						assertTrue(started.await(10, TimeUnit.SECONDS));
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					handled.incrementAndGet();
+				}
+
+			});
+		}
+		assertTrue(dispatcher.dispatch(new GenericMessage<String>("foo")));
+		assertEquals(3, handled.get());
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testAwaitCompletionFromExecutorThread() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		final BroadcastingDispatcher nested = new BroadcastingDispatcher(executor);
+		nested.setAwaitCompletion(true);
+		final AtomicInteger handled = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			nested.addHandler(new MessageHandler() {
+
+				@Override
+				public void handleMessage(Message<?> message) throws MessagingException {
+					handled.incrementAndGet();
+				}
+
+			});
+		}
+		// the sender occupies the only thread of the executor that its tasks are submitted to
+		Future<Boolean> result = executor.submit(new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() throws Exception {
+				return nested.dispatch(new GenericMessage<String>("foo"));
+			}
+
+		});
+		assertTrue(result.get(10, TimeUnit.SECONDS));
+		assertEquals(3, handled.get());
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testMaxConcurrency() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(5);
+		dispatcher = new BroadcastingDispatcher(executor);
+		dispatcher.setMaxConcurrency(2);
+		final AtomicInteger active = new AtomicInteger();
+		final AtomicInteger maxActive = new AtomicInteger();
+		for (int i = 0; i < 5; i++) {
+			dispatcher.addHandler(new MessageHandler() {
+
+				@Override
+				public void handleMessage(Message<?> message) throws MessagingException {
+					maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+					try {
+						Thread.sleep(20);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					active.decrementAndGet();
+				}
+
+			});
+		}
+		CompletableFuture<Integer> future = dispatcher.dispatchWithCompletion(new GenericMessage<String>("foo"));
+		assertEquals(Integer.valueOf(5), future.get(10, TimeUnit.SECONDS));
+		assertTrue(maxActive.get() <= 2);
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testCompletionWithAggregatedFailures() throws Exception {
+		dispatcher = new BroadcastingDispatcher(taskExecutorMock);
+		dispatcher.addHandler(targetMock1);
+		dispatcher.addHandler(targetMock2);
+		dispatcher.addHandler(targetMock3);
+		Mockito.doThrow(new MessagingException(messageMock, "Mock Exception 1"))
+				.when(targetMock1).handleMessage(Mockito.eq(messageMock));
+		Mockito.doThrow(new MessagingException(messageMock, "Mock Exception 3"))
+				.when(targetMock3).handleMessage(Mockito.eq(messageMock));
+		CompletableFuture<Integer> future = dispatcher.dispatchWithCompletion(messageMock);
+		try {
+			future.get();
+			fail("Expected Exception");
+		}
+		catch (ExecutionException e) {
+			assertThat(e.getCause(), instanceOf(AggregateMessageDeliveryException.class));
+			assertEquals(2, ((AggregateMessageDeliveryException) e.getCause()).getAggregatedExceptions().size());
+		}
+		Mockito.verify(targetMock2).handleMessage(Mockito.eq(messageMock));
+		dispatcher.setAwaitCompletion(true);
+		try {
+			dispatcher.dispatch(messageMock);
+			fail("Expected Exception");
+		}
+		catch (AggregateMessageDeliveryException e) {
+			assertEquals(messageMock, e.getFailedMessage());
+		}
+	}
+
+	@Test
+	public void testCompletionFailFast() throws Exception {
+		dispatcher = new BroadcastingDispatcher(taskExecutorMock);
+		dispatcher.setMaxConcurrency(1);
+		dispatcher.setFailFast(true);
+		dispatcher.addHandler(targetMock1);
+		dispatcher.addHandler(targetMock2);
+		MessagingException exception = new MessagingException(messageMock, "Mock Exception");
+		Mockito.doThrow(exception).when(targetMock1).handleMessage(Mockito.eq(messageMock));
+		CompletableFuture<Integer> future = dispatcher.dispatchWithCompletion(messageMock);
+		assertTrue(future.isCompletedExceptionally());
+		try {
+			future.get();
+			fail("Expected Exception");
+		}
+		catch (ExecutionException e) {
+			assertEquals(exception, e.getCause());
+		}
+		Mockito.verify(targetMock2, Mockito.never()).handleMessage(Mockito.any(Message.class));
+	}
+
+	@Test
+	public void testCompletionCountsOnlySuccessfulHandlersWhenIgnoringFailures() throws Exception {
+		dispatcher = new BroadcastingDispatcher(taskExecutorMock);
+		dispatcher.setIgnoreFailures(true);
+		dispatcher.addHandler(targetMock1);
+		dispatcher.addHandler(targetMock2);
+		Mockito.doThrow(new MessagingException(messageMock, "Mock Exception"))
+				.when(targetMock1).handleMessage(Mockito.eq(messageMock));
+		assertEquals(Integer.valueOf(1), dispatcher.dispatchWithCompletion(messageMock).get());
+	}
+
 	private void defaultTaskExecutorMock() {
 		Mockito.doAnswer(new Answer<Void>() {
 
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.endpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.handler.BatchMessageHandler;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.PeriodicTrigger;
+
+/**
+ * @since 5.0
+ */
+public class BatchPollingConsumerTests {
+
+	private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+
+	@Before
+	public void setUp() {
+		this.taskScheduler.afterPropertiesSet();
+	}
+
+	@After
+	public void tearDown() {
+		this.taskScheduler.destroy();
+	}
+
+	@Test
+	public void testBatchHandler() throws Exception {
+		QueueChannel channel = new QueueChannel();
+		for (int i = 0; i < 25; i++) {
+			channel.send(new GenericMessage<Integer>(i));
+		}
+		final BlockingQueue<List<Message<?>>> batches = new LinkedBlockingQueue<List<Message<?>>>();
+		BatchMessageHandler handler = new BatchMessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				batches.add(Collections.<Message<?>>singletonList(message));
+			}
+
+			@Override
+			public void handleMessages(List<Message<?>> messages) throws MessagingException {
+				batches.add(messages);
+			}
+
+		};
+		PollingConsumer consumer = createConsumer(channel, handler);
+		consumer.start();
+		List<Integer> received = new ArrayList<Integer>();
+		for (int i = 0; i < 3; i++) {
+			List<Message<?>> batch = batches.poll(10, TimeUnit.SECONDS);
+			assertEquals(i < 2 ? 10 : 5, batch.size());
+			for (Message<?> message : batch) {
+				received.add((Integer) message.getPayload());
+			}
+		}
+		consumer.stop();
+		assertEquals(25, received.size());
+		for (int i = 0; i < 25; i++) {
+			assertEquals(Integer.valueOf(i), received.get(i));
+		}
+	}
+
+	@Test
+	public void testSimpleHandlerReceivesEachMessage() throws Exception {
+		QueueChannel channel = new QueueChannel();
+		for (int i = 0; i < 15; i++) {
+			channel.send(new GenericMessage<Integer>(i));
+		}
+		final BlockingQueue<Message<?>> messages = new LinkedBlockingQueue<Message<?>>();
+		PollingConsumer consumer = createConsumer(channel, new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				messages.add(message);
+			}
+
+		});
+		consumer.start();
+		for (int i = 0; i < 15; i++) {
+			Message<?> message = messages.poll(10, TimeUnit.SECONDS);
+			assertEquals(i, message.getPayload());
+		}
+		consumer.stop();
+		assertTrue(messages.isEmpty());
+	}
+
+	private PollingConsumer createConsumer(QueueChannel channel, MessageHandler handler) {
+		PollingConsumer consumer = new PollingConsumer(channel, handler);
+		consumer.setBatchReceive(true);
+		consumer.setMaxMessagesPerPoll(10);
+		consumer.setReceiveTimeout(0);
+		consumer.setTrigger(new PeriodicTrigger(10));
+		consumer.setTaskScheduler(this.taskScheduler);
+		consumer.setBeanFactory(mock(BeanFactory.class));
+		consumer.afterPropertiesSet();
+		return consumer;
+	}
+
+}
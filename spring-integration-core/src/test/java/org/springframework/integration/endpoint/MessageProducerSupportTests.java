@@ -16,16 +16,29 @@
 
 package org.springframework.integration.endpoint;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.integration.channel.DirectChannel;
@@ -153,6 +166,111 @@ public class MessageProducerSupportTests {
 		assertTrue(endpoint.isStopped());
 	}
 
+	@Test
+	public void testPublisherDemand() throws Exception {
+		final AtomicInteger pauses = new AtomicInteger();
+		final AtomicInteger resumes = new AtomicInteger();
+		final MessageProducerSupport mps = new MessageProducerSupport() {
+
+			@Override
+			protected void doPause() {
+				pauses.incrementAndGet();
+			}
+
+			@Override
+			protected void doResume() {
+				resumes.incrementAndGet();
+			}
+
+		};
+		Publisher<Message<?>> publisher = mps.toPublisher();
+		mps.setBeanFactory(TestUtils.createTestApplicationContext());
+		mps.afterPropertiesSet();
+		mps.afterSingletonsInstantiated();
+		mps.start();
+		final BlockingQueue<Message<?>> received = new LinkedBlockingQueue<Message<?>>();
+		final AtomicReference<Subscription> subscription = new AtomicReference<Subscription>();
+		publisher.subscribe(new Subscriber<Message<?>>() {
+
+			@Override
+			public void onSubscribe(Subscription s) {
+				subscription.set(s);
+			}
+
+			@Override
+			public void onNext(Message<?> message) {
+				received.add(message);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+
+		});
+		subscription.get().request(2);
+		mps.sendMessage(new GenericMessage<String>("foo"));
+		mps.sendMessage(new GenericMessage<String>("bar"));
+		assertEquals("foo", received.poll().getPayload());
+		assertEquals("bar", received.poll().getPayload());
+		assertEquals(1, pauses.get());
+		assertEquals(0, resumes.get());
+
+		final CountDownLatch sent = new CountDownLatch(1);
+		new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				mps.sendMessage(new GenericMessage<String>("baz"));
+				sent.countDown();
+			}
+
+		}).start();
+		assertFalse(sent.await(200, TimeUnit.MILLISECONDS));
+		assertNull(received.poll());
+		subscription.get().request(1);
+		assertTrue(sent.await(10, TimeUnit.SECONDS));
+		assertEquals("baz", received.poll(10, TimeUnit.SECONDS).getPayload());
+		assertEquals(2, pauses.get());
+		assertEquals(1, resumes.get());
+
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		publisher.subscribe(new Subscriber<Message<?>>() {
+
+			@Override
+			public void onSubscribe(Subscription s) {
+			}
+
+			@Override
+			public void onNext(Message<?> message) {
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				error.set(t);
+			}
+
+			@Override
+			public void onComplete() {
+			}
+
+		});
+		assertThat(error.get(), instanceOf(IllegalStateException.class));
+
+		subscription.get().cancel();
+		mps.setSendTimeout(0);
+		try {
+			mps.sendMessage(new GenericMessage<String>("qux"));
+			fail("Expected MessageDeliveryException");
+		}
+		catch (MessageDeliveryException e) {
+			assertThat(e.getMessage(), containsString("No demand"));
+		}
+	}
+
 	private static class SuccessfulErrorService {
 
 		private volatile Message<?> lastMessage;
@@ -194,4 +312,94 @@ public class MessageProducerSupportTests {
 
 	}
 
+	@Test
+	public void testPublisherSignalsOutsideLockAndStop() throws Exception {
+		final MessageProducerSupport mps = new MessageProducerSupport() { };
+		Publisher<Message<?>> publisher = mps.toPublisher();
+		mps.setBeanFactory(TestUtils.createTestApplicationContext());
+		mps.afterPropertiesSet();
+		mps.afterSingletonsInstantiated();
+		mps.start();
+		final CountDownLatch inOnNext = new CountDownLatch(1);
+		final CountDownLatch releaseOnNext = new CountDownLatch(1);
+		final AtomicReference<Subscription> subscription = new AtomicReference<Subscription>();
+		publisher.subscribe(new Subscriber<Message<?>>() {
+
+			@Override
+			public void onSubscribe(Subscription s) {
+				subscription.set(s);
+			}
+
+			@Override
+			public void onNext(Message<?> message) {
+				inOnNext.countDown();
+				try {
+					releaseOnNext.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			@Override
+			public void onError(Throwable t) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+
+		});
+		subscription.get().request(1);
+		final CountDownLatch sent = new CountDownLatch(1);
+		new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				mps.sendMessage(new GenericMessage<String>("foo"));
+				sent.countDown();
+			}
+
+		}).start();
+		assertTrue(inOnNext.await(10, TimeUnit.SECONDS));
+
+		// the subscriber can request and cancel while a message is being delivered
+		final CountDownLatch signalled = new CountDownLatch(1);
+		new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				subscription.get().request(1);
+				subscription.get().cancel();
+				signalled.countDown();
+			}
+
+		}).start();
+		assertTrue(signalled.await(10, TimeUnit.SECONDS));
+		releaseOnNext.countDown();
+		assertTrue(sent.await(10, TimeUnit.SECONDS));
+
+		// a producer waiting for demand gives up when the endpoint is stopped
+		final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+		final CountDownLatch failed = new CountDownLatch(1);
+		new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					mps.sendMessage(new GenericMessage<String>("bar"));
+				}
+				catch (MessageDeliveryException e) {
+					failure.set(e);
+				}
+				failed.countDown();
+			}
+
+		}).start();
+		assertFalse(failed.await(200, TimeUnit.MILLISECONDS));
+		mps.stop();
+		assertTrue(failed.await(10, TimeUnit.SECONDS));
+		assertThat(failure.get().getMessage(), containsString("stopped"));
+	}
+
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.expression;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * @since 5.0
+ */
+public class CompilingSpelExpressionTests {
+
+	private final SpelExpressionParser parser = new SpelExpressionParser();
+
+	@Test
+	public void testMixedCompilesAfterThreshold() {
+		CompilingSpelExpression expression = new CompilingSpelExpression(
+				(SpelExpression) this.parser.parseExpression("foo.length()"), SpelCompilerMode.MIXED);
+		for (int i = 0; i < CompilingSpelExpression.INTERPRETED_COUNT_THRESHOLD - 1; i++) {
+			assertEquals(3, expression.getValue(new Foo("bar")));
+		}
+		assertFalse(expression.isCompiled());
+		assertEquals(3, expression.getValue(new Foo("bar")));
+		assertTrue(expression.isCompiled());
+		assertEquals(4, expression.getValue(new Foo("barx")));
+	}
+
+	@Test
+	public void testMixedFallsBack() {
+		CompilingSpelExpression expression = new CompilingSpelExpression(
+				(SpelExpression) this.parser.parseExpression("foo"), SpelCompilerMode.MIXED);
+		for (int i = 0; i < CompilingSpelExpression.INTERPRETED_COUNT_THRESHOLD; i++) {
+			expression.getValue(new Foo("bar"));
+		}
+		assertTrue(expression.isCompiled());
+		assertEquals("baz", expression.getValue(new OtherFoo("baz")));
+		assertFalse(expression.isCompiled());
+		assertEquals(1, expression.getFallbackCount());
+	}
+
+	@Test
+	public void testImmediate() {
+		CompilingSpelExpression expression = new CompilingSpelExpression(
+				(SpelExpression) this.parser.parseExpression("foo"), SpelCompilerMode.IMMEDIATE);
+		assertEquals("bar", expression.getValue(new Foo("bar")));
+		assertTrue(expression.isCompiled());
+		try {
+			expression.getValue(new OtherFoo("baz"));
+			fail("Expected SpelEvaluationException");
+		}
+		catch (SpelEvaluationException e) {
+			assertEquals(0, expression.getFallbackCount());
+		}
+	}
+
+	@Test
+	public void testRegistry() {
+		SpelCompilationRegistry registry = new SpelCompilationRegistry();
+		Expression expression = this.parser.parseExpression("foo");
+		assertSame(expression, registry.compilable(expression));
+		registry.setCompilerMode("mixed");
+		Expression compilable = registry.compilable(expression);
+		assertThat(compilable, instanceOf(CompilingSpelExpression.class));
+		assertSame(compilable, registry.compilable(expression));
+		Expression literal = new ValueExpression<String>("foo");
+		assertSame(literal, registry.compilable(literal));
+		for (int i = 0; i < CompilingSpelExpression.INTERPRETED_COUNT_THRESHOLD; i++) {
+			compilable.getValue(new Foo("bar"));
+		}
+		compilable.getValue(new OtherFoo("baz"));
+		assertEquals(1, registry.getExpressionCount());
+		assertEquals(0, registry.getCompiledExpressionCount());
+		assertEquals(1, registry.getFallbackCount());
+		assertEquals("foo: compiled=false, fallbacks=1, failedCompilations=0",
+				registry.getExpressionStatistics()[0]);
+		registry.setCapacity(1);
+		Expression another = this.parser.parseExpression("foo");
+		assertSame(another, registry.compilable(another));
+	}
+
+	public static class Foo {
+
+		private final String foo;
+
+		public Foo(String foo) {
+			this.foo = foo;
+		}
+
+		public String getFoo() {
+			return this.foo;
+		}
+
+	}
+
+	public static class OtherFoo {
+
+		private final String foo;
+
+		public OtherFoo(String foo) {
+			this.foo = foo;
+		}
+
+		public String getFoo() {
+			return this.foo;
+		}
+
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.handler;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHandlingException;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * @since 5.0
+ */
+public class BatchingMessageHandlerTests {
+
+	private final QueueChannel output = new QueueChannel();
+
+	private final BatchingMessageHandler handler = new BatchingMessageHandler();
+
+	private ThreadPoolTaskScheduler taskScheduler;
+
+	@Before
+	public void setUp() throws Exception {
+		this.taskScheduler = new ThreadPoolTaskScheduler();
+		this.taskScheduler.afterPropertiesSet();
+		this.handler.setOutputChannel(this.output);
+		BeanFactory beanFactory = mock(BeanFactory.class);
+		when(beanFactory.containsBean(IntegrationContextUtils.TASK_SCHEDULER_BEAN_NAME)).thenReturn(true);
+		when(beanFactory.getBean(IntegrationContextUtils.TASK_SCHEDULER_BEAN_NAME, TaskScheduler.class))
+				.thenReturn(this.taskScheduler);
+		this.handler.setBeanFactory(beanFactory);
+	}
+
+	@After
+	public void tearDown() {
+		this.handler.stop();
+		this.taskScheduler.destroy();
+	}
+
+	@Test
+	public void testBatchSize() {
+		this.handler.setBatchSize(3);
+		this.handler.afterPropertiesSet();
+		for (int i = 0; i < 7; i++) {
+			this.handler.handleMessage(new GenericMessage<Integer>(i));
+		}
+		assertThat(payloads(this.output.receive(0)), contains((Object) 0, 1, 2));
+		assertThat(payloads(this.output.receive(0)), contains((Object) 3, 4, 5));
+		assertNull(this.output.receive(0));
+		assertEquals(1, this.handler.getBufferedCount());
+		this.handler.stop();
+		assertThat(payloads(this.output.receive(0)), contains((Object) 6));
+	}
+
+	@Test
+	public void testByteBudget() {
+		this.handler.setByteBudget(10);
+		this.handler.afterPropertiesSet();
+		this.handler.handleMessage(new GenericMessage<String>("abcd"));
+		this.handler.handleMessage(new GenericMessage<byte[]>(new byte[4]));
+		assertNull(this.output.receive(0));
+		this.handler.handleMessage(new GenericMessage<String>("efgh"));
+		Message<?> batch = this.output.receive(0);
+		assertNotNull(batch);
+		assertEquals(3, payloads(batch).size());
+		assertEquals(0, this.handler.getBufferedCount());
+	}
+
+	@Test
+	public void testFlushInterval() {
+		this.handler.setFlushInterval(100);
+		this.handler.afterPropertiesSet();
+		this.handler.start();
+		assertTrue(this.handler.isRunning());
+		this.handler.handleMessage(new GenericMessage<String>("foo"));
+		this.handler.handleMessage(new GenericMessage<String>("bar"));
+		assertThat(payloads(this.output.receive(10000)), contains((Object) "foo", "bar"));
+		this.handler.stop();
+		assertFalse(this.handler.isRunning());
+	}
+
+	@Test
+	public void testFailurePropagatedToOriginals() {
+		DirectChannel failing = new DirectChannel();
+		failing.subscribe(new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				throw new MessagingException(message, "batch insert failed");
+			}
+
+		});
+		this.handler.setOutputChannel(failing);
+		this.handler.setBatchSize(2);
+		this.handler.afterPropertiesSet();
+		QueueChannel errors = new QueueChannel();
+		Message<String> foo = MessageBuilder.withPayload("foo").setErrorChannel(errors).build();
+		Message<String> bar = MessageBuilder.withPayload("bar").setErrorChannel(errors).build();
+		this.handler.handleMessage(foo);
+		this.handler.handleMessage(bar);
+		for (Message<?> original : new Message<?>[] { foo, bar }) {
+			Message<?> error = errors.receive(0);
+			assertThat(error, instanceOf(ErrorMessage.class));
+			Throwable exception = ((ErrorMessage) error).getPayload();
+			assertThat(exception, instanceOf(MessageHandlingException.class));
+			assertSame(original, ((MessageHandlingException) exception).getFailedMessage());
+			assertEquals("batch insert failed", exception.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testStartWithoutTaskScheduler() {
+		BatchingMessageHandler handler = new BatchingMessageHandler();
+		handler.setOutputChannel(this.output);
+		handler.setBeanFactory(mock(BeanFactory.class));
+		handler.afterPropertiesSet();
+		try {
+			handler.start();
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e) {
+			assertThat(e.getMessage(), containsString("'taskScheduler'"));
+		}
+		assertFalse(handler.isRunning());
+	}
+
+	@Test
+	public void testStopWaitsForConcurrentFlush() throws Exception {
+		this.handler.afterPropertiesSet();
+		this.handler.handleMessage(new GenericMessage<String>("foo"));
+		// simulate another thread releasing a full batch
+		AtomicBoolean flushing = TestUtils.getPropertyValue(this.handler, "flushing", AtomicBoolean.class);
+		flushing.set(true);
+		Thread stopper = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				BatchingMessageHandlerTests.this.handler.stop();
+			}
+
+		});
+		stopper.start();
+		stopper.join(200);
+		assertTrue(stopper.isAlive());
+		assertNull(this.output.receive(0));
+		flushing.set(false);
+		stopper.join(10000);
+		assertFalse(stopper.isAlive());
+		assertThat(payloads(this.output.receive(0)), contains((Object) "foo"));
+		assertEquals(0, this.handler.getBufferedCount());
+	}
+
+	private static List<?> payloads(Message<?> message) {
+		assertNotNull(message);
+		assertThat(message.getPayload(), instanceOf(List.class));
+		return (List<?>) message.getPayload();
+	}
+
+}
@@ -47,6 +47,7 @@ import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.MessagePublishingErrorHandler;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.integration.scheduling.HashedWheelTaskScheduler;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.SimpleMessageStore;
@@ -512,6 +513,44 @@ public class DelayHandlerTests {
 	}
 
 
+	@Test
+	public void testBulkRescheduleWithHashedWheelTaskScheduler() throws Exception {
+		MessageGroupStore messageGroupStore = new SimpleMessageStore();
+		long requestDate = System.currentTimeMillis() - 1000;
+		for (int i = 0; i < 100; i++) {
+			messageGroupStore.addMessageToGroup(DELAYER_MESSAGE_GROUP_ID,
+					new GenericMessage<DelayHandler.DelayedMessageWrapper>(
+							new DelayHandler.DelayedMessageWrapper(new GenericMessage<Integer>(i), requestDate)));
+		}
+		HashedWheelTaskScheduler wheelScheduler = new HashedWheelTaskScheduler();
+		try {
+			QueueChannel results = new QueueChannel();
+			this.delayHandler = new DelayHandler(DELAYER_MESSAGE_GROUP_ID, wheelScheduler);
+			this.delayHandler.setOutputChannel(results);
+			// half of the messages are already due
+			this.delayHandler.setDelayExpression(
+					new SpelExpressionParser().parseExpression("payload % 2 == 0 ? 500 : 1500"));
+			this.delayHandler.setMessageStore(messageGroupStore);
+			this.delayHandler.setBeanFactory(mock(BeanFactory.class));
+			startDelayerHandler();
+			for (int i = 0; i < 50; i++) {
+				Message<?> message = results.receive(10000);
+				assertNotNull(message);
+				assertEquals(0, (Integer) message.getPayload() % 2);
+			}
+			for (int i = 0; i < 50; i++) {
+				Message<?> message = results.receive(10000);
+				assertNotNull(message);
+				assertEquals(1, (Integer) message.getPayload() % 2);
+			}
+			assertEquals(0, messageGroupStore.messageGroupSize(DELAYER_MESSAGE_GROUP_ID));
+		}
+		finally {
+			wheelScheduler.destroy();
+		}
+	}
+
+
 	private void waitForLatch(long timeout) {
 		try {
 			this.latch.await(timeout, TimeUnit.MILLISECONDS);
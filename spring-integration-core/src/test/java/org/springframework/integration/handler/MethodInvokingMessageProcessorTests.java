@@ -46,10 +46,13 @@ import org.springframework.integration.annotation.ServiceActivator;
 import org.springframework.integration.gateway.GatewayProxyFactoryBean;
 import org.springframework.integration.gateway.RequestReplyExchanger;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
 import org.springframework.integration.util.MessagingMethodInvokerHelper;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandlingException;
 import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.support.GenericMessage;
 
 
@@ -550,6 +553,69 @@ public class MethodInvokingMessageProcessorTests {
 		assertEquals("FOO", targetObject.arguments.get("foo2"));
 	}
 
+	@Test
+	public void testDirectInvocation() throws Exception {
+		class Foo {
+
+			@SuppressWarnings("unused")
+			public String direct(int payload, @Header("bar") long bar, @Headers Map<String, Object> headers,
+					@Header(value = "baz", required = false) String baz) {
+				return payload + ":" + bar + ":" + headers.get("bar") + ":" + baz;
+			}
+
+		}
+
+		MessagingMethodInvokerHelper helper = new MessagingMethodInvokerHelper(new Foo(), "direct", false);
+		Message<?> message = MessageBuilder.withPayload("42").setHeader("bar", "17").build();
+		assertEquals("42:17:17:null", helper.process(message));
+		assertNotNull(TestUtils.getPropertyValue(helper, "handlerMethod.methodHandle"));
+
+		try {
+			helper.process(new GenericMessage<String>("42"));
+			fail("Expected IllegalArgumentException");
+		}
+		catch (IllegalArgumentException e) {
+			assertEquals("required header not available: bar", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testExpressionArgumentUsesSpel() throws Exception {
+		class Foo {
+
+			@SuppressWarnings("unused")
+			public int length(@Payload("length()") int length) {
+				return length;
+			}
+
+		}
+
+		MessagingMethodInvokerHelper helper = new MessagingMethodInvokerHelper(new Foo(), "length", false);
+		assertEquals(3, helper.process(new GenericMessage<String>("foo")));
+		assertNull(TestUtils.getPropertyValue(helper, "handlerMethod.methodHandle"));
+	}
+
+	@Test
+	public void testDirectInvocationError() throws Exception {
+		class Foo {
+
+			@SuppressWarnings("unused")
+			public String error(String payload) {
+				throw new AssertionError(payload);
+			}
+
+		}
+
+		MessagingMethodInvokerHelper helper = new MessagingMethodInvokerHelper(new Foo(), "error", false);
+		try {
+			helper.process(new GenericMessage<String>("foo"));
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e) {
+			assertThat(e.getCause(), Matchers.instanceOf(AssertionError.class));
+		}
+	}
+
 	private static class ExceptionCauseMatcher extends TypeSafeMatcher<Exception> {
 		private Throwable cause;
 
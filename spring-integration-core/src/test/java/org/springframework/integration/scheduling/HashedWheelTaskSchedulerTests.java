@@ -0,0 +1,204 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.scheduling;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since 5.0
+ */
+public class HashedWheelTaskSchedulerTests {
+
+	private final HashedWheelTaskScheduler scheduler = new HashedWheelTaskScheduler();
+
+	@Before
+	public void setUp() {
+		this.scheduler.setTickDuration(5);
+		this.scheduler.setTicksPerWheel(16);
+	}
+
+	@After
+	public void tearDown() {
+		this.scheduler.destroy();
+	}
+
+	@Test
+	public void testTasksRunInOrderNoEarlierThanScheduled() throws Exception {
+		final BlockingQueue<Integer> results = new LinkedBlockingQueue<Integer>();
+		long now = System.currentTimeMillis();
+		final List<Long> runTimes = new ArrayList<Long>();
+		// more than one revolution of the wheel (16 * 5ms)
+		for (int i = 4; i >= 0; i--) {
+			final int n = i;
+			this.scheduler.schedule(new Runnable() {
+
+				@Override
+				public void run() {
+					runTimes.add(System.currentTimeMillis());
+					results.add(n);
+				}
+
+			}, new Date(now + 50 + i * 50));
+		}
+		for (int i = 0; i < 5; i++) {
+			assertEquals(Integer.valueOf(i), results.poll(10, TimeUnit.SECONDS));
+			// allow for the granularity of the millisecond clock
+			assertThat(runTimes.get(i), greaterThanOrEqualTo(now + 50 + i * 50 - 1));
+		}
+	}
+
+	@Test
+	public void testPastTaskRunsImmediately() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		ScheduledFuture<?> future = this.scheduler.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				latch.countDown();
+			}
+
+		}, new Date(System.currentTimeMillis() - 10000));
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		future.get(10, TimeUnit.SECONDS);
+		assertTrue(future.isDone());
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		Runnable task = new Runnable() {
+
+			@Override
+			public void run() {
+				count.incrementAndGet();
+			}
+
+		};
+		List<ScheduledFuture<?>> futures = new ArrayList<ScheduledFuture<?>>();
+		for (int i = 0; i < 1000; i++) {
+			futures.add(this.scheduler.schedule(task, new Date(System.currentTimeMillis() + 200)));
+		}
+		for (int i = 0; i < 1000; i += 2) {
+			assertTrue(futures.get(i).cancel(false));
+		}
+		for (int i = 1; i < 1000; i += 2) {
+			futures.get(i).get(10, TimeUnit.SECONDS);
+		}
+		assertEquals(500, count.get());
+		assertTrue(futures.get(0).isCancelled());
+		assertFalse(futures.get(0).cancel(false));
+	}
+
+	@Test
+	public void testExceptionAvailableFromFuture() throws Exception {
+		ScheduledFuture<?> future = this.scheduler.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				throw new IllegalStateException("test");
+			}
+
+		}, new Date());
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			fail("Expected ExecutionException");
+		}
+		catch (ExecutionException e) {
+			assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+		}
+	}
+
+	@Test
+	public void testFixedDelay() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.scheduleWithFixedDelay(new Runnable() {
+
+			@Override
+			public void run() {
+				latch.countDown();
+				if (latch.getCount() == 1) {
+					throw new IllegalStateException("repeating tasks continue after an exception");
+				}
+			}
+
+		}, 20);
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertTrue(future.cancel(false));
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	public void testShutdown() throws Exception {
+		ScheduledFuture<?> future = this.scheduler.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+			}
+
+		}, new Date(System.currentTimeMillis() + 60000));
+		this.scheduler.destroy();
+		assertTrue(future.isCancelled());
+		try {
+			this.scheduler.schedule(new Runnable() {
+
+				@Override
+				public void run() {
+				}
+
+			}, new Date());
+			fail("Expected RejectedExecutionException");
+		}
+		catch (RejectedExecutionException e) {
+			// expected
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testNoReconfigurationAfterStart() {
+		this.scheduler.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+			}
+
+		}, new Date(System.currentTimeMillis() + 60000));
+		this.scheduler.setTickDuration(100);
+	}
+
+}
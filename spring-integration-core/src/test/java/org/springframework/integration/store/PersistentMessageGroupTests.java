@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.util.PatternMatchUtils;
+
+/**
+ * @since 5.0
+ */
+public class PersistentMessageGroupTests {
+
+	@Test
+	public void testPagedIteration() {
+		MapMessageStore store = new MapMessageStore();
+		store.setLazyLoadPageSize(2);
+		for (int i = 0; i < 5; i++) {
+			store.addMessageToGroup("foo", new GenericMessage<String>("bar" + i));
+		}
+		int retrievals = store.retrievals;
+		MessageGroup group = store.getMessageGroup("foo");
+		assertThat(group, instanceOf(PersistentMessageGroup.class));
+		assertEquals(5, group.size());
+		Iterator<Message<?>> iterator = group.getMessages().iterator();
+		assertEquals(retrievals, store.retrievals);
+		assertEquals("bar0", iterator.next().getPayload());
+		assertEquals(retrievals + 1, store.retrievals);
+		assertEquals("bar1", iterator.next().getPayload());
+		assertEquals(retrievals + 1, store.retrievals);
+		assertEquals("bar2", iterator.next().getPayload());
+		assertEquals(retrievals + 2, store.retrievals);
+		assertEquals(5, group.getMessages().toArray().length);
+		assertEquals(retrievals + 3, store.retrievals);
+		assertEquals("bar3", iterator.next().getPayload());
+		assertEquals("bar4", iterator.next().getPayload());
+		assertFalse(iterator.hasNext());
+		assertEquals(retrievals + 3, store.retrievals);
+	}
+
+	@Test
+	public void testMissingMessagesSkipped() {
+		MapMessageStore store = new MapMessageStore();
+		store.setLazyLoadPageSize(1);
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < 3; i++) {
+			Message<?> message = new GenericMessage<String>("bar" + i);
+			messages.add(message);
+			store.addMessageToGroup("foo", message);
+		}
+		store.map.remove("MESSAGE_" + messages.get(0).getHeaders().getId());
+		store.map.remove("MESSAGE_" + messages.get(1).getHeaders().getId());
+		Iterator<Message<?>> iterator = store.getMessageGroup("foo").getMessages().iterator();
+		assertTrue(iterator.hasNext());
+		assertEquals("bar2", iterator.next().getPayload());
+		assertFalse(iterator.hasNext());
+		assertEquals(1, store.getMessagesForGroup("foo").size());
+	}
+
+	private static class MapMessageStore extends AbstractKeyValueMessageStore {
+
+		private final Map<Object, Object> map = new ConcurrentHashMap<Object, Object>();
+
+		private int retrievals;
+
+		MapMessageStore() {
+			super();
+		}
+
+		@Override
+		protected Object doRetrieve(Object id) {
+			return this.map.get(id);
+		}
+
+		@Override
+		protected List<?> doRetrieveAll(List<?> ids) {
+			this.retrievals++;
+			List<Object> values = new ArrayList<Object>();
+			for (Object id : ids) {
+				values.add(this.map.get(id));
+			}
+			return values;
+		}
+
+		@Override
+		protected void doStore(Object id, Object objectToStore) {
+			this.map.put(id, objectToStore);
+		}
+
+		@Override
+		protected Object doRemove(Object id) {
+			return this.map.remove(id);
+		}
+
+		@Override
+		protected Collection<?> doListKeys(String keyPattern) {
+			List<Object> keys = new ArrayList<Object>();
+			for (Object key : this.map.keySet()) {
+				if (PatternMatchUtils.simpleMatch(keyPattern, key.toString())) {
+					keys.add(key);
+				}
+			}
+			return keys;
+		}
+
+	}
+
+}
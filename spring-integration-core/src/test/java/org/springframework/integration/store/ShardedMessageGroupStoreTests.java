@@ -0,0 +1,266 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.integration.store.MessageGroupStore.MessageGroupCallback;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * @since 5.0
+ */
+public class ShardedMessageGroupStoreTests {
+
+	@Test
+	public void testShardCountRoundedUp() {
+		assertEquals(8, new ShardedMessageGroupStore(5).getShardCount());
+		assertEquals(1, new ShardedMessageGroupStore(1).getShardCount());
+		assertEquals(ShardedMessageGroupStore.DEFAULT_SHARD_COUNT, new ShardedMessageGroupStore().getShardCount());
+	}
+
+	@Test
+	public void testGroupOperations() {
+		ShardedMessageGroupStore store = new ShardedMessageGroupStore(4);
+		Message<?> foo = new GenericMessage<String>("foo");
+		Message<?> bar = new GenericMessage<String>("bar");
+		MessageGroup group = store.addMessageToGroup("a", foo);
+		assertEquals(1, group.size());
+		store.addMessagesToGroup("a", bar);
+		store.addMessagesToGroup("b", new GenericMessage<String>("baz"));
+		assertSame(group, store.getMessageGroup("a"));
+		assertEquals(2, store.messageGroupSize("a"));
+		assertEquals(2, store.getMessageGroupCount());
+		assertEquals(3, store.getMessageCountForAllMessageGroups());
+		assertSame(foo, store.getOneMessageFromGroup("a"));
+		assertEquals(2, store.getGroupMetadata("a").size());
+
+		store.setLastReleasedSequenceNumberForGroup("a", 3);
+		store.completeGroup("a");
+		assertEquals(3, group.getLastReleasedMessageSequenceNumber());
+		assertTrue(group.isComplete());
+
+		assertSame(foo, store.pollMessageFromGroup("a"));
+		assertEquals(2, store.getMessageCountForAllMessageGroups());
+		store.removeMessagesFromGroup("a", bar);
+		assertEquals(0, store.messageGroupSize("a"));
+		assertNull(store.pollMessageFromGroup("a"));
+		assertEquals(1, store.getMessageCountForAllMessageGroups());
+
+		store.removeMessageGroup("a");
+		store.removeMessageGroup("b");
+		assertEquals(0, store.getMessageGroupCount());
+		assertEquals(0, store.getMessageCountForAllMessageGroups());
+		MessageGroup empty = store.getMessageGroup("a");
+		assertNotSame(group, empty);
+		assertEquals(0, empty.size());
+		assertNull(store.pollMessageFromGroup("none"));
+	}
+
+	@Test
+	public void testIterator() {
+		ShardedMessageGroupStore store = new ShardedMessageGroupStore(16);
+		for (int i = 0; i < 100; i++) {
+			store.addMessagesToGroup(i, new GenericMessage<Integer>(i));
+		}
+		Set<Object> groupIds = new HashSet<Object>();
+		Iterator<MessageGroup> iterator = store.iterator();
+		while (iterator.hasNext()) {
+			groupIds.add(iterator.next().getGroupId());
+		}
+		assertEquals(100, groupIds.size());
+		assertFalse(new ShardedMessageGroupStore(16).iterator().hasNext());
+	}
+
+	@Test
+	public void testExpiryInCreationOrder() throws Exception {
+		ShardedMessageGroupStore store = new ShardedMessageGroupStore(1);
+		final List<Object> expired = new ArrayList<Object>();
+		store.registerMessageGroupExpiryCallback(new RemovingCallback(expired));
+		store.addMessagesToGroup("old", new GenericMessage<String>("foo"));
+		Thread.sleep(100);
+		store.addMessagesToGroup("new", new GenericMessage<String>("bar"));
+		// modifying the oldest group does not change its position when timeoutOnIdle is false
+		store.addMessagesToGroup("old", new GenericMessage<String>("baz"));
+		assertEquals(1, store.expireMessageGroups(50));
+		assertEquals("[old]", expired.toString());
+		assertEquals(1, store.getMessageGroupCount());
+		assertEquals(1, store.expireMessageGroups(-1));
+		assertEquals("[old, new]", expired.toString());
+	}
+
+	@Test
+	public void testExpiryInLastModifiedOrder() throws Exception {
+		ShardedMessageGroupStore store = new ShardedMessageGroupStore(1);
+		store.setTimeoutOnIdle(true);
+		final List<Object> expired = new ArrayList<Object>();
+		store.registerMessageGroupExpiryCallback(new RemovingCallback(expired));
+		store.addMessagesToGroup("first", new GenericMessage<String>("foo"));
+		store.addMessagesToGroup("second", new GenericMessage<String>("bar"));
+		Thread.sleep(100);
+		store.addMessagesToGroup("first", new GenericMessage<String>("baz"));
+		assertEquals(1, store.expireMessageGroups(50));
+		assertEquals("[second]", expired.toString());
+		assertEquals(2, store.getMessageCountForAllMessageGroups());
+	}
+
+	@Test
+	public void testBoundedExpiry() {
+		ShardedMessageGroupStore store = new ShardedMessageGroupStore(4);
+		final List<Object> expired = new ArrayList<Object>();
+		store.registerMessageGroupExpiryCallback(new RemovingCallback(expired));
+		for (int i = 0; i < 6; i++) {
+			store.addMessagesToGroup("group" + i, new GenericMessage<String>("foo"));
+		}
+		assertEquals(4, store.expireMessageGroups(-1, 4));
+		assertEquals(2, store.getMessageGroupCount());
+		assertEquals(2, store.expireMessageGroups(-1, 4));
+		assertEquals(0, store.getMessageGroupCount());
+		assertEquals(6, expired.size());
+	}
+
+	@Test
+	public void testBoundedExpirySkipsGroupsThatAreNotRemoved() {
+		ShardedMessageGroupStore store = new ShardedMessageGroupStore(1);
+		final List<Object> expired = new ArrayList<Object>();
+		store.registerMessageGroupExpiryCallback(new MessageGroupCallback() {
+
+			@Override
+			public void execute(MessageGroupStore messageGroupStore, MessageGroup group) {
+				String groupId = (String) group.getGroupId();
+				if (groupId.startsWith("failing")) {
+					throw new IllegalStateException("expiry failed");
+				}
+				if (groupId.startsWith("group")) {
+					expired.add(groupId);
+					messageGroupStore.removeMessageGroup(groupId);
+				}
+			}
+
+		});
+		store.addMessagesToGroup("kept0", new GenericMessage<String>("foo"));
+		store.addMessagesToGroup("kept1", new GenericMessage<String>("foo"));
+		store.addMessagesToGroup("failing", new GenericMessage<String>("foo"));
+		for (int i = 0; i < 3; i++) {
+			store.addMessagesToGroup("group" + i, new GenericMessage<String>("foo"));
+		}
+		try {
+			store.expireMessageGroups(-1, 2);
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e) {
+			assertEquals("expiry failed", e.getMessage());
+		}
+		assertEquals("[group0, group1]", expired.toString());
+		try {
+			store.expireMessageGroups(-1, 2);
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e) {
+			assertEquals("expiry failed", e.getMessage());
+		}
+		assertEquals("[group0, group1, group2]", expired.toString());
+		assertEquals(3, store.getMessageGroupCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testTimeoutOnIdleCannotChangeWithGroups() {
+		ShardedMessageGroupStore store = new ShardedMessageGroupStore();
+		store.addMessagesToGroup("foo", new GenericMessage<String>("foo"));
+		store.setTimeoutOnIdle(true);
+	}
+
+	@Test
+	public void testExpiryCallbackGetsSnapshot() {
+		ShardedMessageGroupStore store = new ShardedMessageGroupStore();
+		final List<MessageGroup> groups = new ArrayList<MessageGroup>();
+		store.registerMessageGroupExpiryCallback(new MessageGroupCallback() {
+
+			@Override
+			public void execute(MessageGroupStore messageGroupStore, MessageGroup group) {
+				groups.add(group);
+			}
+
+		});
+		store.addMessagesToGroup("foo", new GenericMessage<String>("foo"));
+		assertEquals(1, store.expireMessageGroups(-1));
+		assertNotSame(store.getMessageGroup("foo"), groups.get(0));
+		assertEquals(1, groups.get(0).size());
+		assertEquals(store.getMessageGroup("foo").getLastModified(), groups.get(0).getLastModified());
+	}
+
+	@Test
+	public void testConcurrentGroups() throws Exception {
+		final ShardedMessageGroupStore store = new ShardedMessageGroupStore(8);
+		ExecutorService exec = Executors.newFixedThreadPool(4);
+		final CountDownLatch latch = new CountDownLatch(4);
+		for (int i = 0; i < 4; i++) {
+			exec.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < 1000; j++) {
+						store.addMessagesToGroup(j % 100, new GenericMessage<Integer>(j));
+					}
+					latch.countDown();
+				}
+
+			});
+		}
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		exec.shutdownNow();
+		assertEquals(100, store.getMessageGroupCount());
+		assertEquals(4000, store.getMessageCountForAllMessageGroups());
+		assertEquals(40, store.messageGroupSize(42));
+	}
+
+	private static final class RemovingCallback implements MessageGroupCallback {
+
+		private final List<Object> expired;
+
+		RemovingCallback(List<Object> expired) {
+			this.expired = expired;
+		}
+
+		@Override
+		public void execute(MessageGroupStore messageGroupStore, MessageGroup group) {
+			this.expired.add(group.getGroupId());
+			messageGroupStore.removeMessageGroup(group.getGroupId());
+		}
+
+	}
+
+}
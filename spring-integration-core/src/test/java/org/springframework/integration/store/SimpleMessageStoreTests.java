@@ -299,6 +299,83 @@ public class SimpleMessageStoreTests {
 
 	}
 
+	@Test
+	public void testReaperExpiresBoundedBatchesInIdleOrder() throws Exception {
+		SimpleMessageStore store = new SimpleMessageStore();
+		store.setTimeoutOnIdle(true);
+		final List<Object> expired = new ArrayList<Object>();
+		store.registerMessageGroupExpiryCallback(new MessageGroupCallback() {
+
+			@Override
+			public void execute(MessageGroupStore messageGroupStore, MessageGroup group) {
+				expired.add(group.getGroupId());
+				messageGroupStore.removeMessageGroup(group.getGroupId());
+			}
+
+		});
+		store.addMessageToGroup("first", new GenericMessage<String>("foo"));
+		store.addMessageToGroup("second", new GenericMessage<String>("foo"));
+		store.addMessageToGroup("third", new GenericMessage<String>("foo"));
+		Thread.sleep(100);
+		store.addMessageToGroup("first", new GenericMessage<String>("bar"));
+		MessageGroupStoreReaper reaper = new MessageGroupStoreReaper(store);
+		reaper.setTimeout(50);
+		reaper.setMaxGroupsPerRun(1);
+		reaper.start();
+		reaper.run();
+		assertEquals("[second]", expired.toString());
+		reaper.run();
+		assertEquals("[second, third]", expired.toString());
+		reaper.run();
+		assertEquals("[second, third]", expired.toString());
+		assertEquals(2, store.getMessageGroup("first").size());
+		reaper.stop();
+	}
+
+	@Test
+	public void testBoundedExpirySkipsGroupsThatAreNotRemoved() {
+		SimpleMessageStore store = new SimpleMessageStore();
+		final List<Object> expired = new ArrayList<Object>();
+		store.registerMessageGroupExpiryCallback(new MessageGroupCallback() {
+
+			@Override
+			public void execute(MessageGroupStore messageGroupStore, MessageGroup group) {
+				String groupId = (String) group.getGroupId();
+				if (groupId.startsWith("failing")) {
+					throw new IllegalStateException("expiry failed");
+				}
+				if (groupId.startsWith("group")) {
+					expired.add(groupId);
+					messageGroupStore.removeMessageGroup(groupId);
+				}
+			}
+
+		});
+		store.addMessagesToGroup("kept0", new GenericMessage<String>("foo"));
+		store.addMessagesToGroup("kept1", new GenericMessage<String>("foo"));
+		store.addMessagesToGroup("failing", new GenericMessage<String>("foo"));
+		for (int i = 0; i < 3; i++) {
+			store.addMessagesToGroup("group" + i, new GenericMessage<String>("foo"));
+		}
+		try {
+			store.expireMessageGroups(-1, 2);
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e) {
+			assertEquals("expiry failed", e.getMessage());
+		}
+		assertEquals("[group0, group1]", expired.toString());
+		try {
+			store.expireMessageGroups(-1, 2);
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e) {
+			assertEquals("expiry failed", e.getMessage());
+		}
+		assertEquals("[group0, group1, group2]", expired.toString());
+		assertEquals(3, store.getMessageGroupCount());
+	}
+
 	@Test
 	public void testAddAndRemoveMessagesFromMessageGroup() throws Exception {
 		SimpleMessageStore messageStore = new SimpleMessageStore();
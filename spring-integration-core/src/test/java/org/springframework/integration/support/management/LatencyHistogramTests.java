@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * @since 5.0
+ */
+public class LatencyHistogramTests {
+
+	private static final long NANOS_PER_MILLI = 1000000;
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentile(99), 0);
+		for (int i = 1000; i > 0; i--) {
+			histogram.record(i * NANOS_PER_MILLI);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1, histogram.getMin(), 0);
+		assertEquals(1000, histogram.getMax(), 0);
+		assertEquals(500.5, histogram.getMean(), 0.001);
+		assertEquals(288.67, histogram.getStandardDeviation(), 0.01);
+		assertEquals(500, histogram.getPercentile(50), 500 * 0.07);
+		assertEquals(990, histogram.getPercentile(99), 990 * 0.07);
+		assertEquals(1000, histogram.getPercentile(100), 1000 * 0.07);
+		assertEquals(1, histogram.getPercentile(0), 0.07);
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getPercentile(50), 0);
+		assertEquals(0, histogram.getMin(), 0);
+	}
+
+	@Test
+	public void testSmallValuesAreExact() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 32; i++) {
+			histogram.record(i);
+		}
+		histogram.record(-1);
+		assertEquals(33, histogram.getCount());
+		assertEquals(15 / 1000000., histogram.getPercentile(50), 0);
+	}
+
+	@Test
+	public void testConcurrentRecording() throws Exception {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int i = 0; i < 4; i++) {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < 100000; j++) {
+						histogram.record(j);
+					}
+				}
+
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+		assertEquals(400000, histogram.getCount());
+		assertEquals(99999 / 1000000., histogram.getMax(), 0);
+	}
+
+	@Test
+	public void testChannelMetrics() {
+		QueueChannel channel = new QueueChannel();
+		channel.configureMetrics(new HistogramMetricsFactory().createChannelMetrics("channel"));
+		channel.setStatsEnabled(true);
+		for (int i = 0; i < 10; i++) {
+			channel.send(new GenericMessage<String>("foo"));
+		}
+		assertEquals(10, channel.getSendCountLong());
+		assertEquals(10, channel.getSendDuration().getCountLong());
+		assertEquals(0, channel.getMeanErrorRatio(), 0);
+		assertTrue(channel.getSendDurationPercentile(99) > 0);
+		assertTrue(channel.getSendDurationPercentile(99) <= channel.getMaxSendDuration());
+		channel.reset();
+		assertEquals(0, channel.getSendCountLong());
+		assertEquals(0, channel.getSendDurationPercentile(99), 0);
+	}
+
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.integration.test.util.TestUtils;
+import org.springframework.messaging.MessagingException;
+
+/**
+ * @since 5.0
+ *
+ */
+public class ConcurrentPoolTests {
+
+	@Test
+	public void testReuseAndStale() {
+		final Set<String> strings = ConcurrentHashMap.newKeySet();
+		final AtomicBoolean stale = new AtomicBoolean();
+		ConcurrentPool<String> pool = stringPool(2, strings, stale);
+		String s1 = pool.getItem();
+		String s2 = pool.getItem();
+		assertNotSame(s1, s2);
+		pool.releaseItem(s1);
+		String s3 = pool.getItem();
+		assertSame(s1, s3);
+		stale.set(true);
+		pool.releaseItem(s3);
+		s3 = pool.getItem();
+		assertNotSame(s1, s3);
+		assertFalse(strings.remove(s1));
+		assertEquals(2, pool.getAllocatedCount());
+	}
+
+	@Test
+	public void testOverCommitAndResize() {
+		final Set<String> strings = ConcurrentHashMap.newKeySet();
+		final AtomicBoolean stale = new AtomicBoolean();
+		ConcurrentPool<String> pool = stringPool(2, strings, stale);
+		String s1 = pool.getItem();
+		String s2 = pool.getItem();
+		pool.setWaitTimeout(1);
+		try {
+			pool.getItem();
+			fail("Expected exception");
+		}
+		catch (MessagingException e) {
+			assertEquals(1, pool.getTimeoutCount());
+		}
+
+		// resize up
+		pool.setPoolSize(4);
+
+		String s3 = pool.getItem();
+		String s4 = pool.getItem();
+		assertEquals(4, pool.getActiveCount());
+		pool.releaseItem(s4);
+		assertEquals(1, pool.getIdleCount());
+
+		// resize down
+		pool.setPoolSize(2);
+
+		assertEquals(0, pool.getIdleCount());
+		assertEquals(3, pool.getActiveCount());
+		assertEquals(3, pool.getPoolSize());
+		pool.releaseItem(s3);
+		assertEquals(0, pool.getIdleCount());
+		assertEquals(2, pool.getActiveCount());
+		assertEquals(2, pool.getPoolSize());
+		assertEquals(2, pool.getAllocatedCount());
+		pool.releaseItem(s2);
+		pool.releaseItem(s1);
+		assertEquals(2, pool.getIdleCount());
+		assertEquals(0, pool.getActiveCount());
+		assertEquals(2, strings.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testForeignObject() {
+		ConcurrentPool<String> pool = stringPool(2, ConcurrentHashMap.<String>newKeySet(), new AtomicBoolean());
+		pool.getItem();
+		pool.releaseItem("Hello, world!");
+	}
+
+	@Test
+	public void testDoubleReturn() {
+		ConcurrentPool<String> pool = stringPool(2, ConcurrentHashMap.<String>newKeySet(), new AtomicBoolean());
+		Semaphore permits = TestUtils.getPropertyValue(pool, "permits", Semaphore.class);
+		assertEquals(2, permits.availablePermits());
+		String s1 = pool.getItem();
+		assertEquals(1, permits.availablePermits());
+		pool.releaseItem(s1);
+		assertEquals(2, permits.availablePermits());
+		pool.releaseItem(s1);
+		assertEquals(2, permits.availablePermits());
+	}
+
+	@Test
+	public void testThreadAffinity() throws Exception {
+		final ConcurrentPool<String> pool =
+				stringPool(2, ConcurrentHashMap.<String>newKeySet(), new AtomicBoolean());
+		String mine = pool.getItem();
+		final String theirs = pool.getItem();
+		pool.releaseItem(mine);
+		// another thread releases its item later, putting it on top of the idle stack
+		Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				pool.releaseItem(theirs);
+			}
+
+		});
+		thread.start();
+		thread.join(10000);
+		assertSame(mine, pool.getItem());
+	}
+
+	@Test
+	public void testThreadAffinityLeavesStackEntry() {
+		ConcurrentPool<String> pool = stringPool(2, ConcurrentHashMap.<String>newKeySet(), new AtomicBoolean());
+		String s1 = pool.getItem();
+		pool.releaseItem(s1);
+		Deque<?> available = TestUtils.getPropertyValue(pool, "available", Deque.class);
+		for (int i = 0; i < 1000; i++) {
+			assertSame(s1, pool.getItem());
+			assertEquals(0, pool.getIdleCount());
+			assertEquals(1, available.size());
+			pool.releaseItem(s1);
+			assertEquals(1, pool.getIdleCount());
+		}
+		assertEquals(1, available.size());
+		String s2 = pool.getItem();
+		String s3 = pool.getItem();
+		assertSame(s1, s2);
+		assertNotSame(s2, s3);
+		assertEquals(0, available.size());
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		final Set<String> strings = ConcurrentHashMap.newKeySet();
+		final AtomicBoolean stale = new AtomicBoolean();
+		ConcurrentPool<String> pool = stringPool(3, strings, stale);
+		String s1 = pool.getItem();
+		String s2 = pool.getItem();
+		String s3 = pool.getItem();
+		pool.releaseItem(s1);
+		pool.setIdleTimeout(50);
+		Thread.sleep(100);
+		pool.releaseItem(s2);
+		pool.evictIdleItems();
+		assertEquals(1, pool.getIdleCount());
+		assertEquals(2, pool.getAllocatedCount());
+		assertFalse(strings.contains(s1));
+		pool.setIdleTimeout(0);
+		pool.setValidateIdleItems(true);
+		stale.set(true);
+		pool.evictIdleItems();
+		assertEquals(0, pool.getIdleCount());
+		assertEquals(1, pool.getAllocatedCount());
+		pool.releaseItem(s3);
+		assertEquals(3, TestUtils.getPropertyValue(pool, "permits", Semaphore.class).availablePermits());
+	}
+
+	@Test
+	public void testConcurrentCheckouts() throws Exception {
+		final ConcurrentPool<String> pool =
+				stringPool(4, ConcurrentHashMap.<String>newKeySet(), new AtomicBoolean());
+		final Set<String> checkedOut = ConcurrentHashMap.newKeySet();
+		final AtomicInteger errors = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 8; i++) {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						String item = pool.getItem();
+						if (!checkedOut.add(item)) {
+							errors.incrementAndGet();
+						}
+						checkedOut.remove(item);
+						pool.releaseItem(item);
+					}
+				}
+
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+		assertEquals(0, errors.get());
+		assertTrue(pool.getAllocatedCount() <= 4);
+		assertEquals(0, pool.getActiveCount());
+		assertEquals(80000, pool.getCheckoutCount());
+		assertTrue(pool.getCheckoutRate() > 0);
+		assertTrue(pool.getMaxWaitTime() >= pool.getMeanWaitTime());
+		pool.resetMetrics();
+		assertEquals(0, pool.getCheckoutCount());
+	}
+
+	@Test
+	public void testConcurrentCheckoutsAndEviction() throws Exception {
+		final ConcurrentPool<String> pool =
+				stringPool(4, ConcurrentHashMap.<String>newKeySet(), new AtomicBoolean());
+		pool.setValidateIdleItems(true);
+		pool.setWaitTimeout(10000);
+		final AtomicBoolean evicting = new AtomicBoolean(true);
+		Thread evictor = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				while (evicting.get()) {
+					pool.evictIdleItems();
+				}
+			}
+
+		});
+		evictor.start();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 8; i++) {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < 100000; j++) {
+						pool.releaseItem(pool.getItem());
+					}
+				}
+
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+		evicting.set(false);
+		evictor.join(10000);
+		assertTrue(pool.getAllocatedCount() <= 4);
+		// every idle item can be checked out by a thread that has no affinity with it
+		final int allocated = pool.getAllocatedCount();
+		Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				for (int i = 0; i < allocated; i++) {
+					pool.getItem();
+				}
+			}
+
+		});
+		thread.start();
+		thread.join(10000);
+		assertEquals(allocated, pool.getAllocatedCount());
+		assertEquals(0, pool.getIdleCount());
+	}
+
+	private ConcurrentPool<String> stringPool(int size, final Set<String> strings,
+			final AtomicBoolean stale) {
+		return new ConcurrentPool<String>(size, new SimplePool.PoolItemCallback<String>() {
+
+			private final AtomicInteger i = new AtomicInteger();
+
+			@Override
+			public String createForPool() {
+				String string = "String" + this.i.getAndIncrement();
+				strings.add(string);
+				return string;
+			}
+
+			@Override
+			public boolean isStale(String item) {
+				return stale.get();
+			}
+
+			@Override
+			public void removedFromPool(String item) {
+				strings.remove(item);
+			}
+
+		});
+	}
+
+}
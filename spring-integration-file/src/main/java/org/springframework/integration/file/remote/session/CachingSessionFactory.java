@@ -19,12 +19,15 @@ package org.springframework.integration.file.remote.session;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.ScheduledFuture;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.integration.util.ConcurrentPool;
 import org.springframework.integration.util.SimplePool;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.Assert;
 
 /**
@@ -44,12 +47,18 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 
 	private final SessionFactory<F> sessionFactory;
 
-	private final SimplePool<Session<F>> pool;
+	private final ConcurrentPool<Session<F>> pool;
 
 	private final boolean isSharedSessionCapable;
 
 	private volatile long sharedSessionEpoch;
 
+	private volatile long idleTimeout;
+
+	private volatile TaskScheduler taskScheduler;
+
+	private volatile ScheduledFuture<?> evictionTask;
+
 	/**
 	 * Create a CachingSessionFactory with an unlimited number of sessions.
 	 *
@@ -75,7 +84,7 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 		Assert.isTrue(!(sessionFactory instanceof DelegatingSessionFactory),
 				"'sessionFactory' cannot be a 'DelegatingSessionFactory'; cache each delegate instead");
 		this.sessionFactory = sessionFactory;
-		this.pool = new SimplePool<Session<F>>(sessionCacheSize, new SimplePool.PoolItemCallback<Session<F>>() {
+		this.pool = new ConcurrentPool<Session<F>>(sessionCacheSize, new SimplePool.PoolItemCallback<Session<F>>() {
 			@Override
 			public Session<F> createForPool() {
 				return CachingSessionFactory.this.sessionFactory.getSession();
@@ -115,6 +124,42 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 		this.pool.setPoolSize(poolSize);
 	}
 
+	/**
+	 * Set the time after which idle sessions are closed and removed from the cache, for
+	 * example to avoid using sessions that the server has timed out. Requires a
+	 * {@link #setTaskScheduler(TaskScheduler) taskScheduler}; idle sessions are checked
+	 * every {@code idleTimeout / 2} milliseconds. Default 0 - idle sessions are retained.
+	 * @param idleTimeout the idle timeout in milliseconds.
+	 * @since 5.0
+	 * @see ConcurrentPool#setIdleTimeout(long)
+	 */
+	public synchronized void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+		this.pool.setIdleTimeout(idleTimeout);
+		scheduleEviction();
+	}
+
+	/**
+	 * Set the task scheduler used to remove idle sessions.
+	 * @param taskScheduler the task scheduler.
+	 * @since 5.0
+	 * @see #setIdleTimeout(long)
+	 */
+	public synchronized void setTaskScheduler(TaskScheduler taskScheduler) {
+		this.taskScheduler = taskScheduler;
+		scheduleEviction();
+	}
+
+	private void scheduleEviction() {
+		if (this.evictionTask != null) {
+			this.evictionTask.cancel(false);
+			this.evictionTask = null;
+		}
+		if (this.taskScheduler != null && this.idleTimeout > 0) {
+			this.evictionTask = this.pool.scheduleEviction(this.taskScheduler, Math.max(this.idleTimeout / 2, 1));
+		}
+	}
+
 	/**
 	 * Get a session from the pool (or block if none available).
 	 */
@@ -128,6 +173,9 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 	 */
 	@Override
 	public void destroy() {
+		if (this.evictionTask != null) {
+			this.evictionTask.cancel(false);
+		}
 		this.pool.removeAllIdleItems();
 	}
 
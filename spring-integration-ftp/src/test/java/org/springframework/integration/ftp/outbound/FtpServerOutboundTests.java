@@ -43,8 +43,6 @@ import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.net.ftp.FTPClient;
@@ -55,6 +53,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -74,6 +73,7 @@ import org.springframework.integration.ftp.session.FtpRemoteFileTemplate;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.support.PartialSuccessException;
 import org.springframework.integration.test.util.TestUtils;
+import org.springframework.integration.util.ConcurrentPool;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.PollableChannel;
@@ -521,18 +521,15 @@ public class FtpServerOutboundTests extends FtpTestSupport {
 	}
 
 	private Session<FTPFile> spyOnSession() {
-		Session<FTPFile> session = spy(this.ftpSessionFactory.getSession());
-		session.close();
-		@SuppressWarnings("unchecked")
-		BlockingQueue<Session<FTPFile>> cache = TestUtils.getPropertyValue(ftpSessionFactory, "pool.available",
-				BlockingQueue.class);
-		assertNotNull(cache.poll());
-		cache.offer(session);
 		@SuppressWarnings("unchecked")
-		Set<Session<FTPFile>> allocated = TestUtils.getPropertyValue(ftpSessionFactory, "pool.allocated",
-				Set.class);
-		allocated.clear();
-		allocated.add(session);
+		final SessionFactory<FTPFile> target = TestUtils.getPropertyValue(this.ftpSessionFactory, "sessionFactory",
+				SessionFactory.class);
+		final Session<FTPFile> session = spy(target.getSession());
+		// the next session created by the cache is the spy
+		final AtomicBoolean spied = new AtomicBoolean();
+		new DirectFieldAccessor(this.ftpSessionFactory).setPropertyValue("sessionFactory",
+				(SessionFactory<FTPFile>) () -> spied.getAndSet(true) ? target.getSession() : session);
+		TestUtils.getPropertyValue(this.ftpSessionFactory, "pool", ConcurrentPool.class).removeAllIdleItems();
 		return session;
 	}
 
@@ -19,6 +19,7 @@ package org.springframework.integration.gemfire.store;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.data.gemfire.RegionAttributesFactoryBean;
@@ -99,6 +100,17 @@ public class GemfireMessageStore extends AbstractKeyValueMessageStore implements
 		return this.messageStoreRegion.get(id);
 	}
 
+	@Override
+	protected List<?> doRetrieveAll(List<?> ids) {
+		Assert.notNull(ids, "'ids' must not be null");
+		Map<Object, Object> values = this.messageStoreRegion.getAll(new ArrayList<Object>(ids));
+		List<Object> result = new ArrayList<Object>(ids.size());
+		for (Object id : ids) {
+			result.add(values.get(id));
+		}
+		return result;
+	}
+
 	@Override
 	protected void doStore(Object id, Object objectToStore) {
 		Assert.notNull(id, "'id' must not be null");
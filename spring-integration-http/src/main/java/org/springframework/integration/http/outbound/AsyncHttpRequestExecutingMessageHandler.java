@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.http.outbound;
+
+import java.net.URI;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.expression.Expression;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandlingException;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * A {@link HttpRequestExecutingMessageHandler} that executes HTTP requests through an
+ * {@link AsyncRestTemplate}; the sending thread is released as soon as the request has
+ * been submitted. The handler is {@link #setAsync(boolean) async}: it returns a
+ * {@link ListenableFuture} of the reply, which is sent (or the failure sent to the error
+ * channel) on the thread that completes the response. Use a non-blocking request factory (such as the
+ * {@link org.springframework.http.client.Netty4ClientHttpRequestFactory}) so that many
+ * requests can be in flight on a small number of threads.
+ * <p>
+ * The message converters and error handler are those of the template's underlying
+ * {@link RestTemplate}. The number of requests in flight can be limited with
+ * {@link #setMaxInFlight(int)}.
+ *
+ * @since 5.0
+ */
+public class AsyncHttpRequestExecutingMessageHandler extends HttpRequestExecutingMessageHandler {
+
+	private final AsyncRestTemplate asyncRestTemplate;
+
+	private volatile Semaphore inFlight;
+
+	/**
+	 * Create a handler that will send requests to the provided URI using the provided
+	 * template.
+	 * @param uri The URI.
+	 * @param asyncRestTemplate The template.
+	 */
+	public AsyncHttpRequestExecutingMessageHandler(String uri, AsyncRestTemplate asyncRestTemplate) {
+		super(uri, syncTemplate(asyncRestTemplate));
+		this.asyncRestTemplate = asyncRestTemplate;
+		setAsync(true);
+	}
+
+	/**
+	 * Create a handler that will send requests to the provided URI Expression using the
+	 * provided template.
+	 * @param uriExpression A SpEL Expression that can be resolved against the message object and
+	 * {@link org.springframework.beans.factory.BeanFactory}.
+	 * @param asyncRestTemplate The template.
+	 */
+	public AsyncHttpRequestExecutingMessageHandler(Expression uriExpression, AsyncRestTemplate asyncRestTemplate) {
+		super(uriExpression, syncTemplate(asyncRestTemplate));
+		this.asyncRestTemplate = asyncRestTemplate;
+		setAsync(true);
+	}
+
+	private static RestTemplate syncTemplate(AsyncRestTemplate asyncRestTemplate) {
+		Assert.notNull(asyncRestTemplate, "'asyncRestTemplate' cannot be null");
+		Assert.isInstanceOf(RestTemplate.class, asyncRestTemplate.getRestOperations(),
+				"The AsyncRestTemplate must delegate to a RestTemplate");
+		return (RestTemplate) asyncRestTemplate.getRestOperations();
+	}
+
+	/**
+	 * Set the maximum number of requests in flight; when reached, the sending thread
+	 * waits until a response is received for an earlier request. Default 0 (no limit).
+	 * @param maxInFlight the maximum number of requests in flight.
+	 */
+	public void setMaxInFlight(int maxInFlight) {
+		Assert.isTrue(maxInFlight >= 0, "'maxInFlight' cannot be negative");
+		this.inFlight = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+	}
+
+	@Override
+	public String getComponentType() {
+		return (isExpectReply() ? "http:outbound-async-gateway" : "http:outbound-async-channel-adapter");
+	}
+
+	@Override
+	protected Object exchange(final URI uri, HttpMethod httpMethod, HttpEntity<?> httpRequest,
+			Object expectedResponseType, final Message<?> requestMessage) {
+		final Semaphore inFlight = this.inFlight;
+		if (inFlight != null) {
+			try {
+				inFlight.acquire();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MessageHandlingException(requestMessage, "Interrupted while waiting for a request slot", e);
+			}
+		}
+		final SettableListenableFuture<Object> reply = new SettableListenableFuture<Object>();
+		try {
+			ListenableFuture<? extends ResponseEntity<?>> future;
+			if (expectedResponseType instanceof ParameterizedTypeReference<?>) {
+				future = this.asyncRestTemplate.exchange(uri, httpMethod, httpRequest,
+						(ParameterizedTypeReference<?>) expectedResponseType);
+			}
+			else {
+				future = this.asyncRestTemplate.exchange(uri, httpMethod, httpRequest, (Class<?>) expectedResponseType);
+			}
+			future.addCallback(new ListenableFutureCallback<ResponseEntity<?>>() {
+
+				@Override
+				public void onSuccess(ResponseEntity<?> result) {
+					release(inFlight);
+					try {
+						reply.set(getReply(result));
+					}
+					catch (Exception e) {
+						reply.setException(e);
+					}
+				}
+
+				@Override
+				public void onFailure(Throwable ex) {
+					release(inFlight);
+					reply.setException(new MessageHandlingException(requestMessage,
+							"HTTP request execution failed for URI [" + uri + "]", ex));
+				}
+
+			});
+		}
+		catch (RuntimeException e) {
+			release(inFlight);
+			throw e;
+		}
+		return reply;
+	}
+
+	/**
+	 * When no reply is expected, the future completes with null; there is nothing to
+	 * send, but a failure is still sent to the error channel.
+	 */
+	@Override
+	protected void produceOutput(Object reply, final Message<?> requestMessage) {
+		if (!isExpectReply() && reply instanceof ListenableFuture<?>) {
+			((ListenableFuture<?>) reply).addCallback(new ListenableFutureCallback<Object>() {
+
+				@Override
+				public void onSuccess(Object result) {
+				}
+
+				@Override
+				public void onFailure(Throwable ex) {
+					sendErrorMessage(requestMessage, ex);
+				}
+
+			});
+		}
+		else {
+			super.produceOutput(reply, requestMessage);
+		}
+	}
+
+	private static void release(Semaphore inFlight) {
+		if (inFlight != null) {
+			inFlight.release();
+		}
+	}
+
+}
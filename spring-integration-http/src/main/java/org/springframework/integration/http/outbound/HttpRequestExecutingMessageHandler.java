@@ -338,6 +338,15 @@ public class HttpRequestExecutingMessageHandler extends AbstractReplyProducingMe
 		this.transferCookies = transferCookies;
 	}
 
+	/**
+	 * @return true if a reply Message is expected.
+	 * @since 5.0
+	 * @see #setExpectReply(boolean)
+	 */
+	protected boolean isExpectReply() {
+		return this.expectReply;
+	}
+
 	@Override
 	public String getComponentType() {
 		return (this.expectReply ? "http:outbound-gateway" : "http:outbound-channel-adapter");
@@ -374,33 +383,7 @@ public class HttpRequestExecutingMessageHandler extends AbstractReplyProducingMe
 					: UriComponentsBuilder.fromUri((URI) uri);
 			UriComponents uriComponents = uriComponentsBuilder.buildAndExpand(uriVariables);
 			realUri = this.encodeUri ? uriComponents.toUri() : new URI(uriComponents.toUriString());
-			ResponseEntity<?> httpResponse;
-			if (expectedResponseType instanceof ParameterizedTypeReference<?>) {
-				httpResponse = this.restTemplate.exchange(realUri, httpMethod, httpRequest, (ParameterizedTypeReference<?>) expectedResponseType);
-			}
-			else {
-				httpResponse = this.restTemplate.exchange(realUri, httpMethod, httpRequest, (Class<?>) expectedResponseType);
-			}
-			if (this.expectReply) {
-				HttpHeaders httpHeaders = httpResponse.getHeaders();
-				Map<String, Object> headers = this.headerMapper.toHeaders(httpHeaders);
-				if (this.transferCookies) {
-					this.doConvertSetCookie(headers);
-				}
-				AbstractIntegrationMessageBuilder<?> replyBuilder = null;
-				if (httpResponse.hasBody()) {
-					Object responseBody = httpResponse.getBody();
-					replyBuilder = (responseBody instanceof Message<?>) ?
-							this.getMessageBuilderFactory().fromMessage((Message<?>) responseBody) : this.getMessageBuilderFactory().withPayload(responseBody);
-
-				}
-				else {
-					replyBuilder = this.getMessageBuilderFactory().withPayload(httpResponse);
-				}
-				replyBuilder.setHeader(org.springframework.integration.http.HttpHeaders.STATUS_CODE, httpResponse.getStatusCode());
-				return replyBuilder.copyHeaders(headers).build();
-			}
-			return null;
+			return exchange(realUri, httpMethod, httpRequest, expectedResponseType, requestMessage);
 		}
 		catch (MessagingException e) {
 			throw e;
@@ -411,6 +394,58 @@ public class HttpRequestExecutingMessageHandler extends AbstractReplyProducingMe
 		}
 	}
 
+	/**
+	 * Execute the request and return the reply, if any.
+	 * @param uri the expanded URI.
+	 * @param httpMethod the HTTP method.
+	 * @param httpRequest the request entity.
+	 * @param expectedResponseType the expected response type; a {@link Class},
+	 * a {@link ParameterizedTypeReference} or null.
+	 * @param requestMessage the request message.
+	 * @return the reply message, or null.
+	 * @since 5.0
+	 */
+	protected Object exchange(URI uri, HttpMethod httpMethod, HttpEntity<?> httpRequest,
+			Object expectedResponseType, Message<?> requestMessage) {
+		ResponseEntity<?> httpResponse;
+		if (expectedResponseType instanceof ParameterizedTypeReference<?>) {
+			httpResponse = this.restTemplate.exchange(uri, httpMethod, httpRequest, (ParameterizedTypeReference<?>) expectedResponseType);
+		}
+		else {
+			httpResponse = this.restTemplate.exchange(uri, httpMethod, httpRequest, (Class<?>) expectedResponseType);
+		}
+		return getReply(httpResponse);
+	}
+
+	/**
+	 * Create the reply message from the response; null if no reply is expected.
+	 * @param httpResponse the response.
+	 * @return the reply message, or null.
+	 * @since 5.0
+	 */
+	protected Object getReply(ResponseEntity<?> httpResponse) {
+		if (this.expectReply) {
+			HttpHeaders httpHeaders = httpResponse.getHeaders();
+			Map<String, Object> headers = this.headerMapper.toHeaders(httpHeaders);
+			if (this.transferCookies) {
+				this.doConvertSetCookie(headers);
+			}
+			AbstractIntegrationMessageBuilder<?> replyBuilder = null;
+			if (httpResponse.hasBody()) {
+				Object responseBody = httpResponse.getBody();
+				replyBuilder = (responseBody instanceof Message<?>) ?
+						this.getMessageBuilderFactory().fromMessage((Message<?>) responseBody) : this.getMessageBuilderFactory().withPayload(responseBody);
+
+			}
+			else {
+				replyBuilder = this.getMessageBuilderFactory().withPayload(httpResponse);
+			}
+			replyBuilder.setHeader(org.springframework.integration.http.HttpHeaders.STATUS_CODE, httpResponse.getStatusCode());
+			return replyBuilder.copyHeaders(headers).build();
+		}
+		return null;
+	}
+
 	/**
 	 * Convert Set-Cookie to Cookie
 	 */
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.http.outbound;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.Netty4ClientHttpRequestFactory;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.http.HttpHeaders;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandlingException;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.web.client.AsyncRestTemplate;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * @since 5.0
+ */
+public class AsyncHttpRequestExecutingMessageHandlerTests {
+
+	private final CountDownLatch releaseResponses = new CountDownLatch(1);
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private HttpServer server;
+
+	private Netty4ClientHttpRequestFactory requestFactory;
+
+	@Before
+	public void setUp() throws Exception {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.setExecutor(this.executor);
+		this.server.createContext("/test", new HttpHandler() {
+
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				AsyncHttpRequestExecutingMessageHandlerTests.this.requests.incrementAndGet();
+				try {
+					AsyncHttpRequestExecutingMessageHandlerTests.this.releaseResponses.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				byte[] body = "reply".getBytes();
+				exchange.getResponseHeaders().add("Content-Type", "text/plain");
+				exchange.sendResponseHeaders(200, body.length);
+				OutputStream out = exchange.getResponseBody();
+				out.write(body);
+				out.close();
+			}
+
+		});
+		this.server.start();
+		this.requestFactory = new Netty4ClientHttpRequestFactory();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.releaseResponses.countDown();
+		this.requestFactory.destroy();
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void testRepliesAndMaxInFlight() throws Exception {
+		final AsyncHttpRequestExecutingMessageHandler handler = new AsyncHttpRequestExecutingMessageHandler(
+				"http://localhost:" + this.server.getAddress().getPort() + "/test",
+				new AsyncRestTemplate(this.requestFactory));
+		handler.setHttpMethod(HttpMethod.GET);
+		handler.setExpectedResponseType(String.class);
+		handler.setMaxInFlight(2);
+		QueueChannel replies = new QueueChannel();
+		handler.setOutputChannel(replies);
+		handler.setBeanFactory(mock(BeanFactory.class));
+		handler.afterPropertiesSet();
+		assertEquals("http:outbound-async-gateway", handler.getComponentType());
+
+		handler.handleMessage(new GenericMessage<String>("foo"));
+		handler.handleMessage(new GenericMessage<String>("foo"));
+		final CountDownLatch thirdSent = new CountDownLatch(1);
+		this.executor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				handler.handleMessage(new GenericMessage<String>("foo"));
+				thirdSent.countDown();
+			}
+
+		});
+		assertFalse(thirdSent.await(500, TimeUnit.MILLISECONDS));
+		assertEquals(2, this.requests.get());
+
+		this.releaseResponses.countDown();
+		assertTrue(thirdSent.await(10, TimeUnit.SECONDS));
+		for (int i = 0; i < 3; i++) {
+			Message<?> reply = replies.receive(10000);
+			assertNotNull(reply);
+			assertEquals("reply", reply.getPayload());
+			assertEquals(HttpStatus.OK, reply.getHeaders().get(HttpHeaders.STATUS_CODE));
+		}
+		assertEquals(3, this.requests.get());
+	}
+
+	@Test
+	public void testChannelAdapterNoReply() throws Exception {
+		AsyncHttpRequestExecutingMessageHandler handler = new AsyncHttpRequestExecutingMessageHandler(
+				"http://localhost:" + this.server.getAddress().getPort() + "/test",
+				new AsyncRestTemplate(this.requestFactory));
+		handler.setExpectReply(false);
+		handler.setMaxInFlight(1);
+		handler.setBeanFactory(mock(BeanFactory.class));
+		handler.afterPropertiesSet();
+		assertEquals("http:outbound-async-channel-adapter", handler.getComponentType());
+		this.releaseResponses.countDown();
+		QueueChannel errors = new QueueChannel();
+		for (int i = 0; i < 3; i++) {
+			handler.handleMessage(MessageBuilder.withPayload("foo").setErrorChannel(errors).build());
+		}
+		int n = 0;
+		while (this.requests.get() < 3 && n++ < 100) {
+			Thread.sleep(100);
+		}
+		assertEquals(3, this.requests.get());
+		assertNull(errors.receive(100));
+	}
+
+	@Test
+	public void testFailureReleasesSlot() throws Exception {
+		ServerSocket socket = new ServerSocket(0);
+		int port = socket.getLocalPort();
+		socket.close();
+		for (boolean expectReply : new boolean[] { true, false }) {
+			AsyncHttpRequestExecutingMessageHandler handler = new AsyncHttpRequestExecutingMessageHandler(
+					"http://localhost:" + port + "/test", new AsyncRestTemplate(this.requestFactory));
+			handler.setExpectReply(expectReply);
+			handler.setMaxInFlight(1);
+			handler.setBeanFactory(mock(BeanFactory.class));
+			handler.afterPropertiesSet();
+			QueueChannel errors = new QueueChannel();
+			for (int i = 0; i < 2; i++) {
+				handler.handleMessage(MessageBuilder.withPayload("foo").setErrorChannel(errors).build());
+				Message<?> error = errors.receive(10000);
+				assertThat(error, instanceOf(ErrorMessage.class));
+				Throwable exception = ((ErrorMessage) error).getPayload();
+				assertThat(exception, instanceOf(MessageHandlingException.class));
+				assertThat(exception.getMessage(), containsString("HTTP request execution failed for URI"));
+			}
+		}
+	}
+
+}
@@ -138,6 +138,7 @@ public abstract class AbstractInternetProtocolReceivingChannelAdapter
 
 	@Override
 	protected void doStop() {
+		super.doStop();
 		this.active = false;
 		if (!this.taskExecutorSet && this.taskExecutor != null) {
 			((ExecutorService) this.taskExecutor).shutdown();
@@ -72,6 +72,10 @@ public abstract class IpAdapterParserUtils {
 
 	static final String USING_DIRECT_BUFFERS = "using-direct-buffers";
 
+	static final String INCREMENTAL_DESERIALIZATION = "incremental-deserialization";
+
+	static final String WRITE_BUFFER_POOL = "write-buffer-pool";
+
 	static final String SO_LINGER = "so-linger";
 
 	static final String SO_TCP_NODELAY = "so-tcp-no-delay";
@@ -124,6 +128,18 @@ public abstract class IpAdapterParserUtils {
 
 	public static final String MAPPER = "mapper";
 
+	public static final String CORRELATION_EXPRESSION = "correlation-expression";
+
+	public static final String REPLY_CORRELATION_EXPRESSION = "reply-correlation-expression";
+
+	public static final String MAX_IN_FLIGHT = "max-in-flight";
+
+	public static final String UDP_NIO = "nio";
+
+	public static final String RECEIVE_BATCH_SIZE = "receive-batch-size";
+
+	public static final String PACKET_POOL_SIZE = "packet-pool-size";
+
 	private IpAdapterParserUtils() {
 	}
 
@@ -35,6 +35,7 @@ import org.springframework.integration.ip.tcp.connection.DefaultTcpNetSocketFact
 import org.springframework.integration.ip.tcp.connection.DefaultTcpNioConnectionSupport;
 import org.springframework.integration.ip.tcp.connection.DefaultTcpNioSSLConnectionSupport;
 import org.springframework.integration.ip.tcp.connection.DefaultTcpSocketSupport;
+import org.springframework.integration.ip.tcp.connection.DirectBufferPool;
 import org.springframework.integration.ip.tcp.connection.TcpConnectionInterceptorFactoryChain;
 import org.springframework.integration.ip.tcp.connection.TcpMessageMapper;
 import org.springframework.integration.ip.tcp.connection.TcpNetClientConnectionFactory;
@@ -104,6 +105,10 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 
 	private volatile boolean usingDirectBuffers;
 
+	private volatile boolean incrementalDeserialization;
+
+	private volatile DirectBufferPool writeBufferPool;
+
 	private volatile String beanName;
 
 	private volatile boolean applySequence;
@@ -155,6 +160,8 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 				this.setCommonAttributes(connectionFactory);
 				this.setServerAttributes(connectionFactory);
 				connectionFactory.setUsingDirectBuffers(this.usingDirectBuffers);
+				connectionFactory.setIncrementalDeserialization(this.incrementalDeserialization);
+				connectionFactory.setWriteBufferPool(this.writeBufferPool);
 				connectionFactory.setTcpNioConnectionSupport(this.obtainNioConnectionSupport());
 				this.connectionFactory = connectionFactory;
 			}
@@ -163,6 +170,8 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 						this.host, this.port);
 				this.setCommonAttributes(connectionFactory);
 				connectionFactory.setUsingDirectBuffers(this.usingDirectBuffers);
+				connectionFactory.setIncrementalDeserialization(this.incrementalDeserialization);
+				connectionFactory.setWriteBufferPool(this.writeBufferPool);
 				connectionFactory.setTcpNioConnectionSupport(this.obtainNioConnectionSupport());
 				this.connectionFactory = connectionFactory;
 			}
@@ -357,6 +366,24 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 		this.usingDirectBuffers = usingDirectBuffers;
 	}
 
+	/**
+	 * @param incrementalDeserialization the incrementalDeserialization to set.
+	 * @since 5.0
+	 * @see org.springframework.integration.ip.tcp.connection.TcpNioServerConnectionFactory#setIncrementalDeserialization(boolean)
+	 */
+	public void setIncrementalDeserialization(boolean incrementalDeserialization) {
+		this.incrementalDeserialization = incrementalDeserialization;
+	}
+
+	/**
+	 * @param writeBufferPool the writeBufferPool to set.
+	 * @since 5.0
+	 * @see org.springframework.integration.ip.tcp.connection.TcpNioServerConnectionFactory#setWriteBufferPool(DirectBufferPool)
+	 */
+	public void setWriteBufferPool(DirectBufferPool writeBufferPool) {
+		this.writeBufferPool = writeBufferPool;
+	}
+
 	/**
 	 * @param taskExecutor The task executor.
 	 * @see org.springframework.integration.ip.tcp.connection.AbstractConnectionFactory#setTaskExecutor(java.util.concurrent.Executor)
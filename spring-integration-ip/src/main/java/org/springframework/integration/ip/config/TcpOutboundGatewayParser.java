@@ -55,6 +55,18 @@ public class TcpOutboundGatewayParser extends AbstractConsumerEndpointParser {
 		}
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element,
 				IpAdapterParserUtils.REPLY_TIMEOUT, "sendTimeout");
+		BeanDefinition correlationExpression = IntegrationNamespaceUtils.createExpressionDefIfAttributeDefined(
+				IpAdapterParserUtils.CORRELATION_EXPRESSION, element);
+		if (correlationExpression != null) {
+			builder.addPropertyValue("correlationExpression", correlationExpression);
+		}
+		BeanDefinition replyCorrelationExpression = IntegrationNamespaceUtils.createExpressionDefIfAttributeDefined(
+				IpAdapterParserUtils.REPLY_CORRELATION_EXPRESSION, element);
+		if (replyCorrelationExpression != null) {
+			builder.addPropertyValue("replyCorrelationExpression", replyCorrelationExpression);
+		}
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element,
+				IpAdapterParserUtils.MAX_IN_FLIGHT);
 		return builder;
 	}
 
@@ -24,6 +24,7 @@ import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.integration.config.xml.AbstractChannelAdapterParser;
 import org.springframework.integration.config.xml.IntegrationNamespaceUtils;
 import org.springframework.integration.ip.udp.MulticastReceivingChannelAdapter;
+import org.springframework.integration.ip.udp.NioUnicastReceivingChannelAdapter;
 import org.springframework.integration.ip.udp.UnicastReceivingChannelAdapter;
 import org.springframework.util.StringUtils;
 
@@ -51,6 +52,12 @@ public class UdpInboundChannelAdapterParser extends AbstractChannelAdapterParser
 				IpAdapterParserUtils.TASK_EXECUTOR);
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element,
 				IpAdapterParserUtils.LOOKUP_HOST);
+		if ("true".equals(element.getAttribute(IpAdapterParserUtils.UDP_NIO))) {
+			IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element,
+					IpAdapterParserUtils.RECEIVE_BATCH_SIZE);
+			IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element,
+					IpAdapterParserUtils.PACKET_POOL_SIZE);
+		}
 		return builder.getBeanDefinition();
 	}
 
@@ -63,10 +70,18 @@ public class UdpInboundChannelAdapterParser extends AbstractChannelAdapterParser
 	private BeanDefinitionBuilder parseUdp(Element element, ParserContext parserContext) {
 		BeanDefinitionBuilder builder;
 		String multicast = IpAdapterParserUtils.getMulticast(element);
+		boolean nio = "true".equals(element.getAttribute(IpAdapterParserUtils.UDP_NIO));
 		if (multicast.equals("false")) {
-			builder = BeanDefinitionBuilder.genericBeanDefinition(UnicastReceivingChannelAdapter.class);
+			builder = BeanDefinitionBuilder.genericBeanDefinition(nio
+					? NioUnicastReceivingChannelAdapter.class
+					: UnicastReceivingChannelAdapter.class);
 		}
 		else {
+			if (nio) {
+				parserContext.getReaderContext().error(
+						IpAdapterParserUtils.UDP_NIO + " is not supported for a multicast UDP/IP channel adapter",
+						element);
+			}
 			builder = BeanDefinitionBuilder.genericBeanDefinition(MulticastReceivingChannelAdapter.class);
 			String mcAddress = element
 					.getAttribute(IpAdapterParserUtils.MULTICAST_ADDRESS);
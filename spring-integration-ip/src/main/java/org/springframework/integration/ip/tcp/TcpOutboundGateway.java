@@ -18,10 +18,12 @@ package org.springframework.integration.ip.tcp;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.Lifecycle;
 import org.springframework.context.SmartLifecycle;
@@ -30,6 +32,8 @@ import org.springframework.expression.Expression;
 import org.springframework.expression.common.LiteralExpression;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.integration.MessageTimeoutException;
+import org.springframework.integration.aggregator.CorrelationStrategy;
+import org.springframework.integration.aggregator.ExpressionEvaluatingCorrelationStrategy;
 import org.springframework.integration.expression.ExpressionUtils;
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
 import org.springframework.integration.ip.IpHeaders;
@@ -49,8 +53,16 @@ import org.springframework.util.Assert;
  * TCP outbound gateway that uses a client connection factory. If the factory is configured
  * for single-use connections, each request is sent on a new connection; if the factory does not use
  * single use connections, each request is blocked until the previous response is received
- * (or times out). Asynchronous requests/responses over the same connection are not
- * supported - use a pair of outbound/inbound adapters for that use case.
+ * (or times out).
+ * <p>
+ * When a {@link #setCorrelationExpression(Expression) correlation expression} (or
+ * strategy) is provided, requests are pipelined instead: they are sent over the shared
+ * connection without waiting for the replies to previous requests, and each reply is
+ * matched to its request by its correlation key. This requires the server to echo the
+ * key (for example, a field in the frame) in its replies. At most
+ * {@link #setMaxInFlight(int) maxInFlight} requests await a reply on each connection.
+ * Alternatively, use a pair of outbound/inbound adapters for asynchronous
+ * requests/responses.
  * <p>
  * {@link SmartLifecycle} methods delegate to the underlying {@link AbstractConnectionFactory}
  *
@@ -69,6 +81,16 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 
 	private final Semaphore semaphore = new Semaphore(1, true);
 
+	private final ConcurrentMap<Object, AsyncReply> pipelinedReplies = new ConcurrentHashMap<Object, AsyncReply>();
+
+	private final ConcurrentMap<String, Semaphore> inFlightWindows = new ConcurrentHashMap<String, Semaphore>();
+
+	private volatile CorrelationStrategy requestCorrelationStrategy;
+
+	private volatile CorrelationStrategy replyCorrelationStrategy;
+
+	private volatile int maxInFlight = 100;
+
 	private volatile Expression remoteTimeoutExpression = new LiteralExpression("10000");
 
 	private volatile long requestTimeout = 10000;
@@ -100,6 +122,70 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 		this.evaluationContext = evaluationContext;
 	}
 
+	/**
+	 * Enable pipelining, correlating replies with requests using the result of the
+	 * expression, which is evaluated against both the request and the reply.
+	 * @param correlationExpression the expression.
+	 * @since 5.0
+	 * @see #setCorrelationStrategy(CorrelationStrategy)
+	 */
+	public void setCorrelationExpression(Expression correlationExpression) {
+		Assert.notNull(correlationExpression, "'correlationExpression' cannot be null");
+		setCorrelationStrategy(new ExpressionEvaluatingCorrelationStrategy(correlationExpression));
+	}
+
+	/**
+	 * Enable pipelining, correlating replies with requests using the key returned by
+	 * the strategy for the request and for the reply. The key must be unique among the
+	 * requests awaiting a reply. Use {@link #setReplyCorrelationStrategy(CorrelationStrategy)}
+	 * if the key is obtained differently from replies.
+	 * @param correlationStrategy the strategy.
+	 * @since 5.0
+	 */
+	public void setCorrelationStrategy(CorrelationStrategy correlationStrategy) {
+		Assert.notNull(correlationStrategy, "'correlationStrategy' cannot be null");
+		this.requestCorrelationStrategy = correlationStrategy;
+		if (this.replyCorrelationStrategy == null) {
+			this.replyCorrelationStrategy = correlationStrategy;
+		}
+	}
+
+	/**
+	 * When pipelining, set an expression to obtain the correlation key from replies,
+	 * if it differs from the {@link #setCorrelationExpression(Expression) correlation
+	 * expression}.
+	 * @param replyCorrelationExpression the expression.
+	 * @since 5.0
+	 */
+	public void setReplyCorrelationExpression(Expression replyCorrelationExpression) {
+		Assert.notNull(replyCorrelationExpression, "'replyCorrelationExpression' cannot be null");
+		setReplyCorrelationStrategy(new ExpressionEvaluatingCorrelationStrategy(replyCorrelationExpression));
+	}
+
+	/**
+	 * When pipelining, set a strategy to obtain the correlation key from replies,
+	 * if it differs from the {@link #setCorrelationStrategy(CorrelationStrategy)
+	 * correlation strategy}.
+	 * @param replyCorrelationStrategy the strategy.
+	 * @since 5.0
+	 */
+	public void setReplyCorrelationStrategy(CorrelationStrategy replyCorrelationStrategy) {
+		Assert.notNull(replyCorrelationStrategy, "'replyCorrelationStrategy' cannot be null");
+		this.replyCorrelationStrategy = replyCorrelationStrategy;
+	}
+
+	/**
+	 * When pipelining, set the maximum number of requests awaiting a reply on each
+	 * connection; further requests wait, up to the {@link #setRequestTimeout(long)
+	 * requestTimeout}, for a reply to be received. Default 100.
+	 * @param maxInFlight the maximum number of requests in flight.
+	 * @since 5.0
+	 */
+	public void setMaxInFlight(int maxInFlight) {
+		Assert.isTrue(maxInFlight > 0, "'maxInFlight' must be greater than 0");
+		this.maxInFlight = maxInFlight;
+	}
+
 	@Override
 	protected void doInit() {
 		super.doInit();
@@ -107,6 +193,14 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 		if (this.evaluationContext == null) {
 			this.evaluationContext = ExpressionUtils.createStandardEvaluationContext(getBeanFactory());
 		}
+		if (getBeanFactory() != null) {
+			if (this.requestCorrelationStrategy instanceof BeanFactoryAware) {
+				((BeanFactoryAware) this.requestCorrelationStrategy).setBeanFactory(getBeanFactory());
+			}
+			if (this.replyCorrelationStrategy instanceof BeanFactoryAware) {
+				((BeanFactoryAware) this.replyCorrelationStrategy).setBeanFactory(getBeanFactory());
+			}
+		}
 	}
 
 	@Override
@@ -117,6 +211,9 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 		TcpConnection connection = null;
 		String connectionId = null;
 		try {
+			if (this.requestCorrelationStrategy != null) {
+				return handlePipelinedRequestMessage(requestMessage);
+			}
 			if (!this.isSingleUse) {
 				logger.debug("trying semaphore");
 				if (!this.semaphore.tryAcquire(this.requestTimeout, TimeUnit.MILLISECONDS)) {
@@ -176,6 +273,59 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 		}
 	}
 
+	private Message<?> handlePipelinedRequestMessage(Message<?> requestMessage) throws Exception {
+		Assert.state(!this.isSingleUse, "Pipelining requires a connection factory that is not 'single-use'");
+		Object correlationKey = this.requestCorrelationStrategy.getCorrelationKey(requestMessage);
+		if (correlationKey == null) {
+			throw new MessagingException(requestMessage, "No correlation key for the request");
+		}
+		TcpConnection connection = this.connectionFactory.getConnection();
+		String connectionId = connection.getConnectionId();
+		Semaphore window = this.inFlightWindows.get(connectionId);
+		if (window == null) {
+			window = new Semaphore(this.maxInFlight);
+			Semaphore existing = this.inFlightWindows.putIfAbsent(connectionId, window);
+			if (existing != null) {
+				window = existing;
+			}
+		}
+		if (!window.tryAcquire(this.requestTimeout, TimeUnit.MILLISECONDS)) {
+			throw new MessageTimeoutException(requestMessage, "Timed out waiting for the in-flight window");
+		}
+		try {
+			AsyncReply reply = new AsyncReply(this.remoteTimeoutExpression.getValue(this.evaluationContext,
+					requestMessage, Long.class), connectionId);
+			if (this.pipelinedReplies.putIfAbsent(correlationKey, reply) != null) {
+				throw new MessagingException(requestMessage,
+						"A request with correlation key " + correlationKey + " is already awaiting a reply");
+			}
+			try {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Added pending reply " + correlationKey + " on " + connectionId);
+				}
+				connection.send(requestMessage);
+				Message<?> replyMessage = reply.getReply();
+				if (replyMessage == null) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Remote Timeout for " + correlationKey + " on " + connectionId);
+					}
+					// other requests are in flight - a late reply will be logged as uncorrelated
+					throw new MessageTimeoutException(requestMessage, "Timed out waiting for response");
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug("Response " + replyMessage);
+				}
+				return replyMessage;
+			}
+			finally {
+				this.pipelinedReplies.remove(correlationKey, reply);
+			}
+		}
+		finally {
+			window.release();
+		}
+	}
+
 	@Override
 	public boolean onMessage(Message<?> message) {
 		String connectionId = (String) message.getHeaders().get(IpHeaders.CONNECTION_ID);
@@ -187,6 +337,9 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 		if (logger.isTraceEnabled()) {
 			logger.trace("onMessage: " + connectionId + "(" + message + ")");
 		}
+		if (this.requestCorrelationStrategy != null) {
+			return onPipelinedMessage(message, connectionId);
+		}
 		AsyncReply reply = this.pendingReplies.get(connectionId);
 		if (reply == null) {
 			if (message instanceof ErrorMessage) {
@@ -207,6 +360,30 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 		return false;
 	}
 
+	private boolean onPipelinedMessage(Message<?> message, String connectionId) {
+		if (message instanceof ErrorMessage) {
+			// the connection failed; convey the error to all the requests waiting on it
+			for (AsyncReply reply : this.pipelinedReplies.values()) {
+				if (connectionId.equals(reply.connectionId)) {
+					reply.setReply(message);
+				}
+			}
+			return false;
+		}
+		Object correlationKey = this.replyCorrelationStrategy.getCorrelationKey(message);
+		AsyncReply reply = correlationKey == null ? null : this.pipelinedReplies.get(correlationKey);
+		if (reply == null || !connectionId.equals(reply.connectionId)) {
+			// a reply with the key of a request sent on another connection is not ours
+			String errorMessage = "Cannot correlate response - no pending reply for " + correlationKey
+					+ " on " + connectionId;
+			logger.error(errorMessage);
+			publishNoConnectionEvent(message, connectionId, errorMessage);
+			return false;
+		}
+		reply.setReply(message);
+		return false;
+	}
+
 	private void publishNoConnectionEvent(Message<?> message, String connectionId, String errorMessage) {
 		ApplicationEventPublisher applicationEventPublisher = this.connectionFactory.getApplicationEventPublisher();
 		if (applicationEventPublisher != null) {
@@ -224,12 +401,12 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 
 	@Override
 	public void addNewConnection(TcpConnection connection) {
-		// do nothing - no asynchronous multiplexing supported
+		// do nothing - in-flight windows are created on demand
 	}
 
 	@Override
 	public void removeDeadConnection(TcpConnection connection) {
-		// do nothing - no asynchronous multiplexing supported
+		this.inFlightWindows.remove(connection.getConnectionId());
 	}
 
 	/**
@@ -282,12 +459,19 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 
 		private final long remoteTimeout;
 
+		private final String connectionId;
+
 		private volatile Message<?> reply;
 
 		private AsyncReply(long remoteTimeout) {
+			this(remoteTimeout, null);
+		}
+
+		private AsyncReply(long remoteTimeout, String connectionId) {
 			this.latch = new CountDownLatch(1);
 			this.secondChanceLatch = new CountDownLatch(1);
 			this.remoteTimeout = remoteTimeout;
+			this.connectionId = connectionId;
 		}
 
 		/**
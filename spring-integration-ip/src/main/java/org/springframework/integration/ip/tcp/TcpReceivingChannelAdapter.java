@@ -161,6 +161,30 @@ public class TcpReceivingChannelAdapter
 		}
 	}
 
+	/**
+	 * Stops reading from NIO connections while the subscriber of the
+	 * {@link #toPublisher() publisher} has no outstanding demand.
+	 */
+	@Override
+	protected void doPause() {
+		if (this.serverConnectionFactory != null) {
+			this.serverConnectionFactory.pauseReads();
+		}
+		if (this.clientConnectionFactory != null) {
+			this.clientConnectionFactory.pauseReads();
+		}
+	}
+
+	@Override
+	protected void doResume() {
+		if (this.serverConnectionFactory != null) {
+			this.serverConnectionFactory.resumeReads();
+		}
+		if (this.clientConnectionFactory != null) {
+			this.clientConnectionFactory.resumeReads();
+		}
+	}
+
 	/**
 	 * Sets the client or server connection factory; for this (an inbound adapter), if
 	 * the factory is a client connection factory, the sockets are owned by a sending
@@ -28,6 +28,7 @@ import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -128,6 +129,10 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 
 	private volatile long readDelay = DEFAULT_READ_DELAY;
 
+	private final Set<SelectionKey> pausedReads = new HashSet<SelectionKey>();
+
+	private volatile boolean readsPaused;
+
 	public AbstractConnectionFactory(int port) {
 		this.port = port;
 	}
@@ -446,6 +451,44 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 		this.readDelay = readDelay;
 	}
 
+	/**
+	 * Stop reading from NIO connections; data that arrives in the meantime stays in the
+	 * socket buffers, applying back pressure to the peers. Reads that are in progress
+	 * complete normally. Has no effect on connections that are not NIO connections.
+	 * @since 5.0
+	 * @see #resumeReads()
+	 */
+	public void pauseReads() {
+		this.readsPaused = true;
+		wakeupSelector();
+	}
+
+	/**
+	 * Resume reading from NIO connections after {@link #pauseReads()}.
+	 * @since 5.0
+	 */
+	public void resumeReads() {
+		this.readsPaused = false;
+		wakeupSelector();
+	}
+
+	/**
+	 * @return true if reads from NIO connections are paused.
+	 * @since 5.0
+	 */
+	public boolean isReadsPaused() {
+		return this.readsPaused;
+	}
+
+	/**
+	 * Wake up the selector thread, if any, so that a change to the
+	 * {@link #pauseReads() paused} state is applied to the connections.
+	 * Takes no action by default; NIO factories override it.
+	 * @since 5.0
+	 */
+	protected void wakeupSelector() {
+	}
+
 	@Override
 	protected void onInit() throws Exception {
 		super.onInit();
@@ -564,6 +607,7 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 	protected void processNioSelections(int selectionCount, final Selector selector, ServerSocketChannel server,
 			Map<SocketChannel, TcpNioConnection> connections) throws IOException {
 		final long now = System.currentTimeMillis();
+		applyReadsPaused(selector);
 		rescheduleDelayedReads(selector, now);
 		if (this.soTimeout > 0 ||
 				now >= this.nextCheckForClosedNioConnections ||
@@ -623,6 +667,11 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 					if (!key.isValid()) {
 						logger.debug("Selection key no longer valid");
 					}
+					else if (key.isReadable() && (key.interestOps() & SelectionKey.OP_READ) == 0) {
+						if (logger.isTraceEnabled()) {
+							logger.trace("Reads paused for " + ((TcpNioConnection) key.attachment()).getConnectionId());
+						}
+					}
 					else if (key.isReadable()) {
 						key.interestOps(key.interestOps() - SelectionKey.OP_READ);
 						final TcpNioConnection connection;
@@ -651,8 +700,9 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 								}
 								if (!delayed) {
 									if (key.channel().isOpen()) {
-										key.interestOps(SelectionKey.OP_READ);
-										selector.wakeup();
+										if (enableReads(key)) {
+											selector.wakeup();
+										}
 									}
 									else {
 										connection.sendExceptionToListener(new EOFException("Connection is closed"));
@@ -716,8 +766,7 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 				if (this.delayedReads.peek().failedAt + this.readDelay < now) {
 					PendingIO pendingRead = this.delayedReads.take();
 					if (pendingRead.key.channel().isOpen()) {
-						pendingRead.key.interestOps(SelectionKey.OP_READ);
-						wakeSelector = true;
+						wakeSelector |= enableReads(pendingRead.key);
 						if (logger.isDebugEnabled()) {
 							logger.debug("Rescheduling delayed read for " + ((TcpNioConnection) pendingRead.key.attachment()).getConnectionId());
 						}
@@ -742,6 +791,50 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 		}
 	}
 
+	/**
+	 * Clear the read interest of all connections while reads are paused, or restore
+	 * the read interest of the connections that were paused after reads are resumed.
+	 * Connections registered with the selector while paused are paused on the next pass.
+	 * @param selector the selector.
+	 */
+	private void applyReadsPaused(Selector selector) {
+		synchronized (this.pausedReads) {
+			if (this.readsPaused) {
+				for (SelectionKey key : selector.keys()) {
+					if (key.isValid() && (key.interestOps() & SelectionKey.OP_READ) != 0) {
+						key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+						this.pausedReads.add(key);
+					}
+				}
+			}
+			else if (this.pausedReads.size() > 0) {
+				for (SelectionKey key : this.pausedReads) {
+					if (key.isValid()) {
+						key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+					}
+				}
+				this.pausedReads.clear();
+			}
+		}
+	}
+
+	/**
+	 * Restore the read interest of a connection after a read, unless reads are
+	 * paused, in which case it is restored when reads are resumed.
+	 * @param key the connection's selection key.
+	 * @return true if the read interest was restored.
+	 */
+	private boolean enableReads(SelectionKey key) {
+		synchronized (this.pausedReads) {
+			if (this.readsPaused) {
+				this.pausedReads.add(key);
+				return false;
+			}
+			key.interestOps(SelectionKey.OP_READ);
+			return true;
+		}
+	}
+
 	/**
 	 * @param selector The selector.
 	 * @param server The server socket channel.
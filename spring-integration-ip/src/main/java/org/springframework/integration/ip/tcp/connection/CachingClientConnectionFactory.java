@@ -19,16 +19,20 @@ package org.springframework.integration.ip.tcp.connection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.support.AbstractIntegrationMessageBuilder;
+import org.springframework.integration.util.ConcurrentPool;
 import org.springframework.integration.util.SimplePool;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
 
 /**
  * Connection factory that caches connections from the underlying target factory. The underlying
@@ -44,7 +48,11 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 
 	private final AbstractClientConnectionFactory targetConnectionFactory;
 
-	private final SimplePool<TcpConnectionSupport> pool;
+	private final ConcurrentPool<TcpConnectionSupport> pool;
+
+	private volatile long idleTimeout;
+
+	private volatile ScheduledFuture<?> evictionTask;
 
 	/**
 	 * Construct a caching connection factory that delegates to the provided factory, with
@@ -57,7 +65,7 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 		// override single-use to true so the target creates multiple connections
 		target.setSingleUse(true);
 		this.targetConnectionFactory = target;
-		this.pool = new SimplePool<TcpConnectionSupport>(poolSize,
+		this.pool = new ConcurrentPool<TcpConnectionSupport>(poolSize,
 				new SimplePool.PoolItemCallback<TcpConnectionSupport>() {
 
 					@Override
@@ -85,7 +93,7 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 
 	/**
 	 * @param connectionWaitTimeout the new timeout.
-	 * @see SimplePool#setWaitTimeout(long)
+	 * @see ConcurrentPool#setWaitTimeout(long)
 	 */
 	public void setConnectionWaitTimeout(int connectionWaitTimeout) {
 		this.pool.setWaitTimeout(connectionWaitTimeout);
@@ -93,14 +101,14 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 
 	/**
 	 * @param poolSize the new pool size.
-	 * @see SimplePool#setPoolSize(int)
+	 * @see ConcurrentPool#setPoolSize(int)
 	 */
 	public synchronized void setPoolSize(int poolSize) {
 		this.pool.setPoolSize(poolSize);
 	}
 
 	/**
-	 * @see SimplePool#getPoolSize()
+	 * @see ConcurrentPool#getPoolSize()
 	 * @return the pool size.
 	 */
 	public int getPoolSize() {
@@ -108,7 +116,7 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 	}
 
 	/**
-	 * @see SimplePool#getIdleCount()
+	 * @see ConcurrentPool#getIdleCount()
 	 * @return the idle count.
 	 */
 	public int getIdleCount() {
@@ -116,7 +124,7 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 	}
 
 	/**
-	 * @see SimplePool#getActiveCount()
+	 * @see ConcurrentPool#getActiveCount()
 	 * @return the active count.
 	 */
 	public int getActiveCount() {
@@ -124,13 +132,54 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 	}
 
 	/**
-	 * @see SimplePool#getAllocatedCount()
+	 * @see ConcurrentPool#getAllocatedCount()
 	 * @return the allocated count.
 	 */
 	public int getAllocatedCount() {
 		return this.pool.getAllocatedCount();
 	}
 
+	/**
+	 * Set the time after which idle connections are closed and removed from the pool.
+	 * Idle connections are checked every {@code idleTimeout / 2} milliseconds, using the
+	 * task scheduler, when the factory is started. Default 0 - idle connections are
+	 * retained.
+	 * @param idleTimeout the idle timeout in milliseconds.
+	 * @since 5.0
+	 * @see ConcurrentPool#setIdleTimeout(long)
+	 */
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+		this.pool.setIdleTimeout(idleTimeout);
+	}
+
+	/**
+	 * @see ConcurrentPool#getMeanWaitTime()
+	 * @return the mean time (milliseconds) callers waited for a connection.
+	 * @since 5.0
+	 */
+	public double getMeanWaitTime() {
+		return this.pool.getMeanWaitTime();
+	}
+
+	/**
+	 * @see ConcurrentPool#getMaxWaitTime()
+	 * @return the longest time (milliseconds) a caller waited for a connection.
+	 * @since 5.0
+	 */
+	public double getMaxWaitTime() {
+		return this.pool.getMaxWaitTime();
+	}
+
+	/**
+	 * @see ConcurrentPool#getCheckoutRate()
+	 * @return the mean number of connections obtained per second.
+	 * @since 5.0
+	 */
+	public double getCheckoutRate() {
+		return this.pool.getCheckoutRate();
+	}
+
 	@Override
 	public TcpConnectionSupport obtainConnection() throws Exception {
 		return new CachedConnection(this.pool.getItem(), getListener());
@@ -379,12 +428,21 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 	public void start() {
 		setActive(true);
 		this.targetConnectionFactory.start();
+		if (this.idleTimeout > 0 && this.evictionTask == null) {
+			TaskScheduler taskScheduler = getTaskScheduler();
+			Assert.state(taskScheduler != null, "A task scheduler is required when an 'idleTimeout' is set");
+			this.evictionTask = this.pool.scheduleEviction(taskScheduler, Math.max(this.idleTimeout / 2, 1));
+		}
 		super.start();
 	}
 
 	@Override
 	public synchronized void stop() {
 		this.targetConnectionFactory.stop();
+		if (this.evictionTask != null) {
+			this.evictionTask.cancel(false);
+			this.evictionTask = null;
+		}
 		this.pool.removeAllIdleItems();
 	}
 
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ip.tcp.connection;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.Assert;
+
+/**
+ * A pool of fixed size direct {@link ByteBuffer}s, which are expensive to allocate
+ * and are only reclaimed when garbage collected. Used by NIO connections to serialize
+ * outbound messages into chains of buffers that are written with a single gathering
+ * write. A pool can be shared by any number of connections and connection factories.
+ * <p>
+ * When the pool is empty, a new buffer is allocated; buffers released when the pool
+ * already holds its maximum are discarded.
+ *
+ * @since 5.0
+ */
+public class DirectBufferPool {
+
+	/**
+	 * The default buffer size.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/**
+	 * The default maximum number of buffers retained by the pool.
+	 */
+	public static final int DEFAULT_MAX_POOLED = 1024;
+
+	private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<ByteBuffer>();
+
+	private final AtomicInteger pooled = new AtomicInteger();
+
+	private final int bufferSize;
+
+	private final int maxPooled;
+
+	/**
+	 * Construct a pool of {@value #DEFAULT_BUFFER_SIZE} byte buffers, retaining up to
+	 * {@value #DEFAULT_MAX_POOLED} buffers.
+	 */
+	public DirectBufferPool() {
+		this(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED);
+	}
+
+	/**
+	 * Construct a pool with the provided buffer size and maximum number of retained
+	 * buffers.
+	 * @param bufferSize the buffer size.
+	 * @param maxPooled the maximum number of buffers retained.
+	 */
+	public DirectBufferPool(int bufferSize, int maxPooled) {
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be greater than 0");
+		Assert.isTrue(maxPooled >= 0, "'maxPooled' cannot be negative");
+		this.bufferSize = bufferSize;
+		this.maxPooled = maxPooled;
+	}
+
+	public int getBufferSize() {
+		return this.bufferSize;
+	}
+
+	/**
+	 * @return the number of buffers currently in the pool.
+	 */
+	public int getPooledCount() {
+		return this.pooled.get();
+	}
+
+	/**
+	 * Obtain a cleared buffer from the pool, or allocate a new one if the pool is empty.
+	 * @return the buffer.
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = this.buffers.poll();
+		if (buffer == null) {
+			return ByteBuffer.allocateDirect(this.bufferSize);
+		}
+		this.pooled.decrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Return a buffer, obtained from {@link #acquire()}, to the pool. The buffer must
+	 * no longer be used by the caller.
+	 * @param buffer the buffer.
+	 */
+	public void release(ByteBuffer buffer) {
+		Assert.isTrue(buffer.isDirect() && buffer.capacity() == this.bufferSize,
+				"The buffer was not obtained from this pool");
+		if (this.pooled.incrementAndGet() <= this.maxPooled) {
+			this.buffers.offer(buffer);
+		}
+		else {
+			this.pooled.decrementAndGet();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DirectBufferPool [bufferSize=" + this.bufferSize + ", maxPooled=" + this.maxPooled
+				+ ", pooled=" + this.pooled.get() + "]";
+	}
+
+}
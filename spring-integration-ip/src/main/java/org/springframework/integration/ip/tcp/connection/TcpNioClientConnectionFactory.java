@@ -46,6 +46,10 @@ public class TcpNioClientConnectionFactory extends
 
 	private volatile boolean usingDirectBuffers;
 
+	private volatile boolean incrementalDeserialization;
+
+	private volatile DirectBufferPool writeBufferPool;
+
 	private volatile Selector selector;
 
 	private final Map<SocketChannel, TcpNioConnection> channelMap = new ConcurrentHashMap<SocketChannel, TcpNioConnection>();
@@ -87,6 +91,8 @@ public class TcpNioClientConnectionFactory extends
 		TcpNioConnection connection = this.tcpNioConnectionSupport.createNewConnection(
 				socketChannel, false, this.isLookupHost(), this.getApplicationEventPublisher(), this.getComponentName());
 		connection.setUsingDirectBuffers(this.usingDirectBuffers);
+		connection.setIncrementalDeserialization(this.incrementalDeserialization);
+		connection.setWriteBufferPool(this.writeBufferPool);
 		connection.setTaskExecutor(this.getTaskExecutor());
 		TcpConnectionSupport wrappedConnection = wrapConnection(connection);
 		initializeConnection(wrappedConnection, socketChannel.socket());
@@ -110,6 +116,30 @@ public class TcpNioClientConnectionFactory extends
 		this.usingDirectBuffers = usingDirectBuffers;
 	}
 
+	/**
+	 * When set to true, connections created by this factory decode messages on the
+	 * thread that reads the socket, if the deserializer is a
+	 * {@link org.springframework.integration.ip.tcp.serializer.ByteBufferDeserializer}.
+	 * @param incrementalDeserialization true to deserialize incrementally.
+	 * @since 5.0
+	 * @see TcpNioConnection#setIncrementalDeserialization(boolean)
+	 */
+	public void setIncrementalDeserialization(boolean incrementalDeserialization) {
+		this.incrementalDeserialization = incrementalDeserialization;
+	}
+
+	/**
+	 * Set a pool of direct buffers for connections created by this factory to
+	 * serialize outbound messages into; the messages are then written using gathering
+	 * writes, and the messages of concurrent senders are written together.
+	 * @param writeBufferPool the pool.
+	 * @since 5.0
+	 * @see TcpNioConnection#setWriteBufferPool(DirectBufferPool)
+	 */
+	public void setWriteBufferPool(DirectBufferPool writeBufferPool) {
+		this.writeBufferPool = writeBufferPool;
+	}
+
 	public void setTcpNioConnectionSupport(TcpNioConnectionSupport tcpNioSupport) {
 		Assert.notNull(tcpNioSupport, "TcpNioSupport must not be null");
 		this.tcpNioConnectionSupport = tcpNioSupport;
@@ -120,6 +150,14 @@ public class TcpNioClientConnectionFactory extends
 		return true;
 	}
 
+	@Override
+	protected void wakeupSelector() {
+		Selector selector = this.selector;
+		if (selector != null) {
+			selector.wakeup();
+		}
+	}
+
 	@Override
 	public void stop() {
 		if (this.selector != null) {
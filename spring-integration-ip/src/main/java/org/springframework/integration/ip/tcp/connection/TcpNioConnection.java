@@ -26,7 +26,11 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
@@ -39,7 +43,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 import javax.net.ssl.SSLSession;
 
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
+import org.springframework.integration.ip.tcp.serializer.ByteBufferDeserializer;
 import org.springframework.integration.ip.tcp.serializer.SoftEndOfStreamException;
 import org.springframework.integration.util.CompositeExecutor;
 import org.springframework.messaging.Message;
@@ -58,6 +64,8 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	private static final long DEFAULT_PIPE_TIMEOUT = 60000;
 
+	private static final int MAX_COALESCED_WRITES = 64;
+
 	private final SocketChannel socketChannel;
 
 	private final ChannelOutputStream channelOutputStream;
@@ -88,6 +96,23 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	private volatile boolean timedOut;
 
+	private volatile boolean incrementalDeserialization;
+
+	private volatile DirectBufferPool writeBufferPool;
+
+	private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<PendingWrite>();
+
+	/*
+	 * Incremental deserialization state, only used by the reading thread.
+	 */
+	private ByteBufferDeserializer<?> byteBufferDeserializer;
+
+	private int frameStart;
+
+	private int scanned;
+
+	private Object decodedPayload;
+
 	/**
 	 * Constructs a TcpNetConnection for the SocketChannel.
 	 * @param socketChannel The socketChannel.
@@ -142,6 +167,10 @@ public class TcpNioConnection extends TcpConnectionSupport {
 	@Override
 	@SuppressWarnings("unchecked")
 	public void send(Message<?> message) throws Exception {
+		if (this.writeBufferPool != null) {
+			sendWithBufferPool(message);
+			return;
+		}
 		synchronized (this.socketChannel) {
 			if (this.bufferedOutputStream == null) {
 				int writeBufferSize = this.socketChannel.socket().getSendBufferSize();
@@ -165,8 +194,77 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		}
 	}
 
+	/**
+	 * Serialize into a chain of pooled direct buffers, then write them together with
+	 * those of any other messages being sent concurrently on this connection, using
+	 * a single gathering write. Whichever sender obtains the lock writes the queued
+	 * messages; the others find their message has already been written.
+	 */
+	@SuppressWarnings("unchecked")
+	private void sendWithBufferPool(Message<?> message) throws Exception {
+		Object object = this.getMapper().fromMessage(message);
+		BufferChainOutputStream frame = new BufferChainOutputStream(this.writeBufferPool);
+		try {
+			((Serializer<Object>) this.getSerializer()).serialize(object, frame);
+		}
+		catch (Exception e) {
+			frame.release();
+			this.publishConnectionExceptionEvent(new MessagingException(message, "Failed TCP serialization", e));
+			this.closeConnection(true);
+			throw e;
+		}
+		PendingWrite pendingWrite = new PendingWrite(frame);
+		this.pendingWrites.add(pendingWrite);
+		synchronized (this.socketChannel) {
+			while (!pendingWrite.done) {
+				writePending();
+			}
+		}
+		if (pendingWrite.exception != null) {
+			this.publishConnectionExceptionEvent(new MessagingException(message, "Failed TCP write",
+					pendingWrite.exception));
+			this.closeConnection(true);
+			throw pendingWrite.exception;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug(getConnectionId() + " Message sent " + message);
+		}
+	}
+
+	/**
+	 * Must be called while holding the lock on the socket channel.
+	 */
+	private void writePending() {
+		List<PendingWrite> writes = new ArrayList<PendingWrite>();
+		List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+		while (writes.size() < MAX_COALESCED_WRITES) {
+			PendingWrite pendingWrite = this.pendingWrites.poll();
+			if (pendingWrite == null) {
+				break;
+			}
+			writes.add(pendingWrite);
+			pendingWrite.frame.addBuffers(buffers);
+		}
+		this.lastSend = System.currentTimeMillis();
+		IOException exception = null;
+		try {
+			getChannelOutputStream().doWrite(buffers.toArray(new ByteBuffer[buffers.size()]));
+		}
+		catch (IOException e) {
+			exception = e;
+		}
+		for (PendingWrite write : writes) {
+			write.frame.release();
+			write.exception = exception;
+			write.done = true;
+		}
+	}
+
 	@Override
 	public Object getPayload() throws Exception {
+		if (this.byteBufferDeserializer != null) {
+			return this.decodedPayload;
+		}
 		return this.getDeserializer().deserialize(this.channelInputStream);
 	}
 
@@ -247,24 +345,7 @@ public class TcpNioConnection extends TcpConnectionSupport {
 					}
 				}
 				catch (Exception e) {
-					if (logger.isTraceEnabled()) {
-						logger.error("Read exception " +
-								this.getConnectionId(), e);
-					}
-					else if (!this.isNoReadErrorOnClose()) {
-						logger.error("Read exception " +
-								this.getConnectionId() + " " +
-								e.getClass().getSimpleName() +
-								":" + e.getCause() + ":" + e.getMessage());
-					}
-					else {
-						if (logger.isDebugEnabled()) {
-							logger.debug("Read exception " +
-									this.getConnectionId() + " " +
-									e.getClass().getSimpleName() +
-									":" + e.getCause() + ":" + e.getMessage());
-						}
-					}
+					logReadException(e);
 					this.closeConnection(true);
 					this.sendExceptionToListener(e);
 					return;
@@ -307,6 +388,27 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		}
 	}
 
+	private void logReadException(Exception e) {
+		if (logger.isTraceEnabled()) {
+			logger.error("Read exception " +
+					this.getConnectionId(), e);
+		}
+		else if (!this.isNoReadErrorOnClose()) {
+			logger.error("Read exception " +
+					this.getConnectionId() + " " +
+					e.getClass().getSimpleName() +
+					":" + e.getCause() + ":" + e.getMessage());
+		}
+		else {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Read exception " +
+						this.getConnectionId() + " " +
+						e.getClass().getSimpleName() +
+						":" + e.getCause() + ":" + e.getMessage());
+			}
+		}
+	}
+
 	private boolean dataAvailable() throws IOException {
 		if (logger.isTraceEnabled()) {
 			logger.trace(getConnectionId() + " checking data avail: " + this.channelInputStream.available() +
@@ -390,8 +492,13 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	private void doRead() throws Exception {
 		if (this.rawBuffer == null) {
+			this.byteBufferDeserializer = obtainByteBufferDeserializer();
 			this.rawBuffer = allocate(this.maxMessageSize);
 		}
+		if (this.byteBufferDeserializer != null) {
+			doIncrementalRead();
+			return;
+		}
 
 		this.writingLatch = new CountDownLatch(1);
 		this.writingToPipe = true;
@@ -436,6 +543,111 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		}
 	}
 
+	private ByteBufferDeserializer<?> obtainByteBufferDeserializer() {
+		if (this.incrementalDeserialization) {
+			Deserializer<?> deserializer = getDeserializer();
+			if (deserializer instanceof ByteBufferDeserializer && supportsIncrementalDeserialization()) {
+				return (ByteBufferDeserializer<?>) deserializer;
+			}
+			if (logger.isWarnEnabled()) {
+				logger.warn(getConnectionId() + " Incremental deserialization is not supported with "
+						+ getClass().getSimpleName() + " and " + deserializer + "; using a message assembler");
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads into the raw buffer, which retains any incomplete message from previous
+	 * reads, then decodes all the complete messages and sends them on this thread.
+	 * When the payloads are copies, the incomplete message is moved to the start of
+	 * the buffer; when they are slices of the buffer, the buffer is filled until it
+	 * is exhausted and then replaced. The bytes of the incomplete message that have
+	 * already been examined are passed to the deserializer so that it does not scan
+	 * them again on the next read.
+	 */
+	private void doIncrementalRead() throws Exception {
+		ByteBuffer buffer = this.rawBuffer;
+		if (!buffer.hasRemaining()) {
+			buffer = reallocateRawBuffer(buffer);
+		}
+		int len;
+		try {
+			len = this.socketChannel.read(buffer);
+		}
+		catch (Exception e) {
+			this.publishConnectionExceptionEvent(e);
+			throw e;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Read " + len + " into raw buffer");
+		}
+		int end = buffer.position();
+		buffer.limit(end);
+		buffer.position(this.frameStart);
+		try {
+			Object payload;
+			while ((payload = this.byteBufferDeserializer.deserialize(buffer, this.scanned)) != null) {
+				this.scanned = 0;
+				convertAndSend(payload);
+			}
+			this.scanned = buffer.remaining();
+			if (len < 0) {
+				payload = this.byteBufferDeserializer.deserializeAtEndOfStream(buffer);
+				if (payload != null) {
+					convertAndSend(payload);
+				}
+				this.closeConnection(true);
+				return;
+			}
+		}
+		catch (Exception e) {
+			logReadException(e);
+			this.closeConnection(true);
+			this.sendExceptionToListener(e);
+			return;
+		}
+		if (this.byteBufferDeserializer.isZeroCopy()) {
+			this.frameStart = buffer.position();
+			buffer.limit(buffer.capacity());
+			buffer.position(end);
+		}
+		else {
+			buffer.compact();
+			this.frameStart = 0;
+		}
+	}
+
+	/**
+	 * Replace a full raw buffer, copying the incomplete message to the new buffer;
+	 * its size is doubled if the incomplete message fills the whole buffer.
+	 */
+	private ByteBuffer reallocateRawBuffer(ByteBuffer buffer) {
+		int capacity = buffer.capacity();
+		if (this.frameStart == 0) {
+			capacity *= 2;
+		}
+		ByteBuffer newBuffer = allocate(capacity);
+		buffer.flip();
+		buffer.position(this.frameStart);
+		newBuffer.put(buffer);
+		this.frameStart = 0;
+		this.rawBuffer = newBuffer;
+		return newBuffer;
+	}
+
+	private void convertAndSend(Object payload) throws Exception {
+		this.decodedPayload = payload;
+		Message<?> message;
+		try {
+			message = this.getMapper().toMessage(this);
+		}
+		finally {
+			this.decodedPayload = null;
+		}
+		sendToChannel(message);
+	}
+
 	protected void sendToPipe(ByteBuffer rawBuffer) throws IOException {
 		Assert.notNull(rawBuffer, "rawBuffer cannot be null");
 		if (logger.isTraceEnabled()) {
@@ -532,6 +744,41 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		return this.usingDirectBuffers;
 	}
 
+	/**
+	 * If true, and the deserializer is a {@link ByteBufferDeserializer}, messages are
+	 * decoded directly from the buffer the socket is read into, and sent by the
+	 * reading thread, instead of the data being passed through a pipe to a message
+	 * assembler thread. Reading from the socket is suspended while a message is being
+	 * processed, so the connection is subject to normal TCP flow control.
+	 * Ignored (with a warning) if the deserializer does not support it.
+	 * @param incrementalDeserialization true to deserialize incrementally.
+	 * @since 5.0
+	 */
+	public void setIncrementalDeserialization(boolean incrementalDeserialization) {
+		this.incrementalDeserialization = incrementalDeserialization;
+	}
+
+	/**
+	 * Set a pool of direct buffers; messages are then serialized into pooled buffers
+	 * and written with gathering writes, coalescing the messages of concurrent senders.
+	 * @param writeBufferPool the pool.
+	 * @since 5.0
+	 */
+	public void setWriteBufferPool(DirectBufferPool writeBufferPool) {
+		this.writeBufferPool = writeBufferPool;
+	}
+
+	/**
+	 * Subclasses that must process the data read before it is deserialized return
+	 * false, and the data is always passed to the message assembler.
+	 * @return true if incremental deserialization is supported.
+	 * @since 5.0
+	 * @see #setIncrementalDeserialization(boolean)
+	 */
+	protected boolean supportsIncrementalDeserialization() {
+		return true;
+	}
+
 	protected ChannelOutputStream getChannelOutputStream() {
 		return this.channelOutputStream;
 	}
@@ -623,6 +870,123 @@ public class TcpNioConnection extends TcpConnectionSupport {
 			}
 		}
 
+		/**
+		 * Write the buffers with gathering writes.
+		 * @param buffers the buffers.
+		 * @throws IOException an IOException.
+		 * @since 5.0
+		 */
+		protected synchronized void doWrite(ByteBuffer[] buffers) throws IOException {
+			if (logger.isDebugEnabled()) {
+				logger.debug(getConnectionId() + " writing " + remaining(buffers) + " from " + buffers.length
+						+ " buffers");
+			}
+			TcpNioConnection.this.socketChannel.write(buffers);
+			long remaining = remaining(buffers);
+			if (remaining == 0) {
+				return;
+			}
+			if (this.selector == null) {
+				this.selector = Selector.open();
+				this.soTimeout = TcpNioConnection.this.socketChannel.socket().getSoTimeout();
+			}
+			TcpNioConnection.this.socketChannel.register(this.selector, SelectionKey.OP_WRITE);
+			while (remaining > 0) {
+				int selectionCount = this.selector.select(this.soTimeout);
+				if (selectionCount == 0) {
+					throw new SocketTimeoutException("Timeout on write");
+				}
+				this.selector.selectedKeys().clear();
+				TcpNioConnection.this.socketChannel.write(buffers);
+				remaining = remaining(buffers);
+			}
+		}
+
+		private long remaining(ByteBuffer[] buffers) {
+			long remaining = 0;
+			for (ByteBuffer buffer : buffers) {
+				remaining += buffer.remaining();
+			}
+			return remaining;
+		}
+
+	}
+
+	/**
+	 * An OutputStream that writes to a chain of pooled buffers.
+	 */
+	private static final class BufferChainOutputStream extends OutputStream {
+
+		private final DirectBufferPool pool;
+
+		private final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>(2);
+
+		private ByteBuffer current;
+
+		BufferChainOutputStream(DirectBufferPool pool) {
+			this.pool = pool;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			nextBufferIfFull();
+			this.current.put((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			while (len > 0) {
+				nextBufferIfFull();
+				int n = Math.min(len, this.current.remaining());
+				this.current.put(b, off, n);
+				off += n;
+				len -= n;
+			}
+		}
+
+		private void nextBufferIfFull() {
+			if (this.current == null || !this.current.hasRemaining()) {
+				this.current = this.pool.acquire();
+				this.buffers.add(this.current);
+			}
+		}
+
+		/**
+		 * Flip the buffers and add them to the list.
+		 * @param list the list.
+		 */
+		void addBuffers(List<ByteBuffer> list) {
+			for (ByteBuffer buffer : this.buffers) {
+				buffer.flip();
+				list.add(buffer);
+			}
+		}
+
+		void release() {
+			for (ByteBuffer buffer : this.buffers) {
+				this.pool.release(buffer);
+			}
+			this.buffers.clear();
+		}
+
+	}
+
+	/**
+	 * A serialized message waiting to be written; the fields are updated while holding
+	 * the lock on the socket channel.
+	 */
+	private static final class PendingWrite {
+
+		private final BufferChainOutputStream frame;
+
+		private boolean done;
+
+		private IOException exception;
+
+		PendingWrite(BufferChainOutputStream frame) {
+			this.frame = frame;
+		}
+
 	}
 
 	/**
@@ -81,6 +81,15 @@ public class TcpNioSSLConnection extends TcpNioConnection {
 		return this.sslEngine.getSession();
 	}
 
+	/**
+	 * The decrypted data is assembled on a separate thread so that the reading thread
+	 * is always available to participate in handshaking.
+	 */
+	@Override
+	protected boolean supportsIncrementalDeserialization() {
+		return false;
+	}
+
 	/**
 	 * Overrides super class method to perform decryption and/or participate
 	 * in handshaking. Decrypted data is sent to the super class to be
@@ -323,6 +332,16 @@ public class TcpNioSSLConnection extends TcpNioConnection {
 			}
 		}
 
+		/**
+		 * Encrypts and writes each buffer in turn.
+		 */
+		@Override
+		protected synchronized void doWrite(ByteBuffer[] buffers) throws IOException {
+			for (ByteBuffer buffer : buffers) {
+				doWrite(buffer);
+			}
+		}
+
 		/**
 		 * Handles SSL handshaking; when network data is needed from the peer, suspends
 		 * until that data is received.
@@ -48,6 +48,10 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 
 	private volatile boolean usingDirectBuffers;
 
+	private volatile boolean incrementalDeserialization;
+
+	private volatile DirectBufferPool writeBufferPool;
+
 	private final Map<SocketChannel, TcpNioConnection> channelMap = new HashMap<SocketChannel, TcpNioConnection>();
 
 	private volatile Selector selector;
@@ -236,6 +240,8 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 			TcpNioConnection connection = this.tcpNioConnectionSupport.createNewConnection(socketChannel, true,
 							isLookupHost(), getApplicationEventPublisher(), getComponentName());
 			connection.setUsingDirectBuffers(this.usingDirectBuffers);
+			connection.setIncrementalDeserialization(this.incrementalDeserialization);
+			connection.setWriteBufferPool(this.writeBufferPool);
 			TcpConnectionSupport wrappedConnection = wrapConnection(connection);
 			initializeConnection(wrappedConnection, socketChannel.socket());
 			return connection;
@@ -246,6 +252,14 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 		}
 	}
 
+	@Override
+	protected void wakeupSelector() {
+		Selector selector = this.selector;
+		if (selector != null) {
+			selector.wakeup();
+		}
+	}
+
 	@Override
 	public void stop() {
 		setActive(false);
@@ -275,6 +289,30 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 		this.usingDirectBuffers = usingDirectBuffers;
 	}
 
+	/**
+	 * When set to true, connections created by this factory decode messages on the
+	 * thread that reads the socket, if the deserializer is a
+	 * {@link org.springframework.integration.ip.tcp.serializer.ByteBufferDeserializer}.
+	 * @param incrementalDeserialization true to deserialize incrementally.
+	 * @since 5.0
+	 * @see TcpNioConnection#setIncrementalDeserialization(boolean)
+	 */
+	public void setIncrementalDeserialization(boolean incrementalDeserialization) {
+		this.incrementalDeserialization = incrementalDeserialization;
+	}
+
+	/**
+	 * Set a pool of direct buffers for connections created by this factory to
+	 * serialize outbound messages into; the messages are then written using gathering
+	 * writes, and the messages of concurrent senders are written together.
+	 * @param writeBufferPool the pool.
+	 * @since 5.0
+	 * @see TcpNioConnection#setWriteBufferPool(DirectBufferPool)
+	 */
+	public void setWriteBufferPool(DirectBufferPool writeBufferPool) {
+		this.writeBufferPool = writeBufferPool;
+	}
+
 	public void setTcpNioConnectionSupport(TcpNioConnectionSupport tcpNioSupport) {
 		Assert.notNull(tcpNioSupport, "TcpNioSupport must not be null");
 		this.tcpNioConnectionSupport = tcpNioSupport;
@@ -17,6 +17,7 @@
 package org.springframework.integration.ip.tcp.serializer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -45,6 +46,8 @@ public abstract class AbstractByteArraySerializer implements
 
 	private ApplicationEventPublisher applicationEventPublisher;
 
+	private volatile boolean zeroCopy;
+
 	/**
 	 * The maximum supported message size for this serializer.
 	 * Default 2048.
@@ -63,6 +66,44 @@ public abstract class AbstractByteArraySerializer implements
 		this.maxMessageSize = maxMessageSize;
 	}
 
+	/**
+	 * Set to true to return the payloads decoded by a {@link ByteBufferDeserializer}
+	 * as read-only {@link ByteBuffer} slices of the connection's receive buffer,
+	 * instead of copying them to a {@code byte[]}. Only applies to subclasses that
+	 * implement {@link ByteBufferDeserializer}, when used for incremental
+	 * deserialization. Default false.
+	 * @param zeroCopy true to return buffer slices.
+	 * @since 5.0
+	 */
+	public void setZeroCopy(boolean zeroCopy) {
+		this.zeroCopy = zeroCopy;
+	}
+
+	/**
+	 * @return true if payloads are returned as buffer slices.
+	 * @since 5.0
+	 * @see #setZeroCopy(boolean)
+	 */
+	public boolean isZeroCopy() {
+		return this.zeroCopy;
+	}
+
+	/**
+	 * Default end of stream handling for {@link ByteBufferDeserializer}
+	 * implementations: if the stream ends part way through a message, an
+	 * {@link IOException} is thrown.
+	 * @param buffer the unconsumed data.
+	 * @return null.
+	 * @throws IOException if there is unconsumed data.
+	 * @since 5.0
+	 */
+	public Object deserializeAtEndOfStream(ByteBuffer buffer) throws IOException {
+		if (buffer.hasRemaining()) {
+			checkClosure(-1);
+		}
+		return null;
+	}
+
 	@Override
 	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
 		this.applicationEventPublisher = applicationEventPublisher;
@@ -75,6 +116,40 @@ public abstract class AbstractByteArraySerializer implements
 		}
 	}
 
+	/**
+	 * Extract a payload from the buffer; a copy of the bytes, or a read-only slice if
+	 * {@link #setZeroCopy(boolean) zeroCopy} is true.
+	 * @param buffer the buffer.
+	 * @param index the absolute index of the first byte of the payload.
+	 * @param length the payload length.
+	 * @return the payload.
+	 * @since 5.0
+	 */
+	protected Object extractPayload(ByteBuffer buffer, int index, int length) {
+		ByteBuffer payload = buffer.duplicate();
+		payload.limit(index + length);
+		payload.position(index);
+		if (this.zeroCopy) {
+			return payload.slice().asReadOnlyBuffer();
+		}
+		byte[] bytes = new byte[length];
+		payload.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Publish a {@link TcpDeserializationExceptionEvent} containing the unconsumed
+	 * data in the buffer.
+	 * @param cause the cause.
+	 * @param buffer the buffer.
+	 * @since 5.0
+	 */
+	protected void publishEvent(Exception cause, ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		publishEvent(cause, bytes, bytes.length);
+	}
+
 	protected void publishEvent(Exception cause, byte[] buffer, int offset) {
 		TcpDeserializationExceptionEvent event = new TcpDeserializationExceptionEvent(this, cause, buffer, offset);
 		if (this.applicationEventPublisher != null) {
@@ -19,6 +19,7 @@ package org.springframework.integration.ip.tcp.serializer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Reads data in an InputStream to a byte[]; data must be terminated by \r\n
@@ -28,7 +29,8 @@ import java.io.OutputStream;
  * @author Gary Russell
  * @since 2.0
  */
-public class ByteArrayCrLfSerializer extends AbstractPooledBufferByteArraySerializer {
+public class ByteArrayCrLfSerializer extends AbstractPooledBufferByteArraySerializer
+		implements ByteBufferDeserializer<Object> {
 
 	private static final byte[] CRLF = "\r\n".getBytes();
 
@@ -81,6 +83,40 @@ public class ByteArrayCrLfSerializer extends AbstractPooledBufferByteArraySerial
 		}
 	}
 
+	/**
+	 * Decodes the data in the buffer up to the next CRLF (\r\n), if present.
+	 * @since 5.0
+	 */
+	@Override
+	public Object deserialize(ByteBuffer buffer) throws IOException {
+		return deserialize(buffer, 0);
+	}
+
+	/**
+	 * Decodes the data in the buffer up to the next CRLF (\r\n), if present, resuming
+	 * the scan after the bytes already examined.
+	 * @since 5.0
+	 */
+	@Override
+	public Object deserialize(ByteBuffer buffer, int scanned) throws IOException {
+		int start = buffer.position();
+		int scanLimit = Math.min(buffer.limit(), start + this.maxMessageSize + 1);
+		for (int i = Math.max(start + 1, start + scanned); i < scanLimit; i++) {
+			if (buffer.get(i) == '\n' && buffer.get(i - 1) == '\r') {
+				Object payload = extractPayload(buffer, start, i - 1 - start);
+				buffer.position(i + 1);
+				return payload;
+			}
+		}
+		if (buffer.limit() - start > this.maxMessageSize) {
+			IOException e = new IOException("CRLF not found before max message length: "
+					+ this.maxMessageSize);
+			publishEvent(e, buffer);
+			throw e;
+		}
+		return null;
+	}
+
 	/**
 	 * Writes the byte[] to the stream and appends \r\n.
 	 */
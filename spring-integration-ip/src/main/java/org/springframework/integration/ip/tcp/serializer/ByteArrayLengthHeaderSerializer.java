@@ -38,12 +38,14 @@ import org.apache.commons.logging.LogFactory;
  * Other options are an unsigned byte, and unsigned short.
  *
  * For other header formats, override {@link #readHeader(InputStream)} and
- * {@link #writeHeader(OutputStream, int)}.
+ * {@link #writeHeader(OutputStream, int)} and, for incremental deserialization,
+ * {@link #getHeaderSize()} and {@link #readHeader(ByteBuffer, int)}.
  *
  * @author Gary Russell
  * @since 2.0
  */
-public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer {
+public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
+		implements ByteBufferDeserializer<Object> {
 
 
 	/**
@@ -123,6 +125,44 @@ public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
 		}
 	}
 
+	/**
+	 * Decodes the header and, if all the data has been received, returns the data.
+	 * Throws an IOException if the length field exceeds the maxMessageSize.
+	 * @param buffer The buffer.
+	 * @throws IOException Any IOException.
+	 * @since 5.0
+	 */
+	@Override
+	public Object deserialize(ByteBuffer buffer) throws IOException {
+		int headerSize = getHeaderSize();
+		if (buffer.remaining() < headerSize) {
+			return null;
+		}
+		int start = buffer.position();
+		int messageLength;
+		try {
+			messageLength = readHeader(buffer, start);
+			if (messageLength > this.maxMessageSize) {
+				throw new IOException("Message length " + messageLength +
+						" exceeds max message length: " + this.maxMessageSize);
+			}
+		}
+		catch (IOException e) {
+			publishEvent(e, buffer);
+			throw e;
+		}
+		catch (RuntimeException e) {
+			publishEvent(e, buffer);
+			throw e;
+		}
+		if (buffer.remaining() - headerSize < messageLength) {
+			return null;
+		}
+		Object payload = extractPayload(buffer, start + headerSize, messageLength);
+		buffer.position(start + headerSize + messageLength);
+		return payload;
+	}
+
 	/**
 	 * Writes the byte[] to the output stream, preceded by a 4 byte
 	 * length in network byte order (big endian).
@@ -204,6 +244,49 @@ public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
 		outputStream.write(lengthPart.array());
 	}
 
+	/**
+	 * Return the length of the header for incremental deserialization.
+	 * @return the header size.
+	 * @since 5.0
+	 * @see #readHeader(ByteBuffer, int)
+	 */
+	protected int getHeaderSize() {
+		return this.headerSize;
+	}
+
+	/**
+	 * Decodes the header at the index in the buffer, which contains at least
+	 * {@link #getHeaderSize()} bytes from that index, and returns the length of the
+	 * data part.
+	 * @param buffer The buffer.
+	 * @param index The index of the header.
+	 * @return The length of the data part.
+	 * @throws IOException Any IOException.
+	 * @since 5.0
+	 */
+	protected int readHeader(ByteBuffer buffer, int index) throws IOException {
+		int messageLength;
+		switch (this.headerSize) {
+			case HEADER_SIZE_INT:
+				messageLength = buffer.getInt(index);
+				if (messageLength < 0) {
+					throw new IllegalArgumentException("Length header:"
+							+ messageLength
+							+ " is negative");
+				}
+				break;
+			case HEADER_SIZE_UNSIGNED_BYTE:
+				messageLength = buffer.get(index) & 0xff;
+				break;
+			case HEADER_SIZE_UNSIGNED_SHORT:
+				messageLength = buffer.getShort(index) & 0xffff;
+				break;
+			default:
+				throw new IllegalArgumentException("Bad header size:" + this.headerSize);
+		}
+		return messageLength;
+	}
+
 	/**
 	 * Reads the header and returns the length of the data part.
 	 *
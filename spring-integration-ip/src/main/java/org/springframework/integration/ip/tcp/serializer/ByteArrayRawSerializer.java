@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
 
 /**
  * A byte array (de)serializer that does nothing with the payload; sends it raw.
@@ -36,12 +37,15 @@ import java.net.SocketTimeoutException;
  * <p>
  * Now, a {@link SocketTimeoutException} is thrown. To revert to the previous
  * behavior, set the {@code treatTimeoutAsEndOfMessage} constructor argument to true.
+ * This option does not apply to incremental deserialization (where the message is
+ * emitted only when the stream ends normally).
  *
  * @author Gary Russell
  * @since 2.0.3
  *
  */
-public class ByteArrayRawSerializer extends AbstractPooledBufferByteArraySerializer {
+public class ByteArrayRawSerializer extends AbstractPooledBufferByteArraySerializer
+		implements ByteBufferDeserializer<Object> {
 
 	private final boolean treatTimeoutAsEndOfMessage;
 
@@ -65,6 +69,38 @@ public class ByteArrayRawSerializer extends AbstractPooledBufferByteArraySeriali
 		outputStream.write(bytes);
 	}
 
+	/**
+	 * The message is only complete when the stream ends, so this method never returns a
+	 * payload; it just checks the data received so far does not exceed the maximum
+	 * message size.
+	 * @since 5.0
+	 */
+	@Override
+	public Object deserialize(ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() > this.maxMessageSize) {
+			IOException e = new IOException("Socket was not closed before max message length: "
+					+ this.maxMessageSize);
+			publishEvent(e, buffer);
+			throw e;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns all the data received.
+	 * @since 5.0
+	 */
+	@Override
+	public Object deserializeAtEndOfStream(ByteBuffer buffer) throws IOException {
+		if (!buffer.hasRemaining()) {
+			return null;
+		}
+		deserialize(buffer);
+		Object payload = extractPayload(buffer, buffer.position(), buffer.remaining());
+		buffer.position(buffer.limit());
+		return payload;
+	}
+
 	@Override
 	protected byte[] doDeserialize(InputStream inputStream, byte[] buffer) throws IOException {
 		int n = 0;
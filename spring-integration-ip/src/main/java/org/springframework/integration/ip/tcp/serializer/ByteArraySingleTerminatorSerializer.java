@@ -19,6 +19,7 @@ package org.springframework.integration.ip.tcp.serializer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Reads data in an InputStream to a byte[]; data must be terminated by a single
@@ -28,7 +29,8 @@ import java.io.OutputStream;
  * @author Gary Russell
  * @since 2.2
  */
-public class ByteArraySingleTerminatorSerializer extends AbstractPooledBufferByteArraySerializer {
+public class ByteArraySingleTerminatorSerializer extends AbstractPooledBufferByteArraySerializer
+		implements ByteBufferDeserializer<Object> {
 
 	private final byte terminator;
 
@@ -81,6 +83,41 @@ public class ByteArraySingleTerminatorSerializer extends AbstractPooledBufferByt
 		}
 	}
 
+	/**
+	 * Decodes the data in the buffer up to the next terminator, if present.
+	 * @since 5.0
+	 */
+	@Override
+	public Object deserialize(ByteBuffer buffer) throws IOException {
+		return deserialize(buffer, 0);
+	}
+
+	/**
+	 * Decodes the data in the buffer up to the next terminator, if present, resuming
+	 * the scan after the bytes already examined.
+	 * @since 5.0
+	 */
+	@Override
+	public Object deserialize(ByteBuffer buffer, int scanned) throws IOException {
+		int start = buffer.position();
+		int scanLimit = Math.min(buffer.limit(), start + this.maxMessageSize + 1);
+		for (int i = start + scanned; i < scanLimit; i++) {
+			if (buffer.get(i) == this.terminator) {
+				Object payload = extractPayload(buffer, start, i - start);
+				buffer.position(i + 1);
+				return payload;
+			}
+		}
+		if (buffer.limit() - start > this.maxMessageSize) {
+			IOException e = new IOException("Terminator '0x" + Integer.toHexString(this.terminator & 0xff)
+					+ "' not found before max message length: "
+					+ this.maxMessageSize);
+			publishEvent(e, buffer);
+			throw e;
+		}
+		return null;
+	}
+
 	/**
 	 * Writes the byte[] to the stream and appends the terminator.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.integration.ip.tcp.serializer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import org.springframework.integration.mapping.MessageMappingException;
 
@@ -30,7 +31,8 @@ import org.springframework.integration.mapping.MessageMappingException;
  * @author Gary Russell
  * @since 2.0
  */
-public class ByteArrayStxEtxSerializer extends AbstractPooledBufferByteArraySerializer {
+public class ByteArrayStxEtxSerializer extends AbstractPooledBufferByteArraySerializer
+		implements ByteBufferDeserializer<Object> {
 
 	public static final int STX = 0x02;
 
@@ -75,6 +77,48 @@ public class ByteArrayStxEtxSerializer extends AbstractPooledBufferByteArraySeri
 		}
 	}
 
+	/**
+	 * Decodes the data in the buffer between the STX and the next ETX, if present.
+	 * @since 5.0
+	 */
+	@Override
+	public Object deserialize(ByteBuffer buffer) throws IOException {
+		return deserialize(buffer, 0);
+	}
+
+	/**
+	 * Decodes the data in the buffer between the STX and the next ETX, if present,
+	 * resuming the scan after the bytes already examined.
+	 * @since 5.0
+	 */
+	@Override
+	public Object deserialize(ByteBuffer buffer, int scanned) throws IOException {
+		if (!buffer.hasRemaining()) {
+			return null;
+		}
+		int start = buffer.position();
+		if (buffer.get(start) != STX) {
+			MessageMappingException e = new MessageMappingException("Expected STX to begin message");
+			publishEvent(e, buffer);
+			throw e;
+		}
+		int scanLimit = Math.min(buffer.limit(), start + this.maxMessageSize + 1);
+		for (int i = Math.max(start + 1, start + scanned); i < scanLimit; i++) {
+			if (buffer.get(i) == ETX) {
+				Object payload = extractPayload(buffer, start + 1, i - start - 1);
+				buffer.position(i + 1);
+				return payload;
+			}
+		}
+		if (buffer.limit() - start > this.maxMessageSize) {
+			IOException e = new IOException("ETX not found before max message length: "
+					+ this.maxMessageSize);
+			publishEvent(e, buffer);
+			throw e;
+		}
+		return null;
+	}
+
 	/**
 	 * Writes the byte[] to the stream, prefixed by an ASCII STX character and
 	 * terminated with an ASCII ETX character.
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ip.tcp.serializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A deserializer that frames messages directly from a {@link ByteBuffer} containing
+ * whatever data has been received so far, rather than blocking on an
+ * {@link java.io.InputStream}. Used by NIO connections configured for incremental
+ * deserialization, which decode on the thread that reads from the socket.
+ * <p>
+ * Implementations must be stateless (they are shared by all connections); the caller
+ * keeps the bytes of an incomplete message in the buffer and calls again when more
+ * data has arrived.
+ *
+ * @param <T> the payload type.
+ *
+ * @since 5.0
+ */
+public interface ByteBufferDeserializer<T> {
+
+	/**
+	 * Decode the next message from the buffer (in read mode) if it is complete. When a
+	 * message is returned, the buffer position has been advanced past it, including
+	 * any framing. When the buffer does not yet contain a complete message, null is
+	 * returned and the position is unchanged.
+	 * @param buffer the buffer.
+	 * @return the payload, or null if more data is needed.
+	 * @throws IOException if the data is invalid or the message is too large.
+	 */
+	T deserialize(ByteBuffer buffer) throws IOException;
+
+	/**
+	 * Decode the next message from the buffer, as {@link #deserialize(ByteBuffer)},
+	 * when the caller knows that a previous call, which returned null, already
+	 * examined the first {@code scanned} bytes after the buffer position. Deserializers
+	 * that scan for a delimiter can then resume the scan instead of starting again from
+	 * the beginning of the message each time more data arrives. By default, the
+	 * {@code scanned} hint is ignored.
+	 * @param buffer the buffer.
+	 * @param scanned the number of bytes already examined.
+	 * @return the payload, or null if more data is needed.
+	 * @throws IOException if the data is invalid or the message is too large.
+	 */
+	default T deserialize(ByteBuffer buffer, int scanned) throws IOException {
+		return deserialize(buffer);
+	}
+
+	/**
+	 * Called when the end of the stream has been reached, with any data that has not
+	 * been consumed by {@link #deserialize(ByteBuffer)}.
+	 * @param buffer the buffer.
+	 * @return a final payload, or null if there is none.
+	 * @throws IOException if the remaining data is an incomplete message.
+	 */
+	T deserializeAtEndOfStream(ByteBuffer buffer) throws IOException;
+
+	/**
+	 * Return true if the payloads returned are views of the buffer passed into
+	 * {@link #deserialize(ByteBuffer)} rather than copies; the caller must then not
+	 * reuse the buffer's contents.
+	 * @return true if the payloads share the buffer.
+	 */
+	boolean isZeroCopy();
+
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ip.udp;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.messaging.MessagingException;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link UnicastReceivingChannelAdapter} that receives packets on a non-blocking
+ * {@link DatagramChannel} with a {@link Selector}, rather than with a blocking
+ * {@link DatagramSocket#receive(DatagramPacket)} for each packet.
+ * <p>
+ * Each time the channel is readable, the receiving thread drains up to
+ * {@link #setReceiveBatchSize(int) receiveBatchSize} pending datagrams into pooled
+ * direct buffers, and hands the batch to a worker thread of the task executor
+ * (see {@link #setPoolSize(int)} and {@link #setTaskExecutor(Executor)}); one of the
+ * executor's threads is used by the receiving thread. The workers map each datagram
+ * to a message using a reusable packet holder, and return the buffer to the pool, so
+ * that no buffer or {@link DatagramPacket} is allocated per datagram once the pool
+ * is warm. Acknowledgments are sent on the receiving channel instead of a new socket
+ * for each acknowledgment.
+ * <p>
+ * The {@code soTimeout} is not used; stopping the adapter closes the selector and the
+ * channel.
+ * <p>
+ * When the adapter's messages are consumed through its {@link #toPublisher() publisher}
+ * and the subscriber has no outstanding demand, the adapter stops selecting the channel
+ * for reading, so that datagrams are left in the socket receive buffer (and dropped
+ * when it is full), until the subscriber requests more messages.
+ *
+ * @since 5.0
+ */
+public class NioUnicastReceivingChannelAdapter extends UnicastReceivingChannelAdapter {
+
+	/**
+	 * The default maximum number of datagrams received before they are handed to a
+	 * worker thread.
+	 */
+	public static final int DEFAULT_RECEIVE_BATCH_SIZE = 64;
+
+	/**
+	 * The default maximum number of idle packet buffers retained for reuse.
+	 */
+	public static final int DEFAULT_PACKET_POOL_SIZE = 256;
+
+	private final Queue<PacketHolder> holders = new ConcurrentLinkedQueue<PacketHolder>();
+
+	private final AtomicInteger idleHolders = new AtomicInteger();
+
+	private volatile DatagramChannel channel;
+
+	private volatile Selector selector;
+
+	private volatile SelectionKey selectionKey;
+
+	private volatile boolean paused;
+
+	private volatile int receiveBatchSize = DEFAULT_RECEIVE_BATCH_SIZE;
+
+	private volatile int packetPoolSize = DEFAULT_PACKET_POOL_SIZE;
+
+	/**
+	 * Constructs a NioUnicastReceivingChannelAdapter that listens on the specified port.
+	 * @param port The port.
+	 */
+	public NioUnicastReceivingChannelAdapter(int port) {
+		super(port);
+	}
+
+	/**
+	 * Constructs a NioUnicastReceivingChannelAdapter that listens for packets on
+	 * the specified port. Enables setting the lengthCheck option, which expects
+	 * a length to precede the incoming packets.
+	 * @param port The port.
+	 * @param lengthCheck If true, enables the lengthCheck Option.
+	 */
+	public NioUnicastReceivingChannelAdapter(int port, boolean lengthCheck) {
+		super(port, lengthCheck);
+	}
+
+	/**
+	 * Set the maximum number of pending datagrams received each time the channel is
+	 * readable, and handed to a worker thread as one task. Larger batches reduce the
+	 * cost of task submission at high packet rates; smaller batches spread the packets
+	 * over more workers. Default {@value #DEFAULT_RECEIVE_BATCH_SIZE}.
+	 * @param receiveBatchSize the batch size.
+	 */
+	public void setReceiveBatchSize(int receiveBatchSize) {
+		Assert.isTrue(receiveBatchSize > 0, "'receiveBatchSize' must be greater than 0");
+		this.receiveBatchSize = receiveBatchSize;
+	}
+
+	/**
+	 * Set the maximum number of idle packet buffers retained for reuse. Each buffer
+	 * holds a direct buffer and a byte array of {@code receiveBufferSize}. When all
+	 * buffers are in use, new ones are allocated, and discarded when they are released
+	 * to a full pool. Default {@value #DEFAULT_PACKET_POOL_SIZE}.
+	 * @param packetPoolSize the pool size.
+	 */
+	public void setPacketPoolSize(int packetPoolSize) {
+		Assert.isTrue(packetPoolSize >= 0, "'packetPoolSize' cannot be negative");
+		this.packetPoolSize = packetPoolSize;
+	}
+
+	@Override
+	public int getPort() {
+		DatagramChannel channel = this.channel;
+		if (channel == null) {
+			return super.getPort();
+		}
+		else {
+			return channel.socket().getLocalPort();
+		}
+	}
+
+	/**
+	 * @return the number of idle packet buffers in the pool.
+	 */
+	public int getIdlePacketCount() {
+		return this.idleHolders.get();
+	}
+
+	@Override
+	public void run() {
+		DatagramChannel channel = getChannel();
+		Selector selector = this.selector;
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("NIO UDP Receiver running on port:" + this.getPort());
+		}
+
+		setListening(true);
+		try {
+			while (isActive()) {
+				if (selector.select() > 0) {
+					selector.selectedKeys().clear();
+					receiveBatch(channel);
+				}
+			}
+		}
+		catch (ClosedChannelException e) {
+			// stopped
+		}
+		catch (ClosedSelectorException e) {
+			// stopped
+		}
+		catch (IOException e) {
+			if (isActive()) {
+				logger.error("Error on NIO UDP receiver; stopping", e);
+				this.stop();
+			}
+		}
+		finally {
+			setListening(false);
+		}
+	}
+
+	private void receiveBatch(DatagramChannel channel) throws IOException {
+		List<PacketHolder> batch = new ArrayList<PacketHolder>();
+		for (int i = 0; i < this.receiveBatchSize; i++) {
+			PacketHolder holder = acquireHolder();
+			SocketAddress sender = channel.receive(holder.buffer);
+			if (sender == null) {
+				releaseHolder(holder);
+				break;
+			}
+			holder.sender = sender;
+			batch.add(holder);
+		}
+		if (!batch.isEmpty()) {
+			dispatch(batch);
+		}
+	}
+
+	private void dispatch(final List<PacketHolder> batch) {
+		Executor taskExecutor = getTaskExecutor();
+		if (taskExecutor != null) {
+			try {
+				taskExecutor.execute(() -> handleBatch(batch));
+				return;
+			}
+			catch (RejectedExecutionException e) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Adapter stopped, sending on main thread");
+				}
+			}
+		}
+		handleBatch(batch);
+	}
+
+	private void handleBatch(List<PacketHolder> batch) {
+		for (PacketHolder holder : batch) {
+			try {
+				doSend(holder.toPacket());
+			}
+			catch (RuntimeException e) {
+				logger.error("Failed to handle packet from " + holder.sender, e);
+			}
+			finally {
+				releaseHolder(holder);
+			}
+		}
+	}
+
+	private PacketHolder acquireHolder() {
+		int size = getReceiveBufferSize();
+		PacketHolder holder;
+		while ((holder = this.holders.poll()) != null) {
+			this.idleHolders.decrementAndGet();
+			if (holder.buffer.capacity() == size) {
+				return holder;
+			}
+		}
+		return new PacketHolder(size);
+	}
+
+	private void releaseHolder(PacketHolder holder) {
+		holder.reset();
+		if (this.idleHolders.incrementAndGet() <= this.packetPoolSize) {
+			this.holders.offer(holder);
+		}
+		else {
+			this.idleHolders.decrementAndGet();
+		}
+	}
+
+	@Override
+	protected void doSendAck(byte[] ack, InetSocketAddress whereTo) throws IOException {
+		DatagramChannel channel = this.channel;
+		if (channel == null) {
+			super.doSendAck(ack, whereTo);
+		}
+		else if (channel.send(ByteBuffer.wrap(ack), whereTo) == 0 && logger.isDebugEnabled()) {
+			logger.debug("Send buffer full; acknowledgment to " + whereTo + " dropped");
+		}
+	}
+
+	/**
+	 * @return the socket of the channel; it cannot be used to receive packets.
+	 */
+	@Override
+	public synchronized DatagramSocket getSocket() {
+		return getChannel().socket();
+	}
+
+	/**
+	 * Return the channel, opening and binding it if necessary.
+	 * @return the channel.
+	 */
+	public synchronized DatagramChannel getChannel() {
+		if (this.channel == null) {
+			DatagramChannel channel = null;
+			try {
+				channel = DatagramChannel.open();
+				channel.configureBlocking(false);
+				int soReceiveBufferSize = getSoReceiveBufferSize();
+				if (soReceiveBufferSize > 0) {
+					channel.setOption(StandardSocketOptions.SO_RCVBUF, soReceiveBufferSize);
+				}
+				int soSendBufferSize = getSoSendBufferSize();
+				if (soSendBufferSize > 0) {
+					channel.setOption(StandardSocketOptions.SO_SNDBUF, soSendBufferSize);
+				}
+				String localAddress = getLocalAddress();
+				int port = super.getPort();
+				if (localAddress == null) {
+					channel.bind(new InetSocketAddress(port));
+				}
+				else {
+					channel.bind(new InetSocketAddress(InetAddress.getByName(localAddress), port));
+				}
+				Selector selector = Selector.open();
+				this.selectionKey = channel.register(selector, this.paused ? 0 : SelectionKey.OP_READ);
+				this.selector = selector;
+				this.channel = channel;
+			}
+			catch (IOException e) {
+				if (channel != null) {
+					try {
+						channel.close();
+					}
+					catch (IOException e1) {
+						// ignore
+					}
+				}
+				throw new MessagingException("failed to create DatagramChannel", e);
+			}
+		}
+		return this.channel;
+	}
+
+	@Override
+	protected void doStop() {
+		super.doStop();
+		closeChannel();
+	}
+
+	/**
+	 * Stop selecting the channel for reading.
+	 */
+	@Override
+	protected void doPause() {
+		this.paused = true;
+		setInterestOps(0);
+	}
+
+	/**
+	 * Resume selecting the channel for reading.
+	 */
+	@Override
+	protected void doResume() {
+		this.paused = false;
+		setInterestOps(SelectionKey.OP_READ);
+	}
+
+	private void setInterestOps(int ops) {
+		SelectionKey selectionKey = this.selectionKey;
+		if (selectionKey != null) {
+			try {
+				selectionKey.interestOps(ops);
+				selectionKey.selector().wakeup();
+			}
+			catch (CancelledKeyException e) {
+				// stopped
+			}
+		}
+	}
+
+	private synchronized void closeChannel() {
+		Selector selector = this.selector;
+		DatagramChannel channel = this.channel;
+		this.selector = null;
+		this.selectionKey = null;
+		this.channel = null;
+		try {
+			if (selector != null) {
+				selector.close();
+			}
+			if (channel != null) {
+				channel.close();
+			}
+		}
+		catch (IOException e) {
+			// ignore
+		}
+	}
+
+	/**
+	 * A pooled direct buffer that a datagram is received into, and a reusable packet
+	 * that it is copied to for mapping; the mapper copies the payload, so the holder
+	 * can be reused as soon as the message is created.
+	 */
+	private static final class PacketHolder {
+
+		private final ByteBuffer buffer;
+
+		private final DatagramPacket packet;
+
+		private SocketAddress sender;
+
+		PacketHolder(int size) {
+			this.buffer = ByteBuffer.allocateDirect(size);
+			this.packet = new DatagramPacket(new byte[size], size);
+		}
+
+		DatagramPacket toPacket() {
+			this.buffer.flip();
+			int length = this.buffer.remaining();
+			byte[] data = this.packet.getData();
+			this.buffer.get(data, 0, length);
+			this.packet.setData(data, 0, length);
+			this.packet.setSocketAddress(this.sender);
+			return this.packet;
+		}
+
+		void reset() {
+			this.buffer.clear();
+			this.sender = null;
+		}
+
+	}
+
+}
@@ -144,19 +144,30 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 			logger.debug("Sending ack for " + id + " to " + ackAddress);
 		}
 		try {
-			DatagramPacket ackPack = new DatagramPacket(ack, ack.length, whereTo);
-			DatagramSocket out = new DatagramSocket();
-			if (this.soSendBufferSize > 0) {
-				out.setSendBufferSize(this.soSendBufferSize);
-			}
-			out.send(ackPack);
-			out.close();
+			doSendAck(ack, whereTo);
 		}
 		catch (IOException e) {
 			throw new MessagingException(message, "Failed to send acknowledgment to: " + ackAddress, e);
 		}
 	}
 
+	/**
+	 * Send an acknowledgment; by default, on a new socket.
+	 * @param ack the acknowledgment.
+	 * @param whereTo the address to which the acknowledgment is sent.
+	 * @throws IOException if the acknowledgment could not be sent.
+	 * @since 5.0
+	 */
+	protected void doSendAck(byte[] ack, InetSocketAddress whereTo) throws IOException {
+		DatagramPacket ackPack = new DatagramPacket(ack, ack.length, whereTo);
+		DatagramSocket out = new DatagramSocket();
+		if (this.soSendBufferSize > 0) {
+			out.setSendBufferSize(this.soSendBufferSize);
+		}
+		out.send(ackPack);
+		out.close();
+	}
+
 	protected boolean asyncSendMessage(final DatagramPacket packet) {
 		Executor taskExecutor = getTaskExecutor();
 		if (taskExecutor != null) {
@@ -267,6 +278,14 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 		this.soSendBufferSize = soSendBufferSize;
 	}
 
+	/**
+	 * @return the socket send buffer size used for acknowledgments.
+	 * @since 5.0
+	 */
+	public int getSoSendBufferSize() {
+		return this.soSendBufferSize;
+	}
+
 	public void setLookupHost(boolean lookupHost) {
 		this.mapper.setLookupHost(lookupHost);
 	}
@@ -66,6 +66,7 @@ import org.springframework.integration.ip.tcp.connection.TcpSocketSupport;
 import org.springframework.integration.ip.udp.DatagramPacketMessageMapper;
 import org.springframework.integration.ip.udp.MulticastReceivingChannelAdapter;
 import org.springframework.integration.ip.udp.MulticastSendingMessageHandler;
+import org.springframework.integration.ip.udp.NioUnicastReceivingChannelAdapter;
 import org.springframework.integration.ip.udp.UnicastReceivingChannelAdapter;
 import org.springframework.integration.ip.udp.UnicastSendingMessageHandler;
 import org.springframework.integration.test.util.TestUtils;
@@ -96,6 +97,10 @@ public class ParserUnitTests {
 	@Qualifier("testInUdp")
 	UnicastReceivingChannelAdapter udpIn;
 
+	@Autowired
+	@Qualifier("testInUdpNio")
+	NioUnicastReceivingChannelAdapter udpInNio;
+
 	@Autowired
 	@Qualifier("testInUdpMulticast")
 	MulticastReceivingChannelAdapter udpInMulticast;
@@ -478,6 +483,11 @@ public class ParserUnitTests {
 		assertEquals("789", TestUtils.getPropertyValue(tcpOutboundGateway, "remoteTimeoutExpression.literalValue"));
 		assertEquals("outGateway", tcpOutboundGateway.getComponentName());
 		assertEquals("ip:tcp-outbound-gateway", tcpOutboundGateway.getComponentType());
+		assertEquals("payload", TestUtils.getPropertyValue(tcpOutboundGateway,
+				"requestCorrelationStrategy.processor.expression.expression"));
+		assertEquals("headers['corr']", TestUtils.getPropertyValue(tcpOutboundGateway,
+				"replyCorrelationStrategy.processor.expression.expression"));
+		assertEquals(20, dfa.getPropertyValue("maxInFlight"));
 		assertTrue(cfC2.isLookupHost());
 		assertEquals(24, dfa.getPropertyValue("order"));
 
@@ -646,6 +656,13 @@ public class ParserUnitTests {
 		assertSame(tcpAutoChannel, TestUtils.getPropertyValue(tcpAutoAdapter, "outputChannel"));
 	}
 
+	@Test
+	public void testInUdpNio() {
+		assertEquals(16, TestUtils.getPropertyValue(udpInNio, "receiveBatchSize"));
+		assertEquals(33, TestUtils.getPropertyValue(udpInNio, "packetPoolSize"));
+		assertEquals("ip:udp-inbound-channel-adapter", udpInNio.getComponentType());
+	}
+
 	@Test
 	public void testAutoUdp() {
 		assertSame(udpAutoChannel, TestUtils.getPropertyValue(udpAutoAdapter, "outputChannel"));
@@ -16,8 +16,10 @@
 
 package org.springframework.integration.ip.tcp;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -28,10 +30,13 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.BufferedReader;
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
@@ -43,6 +48,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -63,6 +69,7 @@ import org.springframework.expression.Expression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.integration.MessageTimeoutException;
 import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.ip.tcp.connection.AbstractClientConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.CachingClientConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.FailoverClientConnectionFactory;
@@ -831,4 +838,140 @@ public class TcpOutboundGatewayTests extends LogAdjustingTestSupport {
 		ccf.stop();
 	}
 
+	@Test
+	public void testPipelined() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicBoolean done = new AtomicBoolean();
+		final AtomicReference<ServerSocket> serverSocket = new AtomicReference<ServerSocket>();
+		Executors.newSingleThreadExecutor().execute(() -> {
+			try {
+				ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(0, 10);
+				serverSocket.set(server);
+				latch.countDown();
+				Socket socket = server.accept();
+				BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+				List<String> requests = new ArrayList<String>();
+				// all the requests are received before the first reply is sent
+				while (requests.size() < 10) {
+					requests.add(reader.readLine());
+				}
+				Collections.reverse(requests);
+				OutputStream os = socket.getOutputStream();
+				for (String request : requests) {
+					os.write((request.split(":")[0] + ":Reply" + request.split(":")[1] + "\r\n").getBytes());
+				}
+				os.flush();
+				reader.readLine();
+			}
+			catch (Exception e) {
+				if (!done.get()) {
+					e.printStackTrace();
+				}
+			}
+		});
+		assertTrue(latch.await(10000, TimeUnit.MILLISECONDS));
+		AbstractClientConnectionFactory ccf = new TcpNetClientConnectionFactory("localhost",
+				serverSocket.get().getLocalPort());
+		ccf.setSoTimeout(10000);
+		ccf.setSingleUse(false);
+		ccf.start();
+		final TcpOutboundGateway gateway = new TcpOutboundGateway();
+		gateway.setConnectionFactory(ccf);
+		gateway.setCorrelationExpression(new SpelExpressionParser().parseExpression("new String(payload).split(':')[0]"));
+		QueueChannel replyChannel = new QueueChannel();
+		gateway.setRequiresReply(true);
+		gateway.setOutputChannel(replyChannel);
+		gateway.setBeanFactory(mock(BeanFactory.class));
+		gateway.afterPropertiesSet();
+		ExecutorService exec = Executors.newFixedThreadPool(10);
+		for (int i = 0; i < 10; i++) {
+			final int n = i;
+			exec.execute(() -> gateway.handleMessage(MessageBuilder.withPayload(n + ":Test" + n)
+					.setHeader("request", n)
+					.build()));
+		}
+		for (int i = 0; i < 10; i++) {
+			Message<?> m = replyChannel.receive(10000);
+			assertNotNull(m);
+			assertEquals(m.getHeaders().get("request") + ":ReplyTest" + m.getHeaders().get("request"),
+					new String((byte[]) m.getPayload()));
+		}
+		assertEquals(0, TestUtils.getPropertyValue(gateway, "pipelinedReplies", Map.class).size());
+		done.set(true);
+		exec.shutdownNow();
+		gateway.stop();
+		serverSocket.get().close();
+	}
+
+	@Test
+	public void testPipelinedInFlightWindow() throws Exception {
+		ServerSocket serverSocket = ServerSocketFactory.getDefault().createServerSocket(0);
+		AbstractClientConnectionFactory ccf = new TcpNetClientConnectionFactory("localhost",
+				serverSocket.getLocalPort());
+		ccf.setSingleUse(false);
+		ccf.start();
+		final TcpOutboundGateway gateway = new TcpOutboundGateway();
+		gateway.setConnectionFactory(ccf);
+		gateway.setCorrelationExpression(new SpelExpressionParser().parseExpression("payload"));
+		gateway.setMaxInFlight(1);
+		gateway.setRequestTimeout(100);
+		gateway.setRemoteTimeout(10000);
+		gateway.setBeanFactory(mock(BeanFactory.class));
+		gateway.afterPropertiesSet();
+		Future<?> first = Executors.newSingleThreadExecutor().submit(() ->
+				gateway.handleMessage(new GenericMessage<String>("foo")));
+		int n = 0;
+		while (n++ < 100 && TestUtils.getPropertyValue(gateway, "pipelinedReplies", Map.class).size() == 0) {
+			Thread.sleep(100);
+		}
+		try {
+			gateway.handleMessage(new GenericMessage<String>("bar"));
+			fail("expected timeout");
+		}
+		catch (MessageTimeoutException e) {
+			assertThat(e.getMessage(), containsString("in-flight window"));
+		}
+		first.cancel(true);
+		gateway.stop();
+		serverSocket.close();
+	}
+
+	@Test
+	public void testPipelinedReplyOnOtherConnectionIgnored() throws Exception {
+		ServerSocket serverSocket = ServerSocketFactory.getDefault().createServerSocket(0);
+		AbstractClientConnectionFactory ccf = new TcpNetClientConnectionFactory("localhost",
+				serverSocket.getLocalPort());
+		ccf.setSingleUse(false);
+		ccf.start();
+		final TcpOutboundGateway gateway = new TcpOutboundGateway();
+		gateway.setConnectionFactory(ccf);
+		gateway.setCorrelationExpression(new SpelExpressionParser().parseExpression("payload"));
+		gateway.setRemoteTimeout(10000);
+		QueueChannel replyChannel = new QueueChannel();
+		gateway.setOutputChannel(replyChannel);
+		gateway.setBeanFactory(mock(BeanFactory.class));
+		gateway.afterPropertiesSet();
+		Future<?> request = Executors.newSingleThreadExecutor().submit(() ->
+				gateway.handleMessage(new GenericMessage<String>("foo")));
+		Map<?, ?> pipelinedReplies = TestUtils.getPropertyValue(gateway, "pipelinedReplies", Map.class);
+		int n = 0;
+		while (n++ < 100 && pipelinedReplies.size() == 0) {
+			Thread.sleep(100);
+		}
+		String connectionId = TestUtils.getPropertyValue(pipelinedReplies.get("foo"), "connectionId", String.class);
+		gateway.onMessage(MessageBuilder.withPayload("foo")
+				.setHeader(IpHeaders.CONNECTION_ID, "other")
+				.build());
+		assertFalse(request.isDone());
+		assertNull(replyChannel.receive(100));
+		gateway.onMessage(MessageBuilder.withPayload("foo")
+				.setHeader(IpHeaders.CONNECTION_ID, connectionId)
+				.build());
+		request.get(10, TimeUnit.SECONDS);
+		assertNotNull(replyChannel.receive(0));
+		assertEquals(0, pipelinedReplies.size());
+		gateway.stop();
+		serverSocket.close();
+	}
+
 }
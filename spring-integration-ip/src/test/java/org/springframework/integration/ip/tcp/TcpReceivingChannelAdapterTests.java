@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,9 @@
 package org.springframework.integration.ip.tcp;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -27,13 +29,19 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -42,6 +50,9 @@ import javax.net.ServerSocketFactory;
 import javax.net.SocketFactory;
 
 import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.core.serializer.DefaultDeserializer;
@@ -58,6 +69,7 @@ import org.springframework.integration.ip.tcp.connection.TcpNetServerConnectionF
 import org.springframework.integration.ip.tcp.connection.TcpNioServerConnectionFactory;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayCrLfSerializer;
 import org.springframework.integration.ip.util.TestingUtilities;
+import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.SubscribableChannel;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
@@ -187,6 +199,66 @@ public class TcpReceivingChannelAdapterTests extends AbstractTcpChannelAdapterTe
 		scf.stop();
 	}
 
+	@Test
+	public void testNioPausedWithoutDemand() throws Exception {
+		TcpNioServerConnectionFactory scf = new TcpNioServerConnectionFactory(0);
+		noopPublisher(scf);
+		TcpReceivingChannelAdapter adapter = new TcpReceivingChannelAdapter();
+		adapter.setConnectionFactory(scf);
+		Publisher<Message<?>> publisher = adapter.toPublisher();
+		adapter.start();
+		TestingUtilities.waitListening(scf, null);
+		final BlockingQueue<Message<?>> received = new LinkedBlockingQueue<Message<?>>();
+		final AtomicReference<Subscription> subscription = new AtomicReference<Subscription>();
+		publisher.subscribe(new Subscriber<Message<?>>() {
+
+			@Override
+			public void onSubscribe(Subscription s) {
+				subscription.set(s);
+			}
+
+			@Override
+			public void onNext(Message<?> message) {
+				received.add(message);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+
+		});
+		subscription.get().request(1);
+		Socket socket = SocketFactory.getDefault().createSocket("localhost", scf.getPort());
+		socket.getOutputStream().write("Test0\r\n".getBytes());
+		Message<?> message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertEquals("Test0", new String((byte[]) message.getPayload()));
+		assertTrue(scf.isReadsPaused());
+
+		Map<?, ?> channelMap = TestUtils.getPropertyValue(scf, "channelMap", Map.class);
+		SocketChannel channel = (SocketChannel) channelMap.keySet().iterator().next();
+		SelectionKey key = channel.keyFor(TestUtils.getPropertyValue(scf, "selector", Selector.class));
+		int n = 0;
+		while (n++ < 200 && key.interestOps() != 0) {
+			Thread.sleep(50);
+		}
+		assertEquals(0, key.interestOps());
+		socket.getOutputStream().write("Test1\r\n".getBytes());
+		assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+
+		subscription.get().request(1);
+		message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertEquals("Test1", new String((byte[]) message.getPayload()));
+		assertFalse(scf.isReadsPaused());
+		socket.close();
+		adapter.stop();
+	}
+
 	@Test
 	public void testNetShared() throws Exception {
 		AbstractServerConnectionFactory scf = new TcpNetServerConnectionFactory(0);
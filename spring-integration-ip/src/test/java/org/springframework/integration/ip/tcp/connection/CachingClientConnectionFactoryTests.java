@@ -44,7 +44,6 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
@@ -75,7 +74,7 @@ import org.springframework.integration.ip.tcp.serializer.ByteArrayCrLfSerializer
 import org.springframework.integration.ip.util.TestingUtilities;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.test.util.TestUtils;
-import org.springframework.integration.util.SimplePool;
+import org.springframework.integration.util.ConcurrentPool;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.PollableChannel;
@@ -493,11 +492,10 @@ public class CachingClientConnectionFactoryTests {
 		assertNotNull(m);
 		assertEquals("foo:" + "Hello, world!", new String((byte[]) m.getPayload()));
 
-		BlockingQueue<?> connections = TestUtils
-				.getPropertyValue(this.gatewayCF, "pool.available", BlockingQueue.class);
+		ConcurrentPool<?> pool = TestUtils.getPropertyValue(this.gatewayCF, "pool", ConcurrentPool.class);
 		// wait until the connection is returned to the pool
 		int n = 0;
-		while (n++ < 100 && connections.size() == 0) {
+		while (n++ < 100 && pool.getIdleCount() == 0) {
 			Thread.sleep(100);
 		}
 
@@ -629,7 +627,7 @@ public class CachingClientConnectionFactoryTests {
 		conn1.close();
 		conn2.close();
 		assertTrue(latch2.await(10, TimeUnit.SECONDS));
-		SimplePool<?> pool = TestUtils.getPropertyValue(cachingFactory, "pool", SimplePool.class);
+		ConcurrentPool<?> pool = TestUtils.getPropertyValue(cachingFactory, "pool", ConcurrentPool.class);
 		assertEquals(2, pool.getIdleCount());
 		server2.stop();
 	}
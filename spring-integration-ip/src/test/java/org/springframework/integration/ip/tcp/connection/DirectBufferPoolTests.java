@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ip.tcp.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * @since 5.0
+ */
+public class DirectBufferPoolTests {
+
+	@Test
+	public void testReuse() {
+		DirectBufferPool pool = new DirectBufferPool(16, 1);
+		ByteBuffer buffer1 = pool.acquire();
+		assertTrue(buffer1.isDirect());
+		assertEquals(16, buffer1.capacity());
+		ByteBuffer buffer2 = pool.acquire();
+		assertNotSame(buffer1, buffer2);
+		buffer1.put((byte) 1);
+		pool.release(buffer1);
+		pool.release(buffer2);
+		assertEquals(1, pool.getPooledCount());
+		ByteBuffer buffer3 = pool.acquire();
+		assertSame(buffer1, buffer3);
+		assertEquals(0, buffer3.position());
+		assertEquals(16, buffer3.remaining());
+		assertEquals(0, pool.getPooledCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testForeignBufferRejected() {
+		new DirectBufferPool(16, 1).release(ByteBuffer.allocate(16));
+	}
+
+}
@@ -58,7 +58,7 @@ import org.springframework.integration.ip.tcp.TcpOutboundGateway;
 import org.springframework.integration.ip.util.TestingUtilities;
 import org.springframework.integration.test.rule.Log4jLevelAdjuster;
 import org.springframework.integration.test.util.TestUtils;
-import org.springframework.integration.util.SimplePool;
+import org.springframework.integration.util.ConcurrentPool;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.SubscribableChannel;
@@ -86,7 +86,7 @@ public class FailoverClientConnectionFactoryTests {
 
 	@Rule
 	public Log4jLevelAdjuster adjuster = new Log4jLevelAdjuster(Level.TRACE,
-			"org.springframework.integration.ip.tcp", "org.springframework.integration.util.SimplePool");
+			"org.springframework.integration.ip.tcp", "org.springframework.integration.util.ConcurrentPool");
 
 	@Test
 	public void testFailoverGood() throws Exception {
@@ -365,7 +365,7 @@ public class FailoverClientConnectionFactoryTests {
 		conn1.close();
 		conn2.close();
 		assertTrue(latch2.await(10, TimeUnit.SECONDS));
-		SimplePool<?> pool = TestUtils.getPropertyValue(cachingFactory2, "pool", SimplePool.class);
+		ConcurrentPool<?> pool = TestUtils.getPropertyValue(cachingFactory2, "pool", ConcurrentPool.class);
 		assertEquals(2, pool.getIdleCount());
 		server2.stop();
 	}
@@ -602,6 +602,64 @@ public class TcpNioConnectionTests {
 		factory.stop();
 	}
 
+	@Test
+	public void testIncrementalDeserialization() throws Exception {
+		TcpNioServerConnectionFactory factory = new TcpNioServerConnectionFactory(0);
+		factory.setApplicationEventPublisher(nullPublisher);
+		factory.setTaskExecutor(compositeExecutor());
+		factory.setIncrementalDeserialization(true);
+		ByteArrayCrLfSerializer deserializer = new ByteArrayCrLfSerializer();
+		deserializer.setMaxMessageSize(200000);
+		deserializer.setZeroCopy(true);
+		factory.setDeserializer(deserializer);
+		final List<Object> payloads = new ArrayList<Object>();
+		final List<String> threadNames = new ArrayList<String>();
+		final CountDownLatch latch = new CountDownLatch(3);
+		factory.registerListener(new TcpListener() {
+
+			@Override
+			public boolean onMessage(Message<?> message) {
+				if (!(message instanceof ErrorMessage)) {
+					payloads.add(message.getPayload());
+					threadNames.add(Thread.currentThread().getName());
+					latch.countDown();
+				}
+				return false;
+			}
+
+		});
+		factory.start();
+		TestingUtilities.waitListening(factory, null);
+		int port = factory.getPort();
+
+		Socket socket = SocketFactory.getDefault().createSocket("localhost", port);
+		socket.getOutputStream().write("foo\r\nba".getBytes());
+		socket.getOutputStream().flush();
+		Thread.sleep(100);
+		socket.getOutputStream().write("r\r\n".getBytes());
+		byte[] large = new byte[100000];
+		Arrays.fill(large, (byte) 'x');
+		socket.getOutputStream().write(large);
+		socket.getOutputStream().write("\r\n".getBytes());
+		socket.close();
+
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertEquals("foo", new String(toBytes(payloads.get(0))));
+		assertEquals("bar", new String(toBytes(payloads.get(1))));
+		assertTrue(Arrays.equals(large, toBytes(payloads.get(2))));
+		for (String threadName : threadNames) {
+			assertThat(threadName, containsString("io-"));
+		}
+		factory.stop();
+	}
+
+	private byte[] toBytes(Object payload) {
+		ByteBuffer buffer = (ByteBuffer) payload;
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
 	@Test
 	public void testAllMessagesDelivered() throws Exception {
 		final int numberOfSockets = 100;
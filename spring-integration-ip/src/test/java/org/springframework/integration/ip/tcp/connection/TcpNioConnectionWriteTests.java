@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,19 +17,32 @@
 package org.springframework.integration.ip.tcp.connection;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import javax.net.ServerSocketFactory;
 
 import org.junit.Test;
 
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.integration.ip.tcp.serializer.AbstractByteArraySerializer;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayCrLfSerializer;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayLengthHeaderSerializer;
@@ -251,6 +264,113 @@ public class TcpNioConnectionWriteTests {
 		latch.countDown();
 	}
 
+	@Test
+	public void testWriteWithBufferPool() throws Exception {
+		ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(0);
+		final int port = server.getLocalPort();
+		server.setSoTimeout(10000);
+		final DirectBufferPool pool = new DirectBufferPool(64, 100);
+		TcpNioClientConnectionFactory ccf = new TcpNioClientConnectionFactory("localhost", port);
+		ccf.setSerializer(new ByteArrayLengthHeaderSerializer());
+		ccf.setSoTimeout(10000);
+		ccf.setWriteBufferPool(pool);
+		ccf.start();
+		final TcpConnection connection = ccf.getConnection();
+		Socket socket = server.accept();
+		socket.setSoTimeout(10000);
+		final int senders = 4;
+		final int messages = 250;
+		ExecutorService exec = Executors.newFixedThreadPool(senders);
+		for (int i = 0; i < senders; i++) {
+			final String sender = "sender" + i;
+			exec.execute(() -> {
+				try {
+					for (int j = 0; j < messages; j++) {
+						StringBuilder payload = new StringBuilder(sender + ":" + j + ":");
+						// some messages span several pooled buffers
+						for (int k = 0; k < j % 50; k++) {
+							payload.append("abcdefghij");
+						}
+						connection.send(MessageBuilder.withPayload(payload.toString().getBytes()).build());
+					}
+				}
+				catch (Exception e) {
+					e.printStackTrace();
+				}
+			});
+		}
+		DataInputStream is = new DataInputStream(socket.getInputStream());
+		Map<String, Integer> next = new HashMap<String, Integer>();
+		for (int i = 0; i < senders * messages; i++) {
+			byte[] buff = new byte[is.readInt()];
+			is.readFully(buff);
+			String[] parts = new String(buff).split(":");
+			int expected = next.containsKey(parts[0]) ? next.get(parts[0]) : 0;
+			assertEquals(expected, Integer.parseInt(parts[1]));
+			assertEquals(expected % 50 * 10, parts.length > 2 ? parts[2].length() : 0);
+			next.put(parts[0], expected + 1);
+		}
+		assertEquals(senders, next.size());
+		exec.shutdown();
+		assertTrue(exec.awaitTermination(10, TimeUnit.SECONDS));
+		assertTrue(pool.getPooledCount() > 0);
+		socket.close();
+		server.close();
+		ccf.stop();
+	}
+
+	@Test
+	public void testWriteFailureWithBufferPool() throws Exception {
+		ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(0);
+		server.setSoTimeout(10000);
+		final List<TcpConnectionExceptionEvent> events = new CopyOnWriteArrayList<TcpConnectionExceptionEvent>();
+		TcpNioClientConnectionFactory ccf = new TcpNioClientConnectionFactory("localhost", server.getLocalPort());
+		ccf.setSerializer(new ByteArrayLengthHeaderSerializer());
+		ccf.setSoTimeout(10000);
+		ccf.setWriteBufferPool(new DirectBufferPool(64, 100));
+		ccf.setApplicationEventPublisher(new ApplicationEventPublisher() {
+
+			@Override
+			public void publishEvent(ApplicationEvent event) {
+				if (event instanceof TcpConnectionExceptionEvent) {
+					events.add((TcpConnectionExceptionEvent) event);
+				}
+			}
+
+			@Override
+			public void publishEvent(Object event) {
+			}
+
+		});
+		ccf.start();
+		TcpConnection connection = ccf.getConnection();
+		Socket socket = server.accept();
+		socket.setSoLinger(true, 0);
+		socket.close();
+		Exception exception = null;
+		for (int i = 0; i < 100 && exception == null; i++) {
+			try {
+				connection.send(MessageBuilder.withPayload("foo".getBytes()).build());
+				Thread.sleep(50);
+			}
+			catch (IOException e) {
+				exception = e;
+			}
+		}
+		assertNotNull(exception);
+		boolean writeFailureReported = false;
+		for (TcpConnectionExceptionEvent event : events) {
+			assertNotEquals("Failed TCP serialization", event.getCause().getMessage());
+			if ("Failed TCP write".equals(event.getCause().getMessage())) {
+				assertSame(exception, event.getCause().getCause());
+				writeFailureReported = true;
+			}
+		}
+		assertTrue(writeFailureReported);
+		server.close();
+		ccf.stop();
+	}
+
 	/**
 	 * @param is
 	 * @param buff
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ip.tcp.serializer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.integration.mapping.MessageMappingException;
+
+/**
+ * @since 5.0
+ */
+public class ByteBufferDeserializerTests {
+
+	@Test
+	public void testCrLf() throws Exception {
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		ByteBuffer buffer = serialize(serializer, "foo", "bar", "baz");
+		buffer.limit(buffer.limit() - 1);
+		assertEquals("foo", new String((byte[]) serializer.deserialize(buffer)));
+		assertEquals("bar", new String((byte[]) serializer.deserialize(buffer)));
+		assertNull(serializer.deserialize(buffer));
+		assertEquals(10, buffer.position());
+		buffer.limit(buffer.limit() + 1);
+		assertEquals("baz", new String((byte[]) serializer.deserialize(buffer)));
+		assertFalse(buffer.hasRemaining());
+	}
+
+	@Test
+	public void testSingleTerminator() throws Exception {
+		ByteArrayLfSerializer serializer = new ByteArrayLfSerializer();
+		ByteBuffer buffer = serialize(serializer, "foo", "", "bar");
+		assertEquals("foo", new String((byte[]) serializer.deserialize(buffer)));
+		assertEquals("", new String((byte[]) serializer.deserialize(buffer)));
+		assertEquals("bar", new String((byte[]) serializer.deserialize(buffer)));
+		assertNull(serializer.deserialize(buffer));
+	}
+
+	@Test
+	public void testStxEtx() throws Exception {
+		ByteArrayStxEtxSerializer serializer = new ByteArrayStxEtxSerializer();
+		ByteBuffer buffer = serialize(serializer, "foo", "bar");
+		buffer.limit(7);
+		assertEquals("foo", new String((byte[]) serializer.deserialize(buffer)));
+		assertNull(serializer.deserialize(buffer));
+		buffer.limit(10);
+		assertEquals("bar", new String((byte[]) serializer.deserialize(buffer)));
+		buffer = ByteBuffer.wrap("foo".getBytes());
+		try {
+			serializer.deserialize(buffer);
+			fail("Expected MessageMappingException");
+		}
+		catch (MessageMappingException e) {
+			assertThat(e.getMessage(), containsString("Expected STX"));
+		}
+	}
+
+	@Test
+	public void testResumedScan() throws Exception {
+		assertResumedScan(new ByteArrayCrLfSerializer());
+		assertResumedScan(new ByteArrayLfSerializer());
+		assertResumedScan(new ByteArrayStxEtxSerializer());
+		ByteArrayLfSerializer serializer = new ByteArrayLfSerializer();
+		ByteBuffer buffer = ByteBuffer.wrap("foo\nbar\n".getBytes());
+		assertEquals("foo\nbar", new String((byte[]) serializer.deserialize(buffer, 4)));
+	}
+
+	private void assertResumedScan(ByteBufferDeserializer<?> deserializer) throws IOException {
+		ByteBuffer buffer = serialize((AbstractByteArraySerializer) deserializer, "foo", "barbaz");
+		int end = buffer.limit();
+		List<String> payloads = new ArrayList<String>();
+		int scanned = 0;
+		for (int i = 0; i <= end; i++) {
+			buffer.limit(i);
+			Object payload;
+			while ((payload = deserializer.deserialize(buffer, scanned)) != null) {
+				scanned = 0;
+				payloads.add(new String((byte[]) payload));
+			}
+			scanned = buffer.remaining();
+		}
+		assertEquals(Arrays.asList("foo", "barbaz"), payloads);
+		assertFalse(buffer.hasRemaining());
+	}
+
+	@Test
+	public void testLengthHeader() throws Exception {
+		for (int headerSize : new int[] { ByteArrayLengthHeaderSerializer.HEADER_SIZE_INT,
+				ByteArrayLengthHeaderSerializer.HEADER_SIZE_UNSIGNED_SHORT,
+				ByteArrayLengthHeaderSerializer.HEADER_SIZE_UNSIGNED_BYTE }) {
+			ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer(headerSize);
+			ByteBuffer buffer = serialize(serializer, "foo", "barbaz");
+			int end = buffer.limit();
+			for (int i = 0; i < headerSize + 3; i++) {
+				buffer.limit(i);
+				assertNull(serializer.deserialize(buffer));
+				assertEquals(0, buffer.position());
+			}
+			buffer.limit(end);
+			assertEquals("foo", new String((byte[]) serializer.deserialize(buffer)));
+			assertEquals("barbaz", new String((byte[]) serializer.deserialize(buffer)));
+			assertFalse(buffer.hasRemaining());
+		}
+	}
+
+	@Test
+	public void testLengthHeaderTooLong() throws Exception {
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		serializer.setMaxMessageSize(5);
+		ByteBuffer buffer = serialize(serializer, "foobar");
+		buffer.limit(4);
+		try {
+			serializer.deserialize(buffer);
+			fail("Expected IOException");
+		}
+		catch (IOException e) {
+			assertThat(e.getMessage(), containsString("exceeds max message length: 5"));
+		}
+	}
+
+	@Test
+	public void testTerminatorNotFound() throws Exception {
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		serializer.setMaxMessageSize(5);
+		ByteBuffer buffer = ByteBuffer.wrap("foob".getBytes());
+		assertNull(serializer.deserialize(buffer));
+		buffer = ByteBuffer.wrap("foobar".getBytes());
+		try {
+			serializer.deserialize(buffer);
+			fail("Expected IOException");
+		}
+		catch (IOException e) {
+			assertThat(e.getMessage(), containsString("CRLF not found before max message length: 5"));
+		}
+	}
+
+	@Test
+	public void testRaw() throws Exception {
+		ByteArrayRawSerializer serializer = new ByteArrayRawSerializer();
+		ByteBuffer buffer = ByteBuffer.wrap("foo\r\nbar".getBytes());
+		assertNull(serializer.deserialize(buffer));
+		assertEquals("foo\r\nbar", new String((byte[]) serializer.deserializeAtEndOfStream(buffer)));
+		assertNull(serializer.deserializeAtEndOfStream(buffer));
+	}
+
+	@Test
+	public void testEndOfStreamDuringMessage() throws Exception {
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		assertNull(serializer.deserializeAtEndOfStream(ByteBuffer.allocate(0)));
+		try {
+			serializer.deserializeAtEndOfStream(ByteBuffer.wrap("foo".getBytes()));
+			fail("Expected IOException");
+		}
+		catch (IOException e) {
+			assertThat(e.getMessage(), containsString("Socket closed during message assembly"));
+		}
+	}
+
+	@Test
+	public void testZeroCopy() throws Exception {
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		serializer.setZeroCopy(true);
+		assertTrue(serializer.isZeroCopy());
+		ByteBuffer buffer = serialize(serializer, "foo", "bar");
+		Object payload = serializer.deserialize(buffer);
+		assertThat(payload, instanceOf(ByteBuffer.class));
+		ByteBuffer slice = (ByteBuffer) payload;
+		assertTrue(slice.isReadOnly());
+		assertEquals(3, slice.remaining());
+		buffer.put(4, (byte) 'g');
+		byte[] bytes = new byte[3];
+		slice.get(bytes);
+		assertEquals("goo", new String(bytes));
+		slice = (ByteBuffer) serializer.deserialize(buffer);
+		bytes = new byte[3];
+		slice.get(bytes);
+		assertEquals("bar", new String(bytes));
+	}
+
+	private ByteBuffer serialize(AbstractByteArraySerializer serializer, String... payloads) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (String payload : payloads) {
+			serializer.serialize(payload.getBytes(), out);
+		}
+		return ByteBuffer.wrap(out.toByteArray());
+	}
+
+}
@@ -28,16 +28,24 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.Inet4Address;
 import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Rule;
 import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -48,6 +56,7 @@ import org.springframework.integration.handler.ServiceActivatingHandler;
 import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.ip.util.SocketTestUtils;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.SubscribableChannel;
 
@@ -247,6 +256,121 @@ public class UdpChannelAdapterTests {
 		handler.stop();
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testNioUnicastReceiverBatches() throws Exception {
+		QueueChannel channel = new QueueChannel(100);
+		NioUnicastReceivingChannelAdapter adapter = new NioUnicastReceivingChannelAdapter(0);
+		adapter.setOutputChannel(channel);
+		adapter.setReceiveBatchSize(8);
+		adapter.setPacketPoolSize(4);
+		adapter.setLocalAddress("127.0.0.1");
+		adapter.start();
+		SocketTestUtils.waitListening(adapter);
+		int port = adapter.getPort();
+
+		DatagramPacketMessageMapper mapper = new DatagramPacketMessageMapper();
+		DatagramSocket datagramSocket = new DatagramSocket(0);
+		Set<String> sent = new HashSet<String>();
+		for (int i = 0; i < 100; i++) {
+			String payload = "ABCD" + i;
+			sent.add(payload);
+			DatagramPacket packet = mapper.fromMessage(MessageBuilder.withPayload(payload.getBytes()).build());
+			packet.setSocketAddress(new InetSocketAddress("127.0.0.1", port));
+			datagramSocket.send(packet);
+		}
+		Set<String> received = new HashSet<String>();
+		for (int i = 0; i < 100; i++) {
+			Message<byte[]> receivedMessage = (Message<byte[]>) channel.receive(10000);
+			assertNotNull(receivedMessage);
+			received.add(new String(receivedMessage.getPayload()));
+			assertEquals(datagramSocket.getLocalPort(), receivedMessage.getHeaders().get(IpHeaders.PORT));
+		}
+		assertEquals(sent, received);
+		datagramSocket.close();
+		adapter.stop();
+		assertTrue(adapter.getIdlePacketCount() <= 4);
+	}
+
+	@Test
+	public void testNioUnicastReceiverPausedWithoutDemand() throws Exception {
+		NioUnicastReceivingChannelAdapter adapter = new NioUnicastReceivingChannelAdapter(0);
+		Publisher<Message<?>> publisher = adapter.toPublisher();
+		adapter.setLocalAddress("127.0.0.1");
+		adapter.start();
+		SocketTestUtils.waitListening(adapter);
+		final BlockingQueue<Message<?>> received = new LinkedBlockingQueue<Message<?>>();
+		final AtomicReference<Subscription> subscription = new AtomicReference<Subscription>();
+		publisher.subscribe(new Subscriber<Message<?>>() {
+
+			@Override
+			public void onSubscribe(Subscription s) {
+				subscription.set(s);
+			}
+
+			@Override
+			public void onNext(Message<?> message) {
+				received.add(message);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+
+		});
+		subscription.get().request(1);
+
+		DatagramPacketMessageMapper mapper = new DatagramPacketMessageMapper();
+		DatagramSocket datagramSocket = new DatagramSocket(0);
+		for (int i = 0; i < 2; i++) {
+			DatagramPacket packet = mapper.fromMessage(MessageBuilder.withPayload(("ABCD" + i).getBytes()).build());
+			packet.setSocketAddress(new InetSocketAddress("127.0.0.1", adapter.getPort()));
+			datagramSocket.send(packet);
+		}
+		Message<?> message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertEquals("ABCD0", new String((byte[]) message.getPayload()));
+		SelectionKey selectionKey = TestUtils.getPropertyValue(adapter, "selectionKey", SelectionKey.class);
+		assertEquals(0, selectionKey.interestOps());
+		assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+
+		subscription.get().request(1);
+		assertEquals(SelectionKey.OP_READ, selectionKey.interestOps());
+		message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertEquals("ABCD1", new String((byte[]) message.getPayload()));
+		datagramSocket.close();
+		adapter.stop();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testNioUnicastReceiverAck() throws Exception {
+		QueueChannel channel = new QueueChannel(2);
+		NioUnicastReceivingChannelAdapter adapter = new NioUnicastReceivingChannelAdapter(0, true);
+		adapter.setOutputChannel(channel);
+		adapter.start();
+		SocketTestUtils.waitListening(adapter);
+		int port = adapter.getPort();
+
+		UnicastSendingMessageHandler handler = new UnicastSendingMessageHandler(
+				"localhost", port, true, true, "localhost", 0, 5000);
+		handler.setBeanFactory(mock(BeanFactory.class));
+		handler.afterPropertiesSet();
+		handler.start();
+		Message<byte[]> message = MessageBuilder.withPayload("ABCD".getBytes()).build();
+		handler.handleMessage(message);
+		Message<byte[]> receivedMessage = (Message<byte[]>) channel.receive(10000);
+		assertEquals(new String(message.getPayload()), new String(receivedMessage.getPayload()));
+		assertNotNull(receivedMessage.getHeaders().get(IpHeaders.ACK_ID));
+		adapter.stop();
+		handler.stop();
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void testMulticastReceiver() throws Exception {
@@ -21,6 +21,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -29,6 +30,8 @@ import java.util.Map;
 import javax.sql.DataSource;
 
 import org.springframework.integration.handler.AbstractMessageHandler;
+import org.springframework.integration.handler.BatchMessageHandler;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.PreparedStatementCallback;
@@ -58,12 +61,15 @@ import org.springframework.util.LinkedCaseInsensitiveMap;
  *
  * N.B. do not use quotes to escape the header keys. The default SQL parameter source (from Spring JDBC) can also handle
  * headers with dotted names (e.g. <code>business.id</code>)
+ * <p>
+ * As a {@link BatchMessageHandler}, a batch of messages (for example from a polling
+ * consumer in batch receive mode) is written with a single JDBC batch update.
  *
  * @author Dave Syer
  * @author Artem Bilan
  * @since 2.0
  */
-public class JdbcMessageHandler extends AbstractMessageHandler {
+public class JdbcMessageHandler extends AbstractMessageHandler implements BatchMessageHandler {
 
 	private final ResultSetExtractor<List<Map<String, Object>>> generatedKeysResultSetExtractor =
 			new RowMapperResultSetExtractor<Map<String, Object>>(new ColumnMapRowMapper(), 1);
@@ -165,6 +171,52 @@ public class JdbcMessageHandler extends AbstractMessageHandler {
 		}
 	}
 
+	/**
+	 * Executes the update for all the messages as a single JDBC batch. When
+	 * {@link #setKeysGenerated(boolean) keysGenerated} is true, the messages are
+	 * handled one at a time, since generated keys are not reliably available from
+	 * batch updates.
+	 * @param messages the messages.
+	 * @since 5.0
+	 */
+	@Override
+	public void handleMessages(final List<Message<?>> messages) {
+		if (this.keysGenerated) {
+			for (Message<?> message : messages) {
+				handleMessage(message);
+			}
+			return;
+		}
+		int[] updated;
+		if (this.preparedStatementSetter != null) {
+			updated = this.jdbcOperations.getJdbcOperations().batchUpdate(this.updateSql,
+					new BatchPreparedStatementSetter() {
+
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							JdbcMessageHandler.this.preparedStatementSetter.setValues(ps, messages.get(i));
+						}
+
+						@Override
+						public int getBatchSize() {
+							return messages.size();
+						}
+
+					});
+		}
+		else {
+			SqlParameterSource[] parameterSources = new SqlParameterSource[messages.size()];
+			for (int i = 0; i < parameterSources.length; i++) {
+				parameterSources[i] = this.sqlParameterSourceFactory.createParameterSource(messages.get(i));
+			}
+			updated = this.jdbcOperations.batchUpdate(this.updateSql, parameterSources);
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Batch update of " + messages.size() + " messages, update counts: "
+					+ Arrays.toString(updated));
+		}
+	}
+
 	protected List<? extends Map<String, Object>> executeUpdateQuery(final Message<?> message, boolean keysGenerated) {
 		SqlParameterSource updateParameterSource = EmptySqlParameterSource.INSTANCE;
 		if (this.preparedStatementSetter == null) {
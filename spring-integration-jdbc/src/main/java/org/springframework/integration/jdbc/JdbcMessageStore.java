@@ -25,9 +25,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -38,16 +40,22 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.core.serializer.support.DeserializingConverter;
 import org.springframework.core.serializer.support.SerializingConverter;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.integration.codec.Codec;
+import org.springframework.integration.codec.CodecDeserializingConverter;
+import org.springframework.integration.codec.CodecSerializingConverter;
 import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
 import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageStore;
+import org.springframework.integration.store.PagingMessageGroupStore;
 import org.springframework.integration.store.SimpleMessageGroup;
+import org.springframework.integration.store.TimeIndexedMessageGroupStore;
 import org.springframework.integration.util.UUIDConverter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -56,12 +64,16 @@ import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.lob.DefaultLobHandler;
 import org.springframework.jdbc.support.lob.LobHandler;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -88,7 +100,8 @@ import org.springframework.util.StringUtils;
  *
  * @since 2.0
  */
-public class JdbcMessageStore extends AbstractMessageGroupStore implements MessageStore, InitializingBean {
+public class JdbcMessageStore extends AbstractMessageGroupStore
+		implements MessageStore, PagingMessageGroupStore, TimeIndexedMessageGroupStore, InitializingBean {
 
 	private static final Log logger = LogFactory.getLog(JdbcMessageStore.class);
 
@@ -139,6 +152,9 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 		GET_MESSAGE("SELECT MESSAGE_ID, CREATED_DATE, MESSAGE_BYTES from %PREFIX%MESSAGE where MESSAGE_ID=? and REGION=?"),
 
+		GET_MESSAGES("SELECT MESSAGE_ID, CREATED_DATE, MESSAGE_BYTES from %PREFIX%MESSAGE " +
+				"where MESSAGE_ID in (:ids) and REGION=:region"),
+
 		GET_GROUP_CREATED_DATE("SELECT CREATED_DATE from %PREFIX%MESSAGE_GROUP where GROUP_KEY=? and REGION=?"),
 
 		GET_MESSAGE_COUNT("SELECT COUNT(MESSAGE_ID) from %PREFIX%MESSAGE where REGION=?"),
@@ -162,7 +178,13 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 		UPDATE_GROUP("UPDATE %PREFIX%MESSAGE_GROUP set UPDATED_DATE=? where GROUP_KEY=? and REGION=?"),
 
-		LIST_GROUP_KEYS("SELECT distinct GROUP_KEY as CREATED from %PREFIX%MESSAGE_GROUP where REGION=?");
+		LIST_GROUP_KEYS("SELECT distinct GROUP_KEY as CREATED from %PREFIX%MESSAGE_GROUP where REGION=?"),
+
+		LIST_EXPIRED_GROUP_KEYS("SELECT GROUP_KEY from %PREFIX%MESSAGE_GROUP where REGION=? and CREATED_DATE<=? " +
+				"ORDER BY CREATED_DATE"),
+
+		LIST_IDLE_GROUP_KEYS("SELECT GROUP_KEY from %PREFIX%MESSAGE_GROUP where REGION=? and UPDATED_DATE<=? " +
+				"ORDER BY UPDATED_DATE");
 
 		private String sql;
 
@@ -194,9 +216,11 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 	private volatile JdbcOperations jdbcTemplate;
 
-	private volatile DeserializingConverter deserializer;
+	private volatile NamedParameterJdbcOperations namedParameterJdbcTemplate;
+
+	private volatile Converter<byte[], Object> deserializer;
 
-	private volatile SerializingConverter serializer;
+	private volatile Converter<Object, byte[]> serializer;
 
 	private volatile LobHandler lobHandler = new DefaultLobHandler();
 
@@ -291,6 +315,21 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		this.deserializer = new DeserializingConverter((Deserializer) deserializer);
 	}
 
+	/**
+	 * Use the provided {@link Codec} (for example a
+	 * {@link org.springframework.integration.codec.kryo.MessageCodec}) instead of JDK
+	 * serialization to convert messages to and from byte arrays for storage; stored
+	 * messages are decoded as {@link GenericMessage}s. Replaces any configured serializer
+	 * and deserializer.
+	 * @param codec the codec.
+	 * @since 5.0
+	 */
+	public void setCodec(Codec codec) {
+		Assert.notNull(codec, "'codec' cannot be null");
+		this.serializer = new CodecSerializingConverter(codec);
+		this.deserializer = new CodecDeserializingConverter(codec, GenericMessage.class);
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		Assert.state(this.jdbcTemplate != null, "A DataSource or JdbcTemplate must be provided");
@@ -325,6 +364,38 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		return list.get(0);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>The messages are selected with an {@code IN} clause of at most
+	 * {@link #getLazyLoadPageSize()} ids per query.
+	 */
+	@Override
+	public List<Message<?>> getMessages(List<UUID> messageIds) {
+		Assert.notNull(messageIds, "'messageIds' must not be null");
+		Map<UUID, Message<?>> found = new HashMap<UUID, Message<?>>();
+		int pageSize = getLazyLoadPageSize();
+		for (int from = 0; from < messageIds.size(); from += pageSize) {
+			List<String> keys = new ArrayList<String>();
+			for (UUID id : messageIds.subList(from, Math.min(from + pageSize, messageIds.size()))) {
+				keys.add(getKey(id));
+			}
+			MapSqlParameterSource parameters = new MapSqlParameterSource("ids", keys)
+					.addValue("region", this.region);
+			for (Message<?> message : getNamedParameterJdbcOperations()
+					.query(getQuery(Query.GET_MESSAGES), parameters, this.mapper)) {
+				found.put(message.getHeaders().getId(), message);
+			}
+		}
+		List<Message<?>> messages = new ArrayList<Message<?>>(found.size());
+		for (UUID id : messageIds) {
+			Message<?> message = found.get(id);
+			if (message != null) {
+				messages.add(message);
+			}
+		}
+		return messages;
+	}
+
 	@Override
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public <T> Message<T> addMessage(final Message<T> message) {
@@ -604,6 +675,80 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 				this.region);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>The expired groups are selected by their {@code CREATED_DATE} (or
+	 * {@code UPDATED_DATE} when {@code timeoutOnIdle} is true), which are indexed, rather
+	 * than by reading every group.
+	 */
+	@Override
+	public synchronized int expireMessageGroups(long timeout, final int maxGroups) {
+		Assert.isTrue(maxGroups > 0, "'maxGroups' must be greater than 0");
+		final Timestamp threshold = new Timestamp(System.currentTimeMillis() - timeout);
+		final Set<String> survivors = new HashSet<String>();
+		int count = 0;
+		RuntimeException exception = null;
+		boolean expiredAny;
+		do {
+			expiredAny = false;
+			final int maxRows = maxGroups - count + survivors.size();
+			List<String> groupKeys = this.jdbcTemplate.query(
+					getQuery(isTimeoutOnIdle() ? Query.LIST_IDLE_GROUP_KEYS : Query.LIST_EXPIRED_GROUP_KEYS),
+					new PreparedStatementSetter() {
+
+						@Override
+						public void setValues(PreparedStatement ps) throws SQLException {
+							ps.setString(1, JdbcMessageStore.this.region);
+							ps.setTimestamp(2, threshold);
+							ps.setMaxRows(maxRows);
+						}
+
+					}, new SingleColumnRowMapper<String>());
+			for (String groupKey : groupKeys) {
+				if (count >= maxGroups) {
+					break;
+				}
+				if (survivors.contains(groupKey)) {
+					continue;
+				}
+				expiredAny = true;
+				try {
+					expire(getMessageGroup(groupKey));
+				}
+				catch (RuntimeException e) {
+					if (exception == null) {
+						exception = e;
+					}
+				}
+				if (isExpired(groupKey, threshold)) {
+					// not removed by the callbacks; skip it for the rest of this call
+					survivors.add(groupKey);
+				}
+				else {
+					count++;
+				}
+			}
+		}
+		while (expiredAny && count < maxGroups);
+		if (exception != null) {
+			throw exception;
+		}
+		return count;
+	}
+
+	private boolean isExpired(String groupKey, Timestamp threshold) {
+		final String column = isTimeoutOnIdle() ? "UPDATED_DATE" : "CREATED_DATE";
+		List<Timestamp> dates = this.jdbcTemplate.query(getQuery(Query.GET_GROUP_INFO), new RowMapper<Timestamp>() {
+
+			@Override
+			public Timestamp mapRow(ResultSet rs, int rowNum) throws SQLException {
+				return rs.getTimestamp(column);
+			}
+
+		}, groupKey, this.region);
+		return dates.size() > 0 && !dates.get(0).after(threshold);
+	}
+
 	@Override
 	public Iterator<MessageGroup> iterator() {
 
@@ -721,7 +866,8 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		});
 	}
 
-	private List<UUID> getMessageIdsForGroup(Object groupId) {
+	@Override
+	public List<UUID> getMessageIdsForGroup(Object groupId) {
 		String key = getKey(groupId);
 
 		final List<UUID> messageIds = new ArrayList<UUID>();
@@ -737,6 +883,13 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		return messageIds;
 	}
 
+	private NamedParameterJdbcOperations getNamedParameterJdbcOperations() {
+		if (this.namedParameterJdbcTemplate == null) {
+			this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(this.jdbcTemplate);
+		}
+		return this.namedParameterJdbcTemplate;
+	}
+
 	private String getKey(Object input) {
 		return input == null ? null : UUIDConverter.getUUID(input).toString();
 	}
@@ -17,8 +17,12 @@
 package org.springframework.integration.jdbc.store;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -39,15 +43,20 @@ import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.core.serializer.support.DeserializingConverter;
 import org.springframework.core.serializer.support.SerializingConverter;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.codec.Codec;
+import org.springframework.integration.codec.CodecDeserializingConverter;
+import org.springframework.integration.codec.CodecSerializingConverter;
 import org.springframework.integration.jdbc.JdbcMessageStore;
 import org.springframework.integration.jdbc.store.channel.ChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.MessageRowMapper;
 import org.springframework.integration.jdbc.store.channel.OracleChannelMessageStoreQueryProvider;
+import org.springframework.integration.store.BatchPollingChannelMessageStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupFactory;
 import org.springframework.integration.store.MessageGroupStore;
@@ -59,9 +68,11 @@ import org.springframework.integration.support.MessageBuilderFactory;
 import org.springframework.integration.support.utils.IntegrationUtils;
 import org.springframework.integration.transaction.TransactionSynchronizationFactory;
 import org.springframework.integration.util.UUIDConverter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.lob.DefaultLobHandler;
@@ -71,6 +82,7 @@ import org.springframework.jmx.export.annotation.ManagedMetric;
 import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -91,6 +103,11 @@ import org.springframework.util.StringUtils;
  * under {@code org/springframework/integration/jdbc/messagestore/channel/schema-*.sql},
  * where {@code *} denotes the target database type.
  * </p>
+ * <p>
+ * When a {@code QueueChannel} is asked for a batch of messages, up to the requested
+ * number of messages are selected with a single query and deleted with a single batched
+ * statement; see {@link #pollMessagesFromGroup(Object, int)}.
+ * </p>
  *
  * @author Gunnar Hillert
  * @author Artem Bilan
@@ -98,7 +115,8 @@ import org.springframework.util.StringUtils;
  * @since 2.2
  */
 @ManagedResource
-public class JdbcChannelMessageStore implements PriorityCapableChannelMessageStore, InitializingBean, BeanFactoryAware {
+public class JdbcChannelMessageStore implements PriorityCapableChannelMessageStore, BatchPollingChannelMessageStore,
+		InitializingBean, BeanFactoryAware {
 
 	private static final Log logger = LogFactory.getLog(JdbcChannelMessageStore.class);
 
@@ -124,6 +142,8 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 
 	private ChannelMessageStoreQueryProvider channelMessageStoreQueryProvider;
 
+	private volatile boolean batchPollSupported;
+
 	/**
 	 * The name of the message header that stores a flag to indicate that the message has been saved. This is an
 	 * optimization for the put method.
@@ -143,9 +163,11 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 
 	private volatile JdbcTemplate jdbcTemplate;
 
-	private volatile DeserializingConverter deserializer;
+	private volatile JdbcTemplate batchJdbcTemplate;
+
+	private volatile Converter<byte[], Object> deserializer;
 
-	private volatile SerializingConverter serializer;
+	private volatile Converter<Object, byte[]> serializer;
 
 	private volatile LobHandler lobHandler = new DefaultLobHandler();
 
@@ -211,6 +233,22 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		this.deserializer = new DeserializingConverter((Deserializer) deserializer);
 	}
 
+	/**
+	 * Use the provided {@link Codec} (for example a
+	 * {@link org.springframework.integration.codec.kryo.MessageCodec}) instead of JDK
+	 * serialization to convert messages to and from byte arrays for storage; stored
+	 * messages are decoded as {@link GenericMessage}s. Replaces any configured serializer
+	 * and deserializer; must be called before {@link #afterPropertiesSet()} creates the
+	 * default {@link MessageRowMapper}.
+	 * @param codec the codec.
+	 * @since 5.0
+	 */
+	public void setCodec(Codec codec) {
+		Assert.notNull(codec, "'codec' cannot be null");
+		this.serializer = new CodecSerializingConverter(codec);
+		this.deserializer = new CodecDeserializingConverter(codec, GenericMessage.class);
+	}
+
 	/**
 	 * The {@link JdbcOperations} to use when interacting with the database. Either
 	 * this property can be set or the {@link #setDataSource(DataSource) dataSource}.
@@ -262,6 +300,23 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		Assert.notNull(channelMessageStoreQueryProvider,
 				"The provided channelMessageStoreQueryProvider must not be null.");
 		this.channelMessageStoreQueryProvider = channelMessageStoreQueryProvider;
+		this.batchPollSupported = supportsBatchPolling(channelMessageStoreQueryProvider);
+	}
+
+	private static boolean supportsBatchPolling(ChannelMessageStoreQueryProvider queryProvider) {
+		try {
+			queryProvider.getBatchPollFromGroupQuery();
+			queryProvider.getBatchPollFromGroupExcludeIdsQuery();
+			queryProvider.getPriorityBatchPollFromGroupQuery();
+			queryProvider.getPriorityBatchPollFromGroupExcludeIdsQuery();
+			return true;
+		}
+		catch (UnsupportedOperationException e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Batch polling is not supported: " + e.getMessage());
+			}
+			return false;
+		}
 	}
 
 	/**
@@ -320,8 +375,8 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 	 * <pre class="code">
 	 * {@code
 	 * <int:transaction-synchronization-factory id="syncFactory">
-	 *     <int:after-commit   expression="@jdbcChannelMessageStore.removeFromIdCache(headers.id.toString())" />
-	 *     <int:after-rollback expression="@jdbcChannelMessageStore.removeFromIdCache(headers.id.toString())" />
+	 *     <int:after-commit   expression="@jdbcChannelMessageStore.removeFromIdCache(#root)" />
+	 *     <int:after-rollback expression="@jdbcChannelMessageStore.removeFromIdCache(#root)" />
 	 * </int:transaction-synchronization-factory>
 	 * }
 	 * </pre>
@@ -406,6 +461,17 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 			this.messageBuilderFactory = IntegrationUtils.getMessageBuilderFactory(this.beanFactory);
 		}
 		this.jdbcTemplate.afterPropertiesSet();
+
+		if (this.jdbcTemplate.getMaxRows() > 0) {
+			// the batch poll must not be truncated to the template's maxRows
+			this.batchJdbcTemplate = new JdbcTemplate(this.jdbcTemplate.getDataSource());
+			this.batchJdbcTemplate.setFetchSize(this.jdbcTemplate.getFetchSize());
+			this.batchJdbcTemplate.setQueryTimeout(this.jdbcTemplate.getQueryTimeout());
+			this.batchJdbcTemplate.setExceptionTranslator(this.jdbcTemplate.getExceptionTranslator());
+		}
+		else {
+			this.batchJdbcTemplate = this.jdbcTemplate;
+		}
 	}
 
 	/**
@@ -554,6 +620,34 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		return polledMessage;
 	}
 
+	/**
+	 * Polls the database for up to {@code maxMessages} messages persisted for the given
+	 * group id, selecting them with a single query (which locks the rows with
+	 * {@code SKIP LOCKED} where the {@link ChannelMessageStoreQueryProvider} supports it)
+	 * and removing them with a single batched delete. Messages that could not be deleted
+	 * (because another consumer removed them first) are not returned. If the query
+	 * provider does not provide the batch poll queries, the messages are polled one at a
+	 * time.
+	 * @since 5.0
+	 */
+	@Override
+	public List<Message<?>> pollMessagesFromGroup(Object groupId, int maxMessages) {
+		Assert.isTrue(maxMessages > 0, "'maxMessages' must be greater than 0");
+		if (!this.batchPollSupported) {
+			List<Message<?>> polledMessages = new ArrayList<Message<?>>();
+			Message<?> message;
+			while (polledMessages.size() < maxMessages && (message = pollMessageFromGroup(groupId)) != null) {
+				polledMessages.add(message);
+			}
+			return polledMessages;
+		}
+		List<Message<?>> polledMessages = doPollForMessages(getKey(groupId), maxMessages);
+		if (polledMessages.isEmpty()) {
+			return polledMessages;
+		}
+		return doRemoveMessagesFromGroup(groupId, polledMessages);
+	}
+
 	/**
 	 * This method executes a call to the DB to get the oldest Message in the
 	 * MessageGroup which in the context of the {@link JdbcChannelMessageStore}
@@ -625,6 +719,124 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		return null;
 	}
 
+	/**
+	 * This method executes a call to the DB to get up to {@code maxMessages} of the
+	 * oldest Messages in the MessageGroup which in the context of the
+	 * {@link JdbcChannelMessageStore} means the channel identifier.
+	 *
+	 * @param groupIdKey String representation of message group (Channel) ID
+	 * @param maxMessages the maximum number of messages to return
+	 * @return the messages; could be empty if the query produced no Messages
+	 * @since 5.0
+	 */
+	protected List<Message<?>> doPollForMessages(String groupIdKey, final int maxMessages) {
+
+		final NamedParameterJdbcTemplate namedParameterJdbcTemplate =
+				new NamedParameterJdbcTemplate(this.batchJdbcTemplate);
+		final MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+		parameters.addValue("region", this.region);
+		parameters.addValue("group_key", groupIdKey);
+		parameters.addValue("max_messages", maxMessages);
+
+		String query;
+
+		final List<Message<?>> messages;
+
+		this.idCacheReadLock.lock();
+		try {
+			if (this.usingIdCache && !this.idCache.isEmpty()) {
+				if (this.priorityEnabled) {
+					query = getQuery(this.channelMessageStoreQueryProvider.getPriorityBatchPollFromGroupExcludeIdsQuery());
+				}
+				else {
+					query = getQuery(this.channelMessageStoreQueryProvider.getBatchPollFromGroupExcludeIdsQuery());
+				}
+				parameters.addValue("message_ids", this.idCache);
+			}
+			else {
+				if (this.priorityEnabled) {
+					query = getQuery(this.channelMessageStoreQueryProvider.getPriorityBatchPollFromGroupQuery());
+				}
+				else {
+					query = getQuery(this.channelMessageStoreQueryProvider.getBatchPollFromGroupQuery());
+				}
+			}
+			// stop reading at maxMessages - rows that are never fetched are never locked (Oracle)
+			messages = namedParameterJdbcTemplate.query(query, parameters,
+					new ResultSetExtractor<List<Message<?>>>() {
+
+						@Override
+						public List<Message<?>> extractData(ResultSet rs) throws SQLException {
+							List<Message<?>> result = new ArrayList<Message<?>>();
+							while (result.size() < maxMessages && rs.next()) {
+								result.add(JdbcChannelMessageStore.this.messageRowMapper.mapRow(rs, result.size()));
+							}
+							return result;
+						}
+
+					});
+		}
+		finally {
+			this.idCacheReadLock.unlock();
+		}
+
+		if (this.usingIdCache && !messages.isEmpty()) {
+			this.idCacheWriteLock.lock();
+			try {
+				for (Message<?> message : messages) {
+					String messageId = message.getHeaders().getId().toString();
+					boolean added = this.idCache.add(messageId);
+
+					if (logger.isDebugEnabled()) {
+						logger.debug(String.format("Polled message with id '%s' added: '%s'.", messageId, added));
+					}
+				}
+			}
+			finally {
+				this.idCacheWriteLock.unlock();
+			}
+		}
+
+		return messages;
+	}
+
+	private List<Message<?>> doRemoveMessagesFromGroup(Object groupId, final List<Message<?>> messagesToRemove) {
+		final String groupKey = getKey(groupId);
+
+		int[] updated = this.jdbcTemplate.batchUpdate(getQuery(this.channelMessageStoreQueryProvider.getDeleteMessageQuery()),
+				new BatchPreparedStatementSetter() {
+
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						ps.setString(1, getKey(messagesToRemove.get(i).getHeaders().getId()));
+						ps.setString(2, groupKey);
+						ps.setString(3, JdbcChannelMessageStore.this.region);
+					}
+
+					@Override
+					public int getBatchSize() {
+						return messagesToRemove.size();
+					}
+
+				});
+
+		List<Message<?>> removed = new ArrayList<Message<?>>(messagesToRemove.size());
+		for (int i = 0; i < updated.length; i++) {
+			UUID id = messagesToRemove.get(i).getHeaders().getId();
+			if (updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO) {
+				removed.add(messagesToRemove.get(i));
+				if (logger.isDebugEnabled()) {
+					logger.debug(String.format("Message with id '%s' was deleted.", id));
+				}
+			}
+			else {
+				logger.warn(String.format("Message with id '%s' was not deleted.", id));
+			}
+		}
+		return removed;
+	}
+
 	private boolean doRemoveMessageFromGroup(Object groupId, Message<?> messageToRemove) {
 		final UUID id = messageToRemove.getHeaders().getId();
 
@@ -665,6 +877,38 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		}
 	}
 
+	/**
+	 * <p>Remove the id of a polled message from the idCache. When the message is the
+	 * one a poller that receives batches binds to the transaction, its payload is the
+	 * list of polled messages, and their ids are removed too. Use it with
+	 * {@code removeFromIdCache(#root)} in the transaction synchronization
+	 * expressions, which works for both single and batch polling.</p>
+	 * <p>Only applicable if {@link #setUsingIdCache(boolean)} is set to
+	 * <code>true</code></p>.
+	 * @param message The polled message, or the message containing the polled batch.
+	 * @since 5.0
+	 */
+	public void removeFromIdCache(Message<?> message) {
+		Object payload = message.getPayload();
+		if (logger.isDebugEnabled()) {
+			logger.debug("Removing Message Id(s) of:" + message.getHeaders().getId());
+		}
+		this.idCacheWriteLock.lock();
+		try {
+			this.idCache.remove(message.getHeaders().getId().toString());
+			if (payload instanceof Collection) {
+				for (Object element : (Collection<?>) payload) {
+					if (element instanceof Message) {
+						this.idCache.remove(((Message<?>) element).getHeaders().getId().toString());
+					}
+				}
+			}
+		}
+		finally {
+			this.idCacheWriteLock.unlock();
+		}
+	}
+
 	/**
 	 * Returns the size of the Message Id Cache, which caches Message Ids for
 	 * those messages that are currently being processed.
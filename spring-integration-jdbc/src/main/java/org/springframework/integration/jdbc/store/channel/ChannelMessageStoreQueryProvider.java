@@ -67,6 +67,68 @@ public interface ChannelMessageStoreQueryProvider {
 	 */
 	String getPriorityPollFromGroupQuery();
 
+	/**
+	 * Get the query used to retrieve, and lock where the database supports it, up to
+	 * {@code :max_messages} of the oldest messages for a channel excluding messages that
+	 * match the provided message ids.
+	 *
+	 * <p>Not supported by default; the {@link JdbcChannelMessageStore} then polls one
+	 * message at a time.
+	 *
+	 * @return Sql Query
+	 * @since 5.0
+	 */
+	default String getBatchPollFromGroupExcludeIdsQuery() {
+		throw new UnsupportedOperationException(getClass().getName()
+				+ " does not provide batch poll queries; messages are polled one at a time");
+	}
+
+	/**
+	 * Get the query used to retrieve, and lock where the database supports it, up to
+	 * {@code :max_messages} of the oldest messages for a channel.
+	 *
+	 * <p>Not supported by default; the {@link JdbcChannelMessageStore} then polls one
+	 * message at a time.
+	 *
+	 * @return Sql Query
+	 * @since 5.0
+	 */
+	default String getBatchPollFromGroupQuery() {
+		throw new UnsupportedOperationException(getClass().getName()
+				+ " does not provide batch poll queries; messages are polled one at a time");
+	}
+
+	/**
+	 * Get the query used to retrieve, and lock where the database supports it, up to
+	 * {@code :max_messages} of the oldest messages by priority for a channel excluding
+	 * messages that match the provided message ids.
+	 *
+	 * <p>Not supported by default; the {@link JdbcChannelMessageStore} then polls one
+	 * message at a time.
+	 *
+	 * @return Sql Query
+	 * @since 5.0
+	 */
+	default String getPriorityBatchPollFromGroupExcludeIdsQuery() {
+		throw new UnsupportedOperationException(getClass().getName()
+				+ " does not provide batch poll queries; messages are polled one at a time");
+	}
+
+	/**
+	 * Get the query used to retrieve, and lock where the database supports it, up to
+	 * {@code :max_messages} of the oldest messages by priority for a channel.
+	 *
+	 * <p>Not supported by default; the {@link JdbcChannelMessageStore} then polls one
+	 * message at a time.
+	 *
+	 * @return Sql Query
+	 * @since 5.0
+	 */
+	default String getPriorityBatchPollFromGroupQuery() {
+		throw new UnsupportedOperationException(getClass().getName()
+				+ " does not provide batch poll queries; messages are polled one at a time");
+	}
+
 	/**
 	 * Query that retrieves a message for the provided message id, channel and
 	 * region.
@@ -19,6 +19,7 @@ package org.springframework.integration.jdbc.store.channel;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.serializer.support.DeserializingConverter;
 import org.springframework.messaging.Message;
 import org.springframework.jdbc.core.RowMapper;
@@ -35,10 +36,21 @@ import org.springframework.jdbc.support.lob.LobHandler;
  */
 public class MessageRowMapper implements RowMapper<Message<?>> {
 
-	private final DeserializingConverter deserializer;
+	private final Converter<byte[], Object> deserializer;
 	private final LobHandler lobHandler;
 
 	public MessageRowMapper(DeserializingConverter deserializer, LobHandler lobHandler) {
+		this((Converter<byte[], Object>) deserializer, lobHandler);
+	}
+
+	/**
+	 * Construct an instance with a converter such as a
+	 * {@link org.springframework.integration.codec.CodecDeserializingConverter}.
+	 * @param deserializer the converter for the message bytes.
+	 * @param lobHandler the lob handler.
+	 * @since 5.0
+	 */
+	public MessageRowMapper(Converter<byte[], Object> deserializer, LobHandler lobHandler) {
 		this.deserializer = deserializer;
 		this.lobHandler = lobHandler;
 	}
@@ -5,3 +5,5 @@ DROP TABLE  INT_MESSAGE_GROUP ;
 DROP TABLE  INT_GROUP_TO_MESSAGE ;
 DROP TABLE  INT_LOCK ;
 DROP INDEX  INT_MESSAGE_IX1 ;
+DROP INDEX  INT_MESSAGE_GROUP_IX1 ;
+DROP INDEX  INT_MESSAGE_GROUP_IX2 ;
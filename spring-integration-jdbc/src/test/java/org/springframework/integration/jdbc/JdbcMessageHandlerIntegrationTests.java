@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,8 @@ import static org.junit.Assert.assertTrue;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -130,4 +132,42 @@ public class JdbcMessageHandlerIntegrationTests {
 		assertEquals("Wrong name", "foo", map.get("NAME"));
 	}
 
+	@Test
+	public void testBatchDynamicInsert() {
+		JdbcMessageHandler handler = new JdbcMessageHandler(jdbcTemplate,
+				"insert into foos (id, status, name) values (:headers[business.id], 0, :payload)");
+		handler.afterPropertiesSet();
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < 10; i++) {
+			messages.add(MessageBuilder.withPayload("foo" + i).setHeader("business.id", "ID" + i).build());
+		}
+		handler.handleMessages(messages);
+		assertEquals(Integer.valueOf(10), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM FOOS", Integer.class));
+		Map<String, Object> map = jdbcTemplate.queryForMap("SELECT * FROM FOOS WHERE ID=?", "ID7");
+		assertEquals("Wrong name", "foo7", map.get("NAME"));
+	}
+
+	@Test
+	public void testBatchInsertWithMessagePreparedStatementSetter() {
+		JdbcMessageHandler handler = new JdbcMessageHandler(jdbcTemplate, "insert into foos (id, status, name) values (?, 0, ?)");
+		handler.setPreparedStatementSetter(new MessagePreparedStatementSetter() {
+
+			@Override
+			public void setValues(PreparedStatement ps, Message<?> requestMessage) throws SQLException {
+				ps.setObject(1, requestMessage.getHeaders().get("business.id"));
+				ps.setObject(2, requestMessage.getPayload());
+			}
+
+		});
+		handler.afterPropertiesSet();
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < 5; i++) {
+			messages.add(MessageBuilder.withPayload("bar" + i).setHeader("business.id", "ID" + i).build());
+		}
+		handler.handleMessages(messages);
+		assertEquals(Integer.valueOf(5), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM FOOS", Integer.class));
+		Map<String, Object> map = jdbcTemplate.queryForMap("SELECT * FROM FOOS WHERE ID=?", "ID3");
+		assertEquals("Wrong name", "bar3", map.get("NAME"));
+	}
+
 }
@@ -34,8 +34,10 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -51,6 +53,7 @@ import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.codec.kryo.MessageCodec;
 import org.springframework.integration.history.MessageHistory;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
@@ -91,6 +94,17 @@ public class JdbcMessageStoreTests {
 		messageStore = new JdbcMessageStore(dataSource);
 	}
 
+	@Test
+	public void testAddAndGetWithCodec() throws Exception {
+		this.messageStore.setCodec(new MessageCodec());
+		Message<String> message = MessageBuilder.withPayload("foo").setHeader("bar", 1L).build();
+		Message<String> saved = this.messageStore.addMessage(message);
+		Message<?> result = this.messageStore.getMessage(saved.getHeaders().getId());
+		assertThat(saved, sameExceptIgnorableHeaders(result));
+		assertEquals(1L, result.getHeaders().get("bar"));
+		assertNotNull(result.getHeaders().get(JdbcMessageStore.SAVED_KEY));
+	}
+
 	@Test
 	public void testGetNonExistent() throws Exception {
 		Message<?> result = messageStore.getMessage(UUID.randomUUID());
@@ -256,6 +270,33 @@ public class JdbcMessageStoreTests {
 		assertEquals(0, group.size());
 	}
 
+	@Test
+	public void testPagedMessageGroup() throws Exception {
+		String groupId = "X";
+		this.messageStore.setLazyLoadPageSize(3);
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		List<UUID> ids = new ArrayList<UUID>();
+		for (int i = 0; i < 10; i++) {
+			Message<String> message = MessageBuilder.withPayload("foo" + i).setCorrelationId(groupId).build();
+			messages.add(message);
+			ids.add(0, message.getHeaders().getId());
+		}
+		this.messageStore.addMessagesToGroup(groupId, messages.toArray(new Message<?>[messages.size()]));
+		MessageGroup group = this.messageStore.getMessageGroup(groupId);
+		assertEquals(10, group.size());
+		Set<Object> payloads = new HashSet<Object>();
+		for (Message<?> message : group.getMessages()) {
+			payloads.add(message.getPayload());
+		}
+		assertEquals(10, payloads.size());
+		ids.add(5, UUID.randomUUID());
+		List<Message<?>> fetched = this.messageStore.getMessages(ids);
+		assertEquals(10, fetched.size());
+		for (int i = 0; i < 10; i++) {
+			assertEquals("foo" + (9 - i), fetched.get(i).getPayload());
+		}
+	}
+
 	@Test
 	public void testRemoveMessageGroup() throws Exception {
 		JdbcTemplate template = new JdbcTemplate(this.dataSource);
@@ -369,6 +410,29 @@ public class JdbcMessageStoreTests {
 		assertTrue(groupRemovalLatch.await(10, TimeUnit.SECONDS));
 	}
 
+	@Test
+	public void testExpireBoundedBatch() throws Exception {
+		final List<Object> expired = new ArrayList<Object>();
+		this.messageStore.registerMessageGroupExpiryCallback(new MessageGroupCallback() {
+
+			@Override
+			public void execute(MessageGroupStore messageGroupStore, MessageGroup group) {
+				expired.add(group.getGroupId());
+				messageGroupStore.removeMessageGroup(group.getGroupId());
+			}
+
+		});
+		for (String groupId : new String[] { "X", "Y", "Z" }) {
+			this.messageStore.addMessagesToGroup(groupId, new GenericMessage<String>("foo"));
+		}
+		assertEquals(0, this.messageStore.expireMessageGroups(10000, 2));
+		assertEquals(2, this.messageStore.expireMessageGroups(-10000, 2));
+		assertEquals(1, this.messageStore.getMessageGroupCount());
+		assertEquals(1, this.messageStore.expireMessageGroups(-10000, 2));
+		assertEquals(0, this.messageStore.getMessageGroupCount());
+		assertEquals(3, expired.size());
+	}
+
 	@Test
 	public void testExpireMessageGroupOnIdleOnly() throws Exception {
 		String groupId = "X";
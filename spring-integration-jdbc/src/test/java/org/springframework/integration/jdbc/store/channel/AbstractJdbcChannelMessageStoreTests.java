@@ -19,23 +19,45 @@ package org.springframework.integration.jdbc.store.channel;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import javax.sql.DataSource;
 
+import org.aopalliance.aop.Advice;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.endpoint.PollingConsumer;
 import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
+import org.springframework.integration.store.MessageGroupQueue;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.transaction.DefaultTransactionSynchronizationFactory;
+import org.springframework.integration.transaction.ExpressionEvaluatingTransactionSynchronizationProcessor;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.PeriodicTrigger;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.interceptor.MatchAlwaysTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
 
@@ -103,4 +125,176 @@ public abstract class AbstractJdbcChannelMessageStoreTests {
 		assertNotNull(messageFromDb.getHeaders().get(JdbcChannelMessageStore.CREATED_DATE_KEY));
 	}
 
+	@Test
+	public void testBatchPoll() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, new GenericMessage<Integer>(i));
+		}
+		List<Message<?>> messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 3);
+		assertEquals(3, messages.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(i, messages.get(i).getPayload());
+		}
+		assertEquals(2, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+		messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 10);
+		assertEquals(2, messages.size());
+		assertEquals(3, messages.get(0).getPayload());
+		assertEquals(4, messages.get(1).getPayload());
+		assertTrue(messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 10).isEmpty());
+	}
+
+	@Test
+	public void testBatchPollWithoutBatchQueries() throws Exception {
+		// a provider that only implements the single poll queries
+		final ChannelMessageStoreQueryProvider queryProvider = this.queryProvider;
+		messageStore.setChannelMessageStoreQueryProvider(new ChannelMessageStoreQueryProvider() {
+
+			@Override
+			public String getCountAllMessagesInGroupQuery() {
+				return queryProvider.getCountAllMessagesInGroupQuery();
+			}
+
+			@Override
+			public String getPollFromGroupExcludeIdsQuery() {
+				return queryProvider.getPollFromGroupExcludeIdsQuery();
+			}
+
+			@Override
+			public String getPollFromGroupQuery() {
+				return queryProvider.getPollFromGroupQuery();
+			}
+
+			@Override
+			public String getPriorityPollFromGroupExcludeIdsQuery() {
+				return queryProvider.getPriorityPollFromGroupExcludeIdsQuery();
+			}
+
+			@Override
+			public String getPriorityPollFromGroupQuery() {
+				return queryProvider.getPriorityPollFromGroupQuery();
+			}
+
+			@Override
+			public String getMessageQuery() {
+				return queryProvider.getMessageQuery();
+			}
+
+			@Override
+			public String getMessageCountForRegionQuery() {
+				return queryProvider.getMessageCountForRegionQuery();
+			}
+
+			@Override
+			public String getDeleteMessageQuery() {
+				return queryProvider.getDeleteMessageQuery();
+			}
+
+			@Override
+			public String getCreateMessageQuery() {
+				return queryProvider.getCreateMessageQuery();
+			}
+
+			@Override
+			public String getDeleteMessageGroupQuery() {
+				return queryProvider.getDeleteMessageGroupQuery();
+			}
+
+		});
+		for (int i = 0; i < 3; i++) {
+			messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, new GenericMessage<Integer>(i));
+		}
+		List<Message<?>> messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 2);
+		assertEquals(2, messages.size());
+		assertEquals(0, messages.get(0).getPayload());
+		assertEquals(1, messages.get(1).getPayload());
+		messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 10);
+		assertEquals(1, messages.size());
+		assertEquals(2, messages.get(0).getPayload());
+		assertTrue(messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 10).isEmpty());
+	}
+
+	@Test
+	public void testBatchPollWithIdCache() throws Exception {
+		messageStore.setUsingIdCache(true);
+		Message<Integer> first = new GenericMessage<Integer>(0);
+		messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, first);
+		for (int i = 1; i < 4; i++) {
+			messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, new GenericMessage<Integer>(i));
+		}
+		assertNotNull(messageStore.pollMessageFromGroup(TEST_MESSAGE_GROUP));
+		assertEquals(1, messageStore.getSizeOfIdCache());
+		List<Message<?>> messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 10);
+		assertEquals(3, messages.size());
+		assertEquals(4, messageStore.getSizeOfIdCache());
+		for (Message<?> message : messages) {
+			messageStore.removeFromIdCache(message.getHeaders().getId().toString());
+		}
+		messageStore.removeFromIdCache(first.getHeaders().getId().toString());
+		assertEquals(0, messageStore.getSizeOfIdCache());
+	}
+
+	@Test
+	public void testBatchPollingConsumerWithIdCache() throws Exception {
+		messageStore.setUsingIdCache(true);
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(messageStore, TEST_MESSAGE_GROUP));
+		for (int i = 0; i < 5; i++) {
+			channel.send(new GenericMessage<Integer>(i));
+		}
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("store", messageStore);
+		ExpressionEvaluatingTransactionSynchronizationProcessor syncProcessor =
+				new ExpressionEvaluatingTransactionSynchronizationProcessor();
+		syncProcessor.setAfterCommitExpression(new SpelExpressionParser().parseExpression("@store.removeFromIdCache(#root)"));
+		syncProcessor.setBeanFactory(beanFactory);
+		syncProcessor.afterPropertiesSet();
+		final List<Object> received = new CopyOnWriteArrayList<Object>();
+		final CountDownLatch latch = new CountDownLatch(5);
+		PollingConsumer consumer = new PollingConsumer(channel, new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				received.add(message.getPayload());
+				latch.countDown();
+			}
+
+		});
+		consumer.setBatchReceive(true);
+		consumer.setMaxMessagesPerPoll(3);
+		consumer.setTrigger(new PeriodicTrigger(10));
+		consumer.setAdviceChain(Collections.<Advice>singletonList(
+				new TransactionInterceptor(transactionManager, new MatchAlwaysTransactionAttributeSource())));
+		consumer.setTransactionSynchronizationFactory(new DefaultTransactionSynchronizationFactory(syncProcessor));
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.afterPropertiesSet();
+		consumer.setTaskScheduler(scheduler);
+		consumer.setBeanFactory(beanFactory);
+		consumer.afterPropertiesSet();
+		consumer.start();
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		int n = 0;
+		while (n++ < 200 && messageStore.getSizeOfIdCache() > 0) {
+			Thread.sleep(50);
+		}
+		assertEquals(0, messageStore.getSizeOfIdCache());
+		consumer.stop();
+		scheduler.destroy();
+		assertEquals(5, received.size());
+	}
+
+	@Test
+	public void testQueueChannelBatchReceive() throws Exception {
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(messageStore, TEST_MESSAGE_GROUP));
+		for (int i = 0; i < 5; i++) {
+			channel.send(new GenericMessage<Integer>(i));
+		}
+		List<Message<?>> messages = channel.receive(4, 1000);
+		assertEquals(4, messages.size());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i, messages.get(i).getPayload());
+		}
+		messages = channel.receive(4, 1000);
+		assertEquals(1, messages.size());
+		assertEquals(4, messages.get(0).getPayload());
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2016 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,6 @@
 
 package org.springframework.integration.jms;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.List;
 
 import org.springframework.integration.channel.ExecutorChannelInterceptorAware;
@@ -73,19 +71,19 @@ public class PollableJmsChannel extends AbstractJmsChannel
 	@Override
 	public Message<?> receive() {
 		ChannelInterceptorList interceptorList = getInterceptors();
-		Deque<ChannelInterceptor> interceptorStack = null;
+		ChannelInterceptor[] interceptorArray = null;
 		boolean counted = false;
 		boolean countsEnabled = isCountsEnabled();
 		try {
 			if (logger.isTraceEnabled()) {
 				logger.trace("preReceive on channel '" + this + "'");
 			}
-			if (interceptorList.getInterceptors().size() > 0) {
-				interceptorStack = new ArrayDeque<ChannelInterceptor>();
-
-				if (!interceptorList.preReceive(this, interceptorStack)) {
+			if (interceptorList.getSize() > 0) {
+				ChannelInterceptor[] snapshot = interceptorList.getInterceptorArray();
+				if (!interceptorList.preReceive(this, snapshot)) {
 					return null;
 				}
+				interceptorArray = snapshot;
 			}
 			Object object;
 			if (this.messageSelector == null) {
@@ -115,9 +113,9 @@ public class PollableJmsChannel extends AbstractJmsChannel
 			if (logger.isDebugEnabled()) {
 				logger.debug("postReceive on channel '" + this + "', message: " + message);
 			}
-			if (interceptorStack != null) {
-				message = interceptorList.postReceive(message, this);
-				interceptorList.afterReceiveCompletion(message, this, null, interceptorStack);
+			if (interceptorArray != null) {
+				message = interceptorList.postReceive(message, this, interceptorArray);
+				interceptorList.afterReceiveCompletion(message, this, null, interceptorArray, interceptorArray.length);
 			}
 			return message;
 		}
@@ -125,8 +123,8 @@ public class PollableJmsChannel extends AbstractJmsChannel
 			if (countsEnabled && !counted) {
 				getMetrics().afterError();
 			}
-			if (interceptorStack != null) {
-				interceptorList.afterReceiveCompletion(null, this, e, interceptorStack);
+			if (interceptorArray != null) {
+				interceptorList.afterReceiveCompletion(null, this, e, interceptorArray, interceptorArray.length);
 			}
 			throw e;
 		}
@@ -44,6 +44,7 @@ import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.integration.codec.Codec;
 import org.springframework.integration.mongodb.support.MongoDbMessageBytesConverter;
 import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.BasicMessageGroupStore;
@@ -93,6 +94,8 @@ public abstract class AbstractConfigurableMongoDbMessageStore extends AbstractMe
 
 	protected MessageBuilderFactory messageBuilderFactory = new DefaultMessageBuilderFactory();
 
+	private Codec codec;
+
 	public AbstractConfigurableMongoDbMessageStore(MongoTemplate mongoTemplate, String collectionName) {
 		Assert.notNull("'mongoTemplate' must not be null");
 		Assert.hasText("'collectionName' must not be empty");
@@ -114,6 +117,21 @@ public abstract class AbstractConfigurableMongoDbMessageStore extends AbstractMe
 		this.mappingMongoConverter = mappingMongoConverter;
 	}
 
+	/**
+	 * Use the provided {@link Codec} (for example a
+	 * {@link org.springframework.integration.codec.kryo.MessageCodec}) instead of JDK
+	 * serialization to store messages. Only applies when the store creates its own
+	 * {@link MappingMongoConverter} (when neither a {@link MongoTemplate} nor a
+	 * {@link MappingMongoConverter} is provided); otherwise, register a
+	 * {@link MongoDbMessageBytesConverter} constructed with the codec as a custom
+	 * conversion on the converter.
+	 * @param codec the codec.
+	 * @since 5.0
+	 */
+	public void setCodec(Codec codec) {
+		this.codec = codec;
+	}
+
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
 		this.applicationContext = applicationContext;
@@ -127,7 +145,9 @@ public abstract class AbstractConfigurableMongoDbMessageStore extends AbstractMe
 						new MongoMappingContext());
 				this.mappingMongoConverter.setApplicationContext(this.applicationContext);
 				List<Object> customConverters = new ArrayList<Object>();
-				customConverters.add(new MongoDbMessageBytesConverter());
+				customConverters.add(this.codec != null
+						? new MongoDbMessageBytesConverter(this.codec)
+						: new MongoDbMessageBytesConverter());
 				this.mappingMongoConverter.setCustomConversions(new CustomConversions(customConverters));
 				this.mappingMongoConverter.afterPropertiesSet();
 			}
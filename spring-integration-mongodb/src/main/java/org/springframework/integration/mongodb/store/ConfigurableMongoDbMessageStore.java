@@ -19,15 +19,19 @@ package org.springframework.integration.mongodb.store;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.IndexOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
@@ -36,11 +40,14 @@ import org.springframework.integration.store.MessageGroupMetadata;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.store.SimpleMessageGroup;
+import org.springframework.integration.store.TimeIndexedMessageGroupStore;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
 
+import com.mongodb.DBCursor;
+
 /**
  * An alternate MongoDB {@link MessageStore} and {@link MessageGroupStore} which allows the user to
  * configure the instance of {@link MongoTemplate}. The mechanism of storing the messages/group of messages
@@ -54,7 +61,7 @@ import org.springframework.util.Assert;
  * @since 3.0
  */
 public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDbMessageStore
-		implements MessageStore {
+		implements MessageStore, TimeIndexedMessageGroupStore {
 
 	public final static String DEFAULT_COLLECTION_NAME = "configurableStoreMessages";
 
@@ -114,6 +121,16 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 		this.timeoutOnIdle = timeoutOnIdle;
 	}
 
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		super.afterPropertiesSet();
+		IndexOperations indexOperations = this.mongoTemplate.indexOps(this.collectionName);
+		indexOperations.ensureIndex(new Index(MessageDocumentFields.GROUP_HEAD, Sort.Direction.ASC)
+				.on(MessageDocumentFields.CREATED_TIME, Sort.Direction.ASC));
+		indexOperations.ensureIndex(new Index(MessageDocumentFields.GROUP_HEAD, Sort.Direction.ASC)
+				.on(MessageDocumentFields.LAST_MODIFIED_TIME, Sort.Direction.ASC));
+	}
+
 	@Override
 	public <T> Message<T> addMessage(Message<T> message) {
 		Assert.notNull(message, "'message' must not be null");
@@ -184,9 +201,14 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 			createdTime = messageDocument.getCreatedTime();
 			lastReleasedSequence = messageDocument.getLastReleasedSequence();
 			complete = messageDocument.isComplete();
+			// the last new document becomes the head
+			this.mongoTemplate.updateMulti(groupIdQuery(groupId)
+							.addCriteria(Criteria.where(MessageDocumentFields.GROUP_HEAD).is(true)),
+					new Update().unset(MessageDocumentFields.GROUP_HEAD), this.collectionName);
 		}
 
-		for (Message<?> message : messages) {
+		for (int i = 0; i < messages.length; i++) {
+			Message<?> message = messages[i];
 			MessageDocument document = new MessageDocument(message);
 			document.setGroupId(groupId);
 			document.setComplete(complete);
@@ -194,6 +216,7 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 			document.setCreatedTime(createdTime);
 			document.setLastModifiedTime(messageDocument == null ? createdTime : System.currentTimeMillis());
 			document.setSequence(getNextId());
+			document.setGroupHead(i == messages.length - 1);
 
 			addMessageDocument(document);
 		}
@@ -295,6 +318,84 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 		return count;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>The expired groups are found with a range query on the indexed
+	 * {@code createdTime} (or {@code lastModifiedTime} when {@code timeoutOnIdle} is true)
+	 * field of the group head documents, oldest first; the head is the one document of
+	 * each group that is updated on every change to the group, so each group is visited
+	 * once, with its current time. Groups stored by earlier versions, which have no head
+	 * document, are found once they have been modified.
+	 */
+	@Override
+	public int expireMessageGroups(long timeout, int maxGroups) {
+		Assert.isTrue(maxGroups > 0, "'maxGroups' must be greater than 0");
+		long threshold = System.currentTimeMillis() - timeout;
+		String timeField = this.timeoutOnIdle
+				? MessageDocumentFields.LAST_MODIFIED_TIME
+				: MessageDocumentFields.CREATED_TIME;
+		Set<Object> survivors = new HashSet<Object>();
+		int count = 0;
+		RuntimeException exception = null;
+		boolean expiredAny;
+		do {
+			expiredAny = false;
+			Query query = expiredHeadQuery(timeField, threshold)
+					.with(new Sort(timeField))
+					.limit(maxGroups - count + survivors.size());
+			query.fields().include(MessageDocumentFields.GROUP_ID);
+			List<Object> groupIds = new ArrayList<Object>();
+			DBCursor cursor = this.mongoTemplate.getCollection(this.collectionName)
+					.find(query.getQueryObject(), query.getFieldsObject())
+					.sort(query.getSortObject())
+					.limit(query.getLimit());
+			try {
+				while (cursor.hasNext()) {
+					groupIds.add(cursor.next().get(MessageDocumentFields.GROUP_ID));
+				}
+			}
+			finally {
+				cursor.close();
+			}
+			for (Object groupId : groupIds) {
+				if (count >= maxGroups) {
+					break;
+				}
+				if (survivors.contains(groupId)) {
+					continue;
+				}
+				expiredAny = true;
+				try {
+					expire(getMessageGroup(groupId));
+				}
+				catch (RuntimeException e) {
+					if (exception == null) {
+						exception = e;
+					}
+				}
+				Query stillExpired = expiredHeadQuery(timeField, threshold)
+						.addCriteria(Criteria.where(MessageDocumentFields.GROUP_ID).is(groupId));
+				if (this.mongoTemplate.exists(stillExpired, this.collectionName)) {
+					// not removed by the callbacks; skip it for the rest of this call
+					survivors.add(groupId);
+				}
+				else {
+					count++;
+				}
+			}
+		}
+		while (expiredAny && count < maxGroups);
+		if (exception != null) {
+			throw exception;
+		}
+		return count;
+	}
+
+	private static Query expiredHeadQuery(String timeField, long threshold) {
+		return Query.query(Criteria.where(MessageDocumentFields.GROUP_HEAD).is(true)
+				.and(timeField).lte(threshold));
+	}
+
 	@Override
 	@ManagedAttribute
 	public int getMessageCountForAllMessageGroups() {
@@ -368,6 +469,8 @@ public class ConfigurableMongoDbMessageStore extends AbstractConfigurableMongoDb
 
 
 	private void updateGroup(Object groupId, Update update) {
+		// the updated document is the head, even if the previous head was removed
+		update.set(MessageDocumentFields.GROUP_HEAD, true);
 		this.mongoTemplate.updateFirst(groupOrderQuery(groupId), update, this.collectionName);
 	}
 
@@ -63,6 +63,9 @@ public class MessageDocument {
 	@SuppressWarnings("unused")
 	private int sequence;
 
+	@SuppressWarnings("unused")
+	private Boolean groupHead;
+
 	public MessageDocument(Message<?> message) {
 		Assert.notNull(message, "'message' must not be null");
 		this.message = message;
@@ -117,4 +120,14 @@ public class MessageDocument {
 		this.sequence = sequence;
 	}
 
+	/**
+	 * Mark this document as the one that holds the state of its group; not set
+	 * (and not stored) for the other documents.
+	 * @param groupHead true for the group's head document.
+	 * @since 5.0
+	 */
+	public void setGroupHead(boolean groupHead) {
+		this.groupHead = groupHead ? Boolean.TRUE : null;
+	}
+
 }
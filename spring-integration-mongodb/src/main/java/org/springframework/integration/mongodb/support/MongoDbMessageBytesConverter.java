@@ -24,7 +24,12 @@ import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.converter.GenericConverter;
 import org.springframework.core.serializer.support.DeserializingConverter;
 import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.integration.codec.Codec;
+import org.springframework.integration.codec.CodecDeserializingConverter;
+import org.springframework.integration.codec.CodecSerializingConverter;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.util.Assert;
 
 /**
  * A {@link GenericConverter} implementation to convert {@link Message} to
@@ -36,9 +41,30 @@ import org.springframework.messaging.Message;
  */
 public class MongoDbMessageBytesConverter implements GenericConverter {
 
-	private final Converter<Object, byte[]> serializingConverter = new SerializingConverter();
+	private final Converter<Object, byte[]> serializingConverter;
 
-	private final Converter<byte[], Object> deserializingConverter = new DeserializingConverter();
+	private final Converter<byte[], Object> deserializingConverter;
+
+	/**
+	 * Construct an instance that uses JDK serialization.
+	 */
+	public MongoDbMessageBytesConverter() {
+		this.serializingConverter = new SerializingConverter();
+		this.deserializingConverter = new DeserializingConverter();
+	}
+
+	/**
+	 * Construct an instance that uses the provided {@link Codec} (for example a
+	 * {@link org.springframework.integration.codec.kryo.MessageCodec}); messages are
+	 * decoded as {@link GenericMessage}s.
+	 * @param codec the codec.
+	 * @since 5.0
+	 */
+	public MongoDbMessageBytesConverter(Codec codec) {
+		Assert.notNull(codec, "'codec' cannot be null");
+		this.serializingConverter = new CodecSerializingConverter(codec);
+		this.deserializingConverter = new CodecDeserializingConverter(codec, GenericMessage.class);
+	}
 
 	@Override
 	public Set<ConvertiblePair> getConvertibleTypes() {
@@ -20,6 +20,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.hamcrest.Matchers;
@@ -30,17 +32,24 @@ import org.springframework.context.support.ClassPathXmlApplicationContext;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.SimpleMongoDbFactory;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.channel.PriorityChannel;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.mongodb.rules.MongoDbAvailable;
 import org.springframework.integration.store.AbstractMessageGroupStore;
+import org.springframework.integration.store.MessageGroup;
+import org.springframework.integration.store.MessageGroupStore;
+import org.springframework.integration.store.MessageGroupStore.MessageGroupCallback;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.StopWatch;
 
 import com.mongodb.DBObject;
@@ -191,7 +200,40 @@ public class ConfigurableMongoDbMessageGroupStoreTests extends AbstractMongoDbMe
 		context.close();
 	}
 
-
+	@Test
+	@MongoDbAvailable
+	public void testBoundedExpiryUsesGroupHead() throws Exception {
+		this.cleanupCollections(new SimpleMongoDbFactory(new MongoClient(), "test"));
+		ConfigurableMongoDbMessageStore store = getMessageGroupStore();
+		store.setTimeoutOnIdle(true);
+		final List<Object> expired = new ArrayList<Object>();
+		store.registerMessageGroupExpiryCallback(new MessageGroupCallback() {
+
+			@Override
+			public void execute(MessageGroupStore messageGroupStore, MessageGroup group) {
+				expired.add(group.getGroupId());
+				messageGroupStore.removeMessageGroup(group.getGroupId());
+			}
+
+		});
+		store.addMessagesToGroup("active", new GenericMessage<String>("foo"), new GenericMessage<String>("bar"));
+		store.addMessagesToGroup("idle", new GenericMessage<String>("foo"));
+		Thread.sleep(100);
+		store.addMessagesToGroup("active", new GenericMessage<String>("baz"));
+		MongoTemplate template = TestUtils.getPropertyValue(store, "mongoTemplate", MongoTemplate.class);
+		Query heads = Query.query(Criteria.where(MessageDocumentFields.GROUP_ID).is("active")
+				.and(MessageDocumentFields.GROUP_HEAD).is(true));
+		assertEquals(1, template.count(heads, ConfigurableMongoDbMessageStore.DEFAULT_COLLECTION_NAME));
+
+		// the stale documents of the active group are not candidates
+		assertEquals(1, store.expireMessageGroups(50, 10));
+		assertEquals("[idle]", expired.toString());
+		assertEquals(3, store.messageGroupSize("active"));
+
+		store.removeMessagesFromGroup("active", store.getMessageGroup("active").getOne());
+		assertEquals(1, template.count(heads, ConfigurableMongoDbMessageStore.DEFAULT_COLLECTION_NAME));
+		assertEquals(0, store.expireMessageGroups(50, 10));
+	}
 
 	public interface TestGateway {
 
@@ -16,7 +16,9 @@
 
 package org.springframework.integration.redis.store;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -62,6 +64,12 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore {
 		return ops.get();
 	}
 
+	@Override
+	protected List<?> doRetrieveAll(List<?> ids) {
+		Assert.notNull(ids, "'ids' must not be null");
+		return this.redisTemplate.opsForValue().multiGet(new ArrayList<Object>(ids));
+	}
+
 
 	@Override
 	protected void doStore(Object id, Object objectToStore) {